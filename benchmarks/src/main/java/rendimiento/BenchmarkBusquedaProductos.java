@@ -0,0 +1,159 @@
+package rendimiento;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import conexion.Conexion;
+import conexion.EsquemaBD;
+import conexion.PoolConexiones;
+import modelo.AlmacenProductos;
+import persistencia.CatalogoProductos;
+
+/**
+ * Búsqueda de productos en caja con el {@link CatalogoProductos} real: código
+ * exacto e ID (índices hash), texto parcial (índice de trigramas) y, como
+ * referencia, el recorrido lineal equivalente a {@code LIKE '%termino%'}.
+ * <p>
+ * El catálogo se carga con {@link CatalogoProductos#cargar()} desde una base
+ * H2 en memoria con el esquema del sistema, igual que en una caja embebida.
+ * Cada valor de {@code productos} corre en su propio fork, así que la
+ * instancia única del catálogo no se comparte entre tamaños.
+ * </p>
+ *
+ * @version 1.1
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class BenchmarkBusquedaProductos {
+
+	/** Tamaño del catálogo. */
+	@Param({ "5000", "50000" })
+	public int productos;
+
+	private CatalogoProductos catalogo;
+	private List<AlmacenProductos> lista;
+	private String codigoExistente;
+	private int idExistente;
+
+	@Setup
+	public void preparar() throws SQLException {
+		String url = "jdbc:h2:mem:benchmark;MODE=MSSQLServer;DB_CLOSE_DELAY=-1";
+		Conexion.usarPool(new PoolConexiones(() -> {
+			try {
+				return DriverManager.getConnection(url, "sa", "");
+			} catch (SQLException e) {
+				System.err.println("❌ Error al abrir la base embebida: " + e.getMessage());
+				return null;
+			}
+		}, 2, 1, 5_000, 30 * 60_000, 30_000, 0));
+
+		Random r = new Random(DatosPrueba.SEMILLA);
+		lista = new ArrayList<>(productos);
+		try (Connection con = Conexion.getConexion()) {
+			EsquemaBD.crear(con);
+			try (PreparedStatement psCategoria = con.prepareStatement("INSERT INTO TablaCategorias(Nombre) VALUES (?)");
+					PreparedStatement psProveedor = con
+							.prepareStatement("INSERT INTO TablaProveedores(NombreP, NumeroTel) VALUES (?, '0000000000')")) {
+				for (int i = 1; i <= 30; i++) {
+					if (i <= 12) {
+						psCategoria.setString(1, "Categoría " + i);
+						psCategoria.addBatch();
+					}
+					psProveedor.setString(1, "Distribuidora " + i);
+					psProveedor.addBatch();
+				}
+				psCategoria.executeBatch();
+				psProveedor.executeBatch();
+			}
+			try (PreparedStatement ps = con.prepareStatement(
+					"INSERT INTO TablaAlmacen_Productos(Nombre, Descripcion, Precio, Codigo, Cantidad, Ruta_Imagen, ProveedorID, CategoriaID, StockMinimo) "
+							+ "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)")) {
+				for (int id = 1; id <= productos; id++) {
+					AlmacenProductos p = DatosPrueba.producto(id, r);
+					lista.add(p);
+					ps.setString(1, p.getNombre());
+					ps.setString(2, p.getDescripcion());
+					ps.setDouble(3, p.getPrecio());
+					ps.setString(4, p.getCodigo());
+					ps.setInt(5, p.getCantidad());
+					ps.setString(6, p.getRuta());
+					ps.setInt(7, p.getProveedorId());
+					ps.setInt(8, p.getCategoriaId());
+					ps.setInt(9, p.getStockMinimo());
+					ps.addBatch();
+				}
+				ps.executeBatch();
+			}
+		}
+
+		catalogo = CatalogoProductos.getInstancia();
+		catalogo.cargar();
+		if (catalogo.getTamano() != productos) {
+			throw new IllegalStateException(
+					"El catálogo cargó " + catalogo.getTamano() + " productos de " + productos + ".");
+		}
+		AlmacenProductos medio = lista.get(productos / 2);
+		codigoExistente = medio.getCodigo();
+		idExistente = catalogo.buscarPorCodigo(codigoExistente).getid();
+	}
+
+	@Benchmark
+	public AlmacenProductos escaneoPorCodigo() {
+		return catalogo.buscarPorCodigo(codigoExistente);
+	}
+
+	@Benchmark
+	public AlmacenProductos escaneoPorID() {
+		return catalogo.buscarPorID(idExistente);
+	}
+
+	@Benchmark
+	public List<AlmacenProductos> nombreUnaPalabra() {
+		return catalogo.buscarPorNombre("costeña");
+	}
+
+	@Benchmark
+	public List<AlmacenProductos> nombreDosPalabras() {
+		return catalogo.buscarPorNombre("leche lala");
+	}
+
+	@Benchmark
+	public List<AlmacenProductos> nombrePrefijoCorto() {
+		return catalogo.buscarPorNombre("caf");
+	}
+
+	/** Referencia: recorrido completo, como {@code WHERE Nombre LIKE '%lala%'}. */
+	@Benchmark
+	public List<Integer> recorridoLineal() {
+		List<Integer> ids = new ArrayList<>();
+		for (AlmacenProductos p : lista) {
+			if (p.getNombre().toLowerCase(Locale.ROOT).contains("lala") && ids.size() < 50) {
+				ids.add(p.getid());
+			}
+		}
+		return ids;
+	}
+}
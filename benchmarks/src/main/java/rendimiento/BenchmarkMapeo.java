@@ -0,0 +1,62 @@
+package rendimiento;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import modelo.AlmacenProductos;
+import modelo.Venta;
+import persistencia.AlmacenProductosDAO;
+
+/**
+ * Conversión de filas: {@code ResultSet} → entidad (carga del catálogo) y
+ * entidad → celdas de {@code JTable} ({@code toTableRow}).
+ *
+ * @version 1.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class BenchmarkMapeo {
+
+	private ResultSet fila;
+	private AlmacenProductos producto;
+	private Venta venta;
+
+	@Setup
+	public void preparar() {
+		producto = DatosPrueba.producto(4_321, new Random(DatosPrueba.SEMILLA));
+		fila = DatosPrueba.filaProducto(producto);
+		venta = DatosPrueba.venta(5);
+	}
+
+	@Benchmark
+	public AlmacenProductos mapearProducto() throws SQLException {
+		return AlmacenProductosDAO.mapearProducto(fila);
+	}
+
+	@Benchmark
+	public Object[] productoToTableRow() {
+		return producto.toTableRow();
+	}
+
+	@Benchmark
+	public Object[] ventaToTableRow() {
+		return venta.toTableRow();
+	}
+}
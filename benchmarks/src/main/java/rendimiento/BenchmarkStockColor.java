@@ -0,0 +1,69 @@
+package rendimiento;
+
+import java.awt.Component;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import javax.swing.JTable;
+import javax.swing.table.DefaultTableModel;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import controlador.StockColor;
+import modelo.AlmacenProductos;
+
+/**
+ * Pintado de celdas de la tabla de inventario con el semáforo de stock.
+ * <p>
+ * Recorre las celdas visibles de una pantalla típica (40 filas × 9 columnas),
+ * como hace Swing al desplazarse por la tabla.
+ * </p>
+ *
+ * @version 1.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 2, jvmArgsAppend = "-Djava.awt.headless=true")
+public class BenchmarkStockColor {
+
+	private static final int FILAS_VISIBLES = 40;
+
+	private JTable tabla;
+	private StockColor renderizador;
+
+	@Setup
+	public void preparar() {
+		Random r = new Random(DatosPrueba.SEMILLA);
+		AlmacenProductos primero = DatosPrueba.producto(1, r);
+		DefaultTableModel modelo = new DefaultTableModel(new Object[primero.toTableRow().length], 0);
+		for (int i = 1; i <= FILAS_VISIBLES; i++) {
+			modelo.addRow(DatosPrueba.producto(i, r).toTableRow());
+		}
+		tabla = new JTable(modelo);
+		renderizador = new StockColor();
+	}
+
+	@Benchmark
+	public Component pintarPantalla() {
+		Component ultimo = null;
+		for (int fila = 0; fila < FILAS_VISIBLES; fila++) {
+			for (int columna = 0; columna < tabla.getColumnCount(); columna++) {
+				ultimo = renderizador.getTableCellRendererComponent(tabla, tabla.getValueAt(fila, columna), false,
+						false, fila, columna);
+			}
+		}
+		return ultimo;
+	}
+}
@@ -0,0 +1,53 @@
+package rendimiento;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import modelo.Ticket;
+import modelo.Venta;
+
+/**
+ * Cálculo de totales y generación del ticket de texto al cerrar una venta.
+ *
+ * @version 1.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class BenchmarkTicket {
+
+	/** Renglones del ticket: compra chica, típica y de mayoreo. */
+	@Param({ "5", "50", "200" })
+	public int lineas;
+
+	private Venta venta;
+
+	@Setup
+	public void preparar() {
+		venta = DatosPrueba.venta(lineas);
+	}
+
+	@Benchmark
+	public String generarTextoTicket() {
+		return new Ticket(venta).generarTextoTicket();
+	}
+
+	@Benchmark
+	public double recalcularSubtotal() {
+		return venta.recalcularSubtotal();
+	}
+}
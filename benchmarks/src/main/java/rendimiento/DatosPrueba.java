@@ -0,0 +1,106 @@
+package rendimiento;
+
+import java.lang.reflect.Proxy;
+import java.sql.ResultSet;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import modelo.AlmacenProductos;
+import modelo.Venta;
+import modelo.VentaDetalle;
+
+/**
+ * Datos sintéticos y deterministas para los benchmarks.
+ * <p>
+ * Todas las generaciones usan una semilla fija, de modo que dos corridas (o dos
+ * versiones del sistema) miden exactamente el mismo trabajo.
+ * </p>
+ *
+ * @version 1.0
+ */
+final class DatosPrueba {
+
+	static final long SEMILLA = 20240501L;
+
+	private static final String[] MARCAS = { "Coca Cola", "Bimbo", "Lala", "Sabritas", "Gamesa", "Herdez",
+			"La Costeña", "Nestlé", "Jumex", "Del Valle", "Maruchan", "Fud" };
+
+	private static final String[] TIPOS = { "Refresco", "Pan Blanco", "Leche Entera", "Papas", "Galletas", "Salsa",
+			"Chiles", "Café", "Jugo", "Néctar", "Sopa", "Jamón" };
+
+	private static final String[] PRESENTACIONES = { "600 ml", "1 L", "2 L", "45 g", "170 g", "680 g", "1 kg",
+			"Paquete", "Lata", "Caja" };
+
+	private DatosPrueba() {
+	}
+
+	/**
+	 * Nombre de producto realista (tipo, marca y presentación).
+	 */
+	static String nombreProducto(Random r) {
+		return TIPOS[r.nextInt(TIPOS.length)] + " " + MARCAS[r.nextInt(MARCAS.length)] + " "
+				+ PRESENTACIONES[r.nextInt(PRESENTACIONES.length)];
+	}
+
+	/**
+	 * Crea un producto con datos completos (incluye nombres de proveedor y
+	 * categoría).
+	 */
+	static AlmacenProductos producto(int id, Random r) {
+		return new AlmacenProductos(id, nombreProducto(r), "Producto de prueba " + id, 5 + r.nextInt(20_000) / 100.0,
+				String.format("75%011d", id), r.nextInt(200), "img/" + id + ".png", 1 + r.nextInt(12), "Abarrotes",
+				1 + r.nextInt(30), "Distribuidora " + r.nextInt(30), 5 + r.nextInt(20));
+	}
+
+	/**
+	 * Crea una venta con {@code lineas} renglones y totales calculados.
+	 */
+	static Venta venta(int lineas) {
+		Random r = new Random(SEMILLA);
+		Venta venta = new Venta();
+		venta.setid(123_456);
+		venta.setFecha(new Date(1_714_560_000_000L));
+		venta.setNombreCliente("Público en General");
+		venta.setNombreEmpleado("Cajero de Prueba");
+		venta.setMetodoPago("Efectivo");
+		for (int i = 0; i < lineas; i++) {
+			venta.agregarDetalle(new VentaDetalle(i + 1, nombreProducto(r), "Descripción " + i, 1 + r.nextInt(5),
+					5 + r.nextInt(20_000) / 100.0));
+		}
+		double subtotal = venta.recalcularSubtotal();
+		venta.setImpuestos(subtotal * 0.16);
+		venta.setTotal(subtotal * 1.16);
+		return venta;
+	}
+
+	/**
+	 * Fila de {@code ResultSet} en memoria con las columnas que lee
+	 * {@code AlmacenProductosDAO.mapearProducto}.
+	 * <p>
+	 * Evita medir al driver JDBC y a la red: sólo queda el costo del mapeo.
+	 * </p>
+	 */
+	static ResultSet filaProducto(AlmacenProductos p) {
+		Map<String, Object> columnas = new HashMap<>();
+		columnas.put("Pid", p.getid());
+		columnas.put("Nombre", p.getNombre());
+		columnas.put("Descripcion", p.getDescripcion());
+		columnas.put("Precio", p.getPrecio());
+		columnas.put("Codigo", p.getCodigo());
+		columnas.put("Cantidad", p.getCantidad());
+		columnas.put("Ruta_Imagen", p.getRuta());
+		columnas.put("CategoriaID", p.getCategoriaId());
+		columnas.put("NombreCategoria", p.getCategoriaNombre());
+		columnas.put("ProveedorID", p.getProveedorId());
+		columnas.put("NombreP", p.getProveedorNombre());
+		columnas.put("StockMinimo", p.getStockMinimo());
+
+		return (ResultSet) Proxy.newProxyInstance(DatosPrueba.class.getClassLoader(), new Class<?>[] { ResultSet.class },
+				(proxy, metodo, args) -> switch (metodo.getName()) {
+				case "getInt", "getString", "getDouble" -> columnas.get((String) args[0]);
+				default -> throw new UnsupportedOperationException(metodo.getName());
+				});
+	}
+}
@@ -0,0 +1,13 @@
+-- =============================================================
+-- Índice de ventas devueltas para el motor analítico
+-- =============================================================
+-- MotorAnalitico busca periódicamente las devoluciones de las ventas que
+-- ya tiene en memoria (ClienteID nulo). Con este índice filtrado la
+-- búsqueda lee sólo las ventas devueltas, que son pocas, en lugar de
+-- recorrer todo el rango de folios.
+-- Script idempotente: puede ejecutarse varias veces.
+
+IF NOT EXISTS (SELECT 1 FROM sys.indexes WHERE name = 'IX_Ventas_Devueltas')
+    CREATE INDEX IX_Ventas_Devueltas ON TablaVentas (VentaID) INCLUDE (FechaVenta)
+        WHERE ClienteID IS NULL;
+GO
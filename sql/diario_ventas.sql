@@ -0,0 +1,17 @@
+-- =============================================================
+-- Clave de idempotencia para el diario local de ventas
+-- =============================================================
+-- Las ventas que pasan por el diario de la caja (DiarioVentas) llevan una
+-- clave única. Si un envío se repite tras un corte (la venta llegó al
+-- servidor pero la caja no alcanzó a registrarlo), VentaDAO encuentra la
+-- clave y no duplica la venta.
+-- Script idempotente: puede ejecutarse varias veces.
+
+IF COL_LENGTH('TablaVentas', 'ClaveIdempotencia') IS NULL
+    ALTER TABLE TablaVentas ADD ClaveIdempotencia CHAR(36) NULL;
+GO
+
+IF NOT EXISTS (SELECT 1 FROM sys.indexes WHERE name = 'UX_Ventas_ClaveIdempotencia')
+    CREATE UNIQUE INDEX UX_Ventas_ClaveIdempotencia ON TablaVentas (ClaveIdempotencia)
+        WHERE ClaveIdempotencia IS NOT NULL;
+GO
@@ -0,0 +1,32 @@
+-- =============================================================
+-- Índices para la paginación por cursor (BaseDAO.buscarPagina)
+-- =============================================================
+-- Cada consulta paginada ordena por (campo, clave) y continúa con
+-- "campo > ? OR (campo = ? AND clave > ?)". Con estos índices SQL Server
+-- resuelve cada página con un seek, sin importar el tamaño de la tabla.
+-- Script idempotente: puede ejecutarse varias veces.
+
+IF NOT EXISTS (SELECT 1 FROM sys.indexes WHERE name = 'IX_Clientes_Nombre')
+    CREATE INDEX IX_Clientes_Nombre ON TablaClientes (NombreC, Cid) INCLUDE (NumeroTel);
+
+IF NOT EXISTS (SELECT 1 FROM sys.indexes WHERE name = 'IX_Proveedores_Nombre')
+    CREATE INDEX IX_Proveedores_Nombre ON TablaProveedores (NombreP, Pid) INCLUDE (NumeroTel);
+
+IF NOT EXISTS (SELECT 1 FROM sys.indexes WHERE name = 'IX_Empleados_Nombre')
+    CREATE INDEX IX_Empleados_Nombre ON TablaEmpleados (NombreE, Eid);
+
+IF NOT EXISTS (SELECT 1 FROM sys.indexes WHERE name = 'IX_Productos_Nombre')
+    CREATE INDEX IX_Productos_Nombre ON TablaAlmacen_Productos (Nombre, Pid);
+
+IF NOT EXISTS (SELECT 1 FROM sys.indexes WHERE name = 'IX_Productos_Codigo')
+    CREATE INDEX IX_Productos_Codigo ON TablaAlmacen_Productos (Codigo);
+
+IF NOT EXISTS (SELECT 1 FROM sys.indexes WHERE name = 'IX_OrdenesCompra_Fecha')
+    CREATE INDEX IX_OrdenesCompra_Fecha ON TablaOrdenesCompra (Fecha, OrdenID) INCLUDE (ProveedorID, Status);
+
+IF NOT EXISTS (SELECT 1 FROM sys.indexes WHERE name = 'IX_MovimientosCaja_Corte')
+    CREATE INDEX IX_MovimientosCaja_Corte ON TablaMovimientosCaja (CorteID, MovimientoID);
+
+IF NOT EXISTS (SELECT 1 FROM sys.indexes WHERE name = 'IX_MovimientosCaja_Fecha')
+    CREATE INDEX IX_MovimientosCaja_Fecha ON TablaMovimientosCaja (Fecha, MovimientoID);
+GO
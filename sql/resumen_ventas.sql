@@ -0,0 +1,61 @@
+-- =============================================================
+-- Resúmenes diarios de ventas (ResumenVentasDAO)
+-- =============================================================
+-- Totales pre-sumados por día × empleado × método de pago y por
+-- día × producto. VentaDAO los actualiza en la misma transacción de cada
+-- venta y devolución, así los reportes del mes y del año leen unos cientos
+-- de filas en lugar de recorrer todas las ventas.
+-- Las ventas devueltas (ClienteID nulo) no se cuentan.
+-- Script idempotente: puede ejecutarse varias veces. La carga inicial sólo
+-- se hace si las tablas están vacías; para recalcular un rango después,
+-- usar main.ReconstruirResumenes.
+
+IF OBJECT_ID('TablaResumenVentasDia', 'U') IS NULL
+    CREATE TABLE TablaResumenVentasDia (
+        Fecha DATE NOT NULL,
+        EmpleadoID INT NOT NULL,
+        MetodoPago NVARCHAR(20) NOT NULL,
+        NumVentas INT NOT NULL,
+        Subtotal DECIMAL(14,2) NOT NULL,
+        Descuento DECIMAL(14,2) NOT NULL,
+        Impuestos DECIMAL(14,2) NOT NULL,
+        Total DECIMAL(14,2) NOT NULL,
+        CONSTRAINT PK_ResumenVentasDia PRIMARY KEY (Fecha, EmpleadoID, MetodoPago)
+    );
+GO
+
+IF OBJECT_ID('TablaResumenProductosDia', 'U') IS NULL
+    CREATE TABLE TablaResumenProductosDia (
+        Fecha DATE NOT NULL,
+        ProductoID INT NOT NULL,
+        CategoriaID INT NOT NULL,
+        Cantidad INT NOT NULL,
+        Importe DECIMAL(14,2) NOT NULL,
+        CONSTRAINT PK_ResumenProductosDia PRIMARY KEY (Fecha, ProductoID)
+    );
+GO
+
+IF NOT EXISTS (SELECT 1 FROM sys.indexes WHERE name = 'IX_ResumenProductos_Categoria')
+    CREATE INDEX IX_ResumenProductos_Categoria ON TablaResumenProductosDia (CategoriaID, Fecha)
+        INCLUDE (Cantidad, Importe);
+GO
+
+-- Carga inicial del historial
+IF NOT EXISTS (SELECT 1 FROM TablaResumenVentasDia)
+    INSERT INTO TablaResumenVentasDia (Fecha, EmpleadoID, MetodoPago, NumVentas, Subtotal, Descuento, Impuestos, Total)
+    SELECT CAST(FechaVenta AS DATE), EmpleadoID, COALESCE(MetodoPago, 'Otro'),
+           COUNT(*), SUM(Subtotal), SUM(Descuento), SUM(Impuestos), SUM(Total)
+    FROM TablaVentas
+    WHERE ClienteID IS NOT NULL
+    GROUP BY CAST(FechaVenta AS DATE), EmpleadoID, COALESCE(MetodoPago, 'Otro');
+GO
+
+IF NOT EXISTS (SELECT 1 FROM TablaResumenProductosDia)
+    INSERT INTO TablaResumenProductosDia (Fecha, ProductoID, CategoriaID, Cantidad, Importe)
+    SELECT CAST(v.FechaVenta AS DATE), d.ProductoID, p.CategoriaID, SUM(d.Cantidad), SUM(d.Subtotal)
+    FROM TablaVentaDetalle d
+    JOIN TablaVentas v ON d.VentaID = v.VentaID
+    JOIN TablaAlmacen_Productos p ON d.ProductoID = p.Pid
+    WHERE v.ClienteID IS NOT NULL
+    GROUP BY CAST(v.FechaVenta AS DATE), d.ProductoID, p.CategoriaID;
+GO
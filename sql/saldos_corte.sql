@@ -0,0 +1,45 @@
+-- =============================================================
+-- Saldos acumulados por turno de caja (SaldoCorteDAO)
+-- =============================================================
+-- Una fila por corte con las ventas por método de pago, los ingresos y
+-- egresos manuales y el efectivo esperado en caja. VentaDAO y
+-- MovimientoCajaDAO la actualizan en la misma transacción de cada venta,
+-- devolución y movimiento, así el cierre de caja lee una sola fila.
+-- Script idempotente: puede ejecutarse varias veces. Los turnos que no
+-- tengan fila se inicializan solos la primera vez que se consultan; la
+-- carga de abajo sólo adelanta ese trabajo para los turnos abiertos.
+
+IF OBJECT_ID('TablaSaldosCorte', 'U') IS NULL
+    CREATE TABLE TablaSaldosCorte (
+        CorteID INT NOT NULL PRIMARY KEY REFERENCES TablaCortesCaja (CorteID),
+        NumVentas INT NOT NULL,
+        VentasEfectivo DECIMAL(14,2) NOT NULL,
+        VentasTarjeta DECIMAL(14,2) NOT NULL,
+        VentasOtros DECIMAL(14,2) NOT NULL,
+        Ingresos DECIMAL(14,2) NOT NULL,
+        Egresos DECIMAL(14,2) NOT NULL,
+        EfectivoEsperado DECIMAL(14,2) NOT NULL,
+        Version BIGINT NOT NULL
+    );
+GO
+
+-- Carga inicial de los turnos abiertos
+INSERT INTO TablaSaldosCorte (CorteID, NumVentas, VentasEfectivo, VentasTarjeta, VentasOtros, Ingresos, Egresos,
+                              EfectivoEsperado, Version)
+SELECT c.CorteID, COALESCE(v.NumVentas, 0), COALESCE(v.Efectivo, 0), COALESCE(v.Tarjeta, 0), COALESCE(v.Otros, 0),
+       COALESCE(m.Ingresos, 0), COALESCE(m.Egresos, 0),
+       c.MontoInicial + COALESCE(v.Efectivo, 0) + COALESCE(m.Ingresos, 0) - COALESCE(m.Egresos, 0), 1
+FROM TablaCortesCaja c
+LEFT JOIN (SELECT CorteID,
+                  SUM(CASE WHEN ClienteID IS NULL THEN 0 ELSE 1 END) AS NumVentas,
+                  SUM(CASE WHEN MetodoPago = 'Efectivo' THEN Total ELSE 0 END) AS Efectivo,
+                  SUM(CASE WHEN MetodoPago = 'Tarjeta' THEN Total ELSE 0 END) AS Tarjeta,
+                  SUM(CASE WHEN MetodoPago IN ('Efectivo', 'Tarjeta') THEN 0 ELSE Total END) AS Otros
+           FROM TablaVentas GROUP BY CorteID) v ON v.CorteID = c.CorteID
+LEFT JOIN (SELECT CorteID,
+                  SUM(CASE WHEN TipoMovimiento = 'Egreso' THEN 0 ELSE Monto END) AS Ingresos,
+                  SUM(CASE WHEN TipoMovimiento = 'Egreso' THEN Monto ELSE 0 END) AS Egresos
+           FROM TablaMovimientosCaja GROUP BY CorteID) m ON m.CorteID = c.CorteID
+WHERE c.Status = 'Abierto'
+  AND NOT EXISTS (SELECT 1 FROM TablaSaldosCorte s WHERE s.CorteID = c.CorteID);
+GO
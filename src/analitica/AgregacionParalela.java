@@ -0,0 +1,175 @@
+package analitica;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Agregación de un conjunto de {@link Segmento}s con fork-join.
+ * <p>
+ * La tarea se divide a la mitad mientras cubra más de
+ * {@value #LINEAS_POR_TAREA} renglones; cada hoja recorre sus segmentos
+ * secuencialmente sobre arreglos propios y los resultados parciales se suman
+ * al unir. No hay estado compartido entre hilos.
+ * </p>
+ * <p>
+ * Los segmentos nunca se parten: todos los renglones de una venta quedan en la
+ * misma hoja, lo que permite contar ventas sin un conjunto de IDs.
+ * </p>
+ *
+ * @version 1.1
+ */
+final class AgregacionParalela extends RecursiveTask<AgregacionParalela.Parcial> {
+
+	private static final long serialVersionUID = 1L;
+
+	/** Tamaño mínimo de trabajo que justifica repartir entre núcleos. */
+	private static final int LINEAS_POR_TAREA = 50_000;
+
+	/** Totales por código de grupo. */
+	static final class Parcial {
+		final long[] ventas;
+		final long[] unidades;
+		final long[] importe;
+		long lineas;
+
+		Parcial(int grupos) {
+			ventas = new long[grupos];
+			unidades = new long[grupos];
+			importe = new long[grupos];
+		}
+
+		Parcial sumar(Parcial otro) {
+			for (int g = 0; g < ventas.length; g++) {
+				ventas[g] += otro.ventas[g];
+				unidades[g] += otro.unidades[g];
+				importe[g] += otro.importe[g];
+			}
+			lineas += otro.lineas;
+			return this;
+		}
+	}
+
+	/**
+	 * Parámetros comunes a todas las subtareas de una consulta.
+	 */
+	static final class Plan {
+		Dimension dimension;
+		int grupos;
+		int diaBase;
+		int mesBase;
+		int horaDesde;
+		int horaHasta;
+		/** Código exigido por dimensión codificada, o {@code -1} sin filtro. */
+		int metodoPago = -1, empleado = -1, categoria = -1, producto = -1;
+	}
+
+	private final transient Segmento[] segmentos;
+	private final int desde;
+	private final int hasta;
+	private final long lineas;
+	private final transient Plan plan;
+
+	AgregacionParalela(Segmento[] segmentos, int desde, int hasta, Plan plan) {
+		this.segmentos = segmentos;
+		this.desde = desde;
+		this.hasta = hasta;
+		this.plan = plan;
+		long total = 0;
+		for (int s = desde; s < hasta; s++) {
+			total += segmentos[s].lineas;
+		}
+		this.lineas = total;
+	}
+
+	@Override
+	protected Parcial compute() {
+		if (hasta - desde > 1 && lineas > LINEAS_POR_TAREA) {
+			int medio = (desde + hasta) >>> 1;
+			AgregacionParalela izquierda = new AgregacionParalela(segmentos, desde, medio, plan);
+			AgregacionParalela derecha = new AgregacionParalela(segmentos, medio, hasta, plan);
+			izquierda.fork();
+			return derecha.compute().sumar(izquierda.join());
+		}
+		Parcial parcial = new Parcial(plan.grupos);
+		int[] grupo = new int[0];
+		int[] ultimaVenta = new int[plan.grupos];
+		for (int s = desde; s < hasta; s++) {
+			Segmento seg = segmentos[s];
+			if (grupo.length < seg.lineas) {
+				grupo = new int[seg.lineas];
+			}
+			calcularGrupos(seg, grupo);
+			agregar(seg, grupo, ultimaVenta, parcial);
+		}
+		return parcial;
+	}
+
+	/**
+	 * Llena {@code grupo[i]} con el código de grupo de cada renglón. Un ciclo
+	 * por dimensión, sin decisiones dentro del ciclo.
+	 */
+	private void calcularGrupos(Segmento seg, int[] grupo) {
+		int n = seg.lineas;
+		switch (plan.dimension) {
+		case HORA:
+			for (int i = 0; i < n; i++) {
+				grupo[i] = seg.hora[i];
+			}
+			break;
+		case EMPLEADO:
+			for (int i = 0; i < n; i++) {
+				grupo[i] = seg.empleado[i];
+			}
+			break;
+		case METODO_PAGO:
+			for (int i = 0; i < n; i++) {
+				grupo[i] = seg.metodoPago[i];
+			}
+			break;
+		case CATEGORIA:
+			for (int i = 0; i < n; i++) {
+				grupo[i] = seg.categoria[i];
+			}
+			break;
+		case PRODUCTO:
+			System.arraycopy(seg.producto, 0, grupo, 0, n);
+			break;
+		default:
+			// Dimensiones del día completo: un solo valor para todo el segmento
+			int valor;
+			if (plan.dimension == Dimension.DIA_SEMANA) {
+				valor = seg.diaSemana;
+			} else if (plan.dimension == Dimension.DIA) {
+				valor = seg.dia - plan.diaBase;
+			} else {
+				LocalDate fecha = LocalDate.ofEpochDay(seg.dia);
+				valor = fecha.getYear() * 12 + fecha.getMonthValue() - 1 - plan.mesBase;
+			}
+			Arrays.fill(grupo, 0, n, valor);
+		}
+	}
+
+	private void agregar(Segmento seg, int[] grupo, int[] ultimaVenta, Parcial parcial) {
+		Plan p = plan;
+		boolean hayAnuladas = !seg.anuladas.isEmpty();
+		for (int i = 0; i < seg.lineas; i++) {
+			if (seg.hora[i] < p.horaDesde || seg.hora[i] > p.horaHasta
+					|| (p.metodoPago >= 0 && seg.metodoPago[i] != p.metodoPago)
+					|| (p.empleado >= 0 && seg.empleado[i] != p.empleado)
+					|| (p.categoria >= 0 && seg.categoria[i] != p.categoria)
+					|| (p.producto >= 0 && seg.producto[i] != p.producto) || (hayAnuladas && seg.anuladas.get(i))) {
+				continue;
+			}
+			int g = grupo[i];
+			// Una venta cuenta una vez por grupo aunque tenga varios renglones en él
+			if (ultimaVenta[g] != seg.venta[i]) {
+				ultimaVenta[g] = seg.venta[i];
+				parcial.ventas[g]++;
+			}
+			parcial.unidades[g] += seg.cantidad[i];
+			parcial.importe[g] += seg.importe[i];
+		}
+		parcial.lineas += seg.lineas;
+	}
+}
@@ -0,0 +1,97 @@
+package analitica;
+
+import java.time.LocalDate;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Pregunta al {@link MotorAnalitico}: "ventas de tal periodo, agrupadas por
+ * tal dimensión, sólo de tales valores".
+ * <p>
+ * Se construye de forma encadenada:
+ * </p>
+ *
+ * <pre>
+ * ConsultaAnalitica c = new ConsultaAnalitica(desde, hasta, Dimension.HORA)
+ * 		.filtrar(Dimension.METODO_PAGO, "Efectivo").entreHoras(12, 16);
+ * </pre>
+ *
+ * @version 1.0
+ */
+public class ConsultaAnalitica {
+
+	private final LocalDate desde;
+	private final LocalDate hasta;
+	private final Dimension agruparPor;
+	private final Map<Dimension, String> filtros = new EnumMap<>(Dimension.class);
+	private int horaDesde = 0;
+	private int horaHasta = 23;
+
+	/**
+	 * @param desde      Primer día (inclusive).
+	 * @param hasta      Último día (inclusive).
+	 * @param agruparPor Dimensión de los renglones del resultado.
+	 */
+	public ConsultaAnalitica(LocalDate desde, LocalDate hasta, Dimension agruparPor) {
+		if (hasta.isBefore(desde)) {
+			throw new IllegalArgumentException("La fecha final es anterior a la inicial.");
+		}
+		this.desde = desde;
+		this.hasta = hasta;
+		this.agruparPor = agruparPor;
+	}
+
+	/**
+	 * Limita el resultado a un valor de una dimensión codificada.
+	 *
+	 * @param dimension Dimensión ({@link Dimension#isCodificada()}).
+	 * @param etiqueta  Valor tal como se muestra (ej. "Tarjeta", nombre de la
+	 *                  categoría).
+	 * @return Esta misma consulta, para encadenar.
+	 */
+	public ConsultaAnalitica filtrar(Dimension dimension, String etiqueta) {
+		if (!dimension.isCodificada()) {
+			throw new IllegalArgumentException("No se puede filtrar por " + dimension.getNombre() + ".");
+		}
+		filtros.put(dimension, etiqueta);
+		return this;
+	}
+
+	/**
+	 * Limita el resultado a un rango de horas del día.
+	 *
+	 * @param desde Primera hora (0-23, inclusive).
+	 * @param hasta Última hora (0-23, inclusive).
+	 * @return Esta misma consulta, para encadenar.
+	 */
+	public ConsultaAnalitica entreHoras(int desde, int hasta) {
+		this.horaDesde = Math.max(0, desde);
+		this.horaHasta = Math.min(23, hasta);
+		return this;
+	}
+
+	public LocalDate getDesde() {
+		return desde;
+	}
+
+	public LocalDate getHasta() {
+		return hasta;
+	}
+
+	public Dimension getAgruparPor() {
+		return agruparPor;
+	}
+
+	public Map<Dimension, String> getFiltros() {
+		return Collections.unmodifiableMap(filtros);
+	}
+
+	public int getHoraDesde() {
+		return horaDesde;
+	}
+
+	public int getHoraHasta() {
+		return horaHasta;
+	}
+}
@@ -0,0 +1,115 @@
+package analitica;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Codificación por diccionario de una dimensión (empleado, categoría, producto,
+ * método de pago).
+ * <p>
+ * Cada valor distinto recibe un código entero consecutivo (0, 1, 2...), que es
+ * lo que guardan las columnas de los {@link Segmento}s. Así una columna ocupa 2
+ * o 4 bytes por renglón en lugar de una referencia a un {@code String}, y una
+ * agregación puede usar el código directamente como índice de un arreglo.
+ * </p>
+ * <p>
+ * <b>Concurrencia:</b> los códigos sólo se agregan (nunca cambian), y el
+ * cargador es el único que escribe. Las etiquetas se pueden leer desde
+ * cualquier hilo.
+ * </p>
+ *
+ * @param <K> Tipo de la clave en la BD (ej. {@code Integer} para IDs,
+ *            {@code String} para el método de pago).
+ * @version 1.0
+ */
+public class Diccionario<K> {
+
+	private final Map<K, Integer> codigos = new HashMap<>();
+	private volatile String[] etiquetas = new String[16];
+	private volatile int tamano = 0;
+
+	/**
+	 * Devuelve el código de una clave, asignándole uno nuevo si no existía.
+	 *
+	 * @param clave    Valor en la BD.
+	 * @param etiqueta Texto a mostrar para ese valor (sólo se usa la primera vez,
+	 *                 o al llamar a {@link #renombrar}).
+	 * @return Código del valor.
+	 */
+	public synchronized int codificar(K clave, String etiqueta) {
+		Integer codigo = codigos.get(clave);
+		if (codigo != null) {
+			return codigo;
+		}
+		int nuevo = tamano;
+		String[] actuales = etiquetas;
+		if (nuevo == actuales.length) {
+			actuales = Arrays.copyOf(actuales, nuevo * 2);
+		}
+		actuales[nuevo] = etiqueta;
+		codigos.put(clave, nuevo);
+		etiquetas = actuales;
+		tamano = nuevo + 1; // Se publica al final: quien lea el tamaño ya ve la etiqueta
+		return nuevo;
+	}
+
+	/**
+	 * Código de una clave ya registrada.
+	 *
+	 * @param clave Valor en la BD.
+	 * @return Código, o {@code -1} si no existe.
+	 */
+	public synchronized int buscar(K clave) {
+		Integer codigo = codigos.get(clave);
+		return (codigo == null) ? -1 : codigo;
+	}
+
+	/**
+	 * Código de un valor a partir del texto que se muestra (ej. para un filtro
+	 * elegido en pantalla). Recorre el diccionario.
+	 *
+	 * @param etiqueta Texto a buscar.
+	 * @return Código del primer valor con esa etiqueta, o {@code -1}.
+	 */
+	public int buscarEtiqueta(String etiqueta) {
+		int n = tamano; // Primero el tamaño: el arreglo leído después ya lo cubre
+		String[] actuales = etiquetas;
+		for (int i = 0; i < n; i++) {
+			if (etiqueta.equals(actuales[i])) {
+				return i;
+			}
+		}
+		return -1;
+	}
+
+	/**
+	 * Actualiza el texto de una clave ya registrada (ej. un producto
+	 * renombrado).
+	 *
+	 * @param clave    Valor en la BD.
+	 * @param etiqueta Nuevo texto.
+	 */
+	public synchronized void renombrar(K clave, String etiqueta) {
+		Integer codigo = codigos.get(clave);
+		if (codigo != null) {
+			etiquetas[codigo] = etiqueta;
+		}
+	}
+
+	/**
+	 * @param codigo Código asignado.
+	 * @return Texto a mostrar.
+	 */
+	public String etiqueta(int codigo) {
+		return etiquetas[codigo];
+	}
+
+	/**
+	 * @return Número de valores registrados (los códigos van de 0 a
+	 *         {@code tamano - 1}).
+	 */
+	public int getTamano() {
+		return tamano;
+	}
+}
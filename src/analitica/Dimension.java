@@ -0,0 +1,46 @@
+package analitica;
+
+/**
+ * Dimensiones por las que se pueden agrupar o filtrar las ventas en el
+ * {@link MotorAnalitico}.
+ *
+ * @version 1.0
+ */
+public enum Dimension {
+
+	HORA("Hora del día"),
+	DIA_SEMANA("Día de la semana"),
+	DIA("Día"),
+	MES("Mes"),
+	CATEGORIA("Categoría"),
+	PRODUCTO("Producto"),
+	EMPLEADO("Empleado"),
+	METODO_PAGO("Método de pago");
+
+	private final String nombre;
+
+	Dimension(String nombre) {
+		this.nombre = nombre;
+	}
+
+	/**
+	 * @return Nombre para mostrar en pantalla.
+	 */
+	public String getNombre() {
+		return nombre;
+	}
+
+	/**
+	 * @return {@code true} si el valor se guarda codificado en un
+	 *         {@link Diccionario} (y por lo tanto se puede filtrar por
+	 *         etiqueta).
+	 */
+	public boolean isCodificada() {
+		return this == CATEGORIA || this == PRODUCTO || this == EMPLEADO || this == METODO_PAGO;
+	}
+
+	@Override
+	public String toString() {
+		return nombre;
+	}
+}
@@ -0,0 +1,568 @@
+package analitica;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.TextStyle;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.NavigableSet;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import conexion.Conexion;
+import conexion.Configuracion;
+import eventos.BusEventos;
+import eventos.EventoCaja;
+import eventos.MovimientoCajaRegistrado;
+
+/**
+ * Motor de análisis de ventas en memoria, organizado por columnas.
+ * <p>
+ * Carga los renglones de venta ({@code TablaVentas} × {@code TablaVentaDetalle})
+ * de los últimos {@code pos.analitica.dias} días en {@link Segmento}s de un día,
+ * con las dimensiones (empleado, producto, categoría, método de pago)
+ * codificadas en {@link Diccionario}s. Una {@link ConsultaAnalitica} cualquiera
+ * (por hora, categoría, empleado, método de pago...) se responde recorriendo
+ * esos arreglos en paralelo con {@link AgregacionParalela}, sin escribir una
+ * consulta SQL nueva para cada pregunta.
+ * </p>
+ * <p>
+ * <b>Actualización incremental:</b> {@link #actualizar()} lee sólo las ventas
+ * con folio mayor al último cargado y las agrega al segmento de su día. Como
+ * una venta con folio menor puede confirmarse después que otra con folio mayor
+ * (cajas concurrentes), también vuelve a revisar los últimos
+ * {@code pos.analitica.ventanaFolios} folios y agrega los que faltaban. Las
+ * devoluciones hechas después de cargar una venta marcan sus renglones como
+ * anulados. Con {@link #cargarEnSegundoPlano()} esto se repite cada
+ * {@code pos.analitica.refrescoSeg} segundos (para las ventas de otras cajas)
+ * y, además, poco después de cada venta o devolución de esta caja publicada en
+ * el {@link BusEventos}.
+ * </p>
+ * <p>
+ * <b>Concurrencia:</b> un solo hilo escribe a la vez (métodos
+ * {@code synchronized}); los segmentos son inmutables y se reemplazan
+ * completos, así que las consultas nunca esperan a la carga ni ven un día a
+ * medias.
+ * </p>
+ * <p>
+ * <b>Memoria:</b> unos 26 bytes por renglón de venta (un año con 7 millones de
+ * renglones ≈ 180 MB).
+ * </p>
+ *
+ * @version 1.2
+ */
+public class MotorAnalitico {
+
+	/** Instancia única compartida por todas las pantallas. */
+	private static final MotorAnalitico INSTANCIA = new MotorAnalitico();
+
+	/** Método de pago con el que se agrupan las ventas que no lo registran. */
+	private static final String METODO_DESCONOCIDO = "Otro";
+
+	/** Filas que el driver trae por viaje a la BD durante la carga. */
+	private static final int FILAS_POR_LECTURA = 5_000;
+
+	/** Espera tras un evento de venta, para juntar varias ventas en una lectura. */
+	private static final long ESPERA_EVENTOS_MS = 1_000;
+
+	private static final String SQL_RENGLONES = "SELECT v.VentaID, v.FechaVenta, v.EmpleadoID, v.MetodoPago, "
+			+ "d.ProductoID, d.Cantidad, d.Subtotal "
+			+ "FROM TablaVentas v JOIN TablaVentaDetalle d ON d.VentaID = v.VentaID ";
+
+	/** Días hacia atrás que se mantienen en memoria. */
+	private final int diasEnMemoria = Configuracion.getEntero("pos.analitica.dias", 366);
+
+	/** Día (desde 1970-01-01) → segmento. */
+	private final ConcurrentSkipListMap<Integer, Segmento> segmentos = new ConcurrentSkipListMap<>();
+
+	private final Diccionario<Integer> empleados = new Diccionario<>();
+	private final Diccionario<Integer> productos = new Diccionario<>();
+	private final Diccionario<Integer> categorias = new Diccionario<>();
+	private final Diccionario<String> metodosPago = new Diccionario<>();
+
+	/** Código de producto → código de su categoría. */
+	private volatile int[] categoriaDeProducto = new int[0];
+
+	/** Folio más alto cargado; las actualizaciones leen a partir de él. */
+	private int ultimaVenta = 0;
+
+	/**
+	 * Folios por debajo de {@link #ultimaVenta} que se vuelven a revisar, para
+	 * recoger las ventas confirmadas tarde.
+	 */
+	private final int ventanaFolios = Configuracion.getEntero("pos.analitica.ventanaFolios", 1_000);
+
+	/** Ventas ya cargadas dentro de la ventana de revisión (no se vuelven a agregar). */
+	private final NavigableSet<Integer> ventasRecientes = new TreeSet<>();
+
+	/** Primer folio cargado (para buscar devoluciones sólo en lo cargado). */
+	private int primeraVenta = Integer.MAX_VALUE;
+
+	/** Devoluciones ya aplicadas a los segmentos. */
+	private final Set<Integer> anuladasAplicadas = new HashSet<>();
+
+	private volatile boolean cargado = false;
+	private volatile long ultimaActualizacion = 0;
+
+	private final ScheduledExecutorService refresco = Executors.newSingleThreadScheduledExecutor(r -> {
+		Thread hilo = new Thread(r, "motor-analitico-refresco");
+		hilo.setDaemon(true);
+		hilo.setPriority(Thread.MIN_PRIORITY);
+		return hilo;
+	});
+
+	private volatile boolean refrescoProgramado = false;
+
+	/** Hay una actualización programada por eventos que aún no corre. */
+	private final AtomicBoolean actualizacionPendiente = new AtomicBoolean();
+
+	/**
+	 * Constructor privado (Singleton).
+	 */
+	private MotorAnalitico() {
+	}
+
+	/**
+	 * Obtiene la instancia compartida del motor.
+	 *
+	 * @return Instancia única.
+	 */
+	public static MotorAnalitico getInstancia() {
+		return INSTANCIA;
+	}
+
+	// ==========================================
+	// CARGA
+	// ==========================================
+
+	/**
+	 * Carga desde cero las ventas de los últimos {@code pos.analitica.dias} días.
+	 * Operación bloqueante (llamar fuera del EDT).
+	 *
+	 * @throws SQLException Si falla la lectura.
+	 */
+	public synchronized void cargar() throws SQLException {
+		LocalDate primerDia = LocalDate.now().minusDays(diasEnMemoria - 1L);
+		try (Connection con = abrir()) {
+			cargarDimensiones(con);
+			Map<Integer, Segmento.Constructor> porDia = new HashMap<>();
+			int[] folios = { 0, Integer.MAX_VALUE };
+			try (PreparedStatement ps = con.prepareStatement(SQL_RENGLONES
+					+ "WHERE v.FechaVenta >= ? AND v.ClienteID IS NOT NULL", ResultSet.TYPE_FORWARD_ONLY,
+					ResultSet.CONCUR_READ_ONLY)) {
+				ps.setFetchSize(FILAS_POR_LECTURA);
+				ps.setTimestamp(1, Timestamp.valueOf(primerDia.atStartOfDay()));
+				ventasRecientes.clear();
+				leerRenglones(ps, porDia, folios, false);
+			}
+			// Se reemplaza día por día: las consultas en curso siguen viendo datos completos
+			for (Segmento.Constructor c : porDia.values()) {
+				Segmento s = c.construir();
+				segmentos.put(s.dia, s);
+			}
+			segmentos.keySet().retainAll(porDia.keySet());
+			ultimaVenta = folios[0];
+			primeraVenta = folios[1];
+			ventasRecientes.headSet(ultimaVenta - ventanaFolios, true).clear();
+			anuladasAplicadas.clear();
+		}
+		ultimaActualizacion = System.currentTimeMillis();
+		cargado = true;
+	}
+
+	/**
+	 * Agrega las ventas registradas desde la última carga y aplica las
+	 * devoluciones nuevas. Si el motor aún no se cargó, hace la carga completa.
+	 *
+	 * @return Renglones de venta nuevos.
+	 * @throws SQLException Si falla la lectura.
+	 */
+	public synchronized long actualizar() throws SQLException {
+		if (!cargado) {
+			cargar();
+			return getLineas();
+		}
+		int primerDia = (int) LocalDate.now().minusDays(diasEnMemoria - 1L).toEpochDay();
+		long nuevas = 0;
+		try (Connection con = abrir()) {
+			cargarDimensiones(con);
+
+			// 1. Ventas nuevas (y las confirmadas tarde dentro de la ventana),
+			// agregadas al segmento de su día
+			Map<Integer, Segmento.Constructor> porDia = new HashMap<>();
+			int[] folios = { ultimaVenta, primeraVenta };
+			try (PreparedStatement ps = con.prepareStatement(SQL_RENGLONES
+					+ "WHERE v.VentaID > ? AND v.ClienteID IS NOT NULL", ResultSet.TYPE_FORWARD_ONLY,
+					ResultSet.CONCUR_READ_ONLY)) {
+				ps.setFetchSize(FILAS_POR_LECTURA);
+				ps.setInt(1, Math.max(0, ultimaVenta - ventanaFolios));
+				nuevas = leerRenglones(ps, porDia, folios, true);
+			}
+			for (Segmento.Constructor c : porDia.values()) {
+				Segmento s = c.construir();
+				segmentos.put(s.dia, s);
+			}
+			ultimaVenta = folios[0];
+			primeraVenta = folios[1];
+			ventasRecientes.headSet(ultimaVenta - ventanaFolios, true).clear();
+
+			// 2. Devoluciones de ventas ya cargadas
+			if (primeraVenta != Integer.MAX_VALUE) {
+				try (PreparedStatement ps = con.prepareStatement("SELECT VentaID, FechaVenta FROM TablaVentas "
+						+ "WHERE ClienteID IS NULL AND VentaID >= ? AND VentaID <= ?")) {
+					ps.setInt(1, primeraVenta);
+					ps.setInt(2, ultimaVenta);
+					try (ResultSet rs = ps.executeQuery()) {
+						while (rs.next()) {
+							int ventaId = rs.getInt(1);
+							if (anuladasAplicadas.add(ventaId)) {
+								int dia = (int) rs.getTimestamp(2).toLocalDateTime().toLocalDate().toEpochDay();
+								segmentos.computeIfPresent(dia, (clave, s) -> s.anular(ventaId));
+							}
+						}
+					}
+				}
+			}
+		}
+		// 3. Los días que salieron de la ventana se liberan
+		segmentos.headMap(primerDia).clear();
+		ultimaActualizacion = System.currentTimeMillis();
+		return nuevas;
+	}
+
+	/**
+	 * Inicia la carga en segundo plano y programa las actualizaciones
+	 * periódicas. Llamadas posteriores no tienen efecto.
+	 */
+	public synchronized void cargarEnSegundoPlano() {
+		if (refrescoProgramado) {
+			return;
+		}
+		refrescoProgramado = true;
+		long periodo = Configuracion.getEntero("pos.analitica.refrescoSeg", 60);
+		if (periodo > 0) {
+			refresco.scheduleWithFixedDelay(this::actualizarEnSegundoPlano, 0, periodo, TimeUnit.SECONDS);
+		} else {
+			refresco.execute(this::actualizarEnSegundoPlano);
+		}
+
+		// Las ventas y devoluciones de esta caja llegan en segundos, sin esperar al refresco
+		BusEventos.getInstancia().suscribir("analitica", EventoCaja.class, 256, evento -> {
+			if (!(evento instanceof MovimientoCajaRegistrado)) {
+				programarActualizacion();
+			}
+		}).alDesbordar(this::programarActualizacion);
+	}
+
+	/**
+	 * Programa una actualización en {@value #ESPERA_EVENTOS_MS} ms, salvo que ya
+	 * haya una pendiente (las ventas de una ráfaga se leen juntas).
+	 */
+	private void programarActualizacion() {
+		if (actualizacionPendiente.compareAndSet(false, true)) {
+			refresco.schedule(() -> {
+				actualizacionPendiente.set(false);
+				actualizarEnSegundoPlano();
+			}, ESPERA_EVENTOS_MS, TimeUnit.MILLISECONDS);
+		}
+	}
+
+	private void actualizarEnSegundoPlano() {
+		try {
+			actualizar();
+		} catch (SQLException | RuntimeException e) {
+			System.err.println("❌ Error al actualizar el motor analítico: " + e.getMessage());
+		}
+	}
+
+	private static Connection abrir() throws SQLException {
+		Connection con = Conexion.getConexion();
+		if (con == null) {
+			throw new SQLException("No hay conexión con la base de datos.");
+		}
+		return con;
+	}
+
+	/**
+	 * Registra empleados, categorías y productos (los códigos existentes no
+	 * cambian; sólo se agregan los nuevos y se actualizan los nombres).
+	 */
+	private void cargarDimensiones(Connection con) throws SQLException {
+		try (PreparedStatement ps = con.prepareStatement("SELECT Eid, NombreE FROM TablaEmpleados");
+				ResultSet rs = ps.executeQuery()) {
+			while (rs.next()) {
+				empleados.codificar(rs.getInt(1), rs.getString(2));
+				empleados.renombrar(rs.getInt(1), rs.getString(2));
+			}
+		}
+		Map<Integer, Integer> categoriaPorId = new HashMap<>();
+		try (PreparedStatement ps = con.prepareStatement("SELECT Cid, Nombre FROM TablaCategorias");
+				ResultSet rs = ps.executeQuery()) {
+			while (rs.next()) {
+				categoriaPorId.put(rs.getInt(1), categorias.codificar(rs.getInt(1), rs.getString(2)));
+				categorias.renombrar(rs.getInt(1), rs.getString(2));
+			}
+		}
+		int sinCategoria = categorias.codificar(-1, "Sin categoría");
+
+		List<int[]> pares = new ArrayList<>();
+		try (PreparedStatement ps = con.prepareStatement("SELECT Pid, Nombre, CategoriaID FROM TablaAlmacen_Productos");
+				ResultSet rs = ps.executeQuery()) {
+			while (rs.next()) {
+				int codigo = productos.codificar(rs.getInt(1), rs.getString(2));
+				productos.renombrar(rs.getInt(1), rs.getString(2));
+				pares.add(new int[] { codigo, categoriaPorId.getOrDefault(rs.getInt(3), sinCategoria) });
+			}
+		}
+		int[] nuevas = new int[productos.getTamano()];
+		Arrays.fill(nuevas, sinCategoria);
+		for (int[] par : pares) {
+			nuevas[par[0]] = par[1];
+		}
+		categoriaDeProducto = nuevas;
+	}
+
+	/**
+	 * Lee los renglones del resultado y los agrega al constructor de su día.
+	 *
+	 * @param folios      {máximo, mínimo} folio visto; se actualiza.
+	 * @param incremental {@code true} para agregar a los segmentos existentes
+	 *                    (omitiendo las ventas de {@link #ventasRecientes});
+	 *                    {@code false} para construirlos desde cero.
+	 * @return Renglones leídos.
+	 */
+	private long leerRenglones(PreparedStatement ps, Map<Integer, Segmento.Constructor> porDia, int[] folios,
+			boolean incremental) throws SQLException {
+		long leidas = 0;
+		int[] categoriaProducto = categoriaDeProducto;
+		Set<Integer> ventasLeidas = new HashSet<>();
+		try (ResultSet rs = ps.executeQuery()) {
+			while (rs.next()) {
+				int ventaId = rs.getInt(1);
+				if (incremental && ventasRecientes.contains(ventaId)) {
+					continue; // Ya cargada en una lectura anterior
+				}
+				ventasLeidas.add(ventaId);
+				LocalDateTime fecha = rs.getTimestamp(2).toLocalDateTime();
+				int empleadoId = rs.getInt(3);
+				String metodo = rs.getString(4);
+				int productoId = rs.getInt(5);
+
+				int dia = (int) fecha.toLocalDate().toEpochDay();
+				Segmento.Constructor c = porDia.get(dia);
+				if (c == null) {
+					Segmento existente = incremental ? segmentos.get(dia) : null;
+					c = (existente == null) ? new Segmento.Constructor(dia) : new Segmento.Constructor(existente);
+					porDia.put(dia, c);
+				}
+
+				int codProducto = productos.buscar(productoId);
+				if (codProducto < 0) { // Producto ya borrado del catálogo
+					codProducto = productos.codificar(productoId, "Producto #" + productoId);
+				}
+				int codCategoria = (codProducto < categoriaProducto.length) ? categoriaProducto[codProducto]
+						: categorias.codificar(-1, "Sin categoría");
+				c.agregar(ventaId, fecha.getHour(), empleados.codificar(empleadoId, "Empleado #" + empleadoId),
+						metodosPago.codificar((metodo == null) ? METODO_DESCONOCIDO : metodo,
+								(metodo == null) ? METODO_DESCONOCIDO : metodo),
+						codProducto, codCategoria, rs.getInt(6), Math.round(rs.getDouble(7) * 100));
+
+				folios[0] = Math.max(folios[0], ventaId);
+				folios[1] = Math.min(folios[1], ventaId);
+				leidas++;
+			}
+		}
+		ventasRecientes.addAll(ventasLeidas);
+		return leidas;
+	}
+
+	// ==========================================
+	// CONSULTAS
+	// ==========================================
+
+	/**
+	 * Responde una consulta con los datos en memoria. Si el motor no se ha
+	 * cargado, lo carga primero (operación bloqueante: llamar fuera del EDT).
+	 *
+	 * @param consulta Periodo, agrupación y filtros.
+	 * @return Grupos con ventas; las dimensiones de tiempo en orden cronológico y
+	 *         las demás de mayor a menor importe.
+	 * @throws SQLException Si hacía falta la carga inicial y falló.
+	 */
+	public ResultadoAnalitico consultar(ConsultaAnalitica consulta) throws SQLException {
+		if (!cargado) {
+			cargar();
+		}
+		long inicio = System.nanoTime();
+		int desde = (int) consulta.getDesde().toEpochDay();
+		int hasta = (int) consulta.getHasta().toEpochDay();
+		NavigableMap<Integer, Segmento> rango = segmentos.subMap(desde, true, hasta, true);
+		Segmento[] seleccion = rango.values().toArray(new Segmento[0]);
+
+		AgregacionParalela.Plan plan = new AgregacionParalela.Plan();
+		plan.dimension = consulta.getAgruparPor();
+		plan.diaBase = desde;
+		plan.mesBase = consulta.getDesde().getYear() * 12 + consulta.getDesde().getMonthValue() - 1;
+		plan.horaDesde = consulta.getHoraDesde();
+		plan.horaHasta = consulta.getHoraHasta();
+		// Los tamaños se leen después de tomar los segmentos: cubren todos sus códigos
+		plan.grupos = grupos(consulta, plan);
+
+		for (Map.Entry<Dimension, String> filtro : consulta.getFiltros().entrySet()) {
+			int codigo = diccionario(filtro.getKey()).buscarEtiqueta(filtro.getValue());
+			if (codigo < 0) {
+				return new ResultadoAnalitico(new ArrayList<>(), 0, System.nanoTime() - inicio);
+			}
+			switch (filtro.getKey()) {
+			case METODO_PAGO:
+				plan.metodoPago = codigo;
+				break;
+			case EMPLEADO:
+				plan.empleado = codigo;
+				break;
+			case CATEGORIA:
+				plan.categoria = codigo;
+				break;
+			default:
+				plan.producto = codigo;
+			}
+		}
+
+		AgregacionParalela.Parcial total = (seleccion.length == 0) ? new AgregacionParalela.Parcial(plan.grupos)
+				: ForkJoinPool.commonPool().invoke(new AgregacionParalela(seleccion, 0, seleccion.length, plan));
+
+		List<ResultadoAnalitico.Fila> filas = new ArrayList<>();
+		for (int g = 0; g < plan.grupos; g++) {
+			if (total.ventas[g] > 0) {
+				filas.add(new ResultadoAnalitico.Fila(etiqueta(consulta, g), total.ventas[g], total.unidades[g],
+						total.importe[g] / 100.0));
+			}
+		}
+		if (consulta.getAgruparPor().isCodificada()) {
+			filas.sort(Comparator.comparingDouble(ResultadoAnalitico.Fila::getImporte).reversed());
+		}
+		return new ResultadoAnalitico(filas, total.lineas, System.nanoTime() - inicio);
+	}
+
+	private int grupos(ConsultaAnalitica consulta, AgregacionParalela.Plan plan) {
+		switch (consulta.getAgruparPor()) {
+		case HORA:
+			return 24;
+		case DIA_SEMANA:
+			return 7;
+		case DIA:
+			return (int) (consulta.getHasta().toEpochDay() - plan.diaBase) + 1;
+		case MES:
+			return consulta.getHasta().getYear() * 12 + consulta.getHasta().getMonthValue() - plan.mesBase;
+		default:
+			return diccionario(consulta.getAgruparPor()).getTamano();
+		}
+	}
+
+	private String etiqueta(ConsultaAnalitica consulta, int grupo) {
+		switch (consulta.getAgruparPor()) {
+		case HORA:
+			return String.format("%02d:00", grupo);
+		case DIA_SEMANA:
+			String dia = DayOfWeek.of(grupo + 1).getDisplayName(TextStyle.FULL, Locale.of("es", "MX"));
+			return Character.toUpperCase(dia.charAt(0)) + dia.substring(1);
+		case DIA:
+			return consulta.getDesde().plusDays(grupo).toString();
+		case MES:
+			return consulta.getDesde().withDayOfMonth(1).plusMonths(grupo).toString().substring(0, 7);
+		default:
+			return diccionario(consulta.getAgruparPor()).etiqueta(grupo);
+		}
+	}
+
+	private Diccionario<?> diccionario(Dimension dimension) {
+		switch (dimension) {
+		case EMPLEADO:
+			return empleados;
+		case CATEGORIA:
+			return categorias;
+		case PRODUCTO:
+			return productos;
+		case METODO_PAGO:
+			return metodosPago;
+		default:
+			throw new IllegalArgumentException(dimension.getNombre() + " no está codificada.");
+		}
+	}
+
+	/**
+	 * Valores conocidos de una dimensión codificada (para llenar filtros en
+	 * pantalla).
+	 *
+	 * @param dimension Dimensión ({@link Dimension#isCodificada()}).
+	 * @return Etiquetas en orden alfabético.
+	 */
+	public List<String> getValores(Dimension dimension) {
+		Diccionario<?> d = diccionario(dimension);
+		List<String> valores = new ArrayList<>();
+		for (int i = 0; i < d.getTamano(); i++) {
+			valores.add(d.etiqueta(i));
+		}
+		valores.sort(String.CASE_INSENSITIVE_ORDER);
+		return valores;
+	}
+
+	// ==========================================
+	// ESTADÍSTICAS
+	// ==========================================
+
+	/**
+	 * @return {@code true} si ya se completó la carga inicial.
+	 */
+	public boolean isCargado() {
+		return cargado;
+	}
+
+	/**
+	 * @return Renglones de venta en memoria.
+	 */
+	public long getLineas() {
+		long total = 0;
+		for (Segmento s : segmentos.values()) {
+			total += s.lineas;
+		}
+		return total;
+	}
+
+	/**
+	 * @return Memoria aproximada de las columnas, en bytes.
+	 */
+	public long getBytes() {
+		long total = 0;
+		for (Segmento s : segmentos.values()) {
+			total += s.getBytes();
+		}
+		return total;
+	}
+
+	/**
+	 * @return Momento (epoch ms) de la última carga o actualización.
+	 */
+	public long getUltimaActualizacion() {
+		return ultimaActualizacion;
+	}
+}
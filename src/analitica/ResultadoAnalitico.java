@@ -0,0 +1,80 @@
+package analitica;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Respuesta del {@link MotorAnalitico} a una {@link ConsultaAnalitica}.
+ *
+ * @version 1.0
+ */
+public class ResultadoAnalitico {
+
+	/**
+	 * Un grupo del resultado (ej. "13:00", "Lácteos", "Tarjeta").
+	 */
+	public static final class Fila {
+		private final String etiqueta;
+		private final long ventas;
+		private final long unidades;
+		private final double importe;
+
+		Fila(String etiqueta, long ventas, long unidades, double importe) {
+			this.etiqueta = etiqueta;
+			this.ventas = ventas;
+			this.unidades = unidades;
+			this.importe = importe;
+		}
+
+		public String getEtiqueta() {
+			return etiqueta;
+		}
+
+		/**
+		 * @return Ventas (tickets) con al menos un renglón en el grupo.
+		 */
+		public long getVentas() {
+			return ventas;
+		}
+
+		public long getUnidades() {
+			return unidades;
+		}
+
+		/**
+		 * @return Suma de los subtotales de los renglones del grupo (antes de
+		 *         descuentos e impuestos de la venta).
+		 */
+		public double getImporte() {
+			return importe;
+		}
+	}
+
+	private final List<Fila> filas;
+	private final long lineasAnalizadas;
+	private final long nanos;
+
+	ResultadoAnalitico(List<Fila> filas, long lineasAnalizadas, long nanos) {
+		this.filas = Collections.unmodifiableList(filas);
+		this.lineasAnalizadas = lineasAnalizadas;
+		this.nanos = nanos;
+	}
+
+	public List<Fila> getFilas() {
+		return filas;
+	}
+
+	/**
+	 * @return Renglones de venta recorridos para responder.
+	 */
+	public long getLineasAnalizadas() {
+		return lineasAnalizadas;
+	}
+
+	/**
+	 * @return Tiempo de cálculo en milisegundos.
+	 */
+	public double getMilisegundos() {
+		return nanos / 1e6;
+	}
+}
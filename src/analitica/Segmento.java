@@ -0,0 +1,232 @@
+package analitica;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.BitSet;
+
+/**
+ * Renglones de venta de un solo día, guardados por columnas en arreglos
+ * primitivos.
+ * <p>
+ * Cada posición {@code i} de los arreglos es un renglón de
+ * {@code TablaVentaDetalle} junto con los datos de su venta. Los renglones
+ * están ordenados por {@code VentaID}, de modo que los de una misma venta son
+ * contiguos.
+ * </p>
+ * <p>
+ * <b>Inmutable:</b> las consultas leen los arreglos sin bloqueos. Las ventas
+ * nuevas o devueltas producen un segmento nuevo que reemplaza al anterior en el
+ * {@link MotorAnalitico}.
+ * </p>
+ *
+ * @version 1.0
+ */
+final class Segmento {
+
+	/** Día del segmento (días desde 1970-01-01). */
+	final int dia;
+
+	/** Día de la semana (0 = lunes ... 6 = domingo). */
+	final byte diaSemana;
+
+	final int lineas;
+	final int[] venta;
+	final byte[] hora;
+	final short[] empleado;
+	final byte[] metodoPago;
+	final int[] producto;
+	final short[] categoria;
+	final int[] cantidad;
+	/** Importe del renglón en centavos (evita sumar {@code double}). */
+	final long[] importe;
+
+	/** Renglones de ventas devueltas después de cargarse (se ignoran). */
+	final BitSet anuladas;
+
+	private Segmento(int dia, int lineas, int[] venta, byte[] hora, short[] empleado, byte[] metodoPago,
+			int[] producto, short[] categoria, int[] cantidad, long[] importe, BitSet anuladas) {
+		this.dia = dia;
+		this.diaSemana = (byte) (LocalDate.ofEpochDay(dia).getDayOfWeek().getValue() - 1);
+		this.lineas = lineas;
+		this.venta = venta;
+		this.hora = hora;
+		this.empleado = empleado;
+		this.metodoPago = metodoPago;
+		this.producto = producto;
+		this.categoria = categoria;
+		this.cantidad = cantidad;
+		this.importe = importe;
+		this.anuladas = anuladas;
+	}
+
+	/**
+	 * Copia del segmento con las líneas de una venta marcadas como anuladas.
+	 *
+	 * @param ventaId Venta devuelta.
+	 * @return El segmento nuevo, o éste mismo si la venta no está aquí.
+	 */
+	Segmento anular(int ventaId) {
+		int inicio = Arrays.binarySearch(venta, 0, lineas, ventaId);
+		if (inicio < 0) {
+			return this;
+		}
+		while (inicio > 0 && venta[inicio - 1] == ventaId) {
+			inicio--;
+		}
+		int fin = inicio;
+		while (fin < lineas && venta[fin] == ventaId) {
+			fin++;
+		}
+		BitSet nuevas = (BitSet) anuladas.clone();
+		nuevas.set(inicio, fin);
+		return new Segmento(dia, lineas, venta, hora, empleado, metodoPago, producto, categoria, cantidad, importe,
+				nuevas);
+	}
+
+	/**
+	 * Memoria aproximada que ocupan las columnas.
+	 *
+	 * @return Bytes.
+	 */
+	long getBytes() {
+		return (long) venta.length * (4 + 1 + 2 + 1 + 4 + 2 + 4 + 8);
+	}
+
+	// ==========================================
+	// CONSTRUCCIÓN
+	// ==========================================
+
+	/**
+	 * Acumula los renglones de un día mientras se leen de la BD y al final
+	 * produce el {@link Segmento}.
+	 */
+	static final class Constructor {
+
+		private final int dia;
+		private int lineas = 0;
+		private boolean ordenado = true;
+		private BitSet anuladas = new BitSet();
+
+		private int[] venta;
+		private byte[] hora;
+		private short[] empleado;
+		private byte[] metodoPago;
+		private int[] producto;
+		private short[] categoria;
+		private int[] cantidad;
+		private long[] importe;
+
+		/**
+		 * @param dia Día (días desde 1970-01-01).
+		 */
+		Constructor(int dia) {
+			this.dia = dia;
+			reservar(256);
+		}
+
+		/**
+		 * Empieza con los renglones de un segmento existente, para agregarle ventas
+		 * nuevas.
+		 *
+		 * @param base Segmento del mismo día.
+		 */
+		Constructor(Segmento base) {
+			this.dia = base.dia;
+			this.lineas = base.lineas;
+			this.anuladas = (BitSet) base.anuladas.clone();
+			this.venta = Arrays.copyOf(base.venta, base.lineas + 256);
+			this.hora = Arrays.copyOf(base.hora, base.lineas + 256);
+			this.empleado = Arrays.copyOf(base.empleado, base.lineas + 256);
+			this.metodoPago = Arrays.copyOf(base.metodoPago, base.lineas + 256);
+			this.producto = Arrays.copyOf(base.producto, base.lineas + 256);
+			this.categoria = Arrays.copyOf(base.categoria, base.lineas + 256);
+			this.cantidad = Arrays.copyOf(base.cantidad, base.lineas + 256);
+			this.importe = Arrays.copyOf(base.importe, base.lineas + 256);
+		}
+
+		void agregar(int ventaId, int horaVenta, int codEmpleado, int codMetodo, int codProducto, int codCategoria,
+				int unidades, long centavos) {
+			if (lineas == venta.length) {
+				reservar(lineas * 2);
+			}
+			if (lineas > 0 && ventaId < venta[lineas - 1]) {
+				ordenado = false;
+			}
+			venta[lineas] = ventaId;
+			hora[lineas] = (byte) horaVenta;
+			empleado[lineas] = (short) codEmpleado;
+			metodoPago[lineas] = (byte) codMetodo;
+			producto[lineas] = codProducto;
+			categoria[lineas] = (short) codCategoria;
+			cantidad[lineas] = unidades;
+			importe[lineas] = centavos;
+			lineas++;
+		}
+
+		private void reservar(int capacidad) {
+			venta = (venta == null) ? new int[capacidad] : Arrays.copyOf(venta, capacidad);
+			hora = (hora == null) ? new byte[capacidad] : Arrays.copyOf(hora, capacidad);
+			empleado = (empleado == null) ? new short[capacidad] : Arrays.copyOf(empleado, capacidad);
+			metodoPago = (metodoPago == null) ? new byte[capacidad] : Arrays.copyOf(metodoPago, capacidad);
+			producto = (producto == null) ? new int[capacidad] : Arrays.copyOf(producto, capacidad);
+			categoria = (categoria == null) ? new short[capacidad] : Arrays.copyOf(categoria, capacidad);
+			cantidad = (cantidad == null) ? new int[capacidad] : Arrays.copyOf(cantidad, capacidad);
+			importe = (importe == null) ? new long[capacidad] : Arrays.copyOf(importe, capacidad);
+		}
+
+		/**
+		 * @return El segmento con los arreglos recortados a su tamaño y ordenados
+		 *         por venta.
+		 */
+		Segmento construir() {
+			if (!ordenado) {
+				ordenarPorVenta();
+			}
+			return new Segmento(dia, lineas, Arrays.copyOf(venta, lineas), Arrays.copyOf(hora, lineas),
+					Arrays.copyOf(empleado, lineas), Arrays.copyOf(metodoPago, lineas), Arrays.copyOf(producto, lineas),
+					Arrays.copyOf(categoria, lineas), Arrays.copyOf(cantidad, lineas), Arrays.copyOf(importe, lineas),
+					anuladas);
+		}
+
+		/**
+		 * Ordena todas las columnas por {@code VentaID} (estable: conserva el orden
+		 * de los renglones de cada venta).
+		 */
+		private void ordenarPorVenta() {
+			long[] claves = new long[lineas];
+			for (int i = 0; i < lineas; i++) {
+				claves[i] = ((long) venta[i] << 32) | i;
+			}
+			Arrays.sort(claves);
+			int[] v = new int[lineas], pr = new int[lineas], ca = new int[lineas];
+			byte[] h = new byte[lineas], m = new byte[lineas];
+			short[] e = new short[lineas], c = new short[lineas];
+			long[] im = new long[lineas];
+			BitSet an = new BitSet();
+			for (int j = 0; j < lineas; j++) {
+				int i = (int) claves[j];
+				v[j] = venta[i];
+				h[j] = hora[i];
+				e[j] = empleado[i];
+				m[j] = metodoPago[i];
+				pr[j] = producto[i];
+				c[j] = categoria[i];
+				ca[j] = cantidad[i];
+				im[j] = importe[i];
+				if (anuladas.get(i)) {
+					an.set(j);
+				}
+			}
+			venta = v;
+			hora = h;
+			empleado = e;
+			metodoPago = m;
+			producto = pr;
+			categoria = c;
+			cantidad = ca;
+			importe = im;
+			anuladas = an;
+			ordenado = true;
+		}
+	}
+}
@@ -1,6 +1,11 @@
 package conexion;
 
 import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.function.ToLongFunction;
+
+import metricas.ContextoAccion;
+import metricas.Metricas;
 
 /**
  * Clase utilitaria que provee un punto de acceso global a la conexión de la
@@ -8,40 +13,145 @@ import java.sql.Connection;
  * <p>
  * Actúa como una fábrica estática que encapsula la configuración de
  * credenciales y la instanciación de la implementación específica
- * ({@link Conexion_SQL}).
+ * ({@link Conexion_SQL} o, para tiendas sin servidor, {@link Conexion_Embebida}).
+ * </p>
+ * <p>
+ * Las conexiones se obtienen de un {@link PoolConexiones} compartido, por lo
+ * que cerrar la conexión devuelta (try-with-resources) la regresa al pool en
+ * lugar de cortar la sesión con el servidor. Las credenciales y el tamaño del
+ * pool se leen de la {@link Configuracion} externa ({@code pos.properties}).
+ * </p>
+ * <p>
+ * Cada conexión física va envuelta por {@link MonitorSQL}, que lleva las
+ * estadísticas por sentencia y la bitácora de SQL lento.
+ * </p>
+ * <p>
+ * El uso del pool se publica en {@link Metricas} como {@code bd.pool.*}.
  * </p>
- * 
- * 
- * @version 1.0
+ *
+ * @version 1.6
  */
 public class Conexion {
 
-	/** Dirección del servidor y puerto (ej. localhost:1433 o NombrePC:1433). */
-	private static final String SERVIDOR = "JOAHAN:1433";
+	/**
+	 * Pool compartido; se construye la primera vez que se pide una conexión (ver
+	 * {@link #getPool()}).
+	 */
+	private static volatile PoolConexiones pool;
+
+	static {
+		// Se leen del pool vigente sin crearlo (NaN/0 mientras no exista)
+		Metricas.indicador("bd.pool.activas", () -> leerPool(EstadisticasPool::getActivas, Double.NaN));
+		Metricas.indicador("bd.pool.inactivas", () -> leerPool(EstadisticasPool::getInactivas, Double.NaN));
+		Metricas.indicador("bd.pool.maximo", () -> leerPool(EstadisticasPool::getTamanoMaximo, Double.NaN));
+		Metricas.indicador("bd.pool.esperando", () -> leerPool(EstadisticasPool::getHilosEsperando, Double.NaN));
+		Metricas.acumulado("bd.pool.prestamos", () -> (long) leerPool(EstadisticasPool::getPrestamos, 0));
+		Metricas.acumulado("bd.pool.esperasAgotadas", () -> (long) leerPool(EstadisticasPool::getEsperasAgotadas, 0));
+		Metricas.acumulado("bd.pool.fugas", () -> (long) leerPool(EstadisticasPool::getFugasDetectadas, 0));
+		Metricas.acumulado("bd.pool.creadas", () -> (long) leerPool(EstadisticasPool::getConexionesCreadas, 0));
+	}
+
+	/**
+	 * Construye el pool con los parámetros de la configuración externa.
+	 * <p>
+	 * <b>Claves reconocidas:</b> {@code pos.db.motor} ({@code sqlserver} o
+	 * {@code embebido}), {@code pos.db.servidor}, {@code pos.db.ruta} (carpeta de
+	 * la base embebida), {@code pos.db.nombre},
+	 * {@code pos.db.usuario}, {@code pos.db.password}, {@code pos.pool.maximo},
+	 * {@code pos.pool.minimoInactivas}, {@code pos.pool.esperaMs},
+	 * {@code pos.pool.vidaMaximaMs}, {@code pos.pool.validarTrasMs} y
+	 * {@code pos.pool.umbralFugaMs}.
+	 * </p>
+	 *
+	 * @return Pool listo para prestar conexiones.
+	 */
+	private static PoolConexiones crearPool() {
+		boolean embebido = "embebido".equalsIgnoreCase(Configuracion.getTexto("pos.db.motor", "sqlserver"));
+		String servidor = embebido ? Configuracion.getTexto("pos.db.ruta", "datos")
+				: Configuracion.getTexto("pos.db.servidor", "localhost:1433");
+		String baseDatos = Configuracion.getTexto("pos.db.nombre", "MyPos");
+		String usuario = Configuracion.getTexto("pos.db.usuario", embebido ? "sa" : null);
+		String password = Configuracion.getTexto("pos.db.password", embebido ? "" : null);
 
-	/** Nombre de la base de datos en SQL Server. */
-	private static final String BASE_DATOS = "MyPos";
+		if (usuario == null || password == null) {
+			System.err.println("❌ Faltan credenciales de la BD: defina pos.db.usuario y pos.db.password en pos.properties");
+		}
 
-	/** Usuario de autenticación SQL (ej. sa). */
-	private static final String USUARIO = "sa";
+		PoolConexiones pool = new PoolConexiones(
+				// Cada conexión física se abre con la clase hija específica del motor
+				// y se instrumenta para las estadísticas por sentencia
+				() -> MonitorSQL.envolver((embebido ? new Conexion_Embebida(servidor, baseDatos, usuario, password)
+						: new Conexion_SQL(servidor, baseDatos, usuario, password)).getConexion()),
+				Configuracion.getEntero("pos.pool.maximo", 10), Configuracion.getEntero("pos.pool.minimoInactivas", 2),
+				Configuracion.getEntero("pos.pool.esperaMs", 5_000),
+				Configuracion.getEntero("pos.pool.vidaMaximaMs", 30 * 60_000),
+				Configuracion.getEntero("pos.pool.validarTrasMs", 30_000),
+				Configuracion.getEntero("pos.pool.umbralFugaMs", 60_000));
 
-	/** Contraseña de autenticación SQL. */
-	private static final String PASSWORD = "3312";
+		Runtime.getRuntime().addShutdownHook(new Thread(pool::cerrar, "pool-conexiones-cierre"));
+		return pool;
+	}
 
 	/**
-	 * Obtiene una instancia activa de la conexión a la base de datos.
+	 * Obtiene una conexión activa del pool compartido.
 	 * <p>
-	 * Este método instancia internamente la clase {@link Conexion_SQL} utilizando
-	 * las credenciales constantes definidas en esta clase.
+	 * Debe cerrarse al terminar de usarla para devolverla al pool. Cada préstamo
+	 * se cuenta en la {@link ContextoAccion} activa.
 	 * </p>
 	 * * @return Objeto {@link java.sql.Connection} listo para realizar consultas, o
 	 * {@code null} si la conexión falló.
 	 */
 	public static Connection getConexion() {
-		// Instancia la clase hija específica para SQL Server pasando los parámetros
-		ConexionBD miConexion = new Conexion_SQL(SERVIDOR, BASE_DATOS, USUARIO, PASSWORD);
+		ContextoAccion accion = ContextoAccion.actual();
+		if (accion != null) {
+			accion.registrarConexion();
+		}
+		try {
+			return getPool().obtener();
+		} catch (SQLException e) {
+			System.err.println("❌ Error al obtener conexión del pool: " + e.getMessage());
+			return null;
+		}
+	}
+
+	/**
+	 * Obtiene el pool compartido (para consultar estadísticas o cerrarlo).
+	 *
+	 * @return La instancia única de {@link PoolConexiones}.
+	 */
+	public static PoolConexiones getPool() {
+		PoolConexiones actual = pool;
+		if (actual == null) {
+			synchronized (Conexion.class) {
+				if (pool == null) {
+					pool = crearPool();
+				}
+				actual = pool;
+			}
+		}
+		return actual;
+	}
+
+	private static double leerPool(ToLongFunction<EstadisticasPool> valor, double sinPool) {
+		PoolConexiones actual = pool;
+		return (actual == null) ? sinPool : valor.applyAsLong(actual.estadisticas());
+	}
 
-		// Retorna el objeto Connection gestionado por la clase padre
-		return miConexion.getConexion();
+	/**
+	 * Reemplaza el pool compartido por otro (y cierra el anterior).
+	 * <p>
+	 * Permite que herramientas sin interfaz (simulador de carga, generador de
+	 * datos) dirijan todos los DAOs a otra base de datos sin modificarlos.
+	 * </p>
+	 *
+	 * @param nuevo Pool que atenderá las siguientes llamadas a
+	 *              {@link #getConexion()}.
+	 */
+	public static synchronized void usarPool(PoolConexiones nuevo) {
+		PoolConexiones anterior = pool;
+		pool = nuevo;
+		if (anterior != null && anterior != nuevo) {
+			anterior.cerrar();
+		}
 	}
-}
\ No newline at end of file
+}
@@ -0,0 +1,334 @@
+package conexion;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.Map;
+import java.util.TreeMap;
+
+import metricas.ContextoAccion;
+
+/**
+ * Proxies JDBC que miden cada sentencia y se la reportan a {@link MonitorSQL}.
+ * <p>
+ * {@link #envolver(Connection)} envuelve la conexión física; a partir de ahí
+ * cada {@link Statement}, {@link PreparedStatement} y
+ * {@link CallableStatement} que se cree se envuelve a su vez para:
+ * <ul>
+ * <li>Medir la duración de cada {@code execute*} (sin incluir la lectura del
+ * {@code ResultSet}).</li>
+ * <li>Recordar los parámetros ({@code setInt}, {@code setString}, ...) para
+ * poder registrarlos si la sentencia resulta lenta.</li>
+ * <li>Contar filas: las afectadas que reporta el motor, o las que el DAO lee
+ * del {@link ResultSet} (se suman al cerrarlo o al agotarlo).</li>
+ * </ul>
+ * Todo lo demás se delega sin cambios a los objetos del driver. Igual que el
+ * proxy del {@link PoolConexiones}, se usa {@link Proxy} para no tener que
+ * implementar a mano las interfaces completas de JDBC.
+ * </p>
+ *
+ * @version 1.1
+ */
+final class ConexionInstrumentada {
+
+	private ConexionInstrumentada() {
+	}
+
+	/**
+	 * @param real Conexión física.
+	 * @return Proxy que instrumenta las sentencias creadas desde la conexión.
+	 */
+	static Connection envolver(Connection real) {
+		return crearProxy(Connection.class, new ManejadorConexion(real));
+	}
+
+	private static <T> T crearProxy(Class<T> interfaz, InvocationHandler manejador) {
+		return interfaz.cast(
+				Proxy.newProxyInstance(interfaz.getClassLoader(), new Class<?>[] { interfaz }, manejador));
+	}
+
+	/**
+	 * Invoca el método en el objeto real y desenvuelve la excepción del driver.
+	 */
+	private static Object delegar(Object real, Method method, Object[] args) throws Throwable {
+		try {
+			return method.invoke(real, args);
+		} catch (InvocationTargetException e) {
+			throw e.getCause();
+		}
+	}
+
+	/**
+	 * Resuelve {@code equals}, {@code hashCode} y {@code toString} del proxy.
+	 *
+	 * @return Resultado, o {@code null} si el método no es uno de ellos.
+	 */
+	private static Object metodoDeObject(Object proxy, Object real, Method method, Object[] args) {
+		switch (method.getName()) {
+		case "equals":
+			return (args != null && args.length == 1) ? proxy == args[0] : null;
+		case "hashCode":
+			return (args == null) ? System.identityHashCode(proxy) : null;
+		case "toString":
+			return (args == null) ? "Instrumentada[" + real + "]" : null;
+		default:
+			return null;
+		}
+	}
+
+	// ==========================================
+	// CONEXIÓN
+	// ==========================================
+
+	/**
+	 * Envuelve las sentencias que crea la conexión; el resto se delega.
+	 */
+	private static final class ManejadorConexion implements InvocationHandler {
+
+		private final Connection real;
+
+		ManejadorConexion(Connection real) {
+			this.real = real;
+		}
+
+		@Override
+		public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+			Object propio = metodoDeObject(proxy, real, method, args);
+			if (propio != null) {
+				return propio;
+			}
+			Object resultado = delegar(real, method, args);
+			switch (method.getName()) {
+			case "createStatement":
+				return crearProxy(Statement.class,
+						new ManejadorSentencia((Statement) resultado, (Connection) proxy, null));
+			case "prepareStatement":
+				return crearProxy(PreparedStatement.class,
+						new ManejadorSentencia((Statement) resultado, (Connection) proxy, (String) args[0]));
+			case "prepareCall":
+				return crearProxy(CallableStatement.class,
+						new ManejadorSentencia((Statement) resultado, (Connection) proxy, (String) args[0]));
+			default:
+				return resultado;
+			}
+		}
+	}
+
+	// ==========================================
+	// SENTENCIAS
+	// ==========================================
+
+	/**
+	 * Mide los {@code execute*} y recuerda los parámetros de una sentencia.
+	 * <p>
+	 * Un {@code Statement} lo usa un solo hilo a la vez (igual que su
+	 * conexión), por lo que el estado no necesita sincronización.
+	 * </p>
+	 */
+	private static final class ManejadorSentencia implements InvocationHandler {
+
+		private final Statement real;
+		private final Connection conexion;
+
+		/** Texto preparado ({@code null} en un {@code Statement} simple). */
+		private final String sql;
+		private final EstadisticaSQL estadistica;
+
+		/** Último valor asignado a cada parámetro (sólo sentencias preparadas). */
+		private final Map<Integer, Object> parametros;
+
+		/** Renglones acumulados con {@code addBatch}. */
+		private int lote;
+
+		/** Primera sentencia de un lote de {@code Statement} simple. */
+		private String sqlLote;
+
+		/** Estadística de la última ejecución (para {@code getResultSet}). */
+		private EstadisticaSQL ultima;
+
+		/** Último {@code ResultSet} entregado, para sumar sus filas. */
+		private ManejadorResultados resultados;
+
+		ManejadorSentencia(Statement real, Connection conexion, String sql) {
+			this.real = real;
+			this.conexion = conexion;
+			this.sql = sql;
+			this.estadistica = (sql != null) ? MonitorSQL.estadistica(sql) : null;
+			this.parametros = (sql != null) ? new TreeMap<>() : null;
+		}
+
+		@Override
+		public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+			String nombre = method.getName();
+			if (nombre.startsWith("execute")) {
+				return ejecutar(proxy, method, args);
+			}
+			switch (nombre) {
+			case "addBatch":
+				lote++;
+				if (sqlLote == null && args != null && args.length == 1) {
+					sqlLote = (String) args[0];
+				}
+				break;
+			case "clearBatch":
+				lote = 0;
+				sqlLote = null;
+				break;
+			case "clearParameters":
+				if (parametros != null) {
+					parametros.clear();
+				}
+				break;
+			case "getResultSet":
+				ResultSet rs = (ResultSet) delegar(real, method, args);
+				return (rs == null || ultima == null) ? rs : envolverResultados(proxy, rs, ultima);
+			case "getConnection":
+				return conexion;
+			case "close":
+				cerrarResultados();
+				break;
+			default:
+				Object propio = metodoDeObject(proxy, real, method, args);
+				if (propio != null) {
+					return propio;
+				}
+				// setInt(1, x), setString(2, s), setNull(3, tipo), ...
+				if (parametros != null && nombre.startsWith("set") && args != null && args.length >= 2
+						&& args[0] instanceof Integer) {
+					parametros.put((Integer) args[0], args[1]);
+				}
+				break;
+			}
+			return delegar(real, method, args);
+		}
+
+		private Object ejecutar(Object proxy, Method method, Object[] args) throws Throwable {
+			String texto = sql;
+			if (args != null && args.length > 0 && args[0] instanceof String) {
+				texto = (String) args[0]; // Statement.execute(sql)
+			} else if (texto == null) {
+				texto = (sqlLote != null) ? sqlLote : "(lote vacío)"; // Statement.executeBatch()
+			}
+			EstadisticaSQL est = (texto == sql) ? estadistica : MonitorSQL.estadistica(texto);
+			ultima = est;
+			int renglonesLote = lote;
+			if (method.getName().contains("Batch")) {
+				lote = 0;
+				sqlLote = null;
+			}
+			cerrarResultados(); // Volver a ejecutar cierra el ResultSet anterior
+
+			long inicio = System.nanoTime();
+			Object resultado;
+			try {
+				resultado = method.invoke(real, args);
+			} catch (InvocationTargetException e) {
+				MonitorSQL.registrar(est, texto, parametros, System.nanoTime() - inicio, -1, renglonesLote, true);
+				throw e.getCause();
+			}
+			long nanos = System.nanoTime() - inicio;
+
+			long filas = -1; // Desconocidas hasta leer el ResultSet
+			if (resultado instanceof ResultSet) {
+				resultado = envolverResultados(proxy, (ResultSet) resultado, est);
+			} else if (resultado instanceof Number) {
+				filas = Math.max(0, ((Number) resultado).longValue());
+			} else if (resultado instanceof int[]) {
+				filas = 0;
+				for (int n : (int[]) resultado) {
+					filas += Math.max(0, n);
+				}
+			} else if (resultado instanceof long[]) {
+				filas = 0;
+				for (long n : (long[]) resultado) {
+					filas += Math.max(0, n);
+				}
+			} else if (Boolean.FALSE.equals(resultado)) {
+				filas = Math.max(0, real.getUpdateCount());
+			}
+			MonitorSQL.registrar(est, texto, parametros, nanos, filas, renglonesLote, false);
+			return resultado;
+		}
+
+		private ResultSet envolverResultados(Object sentencia, ResultSet rs, EstadisticaSQL est) {
+			cerrarResultados();
+			resultados = new ManejadorResultados(rs, sentencia, est);
+			return crearProxy(ResultSet.class, resultados);
+		}
+
+		/** Suma las filas leídas del {@code ResultSet} anterior. */
+		private void cerrarResultados() {
+			if (resultados != null) {
+				resultados.reportar();
+				resultados = null;
+			}
+		}
+	}
+
+	// ==========================================
+	// RESULTADOS
+	// ==========================================
+
+	/**
+	 * Cuenta las filas que el DAO lee de un {@code ResultSet}.
+	 */
+	private static final class ManejadorResultados implements InvocationHandler {
+
+		private final ResultSet real;
+		private final Object sentencia;
+		private final EstadisticaSQL estadistica;
+
+		/** Acción activa al ejecutar la consulta (las filas se le suman). */
+		private final ContextoAccion accion = ContextoAccion.actual();
+		private long filas;
+		private boolean reportado;
+
+		ManejadorResultados(ResultSet real, Object sentencia, EstadisticaSQL estadistica) {
+			this.real = real;
+			this.sentencia = sentencia;
+			this.estadistica = estadistica;
+		}
+
+		@Override
+		public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+			switch (method.getName()) {
+			case "next":
+				Object hay = delegar(real, method, args);
+				if (Boolean.TRUE.equals(hay)) {
+					filas++;
+				} else {
+					reportar();
+				}
+				return hay;
+			case "close":
+				reportar();
+				break;
+			case "getStatement":
+				return sentencia;
+			default:
+				Object propio = metodoDeObject(proxy, real, method, args);
+				if (propio != null) {
+					return propio;
+				}
+				break;
+			}
+			return delegar(real, method, args);
+		}
+
+		void reportar() {
+			if (!reportado) {
+				reportado = true;
+				estadistica.sumarFilas(filas);
+				if (accion != null) {
+					accion.sumarFilas(filas);
+				}
+			}
+		}
+	}
+}
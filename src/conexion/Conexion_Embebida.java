@@ -0,0 +1,87 @@
+package conexion;
+
+import java.nio.file.Paths;
+import java.sql.SQLException;
+
+/**
+ * Implementación concreta de conexión para el motor embebido (H2).
+ * <p>
+ * Pensada para tiendas de una sola caja: la base de datos vive en archivos
+ * locales dentro del mismo proceso, sin servidor ni red de por medio. Se abre
+ * en modo de compatibilidad con SQL Server, de modo que los DAOs ejecutan las
+ * mismas sentencias ({@code TOP}, {@code OFFSET ... FETCH}, {@code GETDATE()},
+ * {@code IDENTITY}, sugerencias de bloqueo) sin cambios.
+ * </p>
+ * <p>
+ * La primera conexión del proceso aplica {@link EsquemaBD}, que crea las tablas
+ * e índices si la base está vacía y no toca nada si ya existen.
+ * </p>
+ *
+ * @version 1.0
+ */
+public class Conexion_Embebida extends ConexionBD {
+
+	/** Evita aplicar el esquema en cada conexión física del pool. */
+	private static boolean esquemaAplicado = false;
+
+	/**
+	 * Constructor que pasa las credenciales a la clase padre. * @param servidor
+	 * Carpeta donde se guardan los archivos de la base (ej. "datos").
+	 *
+	 * @param baseDatos Nombre de la base (nombre de los archivos).
+	 * @param usuario   Usuario de la base; se crea al abrirla por primera vez.
+	 * @param password  Contraseña del usuario.
+	 */
+	public Conexion_Embebida(String servidor, String baseDatos, String usuario, String password) {
+		super(servidor, baseDatos, usuario, password);
+		aplicarEsquema();
+	}
+
+	/**
+	 * Construye la URL JDBC de un archivo H2 local.
+	 * <p>
+	 * Se incluyen las propiedades:
+	 * <ul>
+	 * <li><b>MODE=MSSQLServer</b>: Acepta la sintaxis de SQL Server que usan los
+	 * DAOs.</li>
+	 * <li><b>LOCK_TIMEOUT=5000</b>: Espera por bloqueos equivalente al tiempo
+	 * límite de las ventas.</li>
+	 * <li><b>DB_CLOSE_ON_EXIT=FALSE</b>: La base se cierra cuando el pool cierra
+	 * sus conexiones, no antes (el diario de ventas puede seguir escribiendo
+	 * durante el apagado).</li>
+	 * </ul>
+	 * </p>
+	 * * @param servidor Carpeta de los archivos.
+	 *
+	 * @param baseDatos Nombre de la base.
+	 * @return URL JDBC formateada (ej. jdbc:h2:file:/ruta/datos/MyPos;...).
+	 */
+	@Override
+	protected String construirURL(String servidor, String baseDatos) {
+		// H2 exige rutas absolutas (o con "./") para bases en archivo
+		return "jdbc:h2:file:" + Paths.get(servidor, baseDatos).toAbsolutePath()
+				+ ";MODE=MSSQLServer;LOCK_TIMEOUT=5000;DB_CLOSE_ON_EXIT=FALSE";
+	}
+
+	/**
+	 * Crea las tablas e índices con la primera conexión que se abra con éxito.
+	 * <p>
+	 * Sincronizado para que ninguna otra conexión se preste antes de que el
+	 * esquema exista.
+	 * </p>
+	 */
+	private void aplicarEsquema() {
+		synchronized (Conexion_Embebida.class) {
+			if (conexion == null || esquemaAplicado) {
+				return;
+			}
+			try {
+				EsquemaBD.crear(conexion);
+				esquemaAplicado = true;
+			} catch (SQLException e) {
+				// Se reintenta con la siguiente conexión
+				System.err.println("❌ Error al crear el esquema de la base embebida: " + e.getMessage());
+			}
+		}
+	}
+}
@@ -0,0 +1,124 @@
+package conexion;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Properties;
+
+/**
+ * Clase utilitaria que centraliza la configuración externa del sistema.
+ * <p>
+ * Las credenciales de la base de datos, el tamaño del pool de conexiones y los
+ * demás parámetros operativos se leen de un archivo de propiedades externo, de
+ * modo que cada caja registradora pueda configurarse sin recompilar.
+ * </p>
+ * <p>
+ * <b>Orden de búsqueda del archivo:</b>
+ * <ol>
+ * <li>Ruta indicada en la propiedad del sistema {@code -Dpos.config}.</li>
+ * <li>Archivo {@code pos.properties} en el directorio de trabajo.</li>
+ * <li>Recurso {@code /pos.properties} en el classpath.</li>
+ * </ol>
+ * Cualquier clave puede sobrescribirse individualmente con una propiedad del
+ * sistema del mismo nombre (ej. {@code -Dpos.db.password=secreto}).
+ * </p>
+ *
+ * @version 1.0
+ */
+public class Configuracion {
+
+	/** Nombre del archivo de configuración por defecto. */
+	private static final String ARCHIVO_POR_DEFECTO = "pos.properties";
+
+	/** Propiedades cargadas desde el archivo externo. */
+	private static final Properties PROPIEDADES = cargar();
+
+	/**
+	 * Constructor privado: clase de acceso estático.
+	 */
+	private Configuracion() {
+	}
+
+	/**
+	 * Carga el archivo de propiedades siguiendo el orden de búsqueda documentado.
+	 *
+	 * @return Propiedades leídas (vacías si no se encontró ningún archivo).
+	 */
+	private static Properties cargar() {
+		Properties propiedades = new Properties();
+		String rutaExplicita = System.getProperty("pos.config");
+		Path ruta = (rutaExplicita != null) ? Paths.get(rutaExplicita) : Paths.get(ARCHIVO_POR_DEFECTO);
+
+		try {
+			if (Files.isReadable(ruta)) {
+				try (InputStream in = Files.newInputStream(ruta)) {
+					propiedades.load(in);
+				}
+			} else {
+				try (InputStream in = Configuracion.class.getResourceAsStream("/" + ARCHIVO_POR_DEFECTO)) {
+					if (in != null) {
+						propiedades.load(in);
+					} else if (rutaExplicita != null) {
+						System.err.println("❌ No se encontró el archivo de configuración: " + ruta.toAbsolutePath());
+					}
+				}
+			}
+		} catch (IOException e) {
+			System.err.println("❌ Error al leer la configuración: " + e.getMessage());
+		}
+		return propiedades;
+	}
+
+	/**
+	 * Obtiene un valor de texto de la configuración.
+	 *
+	 * @param clave        Nombre de la propiedad (ej. {@code pos.db.servidor}).
+	 * @param valorDefecto Valor devuelto si la clave no está definida.
+	 * @return El valor configurado o {@code valorDefecto}.
+	 */
+	public static String getTexto(String clave, String valorDefecto) {
+		String valor = System.getProperty(clave);
+		if (valor == null) {
+			valor = PROPIEDADES.getProperty(clave);
+		}
+		return (valor == null || valor.trim().isEmpty()) ? valorDefecto : valor.trim();
+	}
+
+	/**
+	 * Obtiene un valor entero de la configuración.
+	 * <p>
+	 * Si el valor no es numérico se informa en consola y se usa el valor por
+	 * defecto, para que un error de captura no impida arrancar la caja.
+	 * </p>
+	 *
+	 * @param clave        Nombre de la propiedad.
+	 * @param valorDefecto Valor devuelto si la clave no existe o es inválida.
+	 * @return El valor configurado o {@code valorDefecto}.
+	 */
+	public static int getEntero(String clave, int valorDefecto) {
+		String valor = getTexto(clave, null);
+		if (valor == null) {
+			return valorDefecto;
+		}
+		try {
+			return Integer.parseInt(valor);
+		} catch (NumberFormatException e) {
+			System.err.println("❌ Valor inválido para " + clave + ": '" + valor + "'. Se usa " + valorDefecto);
+			return valorDefecto;
+		}
+	}
+
+	/**
+	 * Obtiene un valor booleano de la configuración ({@code true}/{@code false}).
+	 *
+	 * @param clave        Nombre de la propiedad.
+	 * @param valorDefecto Valor devuelto si la clave no está definida.
+	 * @return El valor configurado o {@code valorDefecto}.
+	 */
+	public static boolean getBooleano(String clave, boolean valorDefecto) {
+		String valor = getTexto(clave, null);
+		return (valor == null) ? valorDefecto : Boolean.parseBoolean(valor);
+	}
+}
@@ -0,0 +1,68 @@
+package conexion;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Arrays;
+
+/**
+ * Crea las tablas e índices del Punto de Venta en una base de datos vacía.
+ * <p>
+ * Aplica el script {@code esquema_pos.sql} (empaquetado junto a esta clase)
+ * sobre el motor embebido ({@link Conexion_Embebida}). Todas las sentencias son idempotentes, por lo que
+ * puede ejecutarse en cada arranque sin afectar los datos existentes.
+ * </p>
+ *
+ * @version 1.0
+ */
+public class EsquemaBD {
+
+	/** Recurso con el DDL, relativo a este paquete. */
+	private static final String SCRIPT = "esquema_pos.sql";
+
+	/**
+	 * Constructor privado: clase de acceso estático.
+	 */
+	private EsquemaBD() {
+	}
+
+	/**
+	 * Ejecuta el script de esquema sobre la conexión indicada.
+	 *
+	 * @param con Conexión abierta (no se cierra).
+	 * @throws SQLException Si alguna sentencia falla.
+	 */
+	public static void crear(Connection con) throws SQLException {
+		try (Statement st = con.createStatement()) {
+			for (String sentencia : leerSentencias()) {
+				st.execute(sentencia);
+			}
+		}
+	}
+
+	/**
+	 * Lee el script y lo divide en sentencias, descartando comentarios de línea.
+	 */
+	private static String[] leerSentencias() throws SQLException {
+		String texto;
+		try (InputStream in = EsquemaBD.class.getResourceAsStream(SCRIPT)) {
+			if (in == null) {
+				throw new SQLException("No se encontró el recurso " + SCRIPT);
+			}
+			texto = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+		} catch (IOException e) {
+			throw new SQLException("No se pudo leer " + SCRIPT, e);
+		}
+		StringBuilder sinComentarios = new StringBuilder(texto.length());
+		for (String linea : texto.split("\\R")) {
+			if (!linea.trim().startsWith("--")) {
+				sinComentarios.append(linea).append('\n');
+			}
+		}
+		return Arrays.stream(sinComentarios.toString().split(";")).map(String::trim)
+				.filter(s -> !s.isEmpty()).toArray(String[]::new);
+	}
+}
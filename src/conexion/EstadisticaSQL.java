@@ -0,0 +1,109 @@
+package conexion;
+
+import java.util.concurrent.atomic.LongAdder;
+
+import metricas.Histograma;
+
+/**
+ * Acumulado de ejecuciones de una sentencia SQL normalizada.
+ * <p>
+ * Lo mantiene {@link MonitorSQL}: todas las ejecuciones cuyo texto difiere
+ * sólo en literales o espacios comparten la misma estadística. Los contadores
+ * son {@link LongAdder} y la latencia un {@link Histograma}, así varias cajas
+ * (hilos) pueden registrar a la vez sin bloquearse.
+ * </p>
+ *
+ * @version 1.0
+ */
+public class EstadisticaSQL {
+
+	private final String sql;
+	private final Histograma latencia;
+	private final LongAdder filas = new LongAdder();
+	private final LongAdder errores = new LongAdder();
+	private final LongAdder lentas = new LongAdder();
+
+	/**
+	 * @param sql Texto normalizado (literales reemplazados por {@code ?}).
+	 */
+	EstadisticaSQL(String sql) {
+		this.sql = sql;
+		this.latencia = new Histograma("sql");
+	}
+
+	/**
+	 * Registra una ejecución.
+	 *
+	 * @param nanos Duración del {@code execute*}.
+	 * @param error Si la ejecución lanzó una excepción.
+	 * @param lenta Si superó el umbral de sentencia lenta.
+	 */
+	void registrar(long nanos, boolean error, boolean lenta) {
+		latencia.registrar(nanos);
+		if (error) {
+			errores.increment();
+		}
+		if (lenta) {
+			lentas.increment();
+		}
+	}
+
+	/**
+	 * Suma filas leídas de un {@code ResultSet} o afectadas por un
+	 * {@code UPDATE}/{@code INSERT}/{@code DELETE}.
+	 */
+	void sumarFilas(long n) {
+		filas.add(n);
+	}
+
+	public String getSql() {
+		return sql;
+	}
+
+	/** @return Número de ejecuciones. */
+	public long getLlamadas() {
+		return latencia.getConteo();
+	}
+
+	/** @return Filas devueltas o afectadas en total. */
+	public long getFilas() {
+		return filas.sum();
+	}
+
+	/** @return Ejecuciones que terminaron en excepción. */
+	public long getErrores() {
+		return errores.sum();
+	}
+
+	/** @return Ejecuciones que superaron el umbral de sentencia lenta. */
+	public long getLentas() {
+		return lentas.sum();
+	}
+
+	/** @return Tiempo acumulado de todas las ejecuciones, en segundos. */
+	public double getTotalSegundos() {
+		return latencia.getSumaSegundos();
+	}
+
+	public double getPromedioMs() {
+		return latencia.getPromedioMs();
+	}
+
+	public double getMaximoMs() {
+		return latencia.getMaximoMs();
+	}
+
+	/**
+	 * @param percentil Valor entre 0 y 100 (ej. 99).
+	 * @return Latencia estimada en milisegundos.
+	 */
+	public double getPercentilMs(double percentil) {
+		return latencia.getPercentilMs(percentil);
+	}
+
+	@Override
+	public String toString() {
+		return String.format("%8.2f s  %,9d llamadas  %,11d filas  prom %7.2f ms  p99 %8.2f ms  máx %8.2f ms  %s",
+				getTotalSegundos(), getLlamadas(), getFilas(), getPromedioMs(), getPercentilMs(99), getMaximoMs(), sql);
+	}
+}
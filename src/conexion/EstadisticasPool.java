@@ -0,0 +1,94 @@
+package conexion;
+
+/**
+ * Fotografía inmutable del estado del {@link PoolConexiones} en un instante.
+ * <p>
+ * Se utiliza para diagnosticar la carga de la caja (conexiones ocupadas,
+ * esperas agotadas, fugas detectadas) sin exponer el estado interno del pool.
+ * </p>
+ *
+ * @version 1.0
+ */
+public class EstadisticasPool {
+
+	private final int activas;
+	private final int inactivas;
+	private final int tamanoMaximo;
+	private final int hilosEsperando;
+	private final long conexionesCreadas;
+	private final long conexionesDestruidas;
+	private final long prestamos;
+	private final long esperasAgotadas;
+	private final long fugasDetectadas;
+
+	/**
+	 * Constructor completo.
+	 *
+	 * @param activas              Conexiones prestadas en este momento.
+	 * @param inactivas            Conexiones libres listas para reutilizar.
+	 * @param tamanoMaximo         Límite superior configurado del pool.
+	 * @param hilosEsperando       Hilos bloqueados esperando una conexión.
+	 * @param conexionesCreadas    Conexiones físicas abiertas desde el arranque.
+	 * @param conexionesDestruidas Conexiones físicas cerradas desde el arranque.
+	 * @param prestamos            Total de préstamos atendidos.
+	 * @param esperasAgotadas      Préstamos que fallaron por tiempo de espera.
+	 * @param fugasDetectadas      Conexiones retenidas más allá del umbral de
+	 *                             fuga.
+	 */
+	public EstadisticasPool(int activas, int inactivas, int tamanoMaximo, int hilosEsperando, long conexionesCreadas,
+			long conexionesDestruidas, long prestamos, long esperasAgotadas, long fugasDetectadas) {
+		this.activas = activas;
+		this.inactivas = inactivas;
+		this.tamanoMaximo = tamanoMaximo;
+		this.hilosEsperando = hilosEsperando;
+		this.conexionesCreadas = conexionesCreadas;
+		this.conexionesDestruidas = conexionesDestruidas;
+		this.prestamos = prestamos;
+		this.esperasAgotadas = esperasAgotadas;
+		this.fugasDetectadas = fugasDetectadas;
+	}
+
+	public int getActivas() {
+		return activas;
+	}
+
+	public int getInactivas() {
+		return inactivas;
+	}
+
+	public int getTamanoMaximo() {
+		return tamanoMaximo;
+	}
+
+	public int getHilosEsperando() {
+		return hilosEsperando;
+	}
+
+	public long getConexionesCreadas() {
+		return conexionesCreadas;
+	}
+
+	public long getConexionesDestruidas() {
+		return conexionesDestruidas;
+	}
+
+	public long getPrestamos() {
+		return prestamos;
+	}
+
+	public long getEsperasAgotadas() {
+		return esperasAgotadas;
+	}
+
+	public long getFugasDetectadas() {
+		return fugasDetectadas;
+	}
+
+	@Override
+	public String toString() {
+		return "Pool[activas=" + activas + ", inactivas=" + inactivas + ", max=" + tamanoMaximo + ", esperando="
+				+ hilosEsperando + ", creadas=" + conexionesCreadas + ", destruidas=" + conexionesDestruidas
+				+ ", prestamos=" + prestamos + ", esperasAgotadas=" + esperasAgotadas + ", fugas=" + fugasDetectadas
+				+ "]";
+	}
+}
@@ -0,0 +1,379 @@
+package conexion;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.sql.Connection;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.ToLongFunction;
+import java.util.logging.FileHandler;
+import java.util.logging.Formatter;
+import java.util.logging.Level;
+import java.util.logging.LogRecord;
+import java.util.logging.Logger;
+import java.util.regex.Pattern;
+
+import metricas.ContextoAccion;
+import metricas.Metricas;
+
+/**
+ * Estadísticas por sentencia SQL y bitácora de sentencias lentas.
+ * <p>
+ * {@link Conexion} envuelve cada conexión física con
+ * {@link #envolver(Connection)}; desde entonces cada ejecución de los DAOs
+ * queda registrada bajo su texto <b>normalizado</b> (espacios colapsados,
+ * literales reemplazados por {@code ?} y listas {@code IN (?, ?, ...)}
+ * reducidas), de modo que las variantes de una misma consulta se suman
+ * juntas. Por sentencia se lleva: llamadas, filas, errores e histograma de
+ * latencia ({@link EstadisticaSQL}).
+ * </p>
+ * <p>
+ * <b>Sentencias lentas:</b> las que tardan {@code pos.sql.lentoMs} o más se
+ * escriben, con sus parámetros, en una bitácora rotativa
+ * ({@code pos.sql.bitacora}, {@code pos.sql.bitacoraKB},
+ * {@code pos.sql.bitacoraArchivos}). Los parámetros de sentencias que tocan
+ * contraseñas se ocultan.
+ * </p>
+ * <p>
+ * Para no crecer sin límite con SQL armado a mano, se guardan como máximo
+ * {@code pos.sql.maxSentencias} textos distintos; las siguientes se suman en
+ * {@value #OTRAS}. La instrumentación se apaga con
+ * {@code pos.sql.instrumentar=false}.
+ * </p>
+ * <p>
+ * Los totales de todas las sentencias se publican en {@link Metricas} como
+ * {@code sql.ejecuciones}, {@code sql.errores} y {@code sql.lentas}.
+ * </p>
+ *
+ * @version 1.2
+ */
+public final class MonitorSQL {
+
+	/** Estadística donde caen las sentencias que ya no caben. */
+	public static final String OTRAS = "(otras sentencias)";
+
+	private static final boolean HABILITADO = Configuracion.getBooleano("pos.sql.instrumentar", true);
+	private static final long UMBRAL_LENTO_MS = Configuracion.getEntero("pos.sql.lentoMs", 500);
+	private static final int MAX_SENTENCIAS = Configuracion.getEntero("pos.sql.maxSentencias", 500);
+
+	/** Longitud máxima con la que se registra un parámetro de texto. */
+	private static final int MAX_LARGO_PARAMETRO = 200;
+
+	/** Texto normalizado → estadística. */
+	private static final Map<String, EstadisticaSQL> SENTENCIAS = new ConcurrentHashMap<>();
+
+	/**
+	 * Texto tal como lo envía el DAO → estadística, para no normalizar en cada
+	 * ejecución.
+	 */
+	private static final Map<String, EstadisticaSQL> POR_TEXTO = new ConcurrentHashMap<>();
+
+	private static final Pattern ESPACIOS = Pattern.compile("\\s+");
+	private static final Pattern LISTA_IN = Pattern.compile("(?i)\\bIN\\s*\\(\\s*\\?(\\s*,\\s*\\?)+\\s*\\)");
+	private static final Pattern FILAS_VALUES = Pattern.compile("(\\(\\?(?:\\s*,\\s*\\?)*\\))(?:\\s*,\\s*\\1)+");
+
+	private static final Logger BITACORA = Logger.getLogger("pos.sql.lento");
+	private static volatile boolean bitacoraLista = false;
+
+	static {
+		Metricas.acumulado("sql.ejecuciones", () -> sumar(EstadisticaSQL::getLlamadas));
+		Metricas.acumulado("sql.errores", () -> sumar(EstadisticaSQL::getErrores));
+		Metricas.acumulado("sql.lentas", () -> sumar(EstadisticaSQL::getLentas));
+	}
+
+	private MonitorSQL() {
+	}
+
+	/**
+	 * Envuelve una conexión física para instrumentar sus sentencias.
+	 *
+	 * @param real Conexión recién abierta (puede ser {@code null}).
+	 * @return Conexión instrumentada, o la misma si la instrumentación está
+	 *         apagada.
+	 */
+	public static Connection envolver(Connection real) {
+		return (HABILITADO && real != null) ? ConexionInstrumentada.envolver(real) : real;
+	}
+
+	/**
+	 * @return Si las conexiones nuevas se instrumentan.
+	 */
+	public static boolean isHabilitado() {
+		return HABILITADO;
+	}
+
+	/**
+	 * @return Duración a partir de la cual una sentencia se registra en la
+	 *         bitácora.
+	 */
+	public static long getUmbralLentoMs() {
+		return UMBRAL_LENTO_MS;
+	}
+
+	// ==========================================
+	// REGISTRO
+	// ==========================================
+
+	/**
+	 * Obtiene (o crea) la estadística del texto SQL indicado.
+	 */
+	static EstadisticaSQL estadistica(String sql) {
+		EstadisticaSQL e = POR_TEXTO.get(sql);
+		if (e != null) {
+			return e;
+		}
+		String normalizado = normalizar(sql);
+		e = SENTENCIAS.get(normalizado);
+		if (e == null) {
+			String clave = (SENTENCIAS.size() < MAX_SENTENCIAS) ? normalizado : OTRAS;
+			e = SENTENCIAS.computeIfAbsent(clave, EstadisticaSQL::new);
+		}
+		if (POR_TEXTO.size() < MAX_SENTENCIAS * 4) {
+			POR_TEXTO.put(sql, e);
+		}
+		return e;
+	}
+
+	/**
+	 * Registra una ejecución (también en la {@link ContextoAccion} activa) y, si
+	 * fue lenta, la escribe en la bitácora.
+	 *
+	 * @param estadistica Estadística de la sentencia.
+	 * @param sql         Texto ejecutado (sin normalizar).
+	 * @param parametros  Parámetros asignados, o {@code null}.
+	 * @param nanos       Duración del {@code execute*}.
+	 * @param filas       Filas afectadas, o {@code -1} si se sabrán al leer el
+	 *                    {@code ResultSet}.
+	 * @param lote        Renglones del lote ({@code 0} si no es lote).
+	 * @param error       Si la ejecución lanzó una excepción.
+	 */
+	static void registrar(EstadisticaSQL estadistica, String sql, Map<Integer, Object> parametros, long nanos,
+			long filas, int lote, boolean error) {
+		boolean lenta = nanos >= UMBRAL_LENTO_MS * 1_000_000;
+		estadistica.registrar(nanos, error, lenta);
+		if (filas > 0) {
+			estadistica.sumarFilas(filas);
+		}
+		ContextoAccion accion = ContextoAccion.actual();
+		if (accion != null) {
+			accion.registrarConsulta(estadistica.getSql());
+			if (filas > 0) {
+				accion.sumarFilas(filas);
+			}
+		}
+		if (lenta) {
+			escribirLenta(sql, parametros, nanos, filas, lote, error);
+		}
+	}
+
+	/**
+	 * @return Todas las sentencias, de mayor a menor tiempo acumulado.
+	 */
+	public static List<EstadisticaSQL> getSentencias() {
+		List<EstadisticaSQL> lista = new ArrayList<>(SENTENCIAS.values());
+		lista.sort(Comparator.comparingDouble(EstadisticaSQL::getTotalSegundos).reversed());
+		return lista;
+	}
+
+	/**
+	 * @param n Número de sentencias.
+	 * @return Las {@code n} sentencias con más tiempo acumulado.
+	 */
+	public static List<EstadisticaSQL> getTop(int n) {
+		List<EstadisticaSQL> lista = getSentencias();
+		return (lista.size() > n) ? lista.subList(0, n) : lista;
+	}
+
+	private static long sumar(ToLongFunction<EstadisticaSQL> valor) {
+		long total = 0;
+		for (EstadisticaSQL e : SENTENCIAS.values()) {
+			total += valor.applyAsLong(e);
+		}
+		return total;
+	}
+
+	/**
+	 * Borra todas las estadísticas (para medir a partir de ahora).
+	 */
+	public static void reiniciar() {
+		POR_TEXTO.clear();
+		SENTENCIAS.clear();
+	}
+
+	/**
+	 * Genera un resumen legible de las sentencias más costosas.
+	 *
+	 * @param n Número de sentencias.
+	 * @return Una línea por sentencia.
+	 */
+	public static String resumen(int n) {
+		StringBuilder sb = new StringBuilder();
+		for (EstadisticaSQL e : getTop(n)) {
+			sb.append(e).append(System.lineSeparator());
+		}
+		return sb.toString();
+	}
+
+	// ==========================================
+	// NORMALIZACIÓN
+	// ==========================================
+
+	/**
+	 * Reduce un texto SQL a su forma canónica: espacios colapsados, literales de
+	 * texto y numéricos reemplazados por {@code ?} y listas de parámetros
+	 * repetidas acortadas. Los identificadores entre {@code []} o comillas
+	 * dobles se respetan.
+	 *
+	 * @param sql Texto tal como se ejecutó.
+	 * @return Texto normalizado.
+	 */
+	static String normalizar(String sql) {
+		String texto = ESPACIOS.matcher(sql.trim()).replaceAll(" ");
+		StringBuilder sb = new StringBuilder(texto.length());
+		int i = 0;
+		while (i < texto.length()) {
+			char c = texto.charAt(i);
+			char anterior = (sb.length() == 0) ? ' ' : sb.charAt(sb.length() - 1);
+			if (c == '\'' || ((c == 'N' || c == 'n') && i + 1 < texto.length() && texto.charAt(i + 1) == '\''
+					&& !esParteDeNombre(anterior))) {
+				// Literal de texto ('...' o N'...'); '' es una comilla escapada
+				i = (c == '\'') ? i + 1 : i + 2;
+				while (i < texto.length()) {
+					if (texto.charAt(i) == '\'') {
+						if (i + 1 < texto.length() && texto.charAt(i + 1) == '\'') {
+							i += 2;
+							continue;
+						}
+						break;
+					}
+					i++;
+				}
+				sb.append('?');
+				i++;
+			} else if (c == '[' || c == '"') {
+				// Identificador delimitado
+				char cierre = (c == '[') ? ']' : '"';
+				int fin = texto.indexOf(cierre, i + 1);
+				fin = (fin < 0) ? texto.length() - 1 : fin;
+				sb.append(texto, i, fin + 1);
+				i = fin + 1;
+			} else if (Character.isDigit(c) && !esParteDeNombre(anterior)) {
+				while (i < texto.length() && (Character.isDigit(texto.charAt(i)) || texto.charAt(i) == '.')) {
+					i++;
+				}
+				sb.append('?');
+			} else {
+				sb.append(c);
+				i++;
+			}
+		}
+		String normalizado = LISTA_IN.matcher(sb).replaceAll("IN (?, ...)");
+		return FILAS_VALUES.matcher(normalizado).replaceAll("$1, ...");
+	}
+
+	private static boolean esParteDeNombre(char c) {
+		return Character.isLetterOrDigit(c) || c == '_' || c == '@' || c == '#' || c == '.' || c == '$';
+	}
+
+	// ==========================================
+	// BITÁCORA DE SENTENCIAS LENTAS
+	// ==========================================
+
+	private static void escribirLenta(String sql, Map<Integer, Object> parametros, long nanos, long filas, int lote,
+			boolean error) {
+		prepararBitacora();
+		StringBuilder sb = new StringBuilder();
+		sb.append(String.format(Locale.ROOT, "%.1f ms", nanos / 1_000_000.0));
+		if (error) {
+			sb.append(", ERROR");
+		} else if (filas >= 0) {
+			sb.append(", ").append(filas).append(" filas");
+		}
+		if (lote > 0) {
+			sb.append(", lote de ").append(lote);
+		}
+		sb.append(" | ").append(ESPACIOS.matcher(sql.trim()).replaceAll(" "));
+		if (parametros != null && !parametros.isEmpty()) {
+			sb.append(" | parámetros: ");
+			boolean ocultar = sql.toLowerCase(Locale.ROOT).contains("password");
+			boolean primero = true;
+			for (Map.Entry<Integer, Object> p : parametros.entrySet()) {
+				sb.append(primero ? "" : ", ").append(p.getKey()).append('=')
+						.append(ocultar ? "***" : formatear(p.getValue()));
+				primero = false;
+			}
+		}
+		BITACORA.log(error ? Level.WARNING : Level.INFO, sb.toString());
+	}
+
+	private static String formatear(Object valor) {
+		if (valor == null) {
+			return "NULL";
+		}
+		if (valor instanceof byte[]) {
+			return "<" + ((byte[]) valor).length + " bytes>";
+		}
+		if (valor instanceof InputStream || valor instanceof Reader) {
+			return "<flujo>";
+		}
+		String texto = String.valueOf(valor);
+		if (texto.length() > MAX_LARGO_PARAMETRO) {
+			texto = texto.substring(0, MAX_LARGO_PARAMETRO) + "...";
+		}
+		return (valor instanceof CharSequence) ? "'" + texto + "'" : texto;
+	}
+
+	/**
+	 * Abre el archivo rotativo la primera vez que hay una sentencia lenta (así
+	 * una caja sin problemas no crea archivos). Si no se puede abrir, la
+	 * bitácora sale por la consola de errores.
+	 */
+	private static void prepararBitacora() {
+		if (bitacoraLista) {
+			return;
+		}
+		synchronized (BITACORA) {
+			if (bitacoraLista) {
+				return;
+			}
+			String patron = Configuracion.getTexto("pos.sql.bitacora", "logs/sql-lento.%g.log");
+			int limiteKB = Configuracion.getEntero("pos.sql.bitacoraKB", 1_024);
+			int archivos = Configuracion.getEntero("pos.sql.bitacoraArchivos", 5);
+			BITACORA.setUseParentHandlers(false);
+			try {
+				File carpeta = new File(patron).getAbsoluteFile().getParentFile();
+				if (carpeta != null) {
+					carpeta.mkdirs();
+				}
+				FileHandler archivo = new FileHandler(patron, limiteKB * 1_024, Math.max(1, archivos), true);
+				archivo.setEncoding("UTF-8");
+				archivo.setFormatter(new FormatoLento());
+				BITACORA.addHandler(archivo);
+			} catch (IOException | SecurityException e) {
+				System.err.println("❌ No se pudo abrir la bitácora de SQL lento (" + patron + "): " + e.getMessage());
+				BITACORA.setUseParentHandlers(true);
+			}
+			bitacoraLista = true;
+		}
+	}
+
+	/**
+	 * Una línea por sentencia: fecha, caja, duración, filas, SQL y parámetros.
+	 */
+	private static final class FormatoLento extends Formatter {
+
+		@Override
+		public String format(LogRecord registro) {
+			return new SimpleDateFormat("yyyy-MM-dd HH:mm:ss.SSS").format(new Date(registro.getMillis())) + " ["
+					+ Metricas.getTerminal() + "] " + registro.getMessage() + System.lineSeparator();
+		}
+	}
+}
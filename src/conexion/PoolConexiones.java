@@ -0,0 +1,384 @@
+package conexion;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Pool acotado de conexiones JDBC reutilizables.
+ * <p>
+ * Evita abrir un nuevo handshake TCP + login contra el servidor en cada
+ * consulta: las conexiones físicas se crean una vez y se prestan a los DAOs
+ * envueltas en un proxy cuyo {@code close()} devuelve la conexión al pool en
+ * lugar de cerrarla.
+ * </p>
+ * <p>
+ * <b>Características:</b>
+ * <ul>
+ * <li><b>Límite de tamaño:</b> Un semáforo impide abrir más de
+ * {@code tamanoMaximo} conexiones; los hilos excedentes esperan hasta
+ * {@code tiempoEsperaMs}.</li>
+ * <li><b>Validación por inactividad:</b> Una conexión que lleva más de
+ * {@code validarTrasInactividadMs} sin usarse se comprueba con
+ * {@link Connection#isValid(int)} antes de prestarse.</li>
+ * <li><b>Vida máxima:</b> Las conexiones más antiguas que
+ * {@code vidaMaximaMs} se retiran y se reemplazan.</li>
+ * <li><b>Detección de fugas:</b> Un hilo de mantenimiento reporta en consola
+ * (con la pila del préstamo) las conexiones retenidas más de
+ * {@code umbralFugaMs}.</li>
+ * </ul>
+ * </p>
+ *
+ * @version 1.0
+ */
+public class PoolConexiones {
+
+	/** Fábrica que abre una conexión física nueva (o {@code null} si falla). */
+	private final Supplier<Connection> fabrica;
+
+	private final int tamanoMaximo;
+	private final int minimoInactivas;
+	private final long tiempoEsperaMs;
+	private final long vidaMaximaMs;
+	private final long validarTrasInactividadMs;
+	private final long umbralFugaMs;
+	private final int timeoutValidacionSeg;
+
+	/** Conexiones libres. Se usan en orden LIFO para reutilizar las más "calientes". */
+	private final LinkedBlockingDeque<ConexionFisica> inactivas = new LinkedBlockingDeque<>();
+
+	/** Conexiones actualmente prestadas (para detección de fugas). */
+	private final Set<ConexionFisica> prestadas = ConcurrentHashMap.newKeySet();
+
+	/** Limita el número total de conexiones (prestadas + en creación). */
+	private final Semaphore permisos;
+
+	/** Hilo de mantenimiento (fugas, expiración y mínimo de inactivas). */
+	private final ScheduledExecutorService mantenimiento;
+
+	// --- Contadores de estadísticas ---
+	private final AtomicLong creadas = new AtomicLong();
+	private final AtomicLong destruidas = new AtomicLong();
+	private final AtomicLong prestamos = new AtomicLong();
+	private final AtomicLong esperasAgotadas = new AtomicLong();
+	private final AtomicLong fugas = new AtomicLong();
+
+	private volatile boolean cerrado = false;
+
+	/**
+	 * Constructor principal.
+	 *
+	 * @param fabrica                  Proveedor de conexiones físicas.
+	 * @param tamanoMaximo             Número máximo de conexiones simultáneas.
+	 * @param minimoInactivas          Conexiones libres que se mantienen abiertas.
+	 * @param tiempoEsperaMs           Espera máxima para obtener una conexión.
+	 * @param vidaMaximaMs             Vida máxima de una conexión física.
+	 * @param validarTrasInactividadMs Inactividad tras la cual se valida antes de
+	 *                                 prestar.
+	 * @param umbralFugaMs             Tiempo de préstamo a partir del cual se
+	 *                                 reporta una posible fuga (0 = desactivado).
+	 */
+	public PoolConexiones(Supplier<Connection> fabrica, int tamanoMaximo, int minimoInactivas, long tiempoEsperaMs,
+			long vidaMaximaMs, long validarTrasInactividadMs, long umbralFugaMs) {
+		if (tamanoMaximo <= 0) {
+			throw new IllegalArgumentException("El tamaño máximo del pool debe ser mayor que cero.");
+		}
+		this.fabrica = fabrica;
+		this.tamanoMaximo = tamanoMaximo;
+		this.minimoInactivas = Math.min(Math.max(minimoInactivas, 0), tamanoMaximo);
+		this.tiempoEsperaMs = tiempoEsperaMs;
+		this.vidaMaximaMs = vidaMaximaMs;
+		this.validarTrasInactividadMs = validarTrasInactividadMs;
+		this.umbralFugaMs = umbralFugaMs;
+		this.timeoutValidacionSeg = 2;
+		this.permisos = new Semaphore(tamanoMaximo, true);
+
+		this.mantenimiento = Executors.newSingleThreadScheduledExecutor(r -> {
+			Thread hilo = new Thread(r, "pool-conexiones-mantenimiento");
+			hilo.setDaemon(true);
+			return hilo;
+		});
+		this.mantenimiento.scheduleWithFixedDelay(this::realizarMantenimiento, 5, 5, TimeUnit.SECONDS);
+	}
+
+	/**
+	 * Presta una conexión del pool.
+	 * <p>
+	 * El objeto devuelto debe cerrarse (idealmente con try-with-resources) para
+	 * regresar la conexión física al pool.
+	 * </p>
+	 *
+	 * @return Conexión lista para usarse.
+	 * @throws SQLException Si se agotó el tiempo de espera o no se pudo abrir una
+	 *                      conexión física.
+	 */
+	public Connection obtener() throws SQLException {
+		if (cerrado) {
+			throw new SQLException("El pool de conexiones está cerrado.");
+		}
+		try {
+			if (!permisos.tryAcquire(tiempoEsperaMs, TimeUnit.MILLISECONDS)) {
+				esperasAgotadas.incrementAndGet();
+				throw new SQLException("Tiempo de espera agotado (" + tiempoEsperaMs + " ms) al obtener una conexión. "
+						+ estadisticas());
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new SQLException("Interrumpido mientras se esperaba una conexión.", e);
+		}
+
+		try {
+			ConexionFisica fisica = tomarInactivaValida();
+			if (fisica == null) {
+				fisica = crear();
+			}
+			fisica.prestadaEn = System.currentTimeMillis();
+			fisica.pilaPrestamo = (umbralFugaMs > 0) ? new Throwable("Préstamo de conexión") : null;
+			fisica.fugaReportada = false;
+			prestadas.add(fisica);
+			prestamos.incrementAndGet();
+			return envolver(fisica);
+		} catch (SQLException | RuntimeException e) {
+			permisos.release();
+			throw e;
+		}
+	}
+
+	/**
+	 * Extrae conexiones libres descartando las expiradas o inválidas.
+	 *
+	 * @return Una conexión física válida o {@code null} si no hay libres.
+	 */
+	private ConexionFisica tomarInactivaValida() {
+		ConexionFisica fisica;
+		while ((fisica = inactivas.pollFirst()) != null) {
+			long ahora = System.currentTimeMillis();
+			if (haExpirado(fisica, ahora)) {
+				destruir(fisica);
+				continue;
+			}
+			if (ahora - fisica.ultimoUso > validarTrasInactividadMs) {
+				try {
+					if (!fisica.real.isValid(timeoutValidacionSeg)) {
+						destruir(fisica);
+						continue;
+					}
+				} catch (SQLException e) {
+					destruir(fisica);
+					continue;
+				}
+			}
+			return fisica;
+		}
+		return null;
+	}
+
+	/**
+	 * Abre una nueva conexión física mediante la fábrica.
+	 *
+	 * @return La conexión creada.
+	 * @throws SQLException Si la fábrica no pudo conectar.
+	 */
+	private ConexionFisica crear() throws SQLException {
+		Connection real = fabrica.get();
+		if (real == null) {
+			throw new SQLException("No se pudo abrir una conexión física con la base de datos.");
+		}
+		creadas.incrementAndGet();
+		return new ConexionFisica(real);
+	}
+
+	/**
+	 * Regresa una conexión al pool restableciendo su estado transaccional.
+	 *
+	 * @param fisica Conexión devuelta por el proxy.
+	 */
+	private void devolver(ConexionFisica fisica) {
+		prestadas.remove(fisica);
+		try {
+			if (cerrado || fisica.real.isClosed() || haExpirado(fisica, System.currentTimeMillis())) {
+				destruir(fisica);
+				return;
+			}
+			// Una transacción abandonada no debe contaminar al siguiente usuario
+			if (!fisica.real.getAutoCommit()) {
+				fisica.real.rollback();
+				fisica.real.setAutoCommit(true);
+			}
+			fisica.ultimoUso = System.currentTimeMillis();
+			inactivas.offerFirst(fisica);
+		} catch (SQLException e) {
+			destruir(fisica);
+		} finally {
+			permisos.release();
+		}
+	}
+
+	private boolean haExpirado(ConexionFisica fisica, long ahora) {
+		return vidaMaximaMs > 0 && ahora - fisica.creadaEn > vidaMaximaMs;
+	}
+
+	/**
+	 * Cierra físicamente una conexión.
+	 *
+	 * @param fisica Conexión a descartar.
+	 */
+	private void destruir(ConexionFisica fisica) {
+		destruidas.incrementAndGet();
+		try {
+			fisica.real.close();
+		} catch (SQLException e) {
+			System.err.println("❌ Error al cerrar la conexión física: " + e.getMessage());
+		}
+	}
+
+	/**
+	 * Tarea periódica: reporta fugas, retira conexiones expiradas y mantiene el
+	 * mínimo de conexiones inactivas abiertas.
+	 */
+	private void realizarMantenimiento() {
+		long ahora = System.currentTimeMillis();
+
+		// 1. Detección de fugas
+		if (umbralFugaMs > 0) {
+			for (ConexionFisica fisica : prestadas) {
+				if (!fisica.fugaReportada && ahora - fisica.prestadaEn > umbralFugaMs) {
+					fisica.fugaReportada = true;
+					fugas.incrementAndGet();
+					System.err.println("⚠ Posible fuga de conexión: retenida " + (ahora - fisica.prestadaEn)
+							+ " ms. Pila del préstamo:");
+					if (fisica.pilaPrestamo != null) {
+						fisica.pilaPrestamo.printStackTrace();
+					}
+				}
+			}
+		}
+
+		// 2. Retiro de conexiones inactivas expiradas
+		for (ConexionFisica fisica : inactivas) {
+			if (haExpirado(fisica, ahora) && inactivas.remove(fisica)) {
+				destruir(fisica);
+			}
+		}
+
+		// 3. Mantener el mínimo de conexiones listas
+		while (!cerrado && inactivas.size() < minimoInactivas
+				&& inactivas.size() + prestadas.size() < tamanoMaximo && permisos.tryAcquire()) {
+			try {
+				inactivas.offerFirst(crear());
+			} catch (SQLException e) {
+				break; // El servidor no responde; se reintenta en el siguiente ciclo
+			} finally {
+				permisos.release();
+			}
+		}
+	}
+
+	/**
+	 * Devuelve una fotografía del estado actual del pool.
+	 *
+	 * @return Estadísticas de uso.
+	 */
+	public EstadisticasPool estadisticas() {
+		return new EstadisticasPool(prestadas.size(), inactivas.size(), tamanoMaximo, permisos.getQueueLength(),
+				creadas.get(), destruidas.get(), prestamos.get(), esperasAgotadas.get(), fugas.get());
+	}
+
+	/**
+	 * Cierra el pool y todas las conexiones libres. Las conexiones prestadas se
+	 * cierran físicamente cuando sus usuarios las devuelvan.
+	 */
+	public void cerrar() {
+		cerrado = true;
+		mantenimiento.shutdownNow();
+		ConexionFisica fisica;
+		while ((fisica = inactivas.pollFirst()) != null) {
+			destruir(fisica);
+		}
+	}
+
+	/**
+	 * Crea el proxy que intercepta {@code close()} para devolver la conexión.
+	 *
+	 * @param fisica Conexión física prestada.
+	 * @return Proxy que implementa {@link Connection}.
+	 */
+	private Connection envolver(ConexionFisica fisica) {
+		return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class<?>[] { Connection.class },
+				new ManejadorConexion(fisica));
+	}
+
+	/**
+	 * Estado interno de una conexión física administrada por el pool.
+	 */
+	private static final class ConexionFisica {
+		final Connection real;
+		final long creadaEn;
+		volatile long ultimoUso;
+		volatile long prestadaEn;
+		volatile Throwable pilaPrestamo;
+		volatile boolean fugaReportada;
+
+		ConexionFisica(Connection real) {
+			this.real = real;
+			this.creadaEn = System.currentTimeMillis();
+			this.ultimoUso = this.creadaEn;
+		}
+	}
+
+	/**
+	 * Manejador del proxy: delega todo a la conexión física excepto
+	 * {@code close()} e {@code isClosed()}.
+	 */
+	private final class ManejadorConexion implements InvocationHandler {
+
+		private final ConexionFisica fisica;
+		private volatile boolean cerrada = false;
+
+		ManejadorConexion(ConexionFisica fisica) {
+			this.fisica = fisica;
+		}
+
+		@Override
+		public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+			switch (method.getName()) {
+			case "close":
+				if (!cerrada) {
+					cerrada = true;
+					devolver(fisica);
+				}
+				return null;
+			case "isClosed":
+				return cerrada || fisica.real.isClosed();
+			case "equals":
+				return proxy == args[0];
+			case "hashCode":
+				return System.identityHashCode(proxy);
+			case "toString":
+				return "ConexionPool[" + fisica.real + "]";
+			default:
+				break;
+			}
+			if (cerrada) {
+				throw new SQLException("La conexión ya fue devuelta al pool.");
+			}
+			try {
+				return method.invoke(fisica.real, args);
+			} catch (InvocationTargetException e) {
+				throw e.getCause();
+			}
+		}
+	}
+}
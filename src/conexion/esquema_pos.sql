@@ -0,0 +1,169 @@
+-- =============================================================
+-- Esquema completo del Punto de Venta para el motor embebido
+-- =============================================================
+-- Dialecto: H2 en modo compatible con SQL Server (MODE=MSSQLServer), para
+-- que los DAOs ejecuten las mismas sentencias que contra el servidor.
+-- Lo aplica conexion.EsquemaBD; cada sentencia termina en ';' y es
+-- idempotente (IF NOT EXISTS).
+
+CREATE TABLE IF NOT EXISTS TablaCategorias (
+    Cid INT IDENTITY(1,1) PRIMARY KEY,
+    Nombre NVARCHAR(100) NOT NULL
+);
+
+CREATE TABLE IF NOT EXISTS TablaProveedores (
+    Pid INT IDENTITY(1,1) PRIMARY KEY,
+    NombreP NVARCHAR(150) NOT NULL,
+    NumeroTel NVARCHAR(20)
+);
+
+CREATE TABLE IF NOT EXISTS TablaClientes (
+    Cid INT IDENTITY(1,1) PRIMARY KEY,
+    NombreC NVARCHAR(150) NOT NULL,
+    NumeroTel NVARCHAR(20)
+);
+
+CREATE TABLE IF NOT EXISTS TablaEmpleados (
+    Eid INT IDENTITY(1,1) PRIMARY KEY,
+    NombreE NVARCHAR(150) NOT NULL,
+    NumeroTel NVARCHAR(20),
+    Rol NVARCHAR(30) NOT NULL,
+    Password NVARCHAR(100) NOT NULL
+);
+
+CREATE TABLE IF NOT EXISTS TablaAlmacen_Productos (
+    Pid INT IDENTITY(1,1) PRIMARY KEY,
+    Nombre NVARCHAR(150) NOT NULL,
+    Descripcion NVARCHAR(500),
+    Precio DECIMAL(12,2) NOT NULL,
+    Codigo NVARCHAR(50),
+    Cantidad INT NOT NULL DEFAULT 0,
+    Ruta_Imagen NVARCHAR(260),
+    ProveedorID INT NOT NULL REFERENCES TablaProveedores (Pid),
+    CategoriaID INT NOT NULL REFERENCES TablaCategorias (Cid),
+    StockMinimo INT NOT NULL DEFAULT 0
+);
+
+CREATE TABLE IF NOT EXISTS TablaCortesCaja (
+    CorteID INT IDENTITY(1,1) PRIMARY KEY,
+    UsuarioID INT NOT NULL REFERENCES TablaEmpleados (Eid),
+    FechaApertura DATETIME NOT NULL,
+    MontoInicial DECIMAL(12,2) NOT NULL,
+    FechaCierre DATETIME,
+    MontoFinalSistema DECIMAL(12,2),
+    MontoFinalContado DECIMAL(12,2),
+    Diferencia DECIMAL(12,2),
+    Status NVARCHAR(20) NOT NULL
+);
+
+CREATE TABLE IF NOT EXISTS TablaVentas (
+    VentaID INT IDENTITY(1,1) PRIMARY KEY,
+    ClienteID INT REFERENCES TablaClientes (Cid),
+    EmpleadoID INT NOT NULL REFERENCES TablaEmpleados (Eid),
+    FechaVenta DATETIME NOT NULL,
+    Total DECIMAL(12,2) NOT NULL,
+    MetodoPago NVARCHAR(20),
+    Subtotal DECIMAL(12,2) NOT NULL,
+    Descuento DECIMAL(12,2) NOT NULL DEFAULT 0,
+    Impuestos DECIMAL(12,2) NOT NULL DEFAULT 0,
+    CorteID INT REFERENCES TablaCortesCaja (CorteID),
+    ClaveIdempotencia CHAR(36)
+);
+
+CREATE TABLE IF NOT EXISTS TablaVentaDetalle (
+    DetalleID INT IDENTITY(1,1) PRIMARY KEY,
+    VentaID INT NOT NULL REFERENCES TablaVentas (VentaID),
+    ProductoID INT NOT NULL REFERENCES TablaAlmacen_Productos (Pid),
+    Cantidad INT NOT NULL,
+    PrecioUnitario DECIMAL(12,2) NOT NULL,
+    Subtotal DECIMAL(12,2) NOT NULL
+);
+
+CREATE TABLE IF NOT EXISTS TablaMovimientosCaja (
+    MovimientoID INT IDENTITY(1,1) PRIMARY KEY,
+    CorteID INT NOT NULL REFERENCES TablaCortesCaja (CorteID),
+    UsuarioID INT NOT NULL REFERENCES TablaEmpleados (Eid),
+    Fecha DATETIME NOT NULL,
+    TipoMovimiento NVARCHAR(20) NOT NULL,
+    Monto DECIMAL(12,2) NOT NULL,
+    Descripcion NVARCHAR(300)
+);
+
+CREATE TABLE IF NOT EXISTS TablaEntradasInventario (
+    EntradaID INT IDENTITY(1,1) PRIMARY KEY,
+    ProductoID INT NOT NULL REFERENCES TablaAlmacen_Productos (Pid),
+    CantidadAgregada INT NOT NULL,
+    FechaEntrada DATETIME NOT NULL,
+    UsuarioID INT REFERENCES TablaEmpleados (Eid),
+    ProductoDescripcion NVARCHAR(500)
+);
+
+CREATE TABLE IF NOT EXISTS TablaOrdenesCompra (
+    OrdenID INT IDENTITY(1,1) PRIMARY KEY,
+    ProveedorID INT NOT NULL REFERENCES TablaProveedores (Pid),
+    Fecha DATETIME NOT NULL,
+    Status NVARCHAR(20) NOT NULL
+);
+
+CREATE TABLE IF NOT EXISTS TablaOrdenCompraDetalle (
+    DetalleID INT IDENTITY(1,1) PRIMARY KEY,
+    OrdenID INT NOT NULL REFERENCES TablaOrdenesCompra (OrdenID),
+    ProductoID INT NOT NULL REFERENCES TablaAlmacen_Productos (Pid),
+    CantidadPedida INT NOT NULL,
+    CostoUnitario DECIMAL(12,2) NOT NULL,
+    Descripcion NVARCHAR(500)
+);
+
+-- Resúmenes diarios de ventas (ResumenVentasDAO, equivalentes a sql/resumen_ventas.sql)
+CREATE TABLE IF NOT EXISTS TablaResumenVentasDia (
+    Fecha DATE NOT NULL,
+    EmpleadoID INT NOT NULL,
+    MetodoPago NVARCHAR(20) NOT NULL,
+    NumVentas INT NOT NULL,
+    Subtotal DECIMAL(14,2) NOT NULL,
+    Descuento DECIMAL(14,2) NOT NULL,
+    Impuestos DECIMAL(14,2) NOT NULL,
+    Total DECIMAL(14,2) NOT NULL,
+    PRIMARY KEY (Fecha, EmpleadoID, MetodoPago)
+);
+
+CREATE TABLE IF NOT EXISTS TablaResumenProductosDia (
+    Fecha DATE NOT NULL,
+    ProductoID INT NOT NULL,
+    CategoriaID INT NOT NULL,
+    Cantidad INT NOT NULL,
+    Importe DECIMAL(14,2) NOT NULL,
+    PRIMARY KEY (Fecha, ProductoID)
+);
+
+-- Saldos acumulados por turno de caja (SaldoCorteDAO, equivalente a sql/saldos_corte.sql)
+CREATE TABLE IF NOT EXISTS TablaSaldosCorte (
+    CorteID INT PRIMARY KEY REFERENCES TablaCortesCaja (CorteID),
+    NumVentas INT NOT NULL,
+    VentasEfectivo DECIMAL(14,2) NOT NULL,
+    VentasTarjeta DECIMAL(14,2) NOT NULL,
+    VentasOtros DECIMAL(14,2) NOT NULL,
+    Ingresos DECIMAL(14,2) NOT NULL,
+    Egresos DECIMAL(14,2) NOT NULL,
+    EfectivoEsperado DECIMAL(14,2) NOT NULL,
+    Version BIGINT NOT NULL
+);
+
+-- Índices (equivalentes a sql/indices_paginacion.sql y sql/diario_ventas.sql)
+CREATE INDEX IF NOT EXISTS IX_Clientes_Nombre ON TablaClientes (NombreC, Cid);
+CREATE INDEX IF NOT EXISTS IX_Proveedores_Nombre ON TablaProveedores (NombreP, Pid);
+CREATE INDEX IF NOT EXISTS IX_Empleados_Nombre ON TablaEmpleados (NombreE, Eid);
+CREATE INDEX IF NOT EXISTS IX_Productos_Nombre ON TablaAlmacen_Productos (Nombre, Pid);
+CREATE INDEX IF NOT EXISTS IX_Productos_Codigo ON TablaAlmacen_Productos (Codigo);
+CREATE INDEX IF NOT EXISTS IX_OrdenesCompra_Fecha ON TablaOrdenesCompra (Fecha, OrdenID);
+CREATE INDEX IF NOT EXISTS IX_MovimientosCaja_Corte ON TablaMovimientosCaja (CorteID, MovimientoID);
+CREATE INDEX IF NOT EXISTS IX_MovimientosCaja_Fecha ON TablaMovimientosCaja (Fecha, MovimientoID);
+CREATE INDEX IF NOT EXISTS IX_Ventas_Fecha ON TablaVentas (FechaVenta, VentaID);
+CREATE INDEX IF NOT EXISTS IX_Ventas_Corte ON TablaVentas (CorteID);
+-- NULLS DISTINCT: en modo SQL Server, H2 trataría los NULL como iguales
+CREATE UNIQUE NULLS DISTINCT INDEX IF NOT EXISTS UX_Ventas_ClaveIdempotencia ON TablaVentas (ClaveIdempotencia);
+CREATE INDEX IF NOT EXISTS IX_VentaDetalle_Venta ON TablaVentaDetalle (VentaID);
+CREATE INDEX IF NOT EXISTS IX_VentaDetalle_Producto ON TablaVentaDetalle (ProductoID);
+CREATE INDEX IF NOT EXISTS IX_EntradasInventario_Fecha ON TablaEntradasInventario (FechaEntrada);
+CREATE INDEX IF NOT EXISTS IX_OrdenCompraDetalle_Orden ON TablaOrdenCompraDetalle (OrdenID);
+CREATE INDEX IF NOT EXISTS IX_ResumenProductos_Categoria ON TablaResumenProductosDia (CategoriaID, Fecha);
@@ -13,6 +13,7 @@ import modelo.Proveedor;
 import modelogenerico.ModeloCombobox;
 import persistencia.AlmacenProductosDAO;
 import persistencia.CategoriaDAO;
+import persistencia.EjecutorBD;
 import persistencia.EntradaInventarioDAO;
 import persistencia.ProveedorDAO;
 import vista.PanelAlmacenProductos;
@@ -30,7 +31,11 @@ import vista.PanelAlmacenProductos;
  * <li>Gestión de alertas visuales (Semáforo de stock).</li>
  * </ul>
  * </p>
- * * @version 1.2
+ * <p>
+ * Las consultas y escrituras corren fuera del hilo de la interfaz con
+ * {@link EjecutorBD}, marcando la vista como ocupada mientras tanto.
+ * </p>
+ * * @version 1.3
  */
 public class ControladorAlmacen extends ControladorGenerico<AlmacenProductos> {
 
@@ -88,40 +93,49 @@ public class ControladorAlmacen extends ControladorGenerico<AlmacenProductos> {
 	 * ID.
 	 * <p>
 	 * Prioriza la búsqueda exacta por código. Si no encuentra nada, intenta
-	 * interpretar el texto como un ID numérico.
+	 * interpretar el texto como un ID numérico. Si el texto tiene la forma
+	 * {@code campo:valor} o no es código ni ID, se usa la búsqueda paginada del
+	 * controlador genérico (ej. {@code proveedor:bimbo} o {@code leche}).
 	 * </p>
 	 */
 	@Override
 	public void buscar() {
-		String textoBusqueda = vista.getTbuscar();
+		String textoBusqueda = vista.getTbuscar().trim();
 		if (textoBusqueda.isEmpty()) {
 			vista.mostrarError("El campo de búsqueda está vacío.");
 			return;
 		}
+		if (textoBusqueda.indexOf(':') > 0) {
+			super.buscar();
+			return;
+		}
 
 		AlmacenProductosDAO almacenDAO = (AlmacenProductosDAO) this.modelo;
-		AlmacenProductos productoEncontrado = null;
-
-		// 1. Intento de búsqueda por Código (String exacto)
-		productoEncontrado = almacenDAO.buscarPorCodigo(textoBusqueda);
-
-		// 2. Si falla, intento de búsqueda por ID (Numérico)
-		if (productoEncontrado == null) {
-			try {
-				int id = Integer.parseInt(textoBusqueda);
-				productoEncontrado = almacenDAO.buscarPorID(id);
-			} catch (NumberFormatException e) {
-				// No es un error crítico, simplemente el texto no era un número
+		vista.setOcupado(true);
+		EjecutorBD.ejecutar(() -> {
+			// 1. Intento de búsqueda por Código (String exacto)
+			AlmacenProductos producto = almacenDAO.buscarPorCodigo(textoBusqueda);
+
+			// 2. Si falla, intento de búsqueda por ID (Numérico; un código de barras
+			// largo no cabe en un int y no puede ser ID)
+			if (producto == null && textoBusqueda.matches("\\d{1,9}")) {
+				producto = almacenDAO.buscarPorID(Integer.parseInt(textoBusqueda));
 			}
-		}
-
-		// Resultados
-		if (productoEncontrado != null) {
-			vista.mostrarEntidades(Collections.singletonList(productoEncontrado));
-			vista.mostrarMensaje("Producto encontrado.");
-		} else {
-			vista.mostrarError("No se encontró ningún producto con ese código o ID.");
-		}
+			return producto;
+		}).whenComplete((productoEncontrado, error) -> {
+			vista.setOcupado(false);
+			// Resultados
+			if (error != null) {
+				vista.mostrarError("Error al buscar el producto.");
+			} else if (productoEncontrado != null) {
+				vista.mostrarEntidades(Collections.singletonList(productoEncontrado));
+				vista.mostrarMensaje("Producto encontrado.");
+			} else if (!textoBusqueda.matches("\\d+")) {
+				super.buscar(); // 3. Búsqueda por nombre en el servidor
+			} else {
+				vista.mostrarError("No se encontró ningún producto con ese código o ID.");
+			}
+		});
 	}
 
 	/**
@@ -159,51 +173,59 @@ public class ControladorAlmacen extends ControladorGenerico<AlmacenProductos> {
 			return;
 		}
 
-		// 3. Auditoría: Registrar entrada si hubo aumento de stock
-		if (cantidadAgregada > 0) {
-			// Creamos el registro histórico con el usuario de la sesión actual
-			EntradaInventario nuevaEntrada = new EntradaInventario(entidad.getid(), cantidadAgregada, new Date(),
-					this.usuarioActual.getid(), // ID del empleado logueado
-					entidad.getDescripcion());
-
-			EntradaInventarioDAO entradaDAO = new EntradaInventarioDAO();
-			if (!entradaDAO.agregar(nuevaEntrada)) {
-				vista.mostrarError(
-						"¡Atención! No se pudo registrar la entrada en el historial. La modificación se ha cancelado por seguridad.");
-				return;
-			}
-		}
-
-		// 4. Confirmación y Actualización del Producto
+		// 3. Confirmación
 		int confirmacion = JOptionPane.showConfirmDialog(vista,
 				"¿Seguro que desea modificar el registro con ID " + id + "?", "Confirmar Modificación",
 				JOptionPane.YES_NO_OPTION);
+		if (confirmacion != JOptionPane.YES_OPTION) {
+			return;
+		}
 
-		if (confirmacion == JOptionPane.YES_OPTION) {
-			if (modelo.modificar(entidad)) {
+		// 4. Auditoría y actualización del producto, fuera del EDT
+		int cantidad = cantidadAgregada;
+		vista.setOcupado(true);
+		EjecutorBD.ejecutar(() -> {
+			if (cantidad > 0) {
+				// Creamos el registro histórico con el usuario de la sesión actual
+				EntradaInventario nuevaEntrada = new EntradaInventario(entidad.getid(), cantidad, new Date(),
+						this.usuarioActual.getid(), // ID del empleado logueado
+						entidad.getDescripcion());
+				if (!new EntradaInventarioDAO().agregar(nuevaEntrada)) {
+					return null; // Sin historial no se modifica el stock
+				}
+			}
+			return modelo.modificar(entidad);
+		}).whenComplete((exito, error) -> {
+			vista.setOcupado(false);
+			if (error == null && exito == null) {
+				vista.mostrarError(
+						"¡Atención! No se pudo registrar la entrada en el historial. La modificación se ha cancelado por seguridad.");
+			} else if (error == null && exito) {
 				vista.mostrarMensaje("Actualizado con éxito.");
 				vista.limpiarCampos();
 				mostrarTodo(); // Recargar tabla para ver nuevos colores/cantidades
 			} else {
 				vista.mostrarError("Error al actualizar el producto.");
 			}
-		}
+		});
 	}
 
 	/**
 	 * Carga la lista de proveedores activos en el ComboBox de la vista.
 	 */
 	private void cargarProveedores() {
-		List<Proveedor> listaProveedores = proveedorDAO.ObtenerTodo();
-		ModeloCombobox.cargarComboBox(panelAlmacen.getComboProveedor(), listaProveedores);
+		EjecutorBD.ejecutar(proveedorDAO::ObtenerTodo).thenAccept(
+				(List<Proveedor> listaProveedores) -> ModeloCombobox.cargarComboBox(panelAlmacen.getComboProveedor(),
+						listaProveedores));
 	}
 
 	/**
 	 * Carga la lista de categorías en el ComboBox de la vista.
 	 */
 	private void cargarCategorias() {
-		List<Categorias> listaCategorias = categoriaDAO.ObtenerTodo();
-		ModeloCombobox.cargarComboBox(panelAlmacen.getComboCategoria(), listaCategorias);
+		EjecutorBD.ejecutar(categoriaDAO::ObtenerTodo).thenAccept(
+				(List<Categorias> listaCategorias) -> ModeloCombobox.cargarComboBox(panelAlmacen.getComboCategoria(),
+						listaCategorias));
 	}
 
 	/**
@@ -0,0 +1,157 @@
+package controlador;
+
+import java.sql.SQLException;
+import java.text.SimpleDateFormat;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.Date;
+import java.util.concurrent.CompletionException;
+
+import javax.swing.JOptionPane;
+import javax.swing.table.DefaultTableModel;
+
+import analitica.ConsultaAnalitica;
+import analitica.Dimension;
+import analitica.MotorAnalitico;
+import analitica.ResultadoAnalitico;
+import persistencia.EjecutorBD;
+import vista.PanelAnalitica;
+
+/**
+ * Controlador de la pestaña de análisis de ventas.
+ * <p>
+ * Traduce los filtros de {@link PanelAnalitica} a una {@link ConsultaAnalitica}
+ * y la resuelve con el {@link MotorAnalitico} fuera del EDT. Al abrir la
+ * pestaña arranca la carga del motor en segundo plano (y sus actualizaciones
+ * periódicas); la primera consulta espera a que termine.
+ * </p>
+ *
+ * @version 1.0
+ */
+public class ControladorAnalitica {
+
+	private final PanelAnalitica vista;
+	private final MotorAnalitico motor = MotorAnalitico.getInstancia();
+
+	/**
+	 * @param vista Panel de análisis.
+	 */
+	public ControladorAnalitica(PanelAnalitica vista) {
+		this.vista = vista;
+
+		Dimension[] dimensiones = Dimension.values();
+		String[] opciones = new String[dimensiones.length];
+		for (int i = 0; i < dimensiones.length; i++) {
+			opciones[i] = dimensiones[i].getNombre();
+		}
+		vista.setOpcionesAgrupar(opciones);
+
+		vista.addConsultarListener(e -> consultar());
+		vista.addActualizarDatosListener(e -> actualizarDatos());
+
+		motor.cargarEnSegundoPlano();
+		actualizarDatos(); // Muestra el estado (espera a la carga si está en curso)
+	}
+
+	/**
+	 * Resuelve la consulta elegida en pantalla y llena la tabla.
+	 */
+	private void consultar() {
+		LocalDate desde = aFecha(vista.getDesde());
+		LocalDate hasta = aFecha(vista.getHasta());
+		if (hasta.isBefore(desde)) {
+			JOptionPane.showMessageDialog(vista, "La fecha final es anterior a la inicial.", "Advertencia",
+					JOptionPane.WARNING_MESSAGE);
+			return;
+		}
+		Dimension agrupar = Dimension.values()[Math.max(0, vista.getAgruparSeleccionado())];
+		ConsultaAnalitica consulta = new ConsultaAnalitica(desde, hasta, agrupar).entreHoras(vista.getHoraDesde(),
+				vista.getHoraHasta());
+		String metodo = vista.getMetodoPagoSeleccionado();
+		if (metodo != null && !PanelAnalitica.TODOS.equals(metodo)) {
+			consulta.filtrar(Dimension.METODO_PAGO, metodo);
+		}
+
+		vista.setOcupado(true);
+		EjecutorBD.ejecutar(() -> {
+			try {
+				return motor.consultar(consulta);
+			} catch (SQLException e) {
+				throw new CompletionException(e);
+			}
+		}).whenComplete((resultado, error) -> {
+			vista.setOcupado(false);
+			if (error != null) {
+				Throwable causa = (error.getCause() != null) ? error.getCause() : error;
+				JOptionPane.showMessageDialog(vista, "Error al consultar: " + causa.getMessage(), "Error",
+						JOptionPane.ERROR_MESSAGE);
+				return;
+			}
+			mostrar(agrupar, resultado);
+		});
+	}
+
+	private void mostrar(Dimension agrupar, ResultadoAnalitico resultado) {
+		String[] columnas = { agrupar.getNombre(), "Ventas", "Unidades", "Importe", "% del Importe" };
+		@SuppressWarnings("serial")
+		DefaultTableModel model = new DefaultTableModel(columnas, 0) {
+			@Override
+			public boolean isCellEditable(int row, int column) {
+				return false;
+			}
+
+			@Override
+			public Class<?> getColumnClass(int columna) {
+				// Para que el ordenamiento de la tabla sea numérico
+				return (columna == 0) ? String.class : (columna <= 2) ? Long.class : Double.class;
+			}
+		};
+
+		double total = 0;
+		for (ResultadoAnalitico.Fila f : resultado.getFilas()) {
+			total += f.getImporte();
+		}
+		for (ResultadoAnalitico.Fila f : resultado.getFilas()) {
+			model.addRow(new Object[] { f.getEtiqueta(), f.getVentas(), f.getUnidades(), f.getImporte(),
+					(total == 0) ? 0.0 : Math.round(f.getImporte() * 10_000 / total) / 100.0 });
+		}
+		vista.mostrarResultados(model);
+		vista.setEstado(String.format("%,d renglones analizados en %.1f ms | Importe total: $%,.2f | %s",
+				resultado.getLineasAnalizadas(), resultado.getMilisegundos(), total, descripcionDatos()));
+	}
+
+	/**
+	 * Trae las ventas nuevas al motor y refresca los filtros disponibles.
+	 */
+	private void actualizarDatos() {
+		vista.setOcupado(true);
+		vista.setEstado("Cargando ventas...");
+		EjecutorBD.ejecutar(() -> {
+			try {
+				motor.actualizar();
+				return motor.getValores(Dimension.METODO_PAGO);
+			} catch (SQLException e) {
+				throw new CompletionException(e);
+			}
+		}).whenComplete((metodos, error) -> {
+			vista.setOcupado(false);
+			if (error != null) {
+				Throwable causa = (error.getCause() != null) ? error.getCause() : error;
+				vista.setEstado("❌ No se pudieron cargar las ventas: " + causa.getMessage());
+				return;
+			}
+			vista.setMetodosPago(metodos);
+			vista.setEstado(descripcionDatos());
+		});
+	}
+
+	private String descripcionDatos() {
+		return String.format("En memoria: %,d renglones (%,d MB), actualizado %s", motor.getLineas(),
+				motor.getBytes() >> 20,
+				new SimpleDateFormat("dd/MM/yyyy HH:mm:ss").format(new Date(motor.getUltimaActualizacion())));
+	}
+
+	private static LocalDate aFecha(Date fecha) {
+		return fecha.toInstant().atZone(ZoneId.systemDefault()).toLocalDate();
+	}
+}
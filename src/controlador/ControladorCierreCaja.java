@@ -1,17 +1,29 @@
 package controlador;
 
+import java.awt.event.HierarchyEvent;
 import java.awt.event.KeyAdapter;
 import java.awt.event.KeyEvent;
+import java.sql.SQLException;
 import java.text.SimpleDateFormat;
 import java.util.Date;
-import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import javax.swing.JOptionPane;
-
+import javax.swing.Timer;
+
+import conexion.Configuracion;
+import eventos.BusEventos;
+import eventos.EventoCaja;
+import eventos.Suscripcion;
+import metricas.ContextoAccion;
+import metricas.EventoJfrCierreCaja;
 import modelo.CorteCaja;
 import modelo.Empleado;
-import modelo.Venta;
+import modelo.SaldoCorte;
 import persistencia.CorteCajaDAO;
-import persistencia.VentaDAO;
+import persistencia.CorteCajaDAOAsincrono;
+import persistencia.EjecutorBD;
+import persistencia.SaldoCorteDAO;
 import vista.PanelCierreCaja;
 
 /**
@@ -23,18 +35,27 @@ import vista.PanelCierreCaja;
  * el dinero registrado por el sistema contra el dinero físico contado por el
  * cajero.
  * </p>
- * * @version 1.1
+ * <p>
+ * <b>Saldos en vivo:</b> los totales del turno se leen de una sola fila
+ * ({@link SaldoCorteDAO}) que las ventas, devoluciones y movimientos mantienen
+ * al confirmarse. Mientras el panel está visible se vuelve a leer, fuera del
+ * EDT, en cuanto el {@link BusEventos} avisa de una venta, devolución o
+ * movimiento del turno, y además cada {@code pos.corte.refrescoSeg} segundos
+ * (para lo registrado desde otra caja). La vista sólo se repinta si la fila
+ * cambió.
+ * </p>
+ * * @version 1.6
  */
 public class ControladorCierreCaja {
 
 	/** Referencia a la interfaz gráfica del panel de cierre. */
 	private PanelCierreCaja vista;
 
-	/** DAO para actualizar el estado del corte. */
-	private CorteCajaDAO corteDAO;
+	/** DAO para actualizar el estado del corte (fuera del EDT). */
+	private CorteCajaDAOAsincrono corteAsincrono;
 
-	/** DAO para consultar los totales vendidos en el turno. */
-	private VentaDAO ventaDAO;
+	/** DAO para leer los saldos acumulados del turno. */
+	private SaldoCorteDAO saldoDAO;
 
 	/** Usuario que está realizando el cierre. */
 	private Empleado usuario;
@@ -60,6 +81,21 @@ public class ControladorCierreCaja {
 	 */
 	private double totalEsperadoEnCaja = 0.0;
 
+	/** Versión de la fila de saldos mostrada ({@code -1} = ninguna). */
+	private long versionMostrada = -1;
+
+	/** Evita encimar lecturas si la BD tarda más que el intervalo. */
+	private boolean leyendoSaldos = false;
+
+	/** Segundos entre relecturas ({@code 0} = sólo por eventos). */
+	private final int refrescoSeg = Configuracion.getEntero("pos.corte.refrescoSeg", 3);
+
+	/** Relee los saldos mientras el panel está visible. */
+	private final Timer temporizador;
+
+	/** Avisos de cambios en el turno; sólo mientras el panel está visible. */
+	private Suscripcion<EventoCaja> suscripcion;
+
 	/**
 	 * Constructor principal.
 	 * <p>
@@ -69,20 +105,20 @@ public class ControladorCierreCaja {
 	 * * @param vista Panel de interfaz gráfica.
 	 * 
 	 * @param corteDAO    DAO de cortes de caja.
-	 * @param ventaDAO    DAO de ventas.
+	 * @param saldoDAO    DAO de saldos por turno.
 	 * @param usuario     Empleado logueado.
 	 * @param corteActual Objeto del corte abierto recuperado previamente.
 	 */
-	public ControladorCierreCaja(PanelCierreCaja vista, CorteCajaDAO corteDAO, VentaDAO ventaDAO, Empleado usuario,
-			CorteCaja corteActual) {
+	public ControladorCierreCaja(PanelCierreCaja vista, CorteCajaDAO corteDAO, SaldoCorteDAO saldoDAO,
+			Empleado usuario, CorteCaja corteActual) {
 		this.vista = vista;
-		this.corteDAO = corteDAO;
-		this.ventaDAO = ventaDAO;
+		this.corteAsincrono = new CorteCajaDAOAsincrono(corteDAO);
+		this.saldoDAO = saldoDAO;
 		this.usuario = usuario;
 		this.corteActual = corteActual;
 
 		// 1. Asignar los listeners
-		this.vista.addCerrarCajaListener(e -> cerrarCaja());
+		this.vista.addCerrarCajaListener(e -> ContextoAccion.medir("caja.cerrar", this::cerrarCaja));
 
 		// Listener en tiempo real: recalcula la diferencia mientras el usuario escribe
 		// el monto contado
@@ -93,17 +129,50 @@ public class ControladorCierreCaja {
 			}
 		});
 
-		// 2. Cargar los datos iniciales en la vista
+		// 2. Releer los saldos sólo mientras el panel está en pantalla
+		this.temporizador = new Timer(Math.max(1, refrescoSeg) * 1000, e -> refrescarSaldos());
+		this.vista.addHierarchyListener(e -> {
+			if ((e.getChangeFlags() & HierarchyEvent.SHOWING_CHANGED) != 0) {
+				if (vista.isShowing() && vista.getBtnCerrarCaja().isEnabled()) {
+					escucharCambios();
+				} else {
+					dejarDeEscuchar();
+				}
+			}
+		});
+
+		// 3. Cargar los datos iniciales en la vista
 		cargarDatosIniciales();
 	}
 
 	/**
-	 * Recupera y calcula los datos financieros del turno activo.
-	 * <p>
-	 * 1. Obtiene el resumen de ventas agrupado por método de pago.<br>
-	 * 2. Calcula el total esperado en efectivo.<br>
-	 * 3. Actualiza las etiquetas informativas de la vista.
-	 * </p>
+	 * Se suscribe a los eventos del turno y arranca la relectura periódica.
+	 */
+	private void escucharCambios() {
+		if (suscripcion == null) {
+			int corteId = corteActual.getCorteID();
+			suscripcion = BusEventos.getInstancia().suscribir("cierre-caja", EventoCaja.class, 64, evento -> {
+				if (evento.getCorteID() == corteId) {
+					EjecutorBD.EDT.execute(this::refrescarSaldos);
+				}
+			});
+			suscripcion.alDesbordar(() -> EjecutorBD.EDT.execute(this::refrescarSaldos));
+		}
+		if (refrescoSeg > 0) {
+			temporizador.start();
+		}
+	}
+
+	private void dejarDeEscuchar() {
+		temporizador.stop();
+		if (suscripcion != null) {
+			BusEventos.getInstancia().cancelar(suscripcion);
+			suscripcion = null;
+		}
+	}
+
+	/**
+	 * Muestra los datos de apertura y lanza la primera lectura de saldos.
 	 */
 	private void cargarDatosIniciales() {
 		// 1. Formatear la fecha
@@ -113,27 +182,70 @@ public class ControladorCierreCaja {
 		vista.setDatosApertura(usuario.getNombre(), sdf.format(corteActual.getFechaApertura()),
 				corteActual.getMontoInicial());
 
-		// 3. Obtener el resumen de ventas del DAO (Agrupado por método de pago)
-		List<Venta> resumenVentas = ventaDAO.obtenerTotalesPorMetodoPago(corteActual.getCorteID());
+		// 3. Totales del turno (llegan en segundo plano)
+		refrescarSaldos();
+	}
 
-		// 4. Procesar el resumen para separar Efectivo de Tarjeta
-		for (Venta ventaResumen : resumenVentas) {
-			if ("Efectivo".equalsIgnoreCase(ventaResumen.getMetodoPago())) {
-				this.totalVentasEfectivo = ventaResumen.getTotal();
-			} else if ("Tarjeta".equalsIgnoreCase(ventaResumen.getMetodoPago())) {
-				this.totalVentasTarjeta = ventaResumen.getTotal();
+	/**
+	 * Lee la fila de saldos del turno fuera del EDT.
+	 *
+	 * @return Futuro que se completa en el EDT.
+	 */
+	private CompletableFuture<SaldoCorte> leerSaldos() {
+		int corteId = corteActual.getCorteID();
+		return EjecutorBD.ejecutar(() -> {
+			try {
+				return saldoDAO.obtener(corteId);
+			} catch (SQLException e) {
+				throw new CompletionException(e);
 			}
-		}
+		});
+	}
 
-		// 5. Calcular el total esperado EN EFECTIVO (Base + Ventas Efectivo)
-		// Nota: Si implementaras Movimientos de Caja (Retiros), deberías restarlos
-		// aquí.
-		this.totalEsperadoEnCaja = corteActual.getMontoInicial() + this.totalVentasEfectivo;
+	/**
+	 * Relectura periódica: actualiza la vista si la fila cambió.
+	 */
+	private void refrescarSaldos() {
+		if (leyendoSaldos) {
+			return;
+		}
+		leyendoSaldos = true;
+		leerSaldos().whenComplete((saldo, error) -> {
+			leyendoSaldos = false;
+			if (error != null) {
+				Throwable causa = (error.getCause() != null) ? error.getCause() : error;
+				vista.setEstadoSaldos("❌ No se pudieron leer los saldos: " + causa.getMessage());
+				return;
+			}
+			mostrarSaldos(saldo);
+		});
+	}
 
-		// 6. Actualizar las etiquetas en la vista (Muestra lo que el sistema sabe)
-		vista.setTotalesSistema(totalVentasEfectivo, totalVentasTarjeta, totalEsperadoEnCaja);
+	/**
+	 * Pasa los saldos del turno a la vista.
+	 * <p>
+	 * El total esperado en efectivo es
+	 * {@code MontoInicial + VentasEfectivo + Ingresos - Egresos}, ya acumulado
+	 * en la fila.
+	 * </p>
+	 */
+	private void mostrarSaldos(SaldoCorte saldo) {
+		if (saldo == null) {
+			vista.setEstadoSaldos("❌ No se encontró el turno " + corteActual.getCorteID());
+			return;
+		}
+		vista.setEstadoSaldos(String.format("%d ventas | Actualizado: %s", saldo.getNumVentas(),
+				new SimpleDateFormat("HH:mm:ss").format(new Date())));
+		if (saldo.getVersion() == versionMostrada) {
+			return;
+		}
+		versionMostrada = saldo.getVersion();
+		this.totalVentasEfectivo = saldo.getVentasEfectivo();
+		this.totalVentasTarjeta = saldo.getVentasTarjeta();
+		this.totalEsperadoEnCaja = saldo.getEfectivoEsperado();
 
-		// 7. Calcular la diferencia inicial (asumiendo 0 contado)
+		vista.setTotalesSistema(totalVentasEfectivo, totalVentasTarjeta, saldo.getIngresos(), saldo.getEgresos(),
+				totalEsperadoEnCaja);
 		calcularDiferencia();
 	}
 
@@ -187,6 +299,31 @@ public class ControladorCierreCaja {
 			return;
 		}
 
+		// 1. Leer los saldos al momento antes de confirmar
+		double contado = montoContado;
+		vista.getBtnCerrarCaja().setEnabled(false);
+		leerSaldos().whenComplete((saldo, error) -> {
+			vista.getBtnCerrarCaja().setEnabled(true);
+			if (error != null) {
+				Throwable causa = (error.getCause() != null) ? error.getCause() : error;
+				vista.mostrarError("No se pudieron leer los saldos del turno: " + causa.getMessage());
+				return;
+			}
+			mostrarSaldos(saldo);
+			confirmarCierre(contado, (saldo != null) ? saldo.getNumVentas() : 0);
+		});
+	}
+
+	/**
+	 * Pide confirmación y guarda el cierre con los saldos ya actualizados.
+	 * <p>
+	 * El guardado queda en la grabación JFR como {@link EventoJfrCierreCaja}.
+	 * </p>
+	 *
+	 * @param montoContado Efectivo contado por el cajero.
+	 * @param numVentas    Ventas del turno según sus saldos.
+	 */
+	private void confirmarCierre(double montoContado, int numVentas) {
 		// 1. Recalcular la diferencia final para asegurar precisión
 		double diferenciaFinal = calcularDiferencia();
 
@@ -207,16 +344,34 @@ public class ControladorCierreCaja {
 			corteActual.setDiferencia(diferenciaFinal);
 			corteActual.setStatus("Cerrado");
 
-			// 4. Guardar en la base de datos mediante DAO
-			boolean exito = corteDAO.cerrarCorte(corteActual);
-
-			if (exito) {
-				vista.mostrarMensaje("¡Caja cerrada con éxito!");
-				// Deshabilitamos el botón para evitar doble cierre accidental
-				vista.getBtnCerrarCaja().setEnabled(false);
-			} else {
-				vista.mostrarError("Error: No se pudo guardar el cierre de caja en la base de datos.");
-			}
+			// 4. Guardar en la base de datos, fuera del EDT
+			EventoJfrCierreCaja evento = new EventoJfrCierreCaja();
+			evento.begin();
+			vista.setOcupado(true);
+			corteAsincrono.cerrarCorte(corteActual).whenComplete((guardado, error) -> {
+				evento.end();
+				boolean exito = error == null && Boolean.TRUE.equals(guardado);
+				if (evento.shouldCommit()) {
+					evento.corteID = corteActual.getCorteID();
+					evento.empleadoID = corteActual.getUsuarioID();
+					evento.ventas = numVentas;
+					evento.esperado = this.totalEsperadoEnCaja;
+					evento.contado = montoContado;
+					evento.diferencia = diferenciaFinal;
+					evento.exitoso = exito;
+					evento.commit();
+				}
+
+				vista.setOcupado(false);
+				if (exito) {
+					vista.mostrarMensaje("¡Caja cerrada con éxito!");
+					// Deshabilitamos el botón para evitar doble cierre accidental
+					vista.getBtnCerrarCaja().setEnabled(false);
+					dejarDeEscuchar();
+				} else {
+					vista.mostrarError("Error: No se pudo guardar el cierre de caja en la base de datos.");
+				}
+			});
 		}
 	}
 }
\ No newline at end of file
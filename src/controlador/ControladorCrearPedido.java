@@ -1,14 +1,16 @@
 package controlador;
 
-import java.util.ArrayList;
 import java.util.List;
 import javax.swing.JOptionPane;
 
+import metricas.ContextoAccion;
 import modelo.AlmacenProductos;
 import modelo.OrdenCompra;
 import modelo.OrdenCompraDetalle;
 import modelo.Proveedor;
 import persistencia.AlmacenProductosDAO;
+import persistencia.CatalogoProductos;
+import persistencia.EjecutorBD;
 import persistencia.OrdenCompraDAO;
 import persistencia.ProveedorDAO;
 import vista.PanelCrearPedido;
@@ -26,8 +28,10 @@ import vista.PanelCrearPedido;
  * <li>Administrar el "carrito" temporal de productos a pedir (en memoria).</li>
  * <li>Persistir la orden final con estado inicial "Pendiente".</li>
  * </ul>
+ * Las consultas y el guardado corren fuera del EDT con {@link EjecutorBD},
+ * marcando la vista como ocupada mientras tanto.
  * </p>
- * * @version 1.1
+ * * @version 1.3
  */
 public class ControladorCrearPedido {
 
@@ -69,9 +73,9 @@ public class ControladorCrearPedido {
 
 		cargarProveedoresEnComboBox();
 
-		this.vistaPedido.addBuscarProductoListener(e -> buscarProducto());
+		this.vistaPedido.addBuscarProductoListener(e -> ContextoAccion.medir("pedidos.buscarProducto", this::buscarProducto));
 		this.vistaPedido.addAgregarAlPedidoListener(e -> agregarAlPedido());
-		this.vistaPedido.addFinalizarPedidoListener(e -> finalizarPedido());
+		this.vistaPedido.addFinalizarPedidoListener(e -> ContextoAccion.medir("pedidos.crear", this::finalizarPedido));
 		this.vistaPedido.addQuitarDelPedidoListener(e -> quitarProductoDelPedido());
 		this.vistaPedido.addCancelarPedidoListener(e -> vista.limpiarCampos());
 	}
@@ -80,10 +84,11 @@ public class ControladorCrearPedido {
 	 * Recupera todos los proveedores y los carga en el JComboBox de la vista.
 	 */
 	private void cargarProveedoresEnComboBox() {
-		List<Proveedor> proveedores = proveedorDAO.ObtenerTodo();
-		if (proveedores != null) {
-			vistaPedido.cargarProveedores(proveedores);
-		}
+		EjecutorBD.ejecutar(proveedorDAO::ObtenerTodo).thenAccept(proveedores -> {
+			if (proveedores != null) {
+				vistaPedido.cargarProveedores(proveedores);
+			}
+		});
 	}
 
 	/**
@@ -93,7 +98,8 @@ public class ControladorCrearPedido {
 	 * <ol>
 	 * <li>Intenta buscar por ID numérico.</li>
 	 * <li>Si falla, busca por Código de barras exacto.</li>
-	 * <li>Si falla, busca coincidencias por Nombre.</li>
+	 * <li>Si falla, busca coincidencias por Nombre o descripción en el índice de
+	 * trigramas del {@link CatalogoProductos}.</li>
 	 * </ol>
 	 * Si encuentra múltiples coincidencias por nombre, permite al usuario elegir
 	 * mediante un cuadro de diálogo.
@@ -106,32 +112,45 @@ public class ControladorCrearPedido {
 			return;
 		}
 
-		List<AlmacenProductos> productosEncontrados = new ArrayList<>();
-		AlmacenProductos productoUnico = null;
+		vistaPedido.setOcupado(true);
+		EjecutorBD.ejecutar(() -> {
+			AlmacenProductos productoUnico = null;
 
-		// 1. Intento por ID
-		try {
-			int id = Integer.parseInt(terminoBusqueda);
-			productoUnico = productoDAO.buscarPorID(id);
-			if (productoUnico != null)
-				productosEncontrados.add(productoUnico);
-		} catch (NumberFormatException e) {
-			// No es ID, continuamos
-		}
+			// 1. Intento por ID
+			try {
+				int id = Integer.parseInt(terminoBusqueda);
+				productoUnico = productoDAO.buscarPorID(id);
+			} catch (NumberFormatException e) {
+				// No es ID, continuamos
+			}
 
-		// 2. Intento por Código
-		if (productosEncontrados.isEmpty()) {
-			productoUnico = productoDAO.buscarPorCodigo(terminoBusqueda);
-			if (productoUnico != null)
-				productosEncontrados.add(productoUnico);
-		}
+			// 2. Intento por Código
+			if (productoUnico == null) {
+				productoUnico = productoDAO.buscarPorCodigo(terminoBusqueda);
+			}
+			if (productoUnico != null) {
+				return List.of(productoUnico);
+			}
 
-		// 3. Intento por Nombre
-		if (productosEncontrados.isEmpty()) {
-			productosEncontrados = productoDAO.buscarPorNombre(terminoBusqueda);
-		}
+			// 3. Intento por Nombre (índice de trigramas en memoria)
+			return CatalogoProductos.getInstancia().buscarPorNombre(terminoBusqueda);
+		}).whenComplete((productosEncontrados, error) -> {
+			vistaPedido.setOcupado(false);
+			if (error != null) {
+				vistaPedido.mostrarError("Error al buscar el producto.");
+				this.productoSeleccionado = null;
+				return;
+			}
+			mostrarResultados(productosEncontrados);
+		});
+	}
 
-		// Procesar resultados
+	/**
+	 * Muestra el resultado de la búsqueda y fija el producto seleccionado.
+	 *
+	 * @param productosEncontrados Coincidencias por ID, código o nombre.
+	 */
+	private void mostrarResultados(List<AlmacenProductos> productosEncontrados) {
 		if (productosEncontrados.isEmpty()) {
 			vistaPedido.mostrarError("No se encontraron productos con ese ID, código o nombre.");
 			this.productoSeleccionado = null;
@@ -271,16 +290,19 @@ public class ControladorCrearPedido {
 		ordenActual.setNombreProveedor(proveedorSeleccionado.getNombre());
 		ordenActual.setStatus("Pendiente"); // El estado inicial obligatorio
 
-		// Llamamos al DAO para la transacción
-		boolean exito = ordenCompraDAO.agregar(ordenActual);
-
-		if (exito) {
-			vistaPedido.mostrarMensaje(
-					"Pedido #" + ordenActual.getid() + " generado con éxito. Queda 'Pendiente' de recepción.");
-			vistaPedido.limpiarCampos();
-			this.ordenActual = new OrdenCompra(); // Reiniciamos el objeto para una nueva orden
-		} else {
-			vistaPedido.mostrarError("Ocurrió un error al guardar el pedido en la base de datos.");
-		}
+		// Llamamos al DAO para la transacción, fuera del EDT
+		OrdenCompra orden = ordenActual;
+		vistaPedido.setOcupado(true);
+		EjecutorBD.ejecutar(() -> ordenCompraDAO.agregar(orden)).whenComplete((exito, error) -> {
+			vistaPedido.setOcupado(false);
+			if (error == null && exito) {
+				vistaPedido.mostrarMensaje(
+						"Pedido #" + orden.getid() + " generado con éxito. Queda 'Pendiente' de recepción.");
+				vistaPedido.limpiarCampos();
+				this.ordenActual = new OrdenCompra(); // Reiniciamos el objeto para una nueva orden
+			} else {
+				vistaPedido.mostrarError("Ocurrió un error al guardar el pedido en la base de datos.");
+			}
+		});
 	}
 }
\ No newline at end of file
@@ -0,0 +1,230 @@
+package controlador;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+
+import javax.swing.JOptionPane;
+import javax.swing.table.DefaultTableModel;
+
+import conexion.Conexion;
+import conexion.EstadisticaSQL;
+import conexion.MonitorSQL;
+import metricas.BloqueoEDT;
+import metricas.ContextoAccion;
+import metricas.EstadisticaAccion;
+import metricas.GrabadorJfr;
+import metricas.Histograma;
+import metricas.Metricas;
+import metricas.VigilanteEDT;
+import persistencia.EjecutorBD;
+import vista.PanelDiagnostico;
+
+/**
+ * Controlador del panel de diagnóstico.
+ * <p>
+ * Lee las estadísticas por sentencia de {@link MonitorSQL}, por acción de
+ * {@link ContextoAccion} y de respuesta de la interfaz de
+ * {@link VigilanteEDT} (están en memoria, no consulta la base de datos).
+ * También guarda a disco la grabación continua de {@link GrabadorJfr}.
+ * </p>
+ *
+ * @version 1.3
+ */
+public class ControladorDiagnostico {
+
+	/** Prefijo de los histogramas de respuesta del EDT por pantalla. */
+	private static final String PREFIJO_RESPUESTA = "edt.respuesta.";
+
+	/** Sentencias que se muestran. */
+	private static final int MAX_FILAS = 100;
+
+	private final PanelDiagnostico vista;
+
+	/** Bloqueos mostrados en la tabla (mismo orden). */
+	private List<BloqueoEDT> bloqueos = List.of();
+
+	/**
+	 * @param vista Panel de diagnóstico.
+	 */
+	public ControladorDiagnostico(PanelDiagnostico vista) {
+		this.vista = vista;
+		vista.addActualizarListener(e -> actualizar());
+		vista.addReiniciarListener(e -> reiniciar());
+		vista.addVolcarJfrListener(e -> volcarJfr());
+		vista.setVolcarJfrHabilitado(GrabadorJfr.isActiva());
+		vista.addSeleccionBloqueoListener(e -> {
+			int fila = vista.getBloqueoSeleccionado();
+			if (!e.getValueIsAdjusting() && fila >= 0 && fila < bloqueos.size()) {
+				vista.setPila(bloqueos.get(fila).getPila());
+			}
+		});
+		actualizar();
+	}
+
+	/**
+	 * Llena la tabla con las sentencias de mayor tiempo acumulado.
+	 */
+	private void actualizar() {
+		String[] columnas = { "Total (s)", "Llamadas", "Filas", "Prom. (ms)", "p99 (ms)", "Máx. (ms)", "Lentas",
+				"Errores", "Sentencia" };
+		@SuppressWarnings("serial")
+		DefaultTableModel model = new DefaultTableModel(columnas, 0) {
+			@Override
+			public boolean isCellEditable(int row, int column) {
+				return false;
+			}
+
+			@Override
+			public Class<?> getColumnClass(int columna) {
+				// Para que el ordenamiento de la tabla sea numérico
+				return (columna == 0 || columna == 3 || columna == 4 || columna == 5) ? Double.class
+						: (columna == 8) ? String.class : Long.class;
+			}
+		};
+
+		List<EstadisticaSQL> sentencias = MonitorSQL.getTop(MAX_FILAS);
+		double total = 0;
+		for (EstadisticaSQL s : sentencias) {
+			total += s.getTotalSegundos();
+			model.addRow(new Object[] { redondear(s.getTotalSegundos(), 3), s.getLlamadas(), s.getFilas(),
+					redondear(s.getPromedioMs(), 2), redondear(s.getPercentilMs(99), 2), redondear(s.getMaximoMs(), 2),
+					s.getLentas(), s.getErrores(), s.getSql() });
+		}
+		vista.mostrarSentencias(model);
+		vista.mostrarAcciones(modeloAcciones());
+		vista.mostrarRespuesta(modeloRespuesta());
+		bloqueos = VigilanteEDT.getBloqueos();
+		vista.mostrarBloqueos(modeloBloqueos());
+
+		if (!MonitorSQL.isHabilitado()) {
+			vista.setEstado("La instrumentación de SQL está desactivada (pos.sql.instrumentar=false).");
+			return;
+		}
+		vista.setEstado(String.format("%d sentencias, %.2f s en total | Lentas: ≥ %d ms | %s", sentencias.size(),
+				total, MonitorSQL.getUmbralLentoMs(), Conexion.getPool().estadisticas()));
+	}
+
+	/**
+	 * @return Un renglón por acción medida, de la más "conversadora" a la menos.
+	 */
+	private DefaultTableModel modeloAcciones() {
+		String[] columnas = { "Acción", "Ejecuciones", "Consultas (prom.)", "Consultas (máx.)", "Conexiones (prom.)",
+				"Filas (prom.)", "Prom. (ms)", "p99 (ms)", "Fuera de presupuesto" };
+		@SuppressWarnings("serial")
+		DefaultTableModel model = new DefaultTableModel(columnas, 0) {
+			@Override
+			public boolean isCellEditable(int row, int column) {
+				return false;
+			}
+
+			@Override
+			public Class<?> getColumnClass(int columna) {
+				return (columna == 0) ? String.class
+						: (columna == 1 || columna == 3 || columna == 8) ? Long.class : Double.class;
+			}
+		};
+		for (EstadisticaAccion a : ContextoAccion.getEstadisticas()) {
+			model.addRow(new Object[] { a.getNombre(), a.getEjecuciones(), redondear(a.getConsultasPromedio(), 1),
+					a.getMaximoConsultas(), redondear(a.getConexionesPromedio(), 1), redondear(a.getFilasPromedio(), 1),
+					redondear(a.getPromedioMs(), 2), redondear(a.getPercentilMs(99), 2), a.getExcedidas() });
+		}
+		return model;
+	}
+
+	/**
+	 * @return Un renglón por pantalla con el tiempo que tarda el EDT en atender
+	 *         eventos mientras está abierta.
+	 */
+	private DefaultTableModel modeloRespuesta() {
+		String[] columnas = { "Pantalla", "Muestras", "p50 (ms)", "p99 (ms)", "Máx. (ms)", "Bloqueos" };
+		@SuppressWarnings("serial")
+		DefaultTableModel model = new DefaultTableModel(columnas, 0) {
+			@Override
+			public boolean isCellEditable(int row, int column) {
+				return false;
+			}
+
+			@Override
+			public Class<?> getColumnClass(int columna) {
+				return (columna == 0) ? String.class : (columna == 1 || columna == 5) ? Long.class : Double.class;
+			}
+		};
+		Map<String, Long> contadores = Metricas.getContadores();
+		for (Map.Entry<String, Histograma> e : Metricas.getHistogramas().entrySet()) {
+			if (!e.getKey().startsWith(PREFIJO_RESPUESTA)) {
+				continue;
+			}
+			String pantalla = e.getKey().substring(PREFIJO_RESPUESTA.length());
+			Histograma h = e.getValue();
+			model.addRow(new Object[] { pantalla, h.getConteo(), redondear(h.getPercentilMs(50), 2),
+					redondear(h.getPercentilMs(99), 2), redondear(h.getMaximoMs(), 2),
+					contadores.getOrDefault("edt.bloqueos." + pantalla, 0L) });
+		}
+		return model;
+	}
+
+	private DefaultTableModel modeloBloqueos() {
+		String[] columnas = { "Hora", "Pantalla", "Duración (ms)", "Controlador", "DAO / Reporte" };
+		@SuppressWarnings("serial")
+		DefaultTableModel model = new DefaultTableModel(columnas, 0) {
+			@Override
+			public boolean isCellEditable(int row, int column) {
+				return false;
+			}
+		};
+		SimpleDateFormat formato = new SimpleDateFormat("dd/MM/yyyy HH:mm:ss");
+		for (BloqueoEDT b : bloqueos) {
+			model.addRow(new Object[] { formato.format(new Date(b.getInstante())), b.getPantalla(),
+					Math.round(b.getDuracionMs()), b.getControlador(), b.getOrigen() });
+		}
+		return model;
+	}
+
+	private void reiniciar() {
+		int opcion = JOptionPane.showConfirmDialog(vista,
+				"¿Borrar las estadísticas de SQL, de acciones y los bloqueos y empezar a medir desde ahora?",
+				"Reiniciar Estadísticas",
+				JOptionPane.YES_NO_OPTION);
+		if (opcion == JOptionPane.YES_OPTION) {
+			MonitorSQL.reiniciar();
+			ContextoAccion.reiniciar();
+			VigilanteEDT.reiniciar();
+			actualizar();
+		}
+	}
+
+	/**
+	 * Guarda la grabación continua de JFR en segundo plano y avisa dónde quedó.
+	 */
+	private void volcarJfr() {
+		vista.setVolcarJfrHabilitado(false);
+		EjecutorBD.ejecutar(() -> {
+			try {
+				return GrabadorJfr.volcar();
+			} catch (IOException e) {
+				throw new UncheckedIOException(e);
+			}
+		}).whenComplete((archivo, error) -> {
+			vista.setVolcarJfrHabilitado(true);
+			if (error != null) {
+				Throwable causa = (error.getCause() != null) ? error.getCause() : error;
+				System.err.println("❌ Error al guardar la grabación JFR: " + causa.getMessage());
+				JOptionPane.showMessageDialog(vista, "No se pudo guardar la grabación JFR: " + causa.getMessage(),
+						"Error", JOptionPane.ERROR_MESSAGE);
+				return;
+			}
+			JOptionPane.showMessageDialog(vista, "Grabación guardada en:\n" + archivo
+					+ "\n\nÁbrala con JDK Mission Control o 'jfr print'.", "Grabación JFR",
+					JOptionPane.INFORMATION_MESSAGE);
+		});
+	}
+
+	private static double redondear(double valor, int decimales) {
+		double factor = Math.pow(10, decimales);
+		return Math.round(valor * factor) / factor;
+	}
+}
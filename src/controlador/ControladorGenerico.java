@@ -1,10 +1,13 @@
 package controlador;
 
 import java.util.Collections;
-import java.util.List;
 import javax.swing.JOptionPane;
+import metricas.ContextoAccion;
 import modelogenerico.BaseDAO;
+import modelogenerico.Criterio;
 import modelogenerico.Entidad;
+import persistencia.BaseDAOAsincrono;
+import persistencia.EjecutorBD;
 import vista.VistaGenerica;
 
 /**
@@ -21,16 +24,27 @@ import vista.VistaGenerica;
  * Conecta automáticamente los eventos de la {@link VistaGenerica} (Guardar,
  * Buscar, Borrar, Actualizar) con las operaciones del {@link BaseDAO}.
  * </p>
+ * <p>
+ * Las operaciones se ejecutan mediante {@link BaseDAOAsincrono}: la consulta
+ * corre fuera del hilo de la interfaz y, mientras tanto, la vista se marca como
+ * ocupada ({@link VistaGenerica#setOcupado(boolean)}) en lugar de congelarse.
+ * </p>
  * * @param <T> El tipo de Entidad que este controlador gestionará (ej.
  * {@code Cliente}, {@code Proveedor}).
  * 
- * @version 1.0
+ * @version 1.4
  */
 public class ControladorGenerico<T extends Entidad> {
 
 	/** Instancia del DAO genérico para acceso a datos. */
 	BaseDAO<T> modelo;
 
+	/** Fachada asíncrona sobre {@link #modelo} para no bloquear el EDT. */
+	BaseDAOAsincrono<T> modeloAsincrono;
+
+	/** Filas por página en listados y búsquedas. */
+	static final int TAMANO_PAGINA = 200;
+
 	/** Referencia a la vista genérica (Formulario + Tabla). */
 	VistaGenerica vista;
 
@@ -48,16 +62,19 @@ public class ControladorGenerico<T extends Entidad> {
 	 */
 	public ControladorGenerico(BaseDAO<T> modelo, VistaGenerica vista) {
 		this.modelo = modelo;
+		this.modeloAsincrono = new BaseDAOAsincrono<>(modelo);
 		this.vista = vista;
 
 		// Carga inicial de datos
 		mostrarTodo();
 
-		// Asignación de comportamientos a los botones mediante expresiones Lambda
-		vista.addGuardarListener(e -> guardar());
-		vista.addBuscarListener(e -> buscar());
-		vista.addBorrarListener(e -> borrar());
-		vista.addActualizarListener(e -> modificar());
+		// Asignación de comportamientos a los botones mediante expresiones Lambda;
+		// cada acción se mide con el nombre del panel (ej. "PanelCliente.guardar")
+		String pantalla = vista.getClass().getSimpleName();
+		vista.addGuardarListener(e -> ContextoAccion.medir(pantalla + ".guardar", this::guardar));
+		vista.addBuscarListener(e -> ContextoAccion.medir(pantalla + ".buscar", this::buscar));
+		vista.addBorrarListener(e -> ContextoAccion.medir(pantalla + ".borrar", this::borrar));
+		vista.addActualizarListener(e -> ContextoAccion.medir(pantalla + ".modificar", this::modificar));
 	}
 
 	/**
@@ -67,10 +84,46 @@ public class ControladorGenerico<T extends Entidad> {
 	 * Borrar, Modificar) para asegurar que el usuario vea la información
 	 * actualizada.
 	 * </p>
+	 * <p>
+	 * Si el DAO soporta paginación ({@link BaseDAO#soportaPaginacion()}), sólo se
+	 * trae la primera página y la tabla pide las demás al desplazarse; de lo
+	 * contrario se carga la lista completa.
+	 * </p>
 	 */
 	public void mostrarTodo() {
-		List<T> Entidad = modelo.ObtenerTodo();
-		vista.mostrarEntidades(Entidad);
+		vista.setOcupado(true);
+		if (!modelo.soportaPaginacion()) {
+			modeloAsincrono.ObtenerTodo().whenComplete((lista, error) -> {
+				vista.setOcupado(false);
+				if (error != null) {
+					vista.mostrarError("Error al cargar los registros.");
+				} else {
+					vista.mostrarEntidades(lista);
+				}
+			});
+			return;
+		}
+		Criterio criterio = criterioInicial();
+		EjecutorBD.ejecutar(() -> modelo.buscarPagina(criterio)).whenComplete((pagina, error) -> {
+			vista.setOcupado(false);
+			if (error != null) {
+				vista.mostrarError("Error al cargar los registros.");
+			} else {
+				vista.mostrarPagina(pagina, modelo::buscarPagina, criterio);
+			}
+		});
+	}
+
+	/**
+	 * Criterio con el que se abre la pantalla (primera página, sin filtros).
+	 * <p>
+	 * Las subclases pueden sobrescribirlo para cambiar el orden por defecto.
+	 * </p>
+	 * 
+	 * @return Criterio de la carga inicial.
+	 */
+	protected Criterio criterioInicial() {
+		return new Criterio().tamanoPagina(TAMANO_PAGINA);
 	}
 
 	/**
@@ -87,30 +140,107 @@ public class ControladorGenerico<T extends Entidad> {
 		@SuppressWarnings("unchecked")
 		T entidad = (T) vista.getDatosDelFormulario();
 
-		if (entidad != null && modelo.agregar(entidad)) {
-			vista.mostrarMensaje("Guardado");
-			vista.limpiarCampos();
-			mostrarTodo();
+		if (entidad != null) {
+			vista.setOcupado(true);
+			modeloAsincrono.agregar(entidad).whenComplete((exito, error) -> {
+				vista.setOcupado(false);
+				if (error == null && exito) {
+					vista.mostrarMensaje("Guardado");
+					vista.limpiarCampos();
+					mostrarTodo();
+				}
+			});
 		}
 	}
 
 	/**
-	 * Realiza una búsqueda por ID numérico.
+	 * Realiza una búsqueda en el servidor a partir del texto capturado.
 	 * <p>
-	 * Lee el campo de texto de búsqueda de la vista. Si encuentra el registro,
-	 * actualiza la tabla para mostrar únicamente ese resultado.
+	 * Formatos aceptados en el campo de búsqueda:
+	 * <ul>
+	 * <li><b>Número</b> (ej. {@code 15}): busca por ID.</li>
+	 * <li><b>campo:valor</b> (ej. {@code telefono:555}): filtra por cualquier
+	 * campo que el DAO permita; si el DAO lo marca como entero
+	 * ({@link BaseDAO#esCampoEntero(String)}) compara por igualdad, si no, por
+	 * contenido.</li>
+	 * <li><b>Texto libre</b> (ej. {@code ana}): busca dentro del campo
+	 * {@code nombre}.</li>
+	 * </ul>
+	 * Las búsquedas por campo usan {@link BaseDAO#buscarPagina(Criterio)}, de modo
+	 * que el filtro se resuelve en SQL y las coincidencias llegan por páginas
+	 * conforme el usuario se desplaza por la tabla.
 	 * </p>
 	 */
 	public void buscar() {
-		String idText = vista.getTbuscar();
-		if (idText.isEmpty()) {
+		String texto = vista.getTbuscar().trim();
+		if (texto.isEmpty()) {
 			vista.mostrarError("Campo de búsqueda vacío");
 			return;
 		}
-		try {
-			int id = Integer.parseInt(idText);
-			T entidad = modelo.buscarPorID(id);
+		if (texto.matches("\\d+")) {
+			try {
+				buscarPorID(Integer.parseInt(texto));
+			} catch (NumberFormatException ex) {
+				// Más dígitos de los que caben en un ID (ej. un código de barras)
+				vista.mostrarError("El ID debe ser un número válido.");
+			}
+			return;
+		}
+		if (!modelo.soportaPaginacion()) {
+			vista.mostrarError("Esta pantalla sólo permite buscar por ID.");
+			return;
+		}
 
+		String campo = Criterio.CAMPO_NOMBRE;
+		String valor = texto;
+		int separador = texto.indexOf(':');
+		if (separador > 0) {
+			campo = texto.substring(0, separador).trim();
+			valor = texto.substring(separador + 1).trim();
+		}
+		if (valor.isEmpty()) {
+			vista.mostrarError("Indique el valor a buscar después de '" + campo + ":'");
+			return;
+		}
+
+		Criterio criterio = new Criterio().tamanoPagina(TAMANO_PAGINA).ordenarPor(campo, false);
+		if (modelo.esCampoEntero(campo)) {
+			try {
+				criterio.donde(campo, Criterio.Operador.IGUAL, Integer.valueOf(valor));
+			} catch (NumberFormatException ex) {
+				vista.mostrarError("El campo '" + campo + "' debe ser un número entero válido.");
+				return;
+			}
+		} else {
+			// Columnas de texto (ej. codigo, telefono): se comparan como texto aunque
+			// el valor sólo tenga dígitos
+			criterio.donde(campo, Criterio.Operador.CONTIENE, valor);
+		}
+
+		vista.setOcupado(true);
+		EjecutorBD.ejecutar(() -> modelo.buscarPagina(criterio)).whenComplete((pagina, error) -> {
+			vista.setOcupado(false);
+			if (error instanceof IllegalArgumentException) {
+				vista.mostrarError(error.getMessage());
+			} else if (error != null) {
+				vista.mostrarError("Error al buscar registros.");
+			} else if (pagina.getElementos().isEmpty()) {
+				vista.mostrarError("No se encontraron registros para '" + texto + "'");
+			} else {
+				vista.mostrarPagina(pagina, modelo::buscarPagina, criterio);
+			}
+		});
+	}
+
+	/**
+	 * Busca un único registro por su clave primaria.
+	 * 
+	 * @param id ID capturado por el usuario.
+	 */
+	private void buscarPorID(int id) {
+		vista.setOcupado(true);
+		modeloAsincrono.buscarPorID(id).whenComplete((entidad, error) -> {
+			vista.setOcupado(false);
 			if (entidad != null) {
 				// Mostramos una lista con un solo elemento
 				vista.mostrarEntidades(Collections.singletonList(entidad));
@@ -118,9 +248,7 @@ public class ControladorGenerico<T extends Entidad> {
 			} else {
 				vista.mostrarError("No se encontró registro con el ID " + id);
 			}
-		} catch (NumberFormatException ex) {
-			vista.mostrarError("El ID debe ser un número válido.");
-		}
+		});
 	}
 
 	/**
@@ -144,13 +272,17 @@ public class ControladorGenerico<T extends Entidad> {
 				JOptionPane.YES_NO_OPTION);
 
 		if (confirmacion == JOptionPane.YES_OPTION) {
-			if (modelo.borrar(id)) {
-				vista.mostrarMensaje("Eliminado con éxito.");
-				vista.limpiarCampos();
-				mostrarTodo();
-			} else {
-				vista.mostrarError("Error al eliminar");
-			}
+			vista.setOcupado(true);
+			modeloAsincrono.borrar(id).whenComplete((exito, error) -> {
+				vista.setOcupado(false);
+				if (error == null && exito) {
+					vista.mostrarMensaje("Eliminado con éxito.");
+					vista.limpiarCampos();
+					mostrarTodo();
+				} else {
+					vista.mostrarError("Error al eliminar");
+				}
+			});
 		}
 	}
 
@@ -178,13 +310,17 @@ public class ControladorGenerico<T extends Entidad> {
 					JOptionPane.YES_NO_OPTION);
 
 			if (confirmacion == JOptionPane.YES_OPTION) {
-				if (modelo.modificar(entidad)) {
-					vista.mostrarMensaje("Actualizado con éxito.");
-					vista.limpiarCampos();
-					mostrarTodo();
-				} else {
-					vista.mostrarError("Error al actualizar.");
-				}
+				vista.setOcupado(true);
+				modeloAsincrono.modificar(entidad).whenComplete((exito, error) -> {
+					vista.setOcupado(false);
+					if (error == null && exito) {
+						vista.mostrarMensaje("Actualizado con éxito.");
+						vista.limpiarCampos();
+						mostrarTodo();
+					} else {
+						vista.mostrarError("Error al actualizar.");
+					}
+				});
 			}
 		}
 	}
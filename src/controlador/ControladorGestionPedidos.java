@@ -3,17 +3,21 @@ package controlador;
 import java.awt.Dimension;
 import java.util.Date;
 import java.util.List;
+import java.util.function.Consumer;
 import javax.swing.JOptionPane;
 import javax.swing.JScrollPane;
 import javax.swing.JTable;
 import javax.swing.table.DefaultTableModel;
 
+import metricas.ContextoAccion;
 import modelo.AlmacenProductos;
 import modelo.Empleado;
 import modelo.EntradaInventario;
 import modelo.OrdenCompra;
 import modelo.OrdenCompraDetalle;
+import modelogenerico.Criterio;
 import persistencia.AlmacenProductosDAO;
+import persistencia.EjecutorBD;
 import persistencia.EntradaInventarioDAO;
 import persistencia.OrdenCompraDAO;
 import persistencia.OrdenCompraDetalleDAO;
@@ -33,7 +37,7 @@ import vista.PanelGestionPedidos;
  * <li>Cancelación lógica de pedidos.</li>
  * </ul>
  * </p>
- * * @version 1.2
+ * * @version 1.4
  */
 public class ControladorGestionPedidos extends ControladorGenerico<OrdenCompra> {
 
@@ -77,13 +81,13 @@ public class ControladorGestionPedidos extends ControladorGenerico<OrdenCompra>
 		this.proveedorDAO = provDAO;
 
 		// Listeners personalizados
-		this.vistaGestion.addRecibirPedidoListener(e -> recibirPedido());
+		this.vistaGestion.addRecibirPedidoListener(e -> ContextoAccion.medir("pedidos.recibir", this::recibirPedido));
 		this.vistaGestion.addCrearNuevoPedidoListener(e -> mostrarPanelCrearPedido());
-		this.vistaGestion.addVerDetallesListener(e -> verDetalles());
+		this.vistaGestion.addVerDetallesListener(e -> ContextoAccion.medir("pedidos.verDetalles", this::verDetalles));
 
 		// Sobrescribimos el comportamiento del botón "Borrar" para que ejecute
 		// "Cancelar"
-		vista.addBorrarListener(e -> cancelarPedido());
+		vista.addBorrarListener(e -> ContextoAccion.medir("pedidos.cancelar", this::cancelarPedido));
 	}
 
 	/**
@@ -113,52 +117,86 @@ public class ControladorGestionPedidos extends ControladorGenerico<OrdenCompra>
 		}
 
 		// Verificamos el estado del pedido
-		OrdenCompra orden = ((OrdenCompraDAO) this.modelo).buscarPorID(id);
-		if (orden == null) {
-			vista.mostrarError("No se encontró el pedido.");
-			return;
-		}
-		if (!"Pendiente".equalsIgnoreCase(orden.getStatus())) {
-			vista.mostrarError("Este pedido ya fue '" + orden.getStatus() + "' y no se puede recibir.");
-			return;
-		}
-
-		int confirm = JOptionPane.showConfirmDialog(vista,
-				"¿Seguro que desea recibir el Pedido #" + id + "?\n"
-						+ "Esta acción agregará los productos al inventario.",
-				"Confirmar Recepción", JOptionPane.YES_NO_OPTION);
-
-		if (confirm == JOptionPane.YES_OPTION) {
+		conOrden(id, orden -> {
+			if (!"Pendiente".equalsIgnoreCase(orden.getStatus())) {
+				vista.mostrarError("Este pedido ya fue '" + orden.getStatus() + "' y no se puede recibir.");
+				return;
+			}
 
-			// 1. Obtener los detalles (la lista de productos) del pedido
-			List<OrdenCompraDetalle> detalles = detalleDAO.buscarDetallesPorOrdenID(id);
-			if (detalles.isEmpty()) {
-				vista.mostrarError("Error: El pedido no tiene productos para recibir.");
+			int confirm = JOptionPane.showConfirmDialog(vista,
+					"¿Seguro que desea recibir el Pedido #" + id + "?\n"
+							+ "Esta acción agregará los productos al inventario.",
+					"Confirmar Recepción", JOptionPane.YES_NO_OPTION);
+			if (confirm != JOptionPane.YES_OPTION) {
 				return;
 			}
 
-			// 2. Recorrer los detalles y actualizar el stock
-			for (OrdenCompraDetalle det : detalles) {
-				// 2.1 Aumentar el stock físico
-				almacenDAO.aumentarStock(det.getProductoId(), det.getCantidadPedida());
+			vista.setOcupado(true);
+			EjecutorBD.ejecutar(() -> recibirEnInventario(id)).whenComplete((recibido, error) -> {
+				vista.setOcupado(false);
+				if (error != null) {
+					vista.mostrarError("Error al recibir el pedido.");
+				} else if (!recibido) {
+					vista.mostrarError("Error: El pedido no tiene productos para recibir.");
+				} else {
+					// 4. Refrescar la tabla para mostrar el nuevo estado
+					mostrarTodo();
+					vista.mostrarMensaje("Pedido #" + id + " recibido con éxito. Inventario actualizado.");
+				}
+			});
+		});
+	}
 
-				// 2.2 Registrar en el historial de entradas (Auditoría)
-				AlmacenProductos producto = almacenDAO.buscarPorID(det.getProductoId());
-				String descripcionEntrada = (producto != null) ? producto.getDescripcion() : "Recepción Pedido #" + id;
+	/**
+	 * Pasos 1 a 3 de {@link #recibirPedido()} (fuera del EDT).
+	 *
+	 * @param id Pedido a recibir.
+	 * @return {@code false} si el pedido no tiene productos.
+	 */
+	private boolean recibirEnInventario(int id) {
+		// 1. Obtener los detalles (la lista de productos) del pedido
+		List<OrdenCompraDetalle> detalles = detalleDAO.buscarDetallesPorOrdenID(id);
+		if (detalles.isEmpty()) {
+			return false;
+		}
 
-				EntradaInventario entrada = new EntradaInventario(det.getProductoId(), det.getCantidadPedida(),
-						new Date(), this.usuarioActual.getid(), // ¡Usuario que recibe!
-						descripcionEntrada);
-				entradaDAO.agregar(entrada);
-			}
+		// 2. Recorrer los detalles y actualizar el stock
+		for (OrdenCompraDetalle det : detalles) {
+			// 2.1 Aumentar el stock físico
+			almacenDAO.aumentarStock(det.getProductoId(), det.getCantidadPedida());
 
-			// 3. Actualizar el status del pedido a "Recibido"
-			((OrdenCompraDAO) this.modelo).modificarStatus(id, "Recibido");
+			// 2.2 Registrar en el historial de entradas (Auditoría)
+			AlmacenProductos producto = almacenDAO.buscarPorID(det.getProductoId());
+			String descripcionEntrada = (producto != null) ? producto.getDescripcion() : "Recepción Pedido #" + id;
 
-			// 4. Refrescar la tabla para mostrar el nuevo estado
-			mostrarTodo();
-			vista.mostrarMensaje("Pedido #" + id + " recibido con éxito. Inventario actualizado.");
+			EntradaInventario entrada = new EntradaInventario(det.getProductoId(), det.getCantidadPedida(),
+					new Date(), this.usuarioActual.getid(), // ¡Usuario que recibe!
+					descripcionEntrada);
+			entradaDAO.agregar(entrada);
 		}
+
+		// 3. Actualizar el status del pedido a "Recibido"
+		((OrdenCompraDAO) this.modelo).modificarStatus(id, "Recibido");
+		return true;
+	}
+
+	/**
+	 * Consulta un pedido en segundo plano (con la vista ocupada) y, si existe,
+	 * continúa con él en el EDT.
+	 *
+	 * @param id        Pedido seleccionado.
+	 * @param continuar Acción a ejecutar con el pedido encontrado.
+	 */
+	private void conOrden(int id, Consumer<OrdenCompra> continuar) {
+		vista.setOcupado(true);
+		modeloAsincrono.buscarPorID(id).whenComplete((orden, error) -> {
+			vista.setOcupado(false);
+			if (orden == null) {
+				vista.mostrarError("No se encontró el pedido.");
+			} else {
+				continuar.accept(orden);
+			}
+		});
 	}
 
 	/**
@@ -202,23 +240,27 @@ public class ControladorGestionPedidos extends ControladorGenerico<OrdenCompra>
 			return;
 		}
 
-		OrdenCompra orden = ((OrdenCompraDAO) this.modelo).buscarPorID(id);
-		if (orden == null) {
-			vista.mostrarError("No se encontró el pedido.");
-			return;
-		}
-		if (!"Pendiente".equalsIgnoreCase(orden.getStatus())) {
-			vista.mostrarError("Solo se pueden cancelar pedidos que estén 'Pendiente'.");
-			return;
-		}
-
-		int confirm = JOptionPane.showConfirmDialog(vista, "¿Seguro que desea CANCELAR el Pedido #" + id + "?",
-				"Confirmar Cancelación", JOptionPane.YES_NO_OPTION, JOptionPane.WARNING_MESSAGE);
+		conOrden(id, orden -> {
+			if (!"Pendiente".equalsIgnoreCase(orden.getStatus())) {
+				vista.mostrarError("Solo se pueden cancelar pedidos que estén 'Pendiente'.");
+				return;
+			}
 
-		if (confirm == JOptionPane.YES_OPTION) {
-			((OrdenCompraDAO) this.modelo).modificarStatus(id, "Cancelado");
-			mostrarTodo();
-		}
+			int confirm = JOptionPane.showConfirmDialog(vista, "¿Seguro que desea CANCELAR el Pedido #" + id + "?",
+					"Confirmar Cancelación", JOptionPane.YES_NO_OPTION, JOptionPane.WARNING_MESSAGE);
+
+			if (confirm == JOptionPane.YES_OPTION) {
+				vista.setOcupado(true);
+				EjecutorBD.ejecutar(() -> ((OrdenCompraDAO) this.modelo).modificarStatus(id, "Cancelado"))
+						.whenComplete((cancelado, error) -> {
+							vista.setOcupado(false);
+							if (error != null || !cancelado) {
+								vista.mostrarError("Error al cancelar el pedido.");
+							}
+							mostrarTodo();
+						});
+			}
+		});
 	}
 
 	/**
@@ -236,14 +278,24 @@ public class ControladorGestionPedidos extends ControladorGenerico<OrdenCompra>
 			return;
 		}
 
-		OrdenCompra orden = ((OrdenCompraDAO) this.modelo).buscarPorID(id);
-		if (orden == null) {
-			vista.mostrarError("No se encontró la orden.");
-			return;
-		}
-
-		List<OrdenCompraDetalle> detalles = detalleDAO.buscarDetallesPorOrdenID(id);
+		conOrden(id, orden -> {
+			vista.setOcupado(true);
+			EjecutorBD.ejecutar(() -> detalleDAO.buscarDetallesPorOrdenID(id)).whenComplete((detalles, error) -> {
+				vista.setOcupado(false);
+				if (error != null) {
+					vista.mostrarError("Error al consultar los detalles del pedido.");
+				} else {
+					mostrarDetalles(orden, detalles);
+				}
+			});
+		});
+	}
 
+	/**
+	 * Muestra el diálogo con los renglones de una orden (en el EDT).
+	 */
+	private void mostrarDetalles(OrdenCompra orden, List<OrdenCompraDetalle> detalles) {
+		int id = orden.getid();
 		if (detalles.isEmpty()) {
 			vista.mostrarMensaje("Este pedido no tiene productos asociados.");
 			return;
@@ -267,4 +319,13 @@ public class ControladorGestionPedidos extends ControladorGenerico<OrdenCompra>
 				"Detalles del Pedido #" + id + " (Proveedor: " + orden.getNombreProveedor() + ")",
 				JOptionPane.INFORMATION_MESSAGE);
 	}
-}
\ No newline at end of file
+
+	/**
+	 * Los pedidos se listan del más reciente al más antiguo, igual que
+	 * {@link OrdenCompraDAO#ObtenerTodo()}.
+	 */
+	@Override
+	protected Criterio criterioInicial() {
+		return super.criterioInicial().ordenarPor("fecha", true);
+	}
+}
@@ -1,6 +1,8 @@
 package controlador;
 
 import modelo.Empleado;
+import persistencia.CatalogoProductos;
+import persistencia.DiarioVentas;
 import persistencia.EmpleadoDAO;
 import vista.Principal;
 import vista.VistaLogin;
@@ -86,6 +88,20 @@ public class ControladorLogin {
 			// Cerramos la ventana de login para limpiar la pantalla.
 			vistaLogin.dispose();
 
+			// Precargamos el catálogo de productos en segundo plano para que el primer
+			// escaneo en caja no tenga que ir a la base de datos.
+			CatalogoProductos.getInstancia().cargarEnSegundoPlano();
+
+			// Cargamos las plantillas de reportes y las clases de JasperReports en un
+			// hilo de baja prioridad; el primer reporte del día ya no paga ese costo.
+			ReportesJasper.precalentar();
+
+			// Abrimos el diario local de ventas: las que quedaron pendientes de una
+			// sesión anterior se envían al servidor en segundo plano.
+			if (DiarioVentas.isHabilitado()) {
+				DiarioVentas.getInstancia().iniciar();
+			}
+
 			// Creamos y mostramos la ventana principal (Dashboard).
 			// IMPORTANTE: Pasamos el objeto 'empleadoLogueado' para configurar los permisos
 			// (Roles).
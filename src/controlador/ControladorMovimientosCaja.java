@@ -1,11 +1,12 @@
 package controlador;
 
 import java.awt.event.ActionListener;
-import java.util.List;
 
+import metricas.ContextoAccion;
 import modelo.CorteCaja;
 import modelo.Empleado;
 import modelo.MovimientoCaja;
+import persistencia.EjecutorBD;
 import persistencia.MovimientoCajaDAO;
 import vista.PanelMovimientosCaja;
 
@@ -22,7 +23,7 @@ import vista.PanelMovimientosCaja;
  * ID del usuario logueado y el ID del corte abierto.</li>
  * </ul>
  * </p>
- * * @version 1.2
+ * * @version 1.3
  */
 public class ControladorMovimientosCaja extends ControladorGenerico<MovimientoCaja> {
 
@@ -63,7 +64,7 @@ public class ControladorMovimientosCaja extends ControladorGenerico<MovimientoCa
 		}
 
 		// 2. Agregamos nuestro propio listener personalizado con la lógica de caja
-		vista.addGuardarListener(e -> guardarMovimientoPersonalizado());
+		vista.addGuardarListener(e -> ContextoAccion.medir("caja.registrarMovimiento", this::guardarMovimientoPersonalizado));
 
 		// 3. Cargar la tabla inicialmente con los datos del corte actual
 		mostrarTodo();
@@ -80,8 +81,15 @@ public class ControladorMovimientosCaja extends ControladorGenerico<MovimientoCa
 	@Override
 	public void mostrarTodo() {
 		if (corteActual != null) {
-			List<MovimientoCaja> lista = modeloMovimientos.obtenerMovimientosPorCorte(corteActual.getCorteID());
-			vista.mostrarEntidades(lista);
+			int corteID = corteActual.getCorteID();
+			vista.setOcupado(true);
+			EjecutorBD.ejecutar(() -> modeloMovimientos.obtenerMovimientosPorCorte(corteID))
+					.whenComplete((lista, error) -> {
+						vista.setOcupado(false);
+						if (error == null) {
+							vista.mostrarEntidades(lista);
+						}
+					});
 		}
 	}
 
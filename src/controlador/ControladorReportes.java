@@ -1,43 +1,58 @@
 package controlador;
 
-import java.io.File;
-import java.io.FileWriter;
 import java.io.IOException;
-import java.io.InputStream;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.sql.SQLException;
 import java.text.SimpleDateFormat;
+import java.time.LocalDate;
+import java.util.ArrayList;
 import java.util.Calendar;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
 import javax.swing.JComboBox;
 import javax.swing.JFileChooser;
 import javax.swing.JOptionPane;
-import javax.swing.JTable;
 import javax.swing.table.DefaultTableModel;
 
 // Importaciones de modelos
+import metricas.ContextoAccion;
+import metricas.EventoJfrReporte;
 import modelo.AlmacenProductos;
 import modelo.CorteCaja;
 import modelo.Empleado;
 import modelo.EntradaInventario;
+import modelo.ResumenVentas;
 import modelo.Venta;
-import modelo.VentaDetalle;
 
 // Importaciones de JasperReports
-import net.sf.jasperreports.engine.JasperFillManager;
+import net.sf.jasperreports.engine.JRDataSource;
+import net.sf.jasperreports.engine.JRException;
+import net.sf.jasperreports.engine.JRField;
 import net.sf.jasperreports.engine.JasperPrint;
 import net.sf.jasperreports.engine.data.JRBeanCollectionDataSource;
-import net.sf.jasperreports.view.JasperViewer;
 
 // Importaciones de DAO
 import persistencia.AlmacenProductosDAO;
 import persistencia.CorteCajaDAO;
+import persistencia.CorteCajaDAOAsincrono;
 import persistencia.EntradaInventarioDAO;
+import persistencia.EjecutorBD;
+import persistencia.EntradaInventarioDAOAsincrono;
+import persistencia.ResumenVentasDAO;
 import persistencia.VentaDAO;
+import persistencia.VentaDAOAsincrono;
 import persistencia.VentaDetalleDAO;
 
 // Importación de la vista
+import vista.DialogoProgreso;
 import vista.PanelReportes;
 
 /**
@@ -50,7 +65,7 @@ import vista.PanelReportes;
  * exportables (JasperReports PDF / Excel CSV).
  * </p>
  * 
- * @version 1.2
+ * @version 1.10
  */
 public class ControladorReportes {
 
@@ -58,10 +73,14 @@ public class ControladorReportes {
 
 	// DAOs necesarios para consultar toda la información del sistema
 	private VentaDAO ventaDAO;
+	private VentaDAOAsincrono ventaAsincrona;
+	private ResumenVentasDAO resumenDAO;
 	private VentaDetalleDAO detalleDAO;
 	private AlmacenProductosDAO productoDAO;
 	private EntradaInventarioDAO entradaDAO;
 	private CorteCajaDAO corteDAO;
+	private EntradaInventarioDAOAsincrono entradaAsincrona;
+	private CorteCajaDAOAsincrono corteAsincrono;
 
 	/** Usuario que solicita el reporte (para firmar el documento generado). */
 	private Empleado usuarioActual;
@@ -70,8 +89,10 @@ public class ControladorReportes {
 	// Guardan los datos de la última consulta en tabla para poder enviarlos a
 	// JasperReports sin re-consultar la BD.
 
-	private List<Venta> ultimasVentasConsultadas = null;
 	private double ultimoTotalCalculadoVentas = 0.0;
+	/** Periodo de la última consulta de ventas (el PDF se llena leyendo de la BD). */
+	private Date ultimoInicioVentas = null;
+	private Date ultimoFinVentas = null;
 	private String ultimoTituloReporteVentas = "";
 
 	private List<?> ultimosDatosConsultadosInventario = null;
@@ -97,36 +118,39 @@ public class ControladorReportes {
 			EntradaInventarioDAO eDAO, Empleado usuario) {
 		this.vista = vista;
 		this.ventaDAO = vDAO;
+		this.ventaAsincrona = new VentaDAOAsincrono(vDAO);
+		this.resumenDAO = new ResumenVentasDAO();
 		this.detalleDAO = dDAO;
 		this.productoDAO = pDAO;
 		this.entradaDAO = eDAO;
 		this.usuarioActual = usuario;
 
 		this.corteDAO = new CorteCajaDAO();
+		this.entradaAsincrona = new EntradaInventarioDAOAsincrono(eDAO);
+		this.corteAsincrono = new CorteCajaDAOAsincrono(corteDAO);
 
 		// --- Asignación de Listeners por Módulo ---
 
 		// 1. Pestaña Ventas
-		this.vista.getPanelVentas().addVentasHoyListener(e -> mostrarVentasHoyEnTabla());
-		this.vista.getPanelVentas().addVentasMesSeleccionadoListener(e -> mostrarVentasMesSeleccionadoEnTabla());
+		this.vista.getPanelVentas().addVentasHoyListener(e -> ContextoAccion.medir("reportes.ventasHoy", this::mostrarVentasHoyEnTabla));
+		this.vista.getPanelVentas().addVentasMesSeleccionadoListener(e -> ContextoAccion.medir("reportes.ventasMes", this::mostrarVentasMesSeleccionadoEnTabla));
+		this.vista.getPanelVentas().addResumenAnioListener(e -> ContextoAccion.medir("reportes.resumenAnio", this::mostrarResumenAnioEnTabla));
 		this.vista.getPanelVentas().addVerImprimirJasperListener(e -> generarJasperReporteVentas());
-		this.vista.getPanelVentas().addExportarExcelListener(e -> {
-			exportarAExcelCSV(this.vista.getPanelVentas().getTablaResultados());
-		});
+		this.vista.getPanelVentas().addExportarExcelListener(e -> exportarVentasCSV());
 
 		// 2. Pestaña Inventario
-		this.vista.getPanelInventario().addStockBajoListener(e -> mostrarStockBajoEnTabla());
-		this.vista.getPanelInventario().addInventarioCompletoListener(e -> mostrarInventarioCompletoEnTabla());
-		this.vista.getPanelInventario().addHistorialEntradasListener(e -> mostrarHistorialEntradasEnTabla());
+		this.vista.getPanelInventario().addStockBajoListener(e -> ContextoAccion.medir("reportes.stockBajo", this::mostrarStockBajoEnTabla));
+		this.vista.getPanelInventario().addInventarioCompletoListener(e -> ContextoAccion.medir("reportes.inventario", this::mostrarInventarioCompletoEnTabla));
+		this.vista.getPanelInventario().addHistorialEntradasListener(e -> ContextoAccion.medir("reportes.historialEntradas", this::mostrarHistorialEntradasEnTabla));
 		this.vista.getPanelInventario().addVerImprimirInventarioJasperListener(e -> generarJasperReporteInventario());
 
 		// 3. Pestaña Tickets (Historial y Devoluciones)
 		this.vista.getPanelTickets().addReimprimirListener(e -> reimprimirTicketSeleccionado());
-		this.vista.getPanelTickets().addDevolucionListener(e -> realizarDevolucion());
+		this.vista.getPanelTickets().addDevolucionListener(e -> ContextoAccion.medir("reportes.devolucion", this::realizarDevolucion));
 
 		// 4. Pestaña Caja (Historial de Cortes)
 		if (this.vista.getPanelCaja() != null) {
-			this.vista.getPanelCaja().addGenerarListener(e -> mostrarReporteCaja());
+			this.vista.getPanelCaja().addGenerarListener(e -> ContextoAccion.medir("reportes.caja", this::mostrarReporteCaja));
 			this.vista.getPanelCaja().addImprimirListener(e -> generarJasperReporteCaja());
 		}
 
@@ -154,8 +178,21 @@ public class ControladorReportes {
 		cal.set(Calendar.MILLISECOND, 999);
 		Date finDelDia = cal.getTime();
 
-		List<Venta> ventas = ventaDAO.obtenerVentasPorFecha(inicioDelDia, finDelDia);
+		vista.getPanelVentas().setOcupado(true);
+		ventaAsincrona.obtenerVentasPorFecha(inicioDelDia, finDelDia).whenComplete((ventas, error) -> {
+			vista.getPanelVentas().setOcupado(false);
+			if (error != null) {
+				mostrarErrorConsulta();
+			} else {
+				mostrarVentasEnTabla(ventas, inicioDelDia, finDelDia);
+			}
+		});
+	}
 
+	/**
+	 * Llena la tabla con las ventas del día (en el EDT).
+	 */
+	private void mostrarVentasEnTabla(List<Venta> ventas, Date inicioDelDia, Date finDelDia) {
 		// Configuración del modelo de tabla
 		String[] columnas = { "ID Venta", "Fecha", "Cliente", "Empleado", "Total" };
 		@SuppressWarnings("serial")
@@ -179,13 +216,19 @@ public class ControladorReportes {
 		vista.getPanelVentas().mostrarResultados(model);
 		vista.getPanelVentas().actualizarTotal(totalReporte);
 
-		this.ultimasVentasConsultadas = ventas;
 		this.ultimoTotalCalculadoVentas = totalReporte;
+		this.ultimoInicioVentas = inicioDelDia;
+		this.ultimoFinVentas = finDelDia;
 		this.ultimoTituloReporteVentas = "Reporte de Ventas del Día";
 	}
 
 	/**
-	 * Consulta las ventas de un mes específico seleccionado en los ComboBox.
+	 * Muestra los totales de cada día del mes seleccionado en los ComboBox.
+	 * <p>
+	 * Lee las tablas de resumen ({@link ResumenVentasDAO#resumenPorDia}), unos
+	 * treinta renglones sin importar cuántas ventas tuvo el mes. El PDF sigue
+	 * listando cada venta del periodo.
+	 * </p>
 	 */
 	private void mostrarVentasMesSeleccionadoEnTabla() {
 		int mes = vista.getPanelVentas().getMesSeleccionado();
@@ -207,10 +250,91 @@ public class ControladorReportes {
 		cal.set(Calendar.HOUR_OF_DAY, 23);
 		Date finDeMes = cal.getTime();
 
-		List<Venta> ventas = ventaDAO.obtenerVentasPorFecha(inicioDeMes, finDeMes);
+		// Un renglón por día, leído de los resúmenes pre-sumados (no de cada venta)
+		LocalDate primerDia = LocalDate.of(anio, mes + 1, 1);
+		vista.getPanelVentas().setOcupado(true);
+		EjecutorBD.ejecutar(
+				() -> resumenDAO.resumenPorDia(primerDia, primerDia.withDayOfMonth(primerDia.lengthOfMonth())))
+				.whenComplete((resumen, error) -> {
+					vista.getPanelVentas().setOcupado(false);
+					if (error != null) {
+						mostrarErrorConsulta();
+					} else {
+						mostrarResumenMes(resumen, inicioDeMes, finDeMes, anio);
+					}
+				});
+	}
+
+	/**
+	 * Muestra el resumen diario del mes consultado (en el EDT).
+	 */
+	private void mostrarResumenMes(List<ResumenVentas> resumen, Date inicioDeMes, Date finDeMes, int anio) {
+		double totalReporte = mostrarResumenEnTabla(resumen, "Día");
+
+		this.ultimoTotalCalculadoVentas = totalReporte;
+		this.ultimoInicioVentas = inicioDeMes;
+		this.ultimoFinVentas = finDeMes;
 
-		// Llenado de tabla (Idéntico a ventas del día)
-		String[] columnas = { "ID Venta", "Fecha", "Cliente", "Empleado", "Total" };
+		// Obtener nombre del mes para el título
+		String nombreMes = "";
+		JComboBox<String> comboMes = vista.getPanelVentas().getComboMes();
+		if (comboMes != null && comboMes.getSelectedItem() != null) {
+			nombreMes = comboMes.getSelectedItem().toString();
+		}
+		this.ultimoTituloReporteVentas = "Reporte de Ventas de " + nombreMes + " " + anio;
+	}
+
+	/**
+	 * Muestra los totales de cada mes del año seleccionado, leídos de los
+	 * resúmenes diarios.
+	 */
+	private void mostrarResumenAnioEnTabla() {
+		int anio = vista.getPanelVentas().getAnioSeleccionado();
+		vista.getPanelVentas().setOcupado(true);
+		EjecutorBD.ejecutar(() -> resumenDAO.resumenPorMes(anio)).whenComplete((resumen, error) -> {
+			vista.getPanelVentas().setOcupado(false);
+			if (error != null) {
+				mostrarErrorConsulta();
+			} else {
+				mostrarResumenAnio(resumen, anio);
+			}
+		});
+	}
+
+	/**
+	 * Muestra el resumen mensual del año consultado (en el EDT).
+	 */
+	private void mostrarResumenAnio(List<ResumenVentas> resumen, int anio) {
+		// El número de mes se muestra con su nombre
+		String[] meses = { "Enero", "Febrero", "Marzo", "Abril", "Mayo", "Junio", "Julio", "Agosto", "Septiembre",
+				"Octubre", "Noviembre", "Diciembre" };
+		List<ResumenVentas> porNombre = new ArrayList<>(resumen.size());
+		for (ResumenVentas r : resumen) {
+			porNombre.add(new ResumenVentas(meses[Integer.parseInt(r.getPeriodo()) - 1], r.getNumVentas(),
+					r.getSubtotal(), r.getDescuento(), r.getImpuestos(), r.getTotal()));
+		}
+		double totalReporte = mostrarResumenEnTabla(porNombre, "Mes");
+
+		Calendar cal = Calendar.getInstance();
+		cal.set(anio, Calendar.JANUARY, 1, 0, 0, 0);
+		cal.set(Calendar.MILLISECOND, 0);
+		this.ultimoInicioVentas = cal.getTime();
+		cal.set(anio, Calendar.DECEMBER, 31, 23, 59, 59);
+		cal.set(Calendar.MILLISECOND, 999);
+		this.ultimoFinVentas = cal.getTime();
+		this.ultimoTotalCalculadoVentas = totalReporte;
+		this.ultimoTituloReporteVentas = "Reporte de Ventas del Año " + anio;
+	}
+
+	/**
+	 * Llena la tabla de ventas con un renglón por periodo.
+	 *
+	 * @param resumen        Totales de cada periodo.
+	 * @param columnaPeriodo Encabezado de la primera columna ("Día", "Mes").
+	 * @return Suma de los totales mostrados.
+	 */
+	private double mostrarResumenEnTabla(List<ResumenVentas> resumen, String columnaPeriodo) {
+		String[] columnas = { columnaPeriodo, "Ventas", "Subtotal", "Descuento", "Impuestos", "Total" };
 		@SuppressWarnings("serial")
 		DefaultTableModel model = new DefaultTableModel(columnas, 0) {
 			@Override
@@ -220,102 +344,99 @@ public class ControladorReportes {
 		};
 
 		double totalReporte = 0.0;
-		if (ventas != null) {
-			for (Venta venta : ventas) {
-				model.addRow(new Object[] { venta.getid(), venta.getFecha(), venta.getNombreCliente(),
-						venta.getNombreEmpleado(), venta.getTotal() });
-				totalReporte += venta.getTotal();
-			}
+		for (ResumenVentas r : resumen) {
+			model.addRow(new Object[] { r.getPeriodo(), r.getNumVentas(), r.getSubtotal(), r.getDescuento(),
+					r.getImpuestos(), r.getTotal() });
+			totalReporte += r.getTotal();
 		}
 		vista.getPanelVentas().mostrarResultados(model);
 		vista.getPanelVentas().actualizarTotal(totalReporte);
-
-		this.ultimasVentasConsultadas = ventas;
-		this.ultimoTotalCalculadoVentas = totalReporte;
-
-		// Obtener nombre del mes para el título
-		String nombreMes = "";
-		JComboBox<String> comboMes = vista.getPanelVentas().getComboMes();
-		if (comboMes != null && comboMes.getSelectedItem() != null) {
-			nombreMes = comboMes.getSelectedItem().toString();
-		}
-		this.ultimoTituloReporteVentas = "Reporte de Ventas de " + nombreMes + " " + anio;
+		return totalReporte;
 	}
 
 	/**
 	 * Genera un reporte PDF utilizando la librería JasperReports.
 	 * <p>
-	 * Utiliza la lista {@code ultimasVentasConsultadas} como fuente de datos
-	 * (DataSource), evitando una nueva consulta a la base de datos.
+	 * Vuelve a leer las ventas del periodo consultado directamente del
+	 * {@code ResultSet} ({@link VentaDAO#fuenteVentasPorFecha}), de modo que un
+	 * periodo largo no tiene que caber completo en memoria como lista.
 	 * </p>
 	 */
 	private void generarJasperReporteVentas() {
-		if (ultimasVentasConsultadas == null || ultimasVentasConsultadas.isEmpty()) {
-			JOptionPane.showMessageDialog(vista, "Primero debe generar un reporte en la tabla (Hoy o Mes).",
+		if (ultimoInicioVentas == null) {
+			JOptionPane.showMessageDialog(vista, "Primero debe generar un reporte en la tabla (Hoy, Mes o Año).",
 					"Sin Datos", JOptionPane.INFORMATION_MESSAGE);
 			return;
 		}
 
-		try {
-			InputStream archivoReporte = getClass().getResourceAsStream("/reportes/ventas_dia.jasper");
-			if (archivoReporte == null) {
-				JOptionPane.showMessageDialog(vista, "Archivo 'ventas_dia.jasper' no encontrado.", "Error",
-						JOptionPane.ERROR_MESSAGE);
-				return;
-			}
-
-			JRBeanCollectionDataSource dataSource = new JRBeanCollectionDataSource(ultimasVentasConsultadas);
-			Map<String, Object> parametros = new HashMap<>();
-			parametros.put("TOTAL_REPORTE", String.format("$ %.2f", ultimoTotalCalculadoVentas));
-			parametros.put("FECHA_REPORTE", new SimpleDateFormat("dd/MM/yyyy HH:mm").format(new Date()));
-			parametros.put("EMPLEADO_GENERADOR", (this.usuarioActual != null) ? this.usuarioActual.getNombre() : "N/A");
-
-			JasperPrint jasperPrint = JasperFillManager.fillReport(archivoReporte, parametros, dataSource);
-			JasperViewer.viewReport(jasperPrint, false);
+		JRDataSource dataSource = ventaDAO.fuenteVentasPorFecha(ultimoInicioVentas, ultimoFinVentas);
+		Map<String, Object> parametros = new HashMap<>();
+		parametros.put("TOTAL_REPORTE", String.format("$ %.2f", ultimoTotalCalculadoVentas));
+		parametros.put("FECHA_REPORTE", new SimpleDateFormat("dd/MM/yyyy HH:mm").format(new Date()));
+		parametros.put("EMPLEADO_GENERADOR", (this.usuarioActual != null) ? this.usuarioActual.getNombre() : "N/A");
 
-		} catch (Exception e) {
-			e.printStackTrace();
-			JOptionPane.showMessageDialog(vista, "Error al generar el reporte Jasper: " + e.getMessage(), "Error",
-					JOptionPane.ERROR_MESSAGE);
-		}
+		mostrarReporteJasper(ReportesJasper.VENTAS, parametros, dataSource);
 	}
 
 	/**
-	 * Exporta el contenido visual de cualquier JTable a un archivo CSV compatible
-	 * con Excel. * @param tabla La tabla Swing que contiene los datos a exportar.
+	 * Exporta a CSV las ventas del periodo consultado, leyéndolas directamente de
+	 * la BD (no de la tabla en pantalla).
+	 * <p>
+	 * El usuario elige entre una fila por venta o una fila por producto vendido.
+	 * Si el nombre del archivo termina en {@code .gz} se comprime con gzip. La
+	 * exportación corre en segundo plano con un {@link DialogoProgreso} que
+	 * muestra las filas escritas y permite cancelar.
+	 * </p>
 	 */
-	private void exportarAExcelCSV(JTable tabla) {
-		try {
-			JFileChooser archivo = new JFileChooser();
-			archivo.showSaveDialog(vista);
-			File guardar = archivo.getSelectedFile();
-
-			if (guardar != null) {
-				guardar = new File(guardar.toString() + ".csv");
-
-				try (FileWriter fw = new FileWriter(guardar)) {
-					// 1. Escribir Encabezados
-					for (int i = 0; i < tabla.getColumnCount(); i++) {
-						fw.write(tabla.getColumnName(i) + ",");
-					}
-					fw.write("\n");
-
-					// 2. Escribir Filas
-					for (int i = 0; i < tabla.getRowCount(); i++) {
-						for (int j = 0; j < tabla.getColumnCount(); j++) {
-							// Limpieza de datos (quitar comas internas para no romper el CSV)
-							Object valor = tabla.getValueAt(i, j);
-							String dato = (valor == null) ? "" : valor.toString().replace(",", "");
-							fw.write(dato + ",");
-						}
-						fw.write("\n");
-					}
-					JOptionPane.showMessageDialog(vista, "Reporte exportado a Excel (CSV) exitosamente.");
-				}
-			}
-		} catch (IOException ex) {
-			JOptionPane.showMessageDialog(vista, "Error al exportar: " + ex.getMessage());
+	private void exportarVentasCSV() {
+		if (ultimoInicioVentas == null) {
+			JOptionPane.showMessageDialog(vista, "Primero debe generar un reporte en la tabla (Hoy, Mes o Año).",
+					"Sin Datos", JOptionPane.INFORMATION_MESSAGE);
+			return;
+		}
+		String[] opciones = { "Una fila por venta", "Una fila por producto vendido" };
+		int tipo = JOptionPane.showOptionDialog(vista, "¿Qué desea exportar?", "Exportar a Excel (CSV)",
+				JOptionPane.DEFAULT_OPTION, JOptionPane.QUESTION_MESSAGE, null, opciones, opciones[0]);
+		if (tipo < 0) {
+			return;
+		}
+
+		JFileChooser archivo = new JFileChooser();
+		if (archivo.showSaveDialog(vista) != JFileChooser.APPROVE_OPTION || archivo.getSelectedFile() == null) {
+			return;
+		}
+		String nombre = archivo.getSelectedFile().toString();
+		boolean gzip = nombre.toLowerCase().endsWith(".gz");
+		if (!gzip && !nombre.toLowerCase().endsWith(".csv")) {
+			nombre += ".csv";
 		}
+		Path destino = Paths.get(nombre);
+
+		DialogoProgreso dialogo = new DialogoProgreso(vista, "Exportando ventas");
+		AtomicBoolean cancelado = new AtomicBoolean(false);
+		dialogo.addCancelarListener(e -> cancelado.set(true));
+		Date inicio = ultimoInicioVentas;
+		Date fin = ultimoFinVentas;
+
+		EjecutorBD.ejecutar(() -> {
+			try {
+				return ventaDAO.exportarVentasCSV(inicio, fin, tipo == 1, destino, gzip, filas -> EjecutorBD.EDT
+						.execute(() -> dialogo.setAvance(String.format("Filas exportadas: %,d", filas))), cancelado::get);
+			} catch (SQLException | IOException e) {
+				throw new CompletionException(e);
+			}
+		}).whenComplete((filas, error) -> {
+			dialogo.dispose();
+			if (error != null) {
+				Throwable causa = (error.getCause() != null) ? error.getCause() : error;
+				JOptionPane.showMessageDialog(vista, "Error al exportar: " + causa.getMessage(), "Error",
+						JOptionPane.ERROR_MESSAGE);
+			} else if (filas >= 0) {
+				JOptionPane.showMessageDialog(vista,
+						String.format("Se exportaron %,d filas a:%n%s", filas, destino.toAbsolutePath()));
+			}
+		});
+		dialogo.setVisible(true);
 	}
 
 	// ==========================================
@@ -323,7 +444,10 @@ public class ControladorReportes {
 	// ==========================================
 
 	private void mostrarStockBajoEnTabla() {
-		List<AlmacenProductos> productos = productoDAO.obtenerProductosConStockBajo();
+		consultarInventario(productoDAO::obtenerProductosConStockBajo, this::mostrarStockBajoEnTabla);
+	}
+
+	private void mostrarStockBajoEnTabla(List<AlmacenProductos> productos) {
 		// Lógica de llenado de tabla...
 		String[] columnas = { "ID", "Producto", "Descripción", "Categoría", "Stock Actual", "Stock Mínimo" };
 		DefaultTableModel model = new DefaultTableModel(columnas, 0); // (Simplificado para brevedad)
@@ -341,7 +465,10 @@ public class ControladorReportes {
 	}
 
 	private void mostrarInventarioCompletoEnTabla() {
-		List<AlmacenProductos> productos = productoDAO.ObtenerTodo();
+		consultarInventario(productoDAO::ObtenerTodo, this::mostrarInventarioCompletoEnTabla);
+	}
+
+	private void mostrarInventarioCompletoEnTabla(List<AlmacenProductos> productos) {
 		String[] columnas = { "ID", "Producto", "Descripción", "Categoría", "Proveedor", "Precio", "Stock" };
 		DefaultTableModel model = new DefaultTableModel(columnas, 0);
 		// ... bucle de llenado ...
@@ -358,7 +485,46 @@ public class ControladorReportes {
 	}
 
 	private void mostrarHistorialEntradasEnTabla() {
-		List<EntradaInventario> entradas = entradaDAO.obtenerTodasLasEntradas();
+		vista.getPanelInventario().setOcupado(true);
+		entradaAsincrona.obtenerTodasLasEntradas().whenComplete((entradas, error) -> {
+			vista.getPanelInventario().setOcupado(false);
+			if (error != null) {
+				mostrarErrorConsulta();
+			} else {
+				mostrarHistorialEntradasEnTabla(entradas);
+			}
+		});
+	}
+
+	/**
+	 * Ejecuta una consulta de inventario en segundo plano con el panel ocupado
+	 * y entrega el resultado en el EDT.
+	 *
+	 * @param consulta Consulta al DAO (fuera del EDT).
+	 * @param mostrar  Llenado de la tabla con el resultado.
+	 */
+	private void consultarInventario(Supplier<List<AlmacenProductos>> consulta,
+			Consumer<List<AlmacenProductos>> mostrar) {
+		vista.getPanelInventario().setOcupado(true);
+		EjecutorBD.ejecutar(consulta).whenComplete((productos, error) -> {
+			vista.getPanelInventario().setOcupado(false);
+			if (error != null) {
+				mostrarErrorConsulta();
+			} else {
+				mostrar.accept(productos);
+			}
+		});
+	}
+
+	/**
+	 * Avisa que una consulta de reporte falló (el detalle ya quedó en consola).
+	 */
+	private void mostrarErrorConsulta() {
+		JOptionPane.showMessageDialog(vista, "Error al consultar la base de datos.", "Error",
+				JOptionPane.ERROR_MESSAGE);
+	}
+
+	private void mostrarHistorialEntradasEnTabla(List<EntradaInventario> entradas) {
 		String[] columnas = { "Fecha", "Producto", "Descripción", "Cantidad Agregada", "Usuario" };
 		DefaultTableModel model = new DefaultTableModel(columnas, 0);
 		// ... bucle de llenado ...
@@ -392,49 +558,53 @@ public class ControladorReportes {
 		String nombreArchivoJasper = "";
 		// Selección de plantilla
 		if ("Reporte de Productos con Stock Bajo".equals(ultimoTituloReporteInventario)) {
-			nombreArchivoJasper = "/reportes/stok_bajo.jasper";
+			nombreArchivoJasper = ReportesJasper.STOCK_BAJO;
 		} else if ("Reporte de Inventario Completo".equals(ultimoTituloReporteInventario)) {
-			nombreArchivoJasper = "/reportes/inventario_completo.jasper";
+			nombreArchivoJasper = ReportesJasper.INVENTARIO;
 		} else if ("Historial de Entradas".equals(ultimoTituloReporteInventario)) {
-			nombreArchivoJasper = "/reportes/historial_entradas.jasper";
+			nombreArchivoJasper = ReportesJasper.ENTRADAS;
 		} else {
 			return;
 		}
 
-		try {
-			InputStream archivoReporte = getClass().getResourceAsStream(nombreArchivoJasper);
-			if (archivoReporte == null) {
-				JOptionPane.showMessageDialog(vista, "Plantilla no encontrada.", "Error", JOptionPane.ERROR_MESSAGE);
-				return;
-			}
-
-			JRBeanCollectionDataSource dataSource = new JRBeanCollectionDataSource(ultimosDatosConsultadosInventario);
-			Map<String, Object> parametros = new HashMap<>();
-			parametros.put("P_TIENDA_NOMBRE", "MI TIENDA POS");
-
-			JasperPrint jasperPrint = JasperFillManager.fillReport(archivoReporte, parametros, dataSource);
-			JasperViewer.viewReport(jasperPrint, false);
+		// El inventario completo se lee directo de la BD; los otros dos son listas cortas
+		JRDataSource dataSource = ReportesJasper.INVENTARIO.equals(nombreArchivoJasper)
+				? productoDAO.fuenteInventarioCompleto()
+				: new JRBeanCollectionDataSource(ultimosDatosConsultadosInventario);
+		Map<String, Object> parametros = new HashMap<>();
+		parametros.put("P_TIENDA_NOMBRE", "MI TIENDA POS");
 
-		} catch (Exception e) {
-			e.printStackTrace();
-			JOptionPane.showMessageDialog(vista, "Error al generar reporte: " + e.getMessage());
-		}
+		mostrarReporteJasper(nombreArchivoJasper, parametros, dataSource);
 	}
 
 	// ==========================================
 	// MÉTODOS DE TICKETS Y DEVOLUCIONES
 	// ==========================================
 
+	/**
+	 * Carga la tabla de tickets sin bloquear la interfaz.
+	 * <p>
+	 * La consulta corre en segundo plano; mientras tanto el panel se muestra
+	 * ocupado.
+	 * </p>
+	 */
 	private void cargarHistorialVentas() {
-		List<Venta> listaVentas = ventaDAO.obtenerTodasLasVentas();
-		vista.getPanelTickets().mostrarVentas(listaVentas);
+		vista.getPanelTickets().setOcupado(true);
+		ventaAsincrona.obtenerTodasLasVentas().whenComplete((listaVentas, error) -> {
+			vista.getPanelTickets().setOcupado(false);
+			if (error != null) {
+				vista.getPanelTickets().mostrarError("Error al cargar el historial de ventas.");
+			} else {
+				vista.getPanelTickets().mostrarVentas(listaVentas);
+			}
+		});
 	}
 
 	/**
 	 * Permite volver a imprimir (o visualizar) el ticket de una venta pasada.
 	 * <p>
-	 * Recupera la cabecera y los detalles de la venta seleccionada y reutiliza la
-	 * plantilla {@code ticket.jasper}.
+	 * Recupera la cabecera y los detalles de la venta seleccionada (en segundo
+	 * plano) y reutiliza la plantilla {@code ticket.jasper}.
 	 * </p>
 	 */
 	private void reimprimirTicketSeleccionado() {
@@ -444,30 +614,41 @@ public class ControladorReportes {
 			return;
 		}
 
-		Venta ventaCompleta = ventaDAO.buscarVentaPorID(idVenta);
-		List<VentaDetalle> detalles = detalleDAO.buscarDetallesPorVentaID(idVenta);
-		ventaCompleta.setDetalles(detalles);
-
-		try {
-			InputStream archivoReporte = getClass().getResourceAsStream("/reportes/ticket.jasper");
-			JRBeanCollectionDataSource dataSource = new JRBeanCollectionDataSource(ventaCompleta.getDetalles());
-			Map<String, Object> parametros = new HashMap<>();
-			parametros.put("P_TIENDA_NOMBRE", "MI TIENDA POS");
-			parametros.put("P_TICKET_NO", String.valueOf(ventaCompleta.getid()));
-			// ... resto de parámetros ...
-			parametros.put("P_TIENDA_DIRECCION", "Dirección del Negocio");
-			parametros.put("P_TIENDA_TEL", "555-555-555");
-
-			parametros.put("P_FECHA", new SimpleDateFormat("dd/MM/yyyy HH:mm:ss").format(ventaCompleta.getFecha()));
-			parametros.put("P_CLIENTE", ventaCompleta.getNombreCliente());
-			parametros.put("P_EMPLEADO", ventaCompleta.getNombreEmpleado());
-			parametros.put("P_TOTAL_VENTA", ventaCompleta.getTotal());
-
-			JasperPrint jasperPrint = JasperFillManager.fillReport(archivoReporte, parametros, dataSource);
-			JasperViewer.viewReport(jasperPrint, false);
-		} catch (Exception e) {
-			e.printStackTrace();
-		}
+		EjecutorBD.ejecutar(() -> {
+			Venta venta = ventaDAO.buscarVentaPorID(idVenta);
+			if (venta != null) {
+				venta.setDetalles(detalleDAO.buscarDetallesPorVentaID(idVenta));
+			}
+			return venta;
+		}).whenComplete((venta, error) -> {
+			if (error != null || venta == null) {
+				vista.getPanelTickets().mostrarError("No se pudo recuperar la venta #" + idVenta + ".");
+			} else {
+				imprimirTicket(venta);
+			}
+		});
+	}
+
+	/**
+	 * Llena la plantilla del ticket con una venta ya cargada (en el EDT).
+	 *
+	 * @param ventaCompleta Venta con sus detalles.
+	 */
+	private void imprimirTicket(Venta ventaCompleta) {
+		JRBeanCollectionDataSource dataSource = new JRBeanCollectionDataSource(ventaCompleta.getDetalles());
+		Map<String, Object> parametros = new HashMap<>();
+		parametros.put("P_TIENDA_NOMBRE", "MI TIENDA POS");
+		parametros.put("P_TICKET_NO", String.valueOf(ventaCompleta.getid()));
+		// ... resto de parámetros ...
+		parametros.put("P_TIENDA_DIRECCION", "Dirección del Negocio");
+		parametros.put("P_TIENDA_TEL", "555-555-555");
+
+		parametros.put("P_FECHA", new SimpleDateFormat("dd/MM/yyyy HH:mm:ss").format(ventaCompleta.getFecha()));
+		parametros.put("P_CLIENTE", ventaCompleta.getNombreCliente());
+		parametros.put("P_EMPLEADO", ventaCompleta.getNombreEmpleado());
+		parametros.put("P_TOTAL_VENTA", ventaCompleta.getTotal());
+
+		mostrarReporteJasper(ReportesJasper.TICKET, parametros, dataSource);
 	}
 
 	/**
@@ -487,12 +668,16 @@ public class ControladorReportes {
 				"Confirmar Devolución", JOptionPane.YES_NO_OPTION, JOptionPane.WARNING_MESSAGE);
 
 		if (confirm == JOptionPane.YES_OPTION) {
-			if (ventaDAO.realizarDevolucion(idVenta)) {
-				vista.getPanelTickets().mostrarMensaje("Devolución realizada con éxito.\nInventario actualizado.");
-				cargarHistorialVentas(); // Refrescar tabla
-			} else {
-				vista.getPanelTickets().mostrarError("Error al procesar la devolución.");
-			}
+			vista.getPanelTickets().setOcupado(true);
+			ventaAsincrona.realizarDevolucion(idVenta).whenComplete((exito, error) -> {
+				vista.getPanelTickets().setOcupado(false);
+				if (error == null && exito) {
+					vista.getPanelTickets().mostrarMensaje("Devolución realizada con éxito.\nInventario actualizado.");
+					cargarHistorialVentas(); // Refrescar tabla
+				} else {
+					vista.getPanelTickets().mostrarError("Error al procesar la devolución.");
+				}
+			});
 		}
 	}
 
@@ -518,8 +703,16 @@ public class ControladorReportes {
 		cal.set(Calendar.SECOND, 59);
 		Date fin = cal.getTime();
 
-		// Consultar DAO
-		List<CorteCaja> lista = corteDAO.obtenerHistorialCortes(inicio, fin);
+		// Consultar DAO (en segundo plano)
+		corteAsincrono.obtenerHistorialCortes(inicio, fin).thenAccept(this::mostrarCortesEnTabla);
+	}
+
+	/**
+	 * Llena la tabla de cortes con el resultado de la consulta (en el EDT).
+	 * 
+	 * @param lista Cortes del periodo seleccionado.
+	 */
+	private void mostrarCortesEnTabla(List<CorteCaja> lista) {
 		this.ultimosCortesConsultados = lista; // Guardar caché para Jasper
 
 		// Llenar tabla
@@ -540,13 +733,106 @@ public class ControladorReportes {
 		if (ultimosCortesConsultados == null || ultimosCortesConsultados.isEmpty())
 			return;
 
-		try {
-			InputStream archivoReporte = getClass().getResourceAsStream("/reportes/corte_caja.jasper");
-			JRBeanCollectionDataSource dataSource = new JRBeanCollectionDataSource(ultimosCortesConsultados);
-			JasperPrint jasperPrint = JasperFillManager.fillReport(archivoReporte, new HashMap<>(), dataSource);
-			JasperViewer.viewReport(jasperPrint, false);
-		} catch (Exception e) {
-			e.printStackTrace();
+		JRBeanCollectionDataSource dataSource = new JRBeanCollectionDataSource(ultimosCortesConsultados);
+		mostrarReporteJasper(ReportesJasper.CORTES, new HashMap<>(), dataSource);
+	}
+
+	// ==========================================
+	// LLENADO DE REPORTES EN SEGUNDO PLANO
+	// ==========================================
+
+	/**
+	 * Llena un reporte fuera del EDT y lo abre en el visor al terminar.
+	 * <p>
+	 * Mientras tanto se muestra un {@link DialogoProgreso} con las páginas
+	 * generadas y un botón para cancelar; la interfaz sigue respondiendo.
+	 * </p>
+	 * <p>
+	 * Cada llenado queda en la grabación JFR como {@link EventoJfrReporte}, con
+	 * las filas leídas de la fuente y las páginas generadas.
+	 * </p>
+	 *
+	 * @param plantilla  Ruta de la plantilla (constantes de
+	 *                   {@link ReportesJasper}).
+	 * @param parametros Parámetros del reporte.
+	 * @param datos      Fuente de datos.
+	 */
+	private void mostrarReporteJasper(String plantilla, Map<String, Object> parametros, JRDataSource datos) {
+		EventoJfrReporte evento = new EventoJfrReporte();
+		evento.begin();
+		FuenteContada fuente = new FuenteContada(datos);
+		DialogoProgreso dialogo = new DialogoProgreso(vista, "Generando reporte");
+		CompletableFuture<JasperPrint> llenado = ReportesJasper.llenar(plantilla, parametros, fuente,
+				paginas -> dialogo.setAvance("Páginas generadas: " + paginas));
+		dialogo.addCancelarListener(e -> llenado.cancel(true));
+
+		llenado.whenComplete((jasperPrint, error) -> {
+			evento.end();
+			if (evento.shouldCommit()) {
+				evento.plantilla = plantilla.substring(plantilla.lastIndexOf('/') + 1);
+				evento.filas = fuente.filas;
+				evento.paginas = (jasperPrint != null) ? jasperPrint.getPages().size() : 0;
+				evento.resultado = llenado.isCancelled() ? "Cancelado" : (error != null) ? "Error" : "Completado";
+				evento.commit();
+			}
+			dialogo.dispose();
+			if (llenado.isCancelled()) {
+				return; // Cancelado por el usuario
+			}
+			if (error != null) {
+				JOptionPane.showMessageDialog(vista, "Error al generar el reporte Jasper: " + error.getMessage(),
+						"Error", JOptionPane.ERROR_MESSAGE);
+				return;
+			}
+			ReportesJasper.mostrar(jasperPrint);
+		});
+		if (!llenado.isDone()) {
+			dialogo.setVisible(true);
+		}
+	}
+
+	/**
+	 * Fuente de datos que cuenta los registros que entrega al llenado.
+	 * <p>
+	 * Sigue siendo {@link AutoCloseable} para que {@link ReportesJasper} cierre
+	 * la fuente original (ej. el {@code ResultSet} de
+	 * {@code persistencia.FuenteDatosJDBC}) al terminar.
+	 * </p>
+	 */
+	private static class FuenteContada implements JRDataSource, AutoCloseable {
+
+		private final JRDataSource fuente;
+
+		/** Lo escribe el hilo de llenado; se lee al completarse el futuro. */
+		private volatile long filas;
+
+		FuenteContada(JRDataSource fuente) {
+			this.fuente = fuente;
+		}
+
+		@Override
+		public boolean next() throws JRException {
+			boolean hay = fuente.next();
+			if (hay) {
+				filas++;
+			}
+			return hay;
+		}
+
+		@Override
+		public Object getFieldValue(JRField campo) throws JRException {
+			return fuente.getFieldValue(campo);
+		}
+
+		@Override
+		public void close() {
+			if (fuente instanceof AutoCloseable) {
+				try {
+					((AutoCloseable) fuente).close();
+				} catch (Exception e) {
+					System.err.println("❌ Error al cerrar la fuente de datos del reporte: " + e.getMessage());
+				}
+			}
 		}
 	}
-}
\ No newline at end of file
+}
@@ -1,12 +1,17 @@
 package controlador;
 
-import java.util.ArrayList;
 import java.util.Date;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 import javax.swing.JOptionPane;
 import java.awt.event.KeyAdapter;
 import java.awt.event.KeyEvent;
 
+import conexion.Configuracion;
+import metricas.ContextoAccion;
+import metricas.EventoJfrBusqueda;
+import metricas.EventoJfrVenta;
+import metricas.Metricas;
 import modelo.AlmacenProductos;
 import modelo.Clientes;
 import modelo.Empleado;
@@ -14,9 +19,13 @@ import modelo.Ticket;
 import modelo.Venta;
 import modelo.VentaDetalle;
 import persistencia.AlmacenProductosDAO;
+import persistencia.CatalogoProductos;
 import persistencia.ClienteDAO;
+import persistencia.DiarioVentas;
+import persistencia.EjecutorBD;
 import persistencia.EmpleadoDAO;
 import persistencia.VentaDAO;
+import persistencia.VentaDAOAsincrono;
 import vista.PanelVenta;
 
 /**
@@ -32,11 +41,18 @@ import vista.PanelVenta;
  * </ul>
  * </p>
  * 
- * @version 1.2
+ * @version 1.7
  */
 public class ControladorVenta {
 
+	/**
+	 * Tiempo que el cobro espera el folio del servidor cuando la venta pasa por
+	 * el diario local.
+	 */
+	private static final long ESPERA_FOLIO_MS = Configuracion.getEntero("pos.diario.esperaFolioMs", 1_500);
+
 	private VentaDAO ventaDAO;
+	private VentaDAOAsincrono ventaAsincrona;
 	private AlmacenProductosDAO productoDAO;
 	private ClienteDAO clienteDAO;
 	private EmpleadoDAO empleadoDAO;
@@ -71,6 +87,7 @@ public class ControladorVenta {
 	public ControladorVenta(VentaDAO vDAO, AlmacenProductosDAO pDAO, ClienteDAO cDAO, EmpleadoDAO eDAO,
 			PanelVenta vista, int corteID) {
 		this.ventaDAO = vDAO;
+		this.ventaAsincrona = new VentaDAOAsincrono(vDAO);
 		this.productoDAO = pDAO;
 		this.clienteDAO = cDAO;
 		this.empleadoDAO = eDAO;
@@ -83,9 +100,9 @@ public class ControladorVenta {
 		cargarEmpleadosEnComboBox();
 
 		// Listeners de acciones principales
-		this.vistaVenta.addBuscarProductoListener(e -> buscarProducto());
-		this.vistaVenta.addAgregarCarritoListener(e -> agregarAlCarrito());
-		this.vistaVenta.addFinalizarVentaListener(e -> finalizarVenta());
+		this.vistaVenta.addBuscarProductoListener(e -> ContextoAccion.medir("venta.buscarProducto", this::buscarProducto));
+		this.vistaVenta.addAgregarCarritoListener(e -> ContextoAccion.medir("venta.agregarAlCarrito", this::agregarAlCarrito));
+		this.vistaVenta.addFinalizarVentaListener(e -> ContextoAccion.medir("venta.finalizar", this::finalizarVenta));
 		this.vistaVenta.addQuitarDelCarritoListener(e -> quitarProductodelCarrito());
 
 		// Listener en tiempo real para recalcular totales al escribir descuento
@@ -154,6 +171,14 @@ public class ControladorVenta {
 	 * Utiliza la misma lógica de jerarquía que en otros controladores: primero
 	 * intenta ID, luego Código exacto, y finalmente Nombre parcial.
 	 * </p>
+	 * <p>
+	 * Las búsquedas por ID y Código (escaneo) se resuelven en el
+	 * {@link CatalogoProductos} en memoria, sin salir del EDT. Si el producto no
+	 * está en memoria, la búsqueda completa (base de datos y nombre) corre con
+	 * {@link EjecutorBD} mientras la vista se marca como ocupada. Cada búsqueda
+	 * se mide en {@code venta.busqueda.<criterio>} y queda en la grabación JFR
+	 * como {@link EventoJfrBusqueda}.
+	 * </p>
 	 */
 	private void buscarProducto() {
 		String terminoBusqueda = vistaVenta.getCodigoProductoBuscado().trim();
@@ -162,31 +187,77 @@ public class ControladorVenta {
 			return;
 		}
 
-		List<AlmacenProductos> productosEncontrados = new ArrayList<>();
-		AlmacenProductos productoUnico = null;
+		long inicio = System.nanoTime();
+		EventoJfrBusqueda evento = new EventoJfrBusqueda();
+		evento.begin();
+		CatalogoProductos catalogo = CatalogoProductos.getInstancia();
+		Integer id = terminoBusqueda.matches("\\d{1,9}") ? Integer.valueOf(terminoBusqueda) : null;
+
+		// Ruta de escaneo: acierto en memoria, sin viaje a la base de datos
+		AlmacenProductos enMemoria = (id != null) ? catalogo.buscarEnMemoriaPorID(id) : null;
+		String criterioMemoria = "id";
+		if (enMemoria == null) {
+			criterioMemoria = "codigo";
+			enMemoria = catalogo.buscarEnMemoriaPorCodigo(terminoBusqueda);
+		}
+		if (enMemoria != null) {
+			mostrarResultados(inicio, evento, terminoBusqueda, criterioMemoria, List.of(enMemoria));
+			return;
+		}
 
-		// 1. Búsqueda por ID
-		try {
-			int id = Integer.parseInt(terminoBusqueda);
-			productoUnico = productoDAO.buscarPorID(id);
+		// Fallo del catálogo: se consulta fuera del EDT
+		String[] criterio = { "id" };
+		vistaVenta.setOcupado(true);
+		EjecutorBD.ejecutar(() -> {
+			// 1. Búsqueda por ID
+			AlmacenProductos productoUnico = (id != null) ? catalogo.buscarPorID(id) : null;
+
+			// 2. Búsqueda por Código
+			if (productoUnico == null) {
+				criterio[0] = "codigo";
+				productoUnico = catalogo.buscarPorCodigo(terminoBusqueda);
+			}
 			if (productoUnico != null) {
-				productosEncontrados.add(productoUnico);
+				return List.of(productoUnico);
 			}
-		} catch (NumberFormatException e) {
-			// No es número, ignorar
-		}
 
-		// 2. Búsqueda por Código
-		if (productosEncontrados.isEmpty()) {
-			productoUnico = productoDAO.buscarPorCodigo(terminoBusqueda);
-			if (productoUnico != null) {
-				productosEncontrados.add(productoUnico);
+			// 3. Búsqueda por Nombre (índice de trigramas, ordenado por relevancia)
+			criterio[0] = "nombre";
+			return catalogo.buscarPorNombre(terminoBusqueda);
+		}).whenComplete((productosEncontrados, error) -> {
+			vistaVenta.setOcupado(false);
+			if (error != null) {
+				evento.end();
+				vistaVenta.mostrarError("Error al buscar el producto.");
+				this.productoSeleccionado = null;
+				return;
 			}
-		}
+			mostrarResultados(inicio, evento, terminoBusqueda, criterio[0], productosEncontrados);
+		});
+	}
 
-		// 3. Búsqueda por Nombre
-		if (productosEncontrados.isEmpty()) {
-			productosEncontrados = productoDAO.buscarPorNombre(terminoBusqueda);
+	/**
+	 * Registra la búsqueda y muestra su resultado (pidiendo al cajero que elija
+	 * si hay varias coincidencias).
+	 *
+	 * @param inicio               Momento ({@code System.nanoTime()}) en que empezó
+	 *                             la búsqueda.
+	 * @param evento               Evento JFR ya iniciado.
+	 * @param terminoBusqueda      Texto buscado.
+	 * @param criterio             Criterio que resolvió la búsqueda.
+	 * @param productosEncontrados Coincidencias.
+	 */
+	private void mostrarResultados(long inicio, EventoJfrBusqueda evento, String terminoBusqueda, String criterio,
+			List<AlmacenProductos> productosEncontrados) {
+		// Se registra antes de pedir al cajero que elija entre varias coincidencias
+		evento.end();
+		Metricas.histograma("venta.busqueda." + criterio).registrarDesde(inicio);
+		if (evento.shouldCommit()) {
+			evento.termino = terminoBusqueda;
+			evento.criterio = criterio;
+			evento.resultados = productosEncontrados.size();
+			evento.productoID = (productosEncontrados.size() == 1) ? productosEncontrados.get(0).getid() : 0;
+			evento.commit();
 		}
 
 		// Procesamiento de resultados
@@ -287,6 +358,10 @@ public class ControladorVenta {
 	 * 4. Si es exitoso, genera el ticket, lo imprime en consola y reinicia la
 	 * interfaz.
 	 * </p>
+	 * <p>
+	 * El cobro completo (hasta recibir el folio) queda en la grabación JFR como
+	 * {@link EventoJfrVenta}.
+	 * </p>
 	 */
 	private void finalizarVenta() {
 		if (ventaActual.getDetalles().isEmpty()) {
@@ -313,10 +388,52 @@ public class ControladorVenta {
 		ventaActual.setFecha(new Date());
 		ventaActual.setCorteID(this.corteCajaIDActual); // Vinculación crítica con la caja
 
-		boolean exito = ventaDAO.agregar(ventaActual); // Transacción SQL
+		// Transacción SQL en segundo plano: la caja muestra "ocupado" sin congelarse.
+		// Con el diario local activo, la venta se asegura en disco primero y el
+		// cobro no depende de que el servidor responda.
+		EventoJfrVenta evento = new EventoJfrVenta();
+		evento.begin();
+		vistaVenta.setOcupado(true);
+		DiarioVentas diario = DiarioVentas.getInstancia();
+		CompletableFuture<Boolean> guardado = diario.isIniciado()
+				? ventaAsincrona.agregarConDiario(diario, ventaActual, ESPERA_FOLIO_MS)
+				: ventaAsincrona.agregar(ventaActual);
+		guardado.whenComplete((exito, error) -> {
+			boolean registrada = error == null && exito;
+			evento.end();
+			if (evento.shouldCommit()) {
+				evento.ventaID = ventaActual.getid();
+				evento.corteID = ventaActual.getCorteID();
+				evento.lineas = ventaActual.getDetalles().size();
+				evento.unidades = EventoJfrVenta.unidades(ventaActual.getDetalles());
+				evento.productos = EventoJfrVenta.productos(ventaActual.getDetalles());
+				evento.total = ventaActual.getTotal();
+				evento.metodoPago = ventaActual.getMetodoPago();
+				evento.diario = diario.isIniciado();
+				evento.exitosa = registrada;
+				evento.commit();
+			}
+			vistaVenta.setOcupado(false);
+			procesarResultadoVenta(registrada);
+		});
+	}
 
+	/**
+	 * Completa el flujo de venta una vez confirmada (o rechazada) la transacción.
+	 * <p>
+	 * Se ejecuta en el hilo de la interfaz gráfica.
+	 * </p>
+	 * 
+	 * @param exito {@code true} si la venta quedó registrada.
+	 */
+	private void procesarResultadoVenta(boolean exito) {
 		if (exito) {
-			vistaVenta.mostrarMensaje("Venta finalizada con éxito. ID de Venta: " + ventaActual.getid());
+			if (ventaActual.getid() != 0) {
+				vistaVenta.mostrarMensaje("Venta finalizada con éxito. ID de Venta: " + ventaActual.getid());
+			} else {
+				vistaVenta.mostrarMensaje("Venta finalizada con éxito. El servidor no respondió a tiempo; "
+						+ "la venta quedó guardada en la caja y se enviará automáticamente.");
+			}
 
 			// Generación de Ticket (Texto plano)
 			Ticket ticket = new Ticket(this.ventaActual);
@@ -336,16 +453,18 @@ public class ControladorVenta {
 	}
 
 	private void cargarClientesEnComboBox() {
-		List<Clientes> clientes = clienteDAO.ObtenerTodo();
-		if (clientes != null) {
-			vistaVenta.cargarClientes(clientes);
-		}
+		EjecutorBD.ejecutar(clienteDAO::ObtenerTodo).thenAccept(clientes -> {
+			if (clientes != null) {
+				vistaVenta.cargarClientes(clientes);
+			}
+		});
 	}
 
 	private void cargarEmpleadosEnComboBox() {
-		List<Empleado> empleados = empleadoDAO.ObtenerTodo();
-		if (empleados != null) {
-			vistaVenta.cargarEmpleados(empleados);
-		}
+		EjecutorBD.ejecutar(empleadoDAO::ObtenerTodo).thenAccept(empleados -> {
+			if (empleados != null) {
+				vistaVenta.cargarEmpleados(empleados);
+			}
+		});
 	}
 }
\ No newline at end of file
@@ -0,0 +1,270 @@
+package controlador;
+
+import java.awt.EventQueue;
+import java.awt.event.WindowAdapter;
+import java.awt.event.WindowEvent;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.IntConsumer;
+
+import conexion.Configuracion;
+import metricas.Metricas;
+import net.sf.jasperreports.engine.JREmptyDataSource;
+import net.sf.jasperreports.engine.JRDataSource;
+import net.sf.jasperreports.engine.JRException;
+import net.sf.jasperreports.engine.JRParameter;
+import net.sf.jasperreports.engine.JRVirtualizer;
+import net.sf.jasperreports.engine.JasperFillManager;
+import net.sf.jasperreports.engine.JasperPrint;
+import net.sf.jasperreports.engine.JasperReport;
+import net.sf.jasperreports.engine.fill.AsynchronousFillHandle;
+import net.sf.jasperreports.engine.fill.AsynchronousFilllListener;
+import net.sf.jasperreports.engine.fill.FillListener;
+import net.sf.jasperreports.engine.fill.JRSwapFileVirtualizer;
+import net.sf.jasperreports.engine.util.JRLoader;
+import net.sf.jasperreports.engine.util.JRSwapFile;
+import net.sf.jasperreports.view.JasperViewer;
+
+/**
+ * Punto único para cargar plantillas de JasperReports y llenarlas fuera del
+ * hilo de la interfaz gráfica (EDT).
+ * <p>
+ * <b>Caché de plantillas:</b> cada archivo {@code .jasper} se deserializa una
+ * sola vez por proceso; las llamadas siguientes reutilizan el mismo
+ * {@link JasperReport} (es inmutable y seguro entre hilos).
+ * </p>
+ * <p>
+ * <b>Llenado en segundo plano:</b> {@link #llenar} usa
+ * {@link AsynchronousFillHandle}, que corre el llenado en su propio hilo,
+ * informa cada página generada y admite cancelación. El
+ * {@link CompletableFuture} devuelto se completa en el EDT, igual que los de
+ * {@code EjecutorBD}.
+ * </p>
+ * <p>
+ * <b>Memoria acotada:</b> cada llenado usa un {@link JRSwapFileVirtualizer}
+ * que mantiene en memoria sólo las últimas {@code pos.reportes.paginasEnMemoria}
+ * páginas y manda el resto a un archivo temporal
+ * ({@code pos.reportes.carpetaTemporal}). El archivo se borra al cerrar el
+ * visor ({@link #mostrar(JasperPrint)}) o si el llenado falla o se cancela.
+ * Combinado con una fuente de datos que lee directo del {@code ResultSet}
+ * ({@code persistencia.FuenteDatosJDBC}), un reporte de un año ocupa la misma
+ * memoria que uno de un día.
+ * </p>
+ * <p>
+ * <b>Precalentamiento:</b> la primera vez que se llena un reporte, Jasper carga
+ * cientos de clases, fuentes y extensiones. {@link #precalentar()} hace ese
+ * trabajo tras el inicio de sesión para que el primer reporte real no lo pague.
+ * </p>
+ *
+ * @version 1.2
+ */
+public class ReportesJasper {
+
+	public static final String VENTAS = "/reportes/ventas_dia.jasper";
+	public static final String STOCK_BAJO = "/reportes/stok_bajo.jasper";
+	public static final String INVENTARIO = "/reportes/inventario_completo.jasper";
+	public static final String ENTRADAS = "/reportes/historial_entradas.jasper";
+	public static final String TICKET = "/reportes/ticket.jasper";
+	public static final String CORTES = "/reportes/corte_Caja.jasper";
+
+	/** Ruta del recurso → plantilla ya deserializada. */
+	private static final Map<String, JasperReport> PLANTILLAS = new ConcurrentHashMap<>();
+
+	/** Páginas llenas que se conservan en memoria; el resto va al disco. */
+	private static final int PAGINAS_EN_MEMORIA = Configuracion.getEntero("pos.reportes.paginasEnMemoria", 20);
+
+	/** Carpeta de los archivos de intercambio. */
+	private static final String CARPETA_TEMPORAL = Configuracion.getTexto("pos.reportes.carpetaTemporal",
+			System.getProperty("java.io.tmpdir"));
+
+	/** Documento lleno → virtualizador que guarda sus páginas (hasta cerrar el visor). */
+	private static final Map<JasperPrint, JRVirtualizer> VIRTUALIZADORES = Collections
+			.synchronizedMap(new IdentityHashMap<>());
+
+	/**
+	 * Constructor privado: clase de acceso estático.
+	 */
+	private ReportesJasper() {
+	}
+
+	/**
+	 * Obtiene una plantilla compilada, cargándola del classpath sólo la primera
+	 * vez.
+	 *
+	 * @param ruta Ruta del recurso (ej. {@link #VENTAS}).
+	 * @return Plantilla lista para llenar.
+	 * @throws JRException Si el recurso no existe o no es un {@code .jasper}
+	 *                     válido.
+	 */
+	public static JasperReport getPlantilla(String ruta) throws JRException {
+		JasperReport plantilla = PLANTILLAS.get(ruta);
+		if (plantilla != null) {
+			return plantilla;
+		}
+		try (InputStream in = ReportesJasper.class.getResourceAsStream(ruta)) {
+			if (in == null) {
+				throw new JRException("Plantilla no encontrada: " + ruta);
+			}
+			plantilla = (JasperReport) JRLoader.loadObject(in);
+		} catch (IOException e) {
+			throw new JRException("No se pudo leer la plantilla " + ruta, e);
+		}
+		JasperReport previa = PLANTILLAS.putIfAbsent(ruta, plantilla);
+		return (previa != null) ? previa : plantilla;
+	}
+
+	/**
+	 * Llena un reporte en segundo plano.
+	 * <p>
+	 * Cancelar el futuro ({@code cancel(true)}) detiene el llenado en la
+	 * siguiente página. Si la fuente de datos es {@link AutoCloseable} se cierra
+	 * al terminar, con éxito o no.
+	 * </p>
+	 *
+	 * @param ruta       Ruta de la plantilla.
+	 * @param parametros Parámetros del reporte (no se modifica).
+	 * @param datos      Fuente de datos (no se comparte entre llenados).
+	 * @param alAvanzar  Recibe, en el EDT, el número de páginas generadas hasta el
+	 *                   momento (puede ser {@code null}).
+	 * @return Futuro que se completa en el EDT con el documento lleno, con la
+	 *         excepción del llenado o cancelado.
+	 */
+	public static CompletableFuture<JasperPrint> llenar(String ruta, Map<String, Object> parametros,
+			JRDataSource datos, IntConsumer alAvanzar) {
+		CompletableFuture<JasperPrint> resultado = new CompletableFuture<>();
+		JRSwapFileVirtualizer virtualizador = new JRSwapFileVirtualizer(PAGINAS_EN_MEMORIA,
+				new JRSwapFile(CARPETA_TEMPORAL, 4096, 64), true);
+		Map<String, Object> parametrosLlenado = new HashMap<>(parametros);
+		parametrosLlenado.put(JRParameter.REPORT_VIRTUALIZER, virtualizador);
+
+		AsynchronousFillHandle llenado;
+		try {
+			llenado = AsynchronousFillHandle.createHandle(getPlantilla(ruta), parametrosLlenado, datos);
+		} catch (JRException e) {
+			liberar(datos, virtualizador);
+			resultado.completeExceptionally(e);
+			return resultado;
+		}
+		llenado.setThreadName("reporte-" + ruta.substring(ruta.lastIndexOf('/') + 1));
+
+		llenado.addListener(new AsynchronousFilllListener() {
+			@Override
+			public void reportFinished(JasperPrint documento) {
+				liberar(datos, null);
+				virtualizador.setReadOnly(true); // Ya no se agregan páginas: se leen sin copiar
+				VIRTUALIZADORES.put(documento, virtualizador);
+				EventQueue.invokeLater(() -> {
+					if (!resultado.complete(documento)) {
+						liberar(null, VIRTUALIZADORES.remove(documento)); // Cancelado en el último instante
+					}
+				});
+			}
+
+			@Override
+			public void reportCancelled() {
+				liberar(datos, virtualizador);
+				EventQueue.invokeLater(() -> resultado.cancel(false));
+			}
+
+			@Override
+			public void reportFillError(Throwable t) {
+				liberar(datos, virtualizador);
+				System.err.println("❌ Error al llenar el reporte " + ruta + ": " + t);
+				EventQueue.invokeLater(() -> resultado.completeExceptionally(t));
+			}
+		});
+		if (alAvanzar != null) {
+			llenado.addFillListener(new FillListener() {
+				@Override
+				public void pageGenerated(JasperPrint documento, int pagina) {
+					EventQueue.invokeLater(() -> alAvanzar.accept(pagina + 1));
+				}
+
+				@Override
+				public void pageUpdated(JasperPrint documento, int pagina) {
+					// Sin cambio en el número de páginas
+				}
+			});
+		}
+
+		// Quien cancela el futuro cancela también el hilo de llenado
+		resultado.whenComplete((documento, error) -> {
+			if (resultado.isCancelled()) {
+				try {
+					llenado.cancellFill();
+				} catch (JRException e) {
+					// El llenado ya había terminado
+				}
+			}
+		});
+		llenado.startFill();
+		return resultado;
+	}
+
+	/**
+	 * Abre un documento lleno en el visor de Jasper y, al cerrarlo, borra su
+	 * archivo de intercambio.
+	 *
+	 * @param documento Documento devuelto por {@link #llenar}.
+	 */
+	public static void mostrar(JasperPrint documento) {
+		JasperViewer visor = new JasperViewer(documento, false);
+		visor.addWindowListener(new WindowAdapter() {
+			@Override
+			public void windowClosed(WindowEvent e) {
+				liberar(null, VIRTUALIZADORES.remove(documento));
+			}
+		});
+		visor.setVisible(true);
+	}
+
+	/**
+	 * Cierra la fuente de datos (si lo admite) y borra el archivo de intercambio.
+	 */
+	private static void liberar(JRDataSource datos, JRVirtualizer virtualizador) {
+		if (datos instanceof AutoCloseable) {
+			try {
+				((AutoCloseable) datos).close();
+			} catch (Exception e) {
+				System.err.println("❌ Error al cerrar la fuente de datos del reporte: " + e.getMessage());
+			}
+		}
+		if (virtualizador != null) {
+			virtualizador.cleanup();
+		}
+	}
+
+	/**
+	 * Carga todas las plantillas y llena una de ellas sin datos en un hilo de
+	 * baja prioridad, para absorber la carga de clases de Jasper antes del primer
+	 * reporte real. La duración queda en la métrica
+	 * {@code reportes.precalentado}.
+	 */
+	public static void precalentar() {
+		Thread hilo = new Thread(() -> {
+			long inicio = System.nanoTime();
+			for (String ruta : new String[] { VENTAS, STOCK_BAJO, INVENTARIO, ENTRADAS, TICKET, CORTES }) {
+				try {
+					getPlantilla(ruta);
+				} catch (JRException e) {
+					System.err.println("❌ No se pudo precargar la plantilla " + ruta + ": " + e.getMessage());
+				}
+			}
+			try {
+				JasperFillManager.fillReport(getPlantilla(TICKET), new HashMap<>(), new JREmptyDataSource(0));
+			} catch (JRException | RuntimeException e) {
+				// Sólo interesa la carga de clases; un reporte vacío puede no ser válido
+			}
+			Metricas.histograma("reportes.precalentado").registrarDesde(inicio);
+		}, "reportes-precalentar");
+		hilo.setDaemon(true);
+		hilo.setPriority(Thread.MIN_PRIORITY);
+		hilo.start();
+	}
+}
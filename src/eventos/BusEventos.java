@@ -0,0 +1,130 @@
+package eventos;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+import metricas.Metricas;
+
+/**
+ * Bus de eventos de dominio dentro del proceso.
+ * <p>
+ * Los DAOs publican aquí lo que acaban de confirmar ({@link VentaRegistrada},
+ * {@link DevolucionRealizada}, {@link StockCambiado}, {@link PedidoRecibido},
+ * {@link MovimientoCajaRegistrado}); cachés y pantallas se suscriben para
+ * actualizarse sin volver a consultar todo.
+ * </p>
+ * <p>
+ * <b>Entrega:</b> asíncrona. Cada {@link Suscripcion} tiene su propia cola
+ * acotada y su hilo virtual, así un suscriptor lento sólo se retrasa a sí
+ * mismo y {@link #publicar} nunca bloquea la transacción que publica. Los
+ * eventos llegan a cada suscriptor en el orden en que se publicaron desde un
+ * mismo hilo.
+ * </p>
+ * <p>
+ * <b>Alcance:</b> sólo esta caja. Los cambios hechos desde otras cajas no
+ * pasan por aquí; quien los necesite debe seguir releyendo la BD
+ * periódicamente.
+ * </p>
+ * <p>
+ * Métricas: {@code eventos.publicados}, {@code eventos.sinSuscriptores} y, por
+ * suscriptor, {@code eventos.<nombre>.descartados} y el histograma
+ * {@code eventos.<nombre>.espera}.
+ * </p>
+ *
+ * @version 1.0
+ */
+public class BusEventos {
+
+	/** Instancia única del proceso. */
+	private static final BusEventos INSTANCIA = new BusEventos();
+
+	/** Capacidad de cola por defecto de un suscriptor. */
+	public static final int CAPACIDAD_DEFECTO = 1_024;
+
+	private final List<Suscripcion<?>> suscripciones = new CopyOnWriteArrayList<>();
+
+	private BusEventos() {
+	}
+
+	public static BusEventos getInstancia() {
+		return INSTANCIA;
+	}
+
+	/**
+	 * Registra un suscriptor.
+	 *
+	 * @param <E>       Tipo de evento.
+	 * @param nombre    Nombre para métricas y logs (ej.
+	 *                  {@code "analitica"}).
+	 * @param tipo      Clase de evento; también recibe sus subclases (ej.
+	 *                  {@link EventoCaja}).
+	 * @param capacidad Eventos que puede acumular antes de empezar a
+	 *                  descartar.
+	 * @param manejador Acción por evento; corre en el hilo del suscriptor (para
+	 *                  tocar Swing, pasar por el EDT).
+	 * @return Suscripción, para cancelarla o revisar su cola.
+	 */
+	public <E extends Evento> Suscripcion<E> suscribir(String nombre, Class<E> tipo, int capacidad,
+			Consumer<? super E> manejador) {
+		Suscripcion<E> s = new Suscripcion<>(nombre, tipo, capacidad, manejador);
+		suscripciones.add(s);
+		return s;
+	}
+
+	/**
+	 * Registra un suscriptor con la capacidad por defecto
+	 * ({@value #CAPACIDAD_DEFECTO}).
+	 *
+	 * @see #suscribir(String, Class, int, Consumer)
+	 */
+	public <E extends Evento> Suscripcion<E> suscribir(String nombre, Class<E> tipo, Consumer<? super E> manejador) {
+		return suscribir(nombre, tipo, CAPACIDAD_DEFECTO, manejador);
+	}
+
+	/**
+	 * Cancela una suscripción y la quita del bus.
+	 *
+	 * @param suscripcion Suscripción devuelta por {@link #suscribir}.
+	 */
+	public void cancelar(Suscripcion<?> suscripcion) {
+		suscripcion.cancelar();
+		suscripciones.remove(suscripcion);
+	}
+
+	/**
+	 * Entrega un evento a las suscripciones de su tipo. Debe llamarse
+	 * <b>después</b> del {@code commit}.
+	 *
+	 * @param evento Evento confirmado.
+	 */
+	public void publicar(Evento evento) {
+		long ahora = System.nanoTime();
+		boolean entregado = false;
+		for (Suscripcion<?> s : suscripciones) {
+			if (s.getTipo().isInstance(evento)) {
+				s.ofrecer(evento, ahora);
+				entregado = true;
+			}
+		}
+		Metricas.contador(entregado ? "eventos.publicados" : "eventos.sinSuscriptores").increment();
+	}
+
+	/**
+	 * @return Suscripciones activas (copia).
+	 */
+	public List<Suscripcion<?>> getSuscripciones() {
+		return List.copyOf(suscripciones);
+	}
+
+	/**
+	 * @return Una línea por suscripción con su cola y descartes.
+	 */
+	public String resumen() {
+		StringBuilder sb = new StringBuilder();
+		for (Suscripcion<?> s : suscripciones) {
+			sb.append(s).append('\n');
+		}
+		return sb.toString();
+	}
+}
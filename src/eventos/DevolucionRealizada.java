@@ -0,0 +1,38 @@
+package eventos;
+
+/**
+ * Se confirmó la devolución de una venta.
+ *
+ * @version 1.0
+ */
+public final class DevolucionRealizada extends EventoCaja {
+
+	private final int ventaID;
+	private final String metodoPago;
+	private final double total;
+
+	/**
+	 * @param ventaID    Folio devuelto.
+	 * @param corteID    Turno en que se cobró la venta original.
+	 * @param metodoPago Método de pago de la venta original.
+	 * @param total      Total que se anuló.
+	 */
+	public DevolucionRealizada(int ventaID, int corteID, String metodoPago, double total) {
+		super(corteID);
+		this.ventaID = ventaID;
+		this.metodoPago = metodoPago;
+		this.total = total;
+	}
+
+	public int getVentaID() {
+		return ventaID;
+	}
+
+	public String getMetodoPago() {
+		return metodoPago;
+	}
+
+	public double getTotal() {
+		return total;
+	}
+}
@@ -0,0 +1,21 @@
+package eventos;
+
+/**
+ * Base de los eventos de dominio que publica el {@link BusEventos}.
+ * <p>
+ * Un evento describe un cambio <b>ya confirmado</b> en la base de datos (los
+ * DAOs publican después del {@code commit}). Es inmutable: el mismo objeto se
+ * entrega a todos los suscriptores, cada uno en su propio hilo.
+ * </p>
+ *
+ * @version 1.0
+ */
+public abstract class Evento {
+
+	/** Momento de la confirmación (milisegundos de época). */
+	private final long instante = System.currentTimeMillis();
+
+	public long getInstante() {
+		return instante;
+	}
+}
@@ -0,0 +1,27 @@
+package eventos;
+
+/**
+ * Evento que cambia los saldos de un turno de caja (ventas, devoluciones y
+ * movimientos de efectivo).
+ * <p>
+ * Permite a una pantalla suscribirse a todo lo que afecta a un turno con una
+ * sola suscripción y filtrar por {@link #getCorteID()}.
+ * </p>
+ *
+ * @version 1.0
+ */
+public abstract class EventoCaja extends Evento {
+
+	private final int corteID;
+
+	/**
+	 * @param corteID Turno afectado ({@code 0} si la venta no tiene turno).
+	 */
+	protected EventoCaja(int corteID) {
+		this.corteID = corteID;
+	}
+
+	public int getCorteID() {
+		return corteID;
+	}
+}
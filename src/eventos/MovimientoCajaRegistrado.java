@@ -0,0 +1,51 @@
+package eventos;
+
+/**
+ * Se registró, modificó o borró un movimiento manual de efectivo.
+ *
+ * @version 1.0
+ */
+public final class MovimientoCajaRegistrado extends EventoCaja {
+
+	/** Qué le pasó al movimiento. */
+	public enum Operacion {
+		REGISTRADO, MODIFICADO, BORRADO
+	}
+
+	private final int movimientoID;
+	private final Operacion operacion;
+	private final String tipoMovimiento;
+	private final double monto;
+
+	/**
+	 * @param movimientoID   ID del movimiento.
+	 * @param corteID        Turno del movimiento.
+	 * @param operacion      Alta, modificación o baja.
+	 * @param tipoMovimiento "Ingreso" o "Egreso" (el nuevo, si se modificó).
+	 * @param monto          Monto (el nuevo, si se modificó).
+	 */
+	public MovimientoCajaRegistrado(int movimientoID, int corteID, Operacion operacion, String tipoMovimiento,
+			double monto) {
+		super(corteID);
+		this.movimientoID = movimientoID;
+		this.operacion = operacion;
+		this.tipoMovimiento = tipoMovimiento;
+		this.monto = monto;
+	}
+
+	public int getMovimientoID() {
+		return movimientoID;
+	}
+
+	public Operacion getOperacion() {
+		return operacion;
+	}
+
+	public String getTipoMovimiento() {
+		return tipoMovimiento;
+	}
+
+	public double getMonto() {
+		return monto;
+	}
+}
@@ -0,0 +1,23 @@
+package eventos;
+
+/**
+ * Se marcó como recibida una orden de compra (su mercancía ya entró al
+ * inventario y se publicó como {@link StockCambiado}).
+ *
+ * @version 1.0
+ */
+public final class PedidoRecibido extends Evento {
+
+	private final int ordenID;
+
+	/**
+	 * @param ordenID ID de la orden de compra.
+	 */
+	public PedidoRecibido(int ordenID) {
+		this.ordenID = ordenID;
+	}
+
+	public int getOrdenID() {
+		return ordenID;
+	}
+}
@@ -0,0 +1,46 @@
+package eventos;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Cambió el stock de uno o más productos en una misma transacción.
+ *
+ * @version 1.1
+ */
+public final class StockCambiado extends Evento {
+
+	/**
+	 * Origen del cambio ({@code AJUSTE}: cantidad capturada a mano en la pantalla
+	 * de inventario).
+	 */
+	public enum Motivo {
+		VENTA, DEVOLUCION, ENTRADA, AJUSTE
+	}
+
+	private final Motivo motivo;
+	private final Map<Integer, Integer> cambios;
+
+	/**
+	 * @param motivo  Origen del cambio.
+	 * @param cambios ID de producto → unidades sumadas (negativas si salieron).
+	 *                Se copia.
+	 */
+	public StockCambiado(Motivo motivo, Map<Integer, Integer> cambios) {
+		this.motivo = motivo;
+		this.cambios = Collections.unmodifiableMap(new TreeMap<>(cambios));
+	}
+
+	public Motivo getMotivo() {
+		return motivo;
+	}
+
+	/**
+	 * @return ID de producto → unidades sumadas, ordenado por ID (sólo
+	 *         lectura).
+	 */
+	public Map<Integer, Integer> getCambios() {
+		return cambios;
+	}
+}
@@ -0,0 +1,181 @@
+package eventos;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+import metricas.Histograma;
+import metricas.Metricas;
+
+/**
+ * Un suscriptor del {@link BusEventos}: su cola acotada y el hilo virtual que
+ * la vacía.
+ * <p>
+ * <b>Contrapresión:</b> publicar nunca bloquea (quien publica es la
+ * transacción de venta). Si la cola está llena el evento se descarta para este
+ * suscriptor y se cuenta en {@code eventos.<nombre>.descartados}; antes de
+ * entregar el siguiente evento se ejecuta {@link #alDesbordar(Runnable)} para
+ * que el suscriptor se resincronice (ej. recargando desde la BD).
+ * </p>
+ * <p>
+ * La espera de cada evento en la cola se registra en el histograma
+ * {@code eventos.<nombre>.espera}.
+ * </p>
+ *
+ * @param <E> Tipo de evento que recibe.
+ * @version 1.0
+ */
+public final class Suscripcion<E extends Evento> {
+
+	/** Evento en cola con su momento de publicación. */
+	private static final class Pendiente<E> {
+		final E evento;
+		final long publicadoNanos;
+
+		Pendiente(E evento, long publicadoNanos) {
+			this.evento = evento;
+			this.publicadoNanos = publicadoNanos;
+		}
+	}
+
+	private final String nombre;
+	private final Class<E> tipo;
+	private final int capacidad;
+	private final Consumer<? super E> manejador;
+	private final BlockingQueue<Pendiente<E>> cola;
+
+	private final Histograma espera;
+	private final LongAdder descartados;
+	private final LongAdder entregados = new LongAdder();
+	private final AtomicInteger maximoPendientes = new AtomicInteger();
+
+	/** Hubo descartes desde la última entrega. */
+	private final AtomicBoolean desbordada = new AtomicBoolean();
+	private final AtomicBoolean activa = new AtomicBoolean(true);
+
+	private volatile Runnable alDesbordar;
+	private final Thread hilo;
+
+	Suscripcion(String nombre, Class<E> tipo, int capacidad, Consumer<? super E> manejador) {
+		this.nombre = nombre;
+		this.tipo = tipo;
+		this.capacidad = capacidad;
+		this.manejador = manejador;
+		this.cola = new ArrayBlockingQueue<>(capacidad);
+		this.espera = Metricas.histograma("eventos." + nombre + ".espera");
+		this.descartados = Metricas.contador("eventos." + nombre + ".descartados");
+		this.hilo = Thread.ofVirtual().name("eventos-" + nombre).start(this::despachar);
+	}
+
+	/**
+	 * Encola el evento si es del tipo de esta suscripción.
+	 *
+	 * @return {@code false} si se descartó por cola llena.
+	 */
+	boolean ofrecer(Evento evento, long publicadoNanos) {
+		if (!activa.get() || !tipo.isInstance(evento)) {
+			return true;
+		}
+		if (!cola.offer(new Pendiente<>(tipo.cast(evento), publicadoNanos))) {
+			descartados.increment();
+			desbordada.set(true);
+			return false;
+		}
+		maximoPendientes.accumulateAndGet(cola.size(), Math::max);
+		return true;
+	}
+
+	private void despachar() {
+		while (activa.get()) {
+			Pendiente<E> p;
+			try {
+				p = cola.take();
+			} catch (InterruptedException e) {
+				return; // Cancelada
+			}
+			espera.registrarDesde(p.publicadoNanos);
+			Runnable resincronizar = alDesbordar;
+			if (desbordada.getAndSet(false) && resincronizar != null) {
+				ejecutar(resincronizar);
+			}
+			ejecutar(() -> manejador.accept(p.evento));
+			entregados.increment();
+		}
+	}
+
+	private void ejecutar(Runnable accion) {
+		try {
+			accion.run();
+		} catch (RuntimeException e) {
+			// Un suscriptor con error no detiene a los demás ni a su propia cola
+			System.err.println("❌ Error en el suscriptor de eventos '" + nombre + "': " + e);
+		}
+	}
+
+	/**
+	 * Acción a ejecutar (en el hilo del suscriptor) antes del primer evento
+	 * entregado después de haber descartado alguno.
+	 *
+	 * @param accion Resincronización del suscriptor.
+	 * @return Esta suscripción.
+	 */
+	public Suscripcion<E> alDesbordar(Runnable accion) {
+		this.alDesbordar = accion;
+		return this;
+	}
+
+	/**
+	 * Deja de recibir eventos. Los pendientes se descartan.
+	 */
+	public void cancelar() {
+		if (activa.compareAndSet(true, false)) {
+			hilo.interrupt();
+			cola.clear();
+		}
+	}
+
+	public boolean isActiva() {
+		return activa.get();
+	}
+
+	public String getNombre() {
+		return nombre;
+	}
+
+	public Class<E> getTipo() {
+		return tipo;
+	}
+
+	public int getCapacidad() {
+		return capacidad;
+	}
+
+	/** @return Eventos en cola en este momento. */
+	public int getPendientes() {
+		return cola.size();
+	}
+
+	/** @return Mayor número de eventos en cola que se ha visto. */
+	public int getMaximoPendientes() {
+		return maximoPendientes.get();
+	}
+
+	public long getEntregados() {
+		return entregados.sum();
+	}
+
+	/** @return Eventos descartados por cola llena (de todas las suscripciones con este nombre). */
+	public long getDescartados() {
+		return descartados.sum();
+	}
+
+	@Override
+	public String toString() {
+		return String.format("%s<%s>: %d/%d en cola (máx %d), %d entregados, %d descartados, espera p99 %.2f ms",
+				nombre, tipo.getSimpleName(), getPendientes(), capacidad, getMaximoPendientes(), getEntregados(),
+				getDescartados(), espera.getPercentilMs(99));
+	}
+}
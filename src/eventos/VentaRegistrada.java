@@ -0,0 +1,52 @@
+package eventos;
+
+/**
+ * Se confirmó una venta nueva.
+ *
+ * @version 1.0
+ */
+public final class VentaRegistrada extends EventoCaja {
+
+	private final int ventaID;
+	private final int empleadoID;
+	private final String metodoPago;
+	private final double total;
+	private final int lineas;
+
+	/**
+	 * @param ventaID    Folio asignado.
+	 * @param corteID    Turno en que se cobró.
+	 * @param empleadoID Empleado que cobró.
+	 * @param metodoPago Método de pago.
+	 * @param total      Total cobrado.
+	 * @param lineas     Renglones del ticket.
+	 */
+	public VentaRegistrada(int ventaID, int corteID, int empleadoID, String metodoPago, double total, int lineas) {
+		super(corteID);
+		this.ventaID = ventaID;
+		this.empleadoID = empleadoID;
+		this.metodoPago = metodoPago;
+		this.total = total;
+		this.lineas = lineas;
+	}
+
+	public int getVentaID() {
+		return ventaID;
+	}
+
+	public int getEmpleadoID() {
+		return empleadoID;
+	}
+
+	public String getMetodoPago() {
+		return metodoPago;
+	}
+
+	public double getTotal() {
+		return total;
+	}
+
+	public int getLineas() {
+		return lineas;
+	}
+}
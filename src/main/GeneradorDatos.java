@@ -0,0 +1,671 @@
+package main;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import org.mindrot.jbcrypt.BCrypt;
+
+import conexion.Conexion;
+import conexion.EsquemaBD;
+import conexion.PoolConexiones;
+import persistencia.ResumenVentasDAO;
+
+/**
+ * Generador de datos sintéticos a escala de producción para el esquema del POS.
+ * <p>
+ * Llena todas las tablas (catálogos, clientes, empleados, cortes, ventas con
+ * sus detalles, movimientos de caja, entradas de inventario y órdenes de
+ * compra) con volúmenes y distribuciones realistas, para poder medir consultas
+ * y reportes antes de que los datos existan en una tienda real.
+ * </p>
+ * <p>
+ * <b>Distribuciones:</b>
+ * <ul>
+ * <li><b>Popularidad de productos:</b> Zipf con exponente {@code zipf} sobre
+ * un orden aleatorio del catálogo (pocos productos concentran la mayoría de los
+ * renglones).</li>
+ * <li><b>Estacionalidad diaria:</b> más ventas en fin de semana, en quincena y
+ * en diciembre, con variación aleatoria de ±15 %.</li>
+ * <li><b>Estacionalidad horaria:</b> tienda abierta de 7 a 22 h con picos al
+ * mediodía y por la tarde.</li>
+ * <li><b>Clientes:</b> la mitad de las ventas son a "Público en General"; el
+ * resto se reparte entre todos los clientes.</li>
+ * <li><b>Renglones por ticket:</b> geométrica con media cercana a 4 (máximo
+ * 40).</li>
+ * </ul>
+ * </p>
+ * <p>
+ * <b>Escritura:</b> todas las inserciones usan sentencias preparadas en lotes
+ * de {@code lote} filas con un commit por lote. La base debe estar vacía: los
+ * IDs generados se leen de vuelta en orden de inserción.
+ * </p>
+ * <p>
+ * <b>Uso:</b> {@code java -cp ... main.GeneradorDatos [clave=valor ...]}.
+ * Claves: {@code productos} (50000), {@code clientes} (500000),
+ * {@code detalles} (20000000), {@code anios} (3), {@code categorias} (40),
+ * {@code proveedores} (200), {@code empleados} (20), {@code cajas} (6),
+ * {@code zipf} (1.0), {@code semilla} (42), {@code lote} (10000) y, para usar
+ * otra base que la de {@code pos.properties}, {@code url}, {@code usuario} y
+ * {@code password}. Con una URL {@code jdbc:h2:} el esquema se crea
+ * automáticamente.
+ * </p>
+ * <p>
+ * Al terminar recalcula las tablas de resumen diario
+ * ({@link ResumenVentasDAO#reconstruir}).
+ * </p>
+ *
+ * @version 1.1
+ */
+public class GeneradorDatos {
+
+	private static final String[] TIPOS = { "Refresco", "Agua", "Jugo", "Leche", "Yogurt", "Queso", "Jamón",
+			"Pan", "Galletas", "Cereal", "Arroz", "Frijol", "Aceite", "Azúcar", "Café", "Atún", "Sopa", "Salsa",
+			"Chiles", "Papas", "Detergente", "Jabón", "Papel Higiénico", "Cloro", "Shampoo", "Pasta Dental" };
+
+	private static final String[] MARCAS = { "Coca Cola", "Pepsi", "Bonafont", "Jumex", "Lala", "Alpura", "Nestlé",
+			"Bimbo", "Gamesa", "Kellogg's", "Verde Valle", "La Costeña", "Herdez", "Nutrioli", "Zulka", "Dolores",
+			"Maruchan", "Sabritas", "Barcel", "Ariel", "Zote", "Pétalo", "Cloralex", "Sedal", "Colgate" };
+
+	private static final String[] PRESENTACIONES = { "250 ml", "355 ml", "600 ml", "1 L", "1.5 L", "2 L", "3 L",
+			"100 g", "200 g", "500 g", "900 g", "1 kg", "Paquete 4 pzas", "Lata", "Caja", "Bolsa" };
+
+	private static final String[] NOMBRES = { "María", "José", "Juan", "Guadalupe", "Francisco", "Ana", "Luis",
+			"Carmen", "Miguel", "Rosa", "Jesús", "Laura", "Pedro", "Patricia", "Jorge", "Sofía", "Carlos", "Elena" };
+
+	private static final String[] APELLIDOS = { "Hernández", "García", "Martínez", "López", "González", "Pérez",
+			"Rodríguez", "Sánchez", "Ramírez", "Cruz", "Flores", "Gómez", "Morales", "Vázquez", "Reyes", "Jiménez" };
+
+	/** Peso relativo de cada hora del día (índice = hora). */
+	private static final double[] PESO_HORA = { 0, 0, 0, 0, 0, 0, 0, 0.4, 0.8, 0.9, 1.0, 1.1, 1.4, 1.6, 1.4, 1.0,
+			0.9, 1.1, 1.5, 1.7, 1.5, 1.0, 0.5, 0 };
+
+	private final Map<String, String> parametros;
+	private final Random aleatorio;
+	private final int lote;
+
+	private Connection con;
+
+	/** Filas pendientes de commit en el lote actual. */
+	private int filasEnLote = 0;
+
+	private int[] idsCategorias;
+	private int[] idsProveedores;
+	private int[] idsClientes;
+	private int[] idsEmpleados;
+	private int[] idsProductos;
+	private double[] precios;
+
+	/** Distribución acumulada Zipf sobre {@link #ordenPopularidad}. */
+	private double[] zipfAcumulada;
+
+	/** Rango de popularidad → índice en {@link #idsProductos}. */
+	private int[] ordenPopularidad;
+
+	private final Map<String, Long> filasPorTabla = new HashMap<>();
+
+	/**
+	 * @param parametros Parámetros {@code clave=valor} de la línea de comandos.
+	 */
+	public GeneradorDatos(Map<String, String> parametros) {
+		this.parametros = parametros;
+		this.aleatorio = new Random(getLargo("semilla", 42));
+		this.lote = (int) getLargo("lote", 10_000);
+	}
+
+	public static void main(String[] args) throws SQLException {
+		Map<String, String> parametros = new HashMap<>();
+		for (String arg : args) {
+			int igual = arg.indexOf('=');
+			if (igual > 0) {
+				parametros.put(arg.substring(0, igual), arg.substring(igual + 1));
+			}
+		}
+		new GeneradorDatos(parametros).generar();
+		System.exit(0);
+	}
+
+	private long getLargo(String clave, long valorDefecto) {
+		String valor = parametros.get(clave);
+		return (valor == null) ? valorDefecto : Long.parseLong(valor.replace("_", ""));
+	}
+
+	private double getDecimal(String clave, double valorDefecto) {
+		String valor = parametros.get(clave);
+		return (valor == null) ? valorDefecto : Double.parseDouble(valor);
+	}
+
+	// ==========================================
+	// ORQUESTACIÓN
+	// ==========================================
+
+	/**
+	 * Genera todas las tablas en orden de dependencias.
+	 */
+	public void generar() throws SQLException {
+		long inicio = System.nanoTime();
+		String url = parametros.get("url");
+		if (url != null) {
+			String usuario = parametros.getOrDefault("usuario", "sa");
+			String password = parametros.getOrDefault("password", "");
+			Conexion.usarPool(new PoolConexiones(() -> {
+				try {
+					return DriverManager.getConnection(url, usuario, password);
+				} catch (SQLException e) {
+					System.err.println("❌ Error al conectar a " + url + ": " + e.getMessage());
+					return null;
+				}
+			}, 2, 1, 10_000, Long.MAX_VALUE, 30_000, 0));
+		}
+
+		try (Connection conexion = Conexion.getConexion()) {
+			if (conexion == null) {
+				throw new SQLException("No hay conexión con la base de datos destino.");
+			}
+			this.con = conexion;
+			if (url != null && url.startsWith("jdbc:h2:")) {
+				EsquemaBD.crear(con);
+			}
+			con.setAutoCommit(false);
+
+			generarCatalogos();
+			generarProductos();
+			generarClientes();
+			generarEmpleados();
+			generarHistoria();
+
+			con.commit();
+			con.setAutoCommit(true);
+		}
+
+		// Las ventas se insertaron directamente: los resúmenes diarios se calculan al final
+		ResumenVentasDAO resumenes = new ResumenVentasDAO();
+		LocalDate[] rango = resumenes.rangoVentas();
+		if (rango != null) {
+			filasPorTabla.put("Resúmenes diarios", resumenes.reconstruir(rango[0], rango[1]));
+		}
+
+		System.out.println();
+		System.out.println("========== DATOS GENERADOS ==========");
+		filasPorTabla.forEach((tabla, filas) -> System.out.printf("%-26s %,14d%n", tabla, filas));
+		System.out.printf("Tiempo total: %.1f s%n", (System.nanoTime() - inicio) / 1e9);
+	}
+
+	// ==========================================
+	// CATÁLOGOS Y ENTIDADES
+	// ==========================================
+
+	private void generarCatalogos() throws SQLException {
+		int categorias = (int) getLargo("categorias", 40);
+		try (PreparedStatement ps = con.prepareStatement("INSERT INTO TablaCategorias(Nombre) VALUES (?)")) {
+			for (int i = 1; i <= categorias; i++) {
+				ps.setString(1, (i <= TIPOS.length) ? TIPOS[i - 1] : "Categoría " + i);
+				agregarAlLote(ps, "TablaCategorias");
+			}
+			cerrarLote(ps);
+		}
+		idsCategorias = leerIds("TablaCategorias", "Cid", 0);
+
+		int proveedores = (int) getLargo("proveedores", 200);
+		try (PreparedStatement ps = con
+				.prepareStatement("INSERT INTO TablaProveedores(NombreP, NumeroTel) VALUES (?, ?)")) {
+			for (int i = 1; i <= proveedores; i++) {
+				ps.setString(1, "Distribuidora " + MARCAS[i % MARCAS.length] + " " + i);
+				ps.setString(2, telefono());
+				agregarAlLote(ps, "TablaProveedores");
+			}
+			cerrarLote(ps);
+		}
+		idsProveedores = leerIds("TablaProveedores", "Pid", 0);
+	}
+
+	private void generarProductos() throws SQLException {
+		int productos = (int) getLargo("productos", 50_000);
+		precios = new double[productos];
+		try (PreparedStatement ps = con.prepareStatement(
+				"INSERT INTO TablaAlmacen_Productos(Nombre, Descripcion, Precio, Codigo, Cantidad, Ruta_Imagen, ProveedorID, CategoriaID, StockMinimo) "
+						+ "VALUES (?, ?, ?, ?, ?, NULL, ?, ?, ?)")) {
+			for (int i = 0; i < productos; i++) {
+				String tipo = TIPOS[aleatorio.nextInt(TIPOS.length)];
+				precios[i] = Math.round((8 + Math.exp(aleatorio.nextDouble() * 5.5)) * 100) / 100.0;
+				ps.setString(1, tipo + " " + MARCAS[aleatorio.nextInt(MARCAS.length)] + " "
+						+ PRESENTACIONES[aleatorio.nextInt(PRESENTACIONES.length)]);
+				ps.setString(2, tipo + " (línea " + (i % 97) + ")");
+				ps.setDouble(3, precios[i]);
+				ps.setString(4, String.format("750%010d", i + 1));
+				ps.setInt(5, aleatorio.nextInt(500));
+				ps.setInt(6, idsProveedores[aleatorio.nextInt(idsProveedores.length)]);
+				ps.setInt(7, idsCategorias[aleatorio.nextInt(idsCategorias.length)]);
+				ps.setInt(8, 5 + aleatorio.nextInt(20));
+				agregarAlLote(ps, "TablaAlmacen_Productos");
+			}
+			cerrarLote(ps);
+		}
+		idsProductos = leerIds("TablaAlmacen_Productos", "Pid", 0);
+		prepararZipf(getDecimal("zipf", 1.0));
+	}
+
+	/**
+	 * Precalcula la distribución acumulada de Zipf: el producto de rango
+	 * {@code k} tiene peso {@code 1 / k^s}.
+	 */
+	private void prepararZipf(double exponente) {
+		int n = idsProductos.length;
+		ordenPopularidad = new int[n];
+		for (int i = 0; i < n; i++) {
+			ordenPopularidad[i] = i;
+		}
+		for (int i = n - 1; i > 0; i--) { // Fisher-Yates: la popularidad no sigue al ID
+			int j = aleatorio.nextInt(i + 1);
+			int t = ordenPopularidad[i];
+			ordenPopularidad[i] = ordenPopularidad[j];
+			ordenPopularidad[j] = t;
+		}
+		zipfAcumulada = new double[n];
+		double suma = 0;
+		for (int k = 0; k < n; k++) {
+			suma += 1.0 / Math.pow(k + 1, exponente);
+			zipfAcumulada[k] = suma;
+		}
+		for (int k = 0; k < n; k++) {
+			zipfAcumulada[k] /= suma;
+		}
+	}
+
+	/**
+	 * @return Índice (en {@link #idsProductos}) de un producto según Zipf.
+	 */
+	private int productoZipf() {
+		int pos = Arrays.binarySearch(zipfAcumulada, aleatorio.nextDouble());
+		if (pos < 0) {
+			pos = -pos - 1;
+		}
+		return ordenPopularidad[Math.min(pos, ordenPopularidad.length - 1)];
+	}
+
+	private void generarClientes() throws SQLException {
+		int clientes = (int) getLargo("clientes", 500_000);
+		try (PreparedStatement ps = con
+				.prepareStatement("INSERT INTO TablaClientes(NombreC, NumeroTel) VALUES (?, ?)")) {
+			ps.setString(1, "Público en General");
+			ps.setString(2, "0000000000");
+			agregarAlLote(ps, "TablaClientes");
+			for (int i = 1; i < clientes; i++) {
+				ps.setString(1, nombrePersona());
+				ps.setString(2, telefono());
+				agregarAlLote(ps, "TablaClientes");
+			}
+			cerrarLote(ps);
+		}
+		idsClientes = leerIds("TablaClientes", "Cid", 0);
+	}
+
+	private void generarEmpleados() throws SQLException {
+		int empleados = (int) getLargo("empleados", 20);
+		String hash = BCrypt.hashpw("1234", BCrypt.gensalt()); // Una sola vez: BCrypt es deliberadamente lento
+		try (PreparedStatement ps = con.prepareStatement(
+				"INSERT INTO TablaEmpleados(NombreE, NumeroTel, Rol, Password) VALUES (?, ?, ?, ?)")) {
+			for (int i = 0; i < empleados; i++) {
+				ps.setString(1, nombrePersona());
+				ps.setString(2, telefono());
+				ps.setString(3, (i == 0) ? "ADMIN" : "CAJERO");
+				ps.setString(4, hash);
+				agregarAlLote(ps, "TablaEmpleados");
+			}
+			cerrarLote(ps);
+		}
+		idsEmpleados = leerIds("TablaEmpleados", "Eid", 0);
+	}
+
+	// ==========================================
+	// HISTORIA TRANSACCIONAL (DÍA POR DÍA)
+	// ==========================================
+
+	/**
+	 * Genera los años de operación: cortes, ventas con detalle, movimientos,
+	 * entradas de inventario y órdenes de compra.
+	 */
+	private void generarHistoria() throws SQLException {
+		int anios = (int) getLargo("anios", 3);
+		int cajas = (int) getLargo("cajas", 6);
+		long detallesObjetivo = getLargo("detalles", 20_000_000);
+		double lineasPromedio = 4.0;
+
+		LocalDate hoy = LocalDate.now();
+		LocalDate primerDia = hoy.minusYears(anios);
+		int dias = (int) (hoy.toEpochDay() - primerDia.toEpochDay());
+
+		double[] pesoDia = new double[dias];
+		double sumaPesos = 0;
+		for (int d = 0; d < dias; d++) {
+			pesoDia[d] = pesoDelDia(primerDia.plusDays(d));
+			sumaPesos += pesoDia[d];
+		}
+		double ventasObjetivo = detallesObjetivo / lineasPromedio;
+
+		double[] acumuladaHora = acumular(PESO_HORA);
+		long inicio = System.nanoTime();
+		long ultimoReporte = inicio;
+
+		try (PreparedStatement psCorte = con.prepareStatement(
+				"INSERT INTO TablaCortesCaja(UsuarioID, FechaApertura, MontoInicial, FechaCierre, Status) VALUES (?, ?, ?, ?, 'Cerrado')");
+				PreparedStatement psCierre = con.prepareStatement(
+						"UPDATE TablaCortesCaja SET MontoFinalSistema = ?, MontoFinalContado = ?, Diferencia = ? WHERE CorteID = ?");
+				PreparedStatement psVenta = con.prepareStatement(
+						"INSERT INTO TablaVentas(ClienteID, EmpleadoID, FechaVenta, Total, MetodoPago, Subtotal, Descuento, Impuestos, CorteID) "
+								+ "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)");
+				PreparedStatement psDetalle = con.prepareStatement(
+						"INSERT INTO TablaVentaDetalle(VentaID, ProductoID, Cantidad, PrecioUnitario, Subtotal) VALUES (?, ?, ?, ?, ?)");
+				PreparedStatement psMovimiento = con.prepareStatement(
+						"INSERT INTO TablaMovimientosCaja(CorteID, UsuarioID, Fecha, TipoMovimiento, Monto, Descripcion) VALUES (?, ?, ?, ?, ?, ?)");
+				PreparedStatement psEntrada = con.prepareStatement(
+						"INSERT INTO TablaEntradasInventario(ProductoID, CantidadAgregada, FechaEntrada, UsuarioID, ProductoDescripcion) VALUES (?, ?, ?, ?, ?)");
+				PreparedStatement psOrden = con.prepareStatement(
+						"INSERT INTO TablaOrdenesCompra(ProveedorID, Fecha, Status) VALUES (?, ?, ?)");
+				PreparedStatement psOrdenDetalle = con.prepareStatement(
+						"INSERT INTO TablaOrdenCompraDetalle(OrdenID, ProductoID, CantidadPedida, CostoUnitario, Descripcion) VALUES (?, ?, ?, ?, ?)")) {
+
+			int ultimaVenta = maximoId("TablaVentas", "VentaID");
+			int ultimoCorte = maximoId("TablaCortesCaja", "CorteID");
+			int ultimaOrden = maximoId("TablaOrdenesCompra", "OrdenID");
+
+			for (int d = 0; d < dias; d++) {
+				LocalDate fecha = primerDia.plusDays(d);
+
+				// 1. Un corte por caja (7:00 a 22:00)
+				int[] cajeros = new int[cajas];
+				for (int c = 0; c < cajas; c++) {
+					cajeros[c] = idsEmpleados[aleatorio.nextInt(idsEmpleados.length)];
+					psCorte.setInt(1, cajeros[c]);
+					psCorte.setTimestamp(2, Timestamp.valueOf(fecha.atTime(7, 0)));
+					psCorte.setDouble(3, 500);
+					psCorte.setTimestamp(4, Timestamp.valueOf(fecha.atTime(22, 5)));
+					psCorte.addBatch();
+				}
+				psCorte.executeBatch();
+				contar("TablaCortesCaja", cajas);
+				int[] cortes = leerIds("TablaCortesCaja", "CorteID", ultimoCorte);
+				ultimoCorte = cortes[cortes.length - 1];
+				double[] efectivoPorCorte = new double[cajas];
+
+				// 2. Ventas del día (cabeceras; los renglones se guardan para después)
+				int ventasDia = (int) Math.round(ventasObjetivo * pesoDia[d] / sumaPesos);
+				int[][] renglonesProducto = new int[ventasDia][];
+				int[][] renglonesCantidad = new int[ventasDia][];
+				for (int v = 0; v < ventasDia; v++) {
+					int caja = aleatorio.nextInt(cajas);
+					int lineas = lineasDelTicket();
+					renglonesProducto[v] = new int[lineas];
+					renglonesCantidad[v] = new int[lineas];
+					double subtotal = 0;
+					for (int l = 0; l < lineas; l++) {
+						int producto = productoZipf();
+						int cantidad = (aleatorio.nextInt(10) < 8) ? 1 : 2 + aleatorio.nextInt(5);
+						renglonesProducto[v][l] = producto;
+						renglonesCantidad[v][l] = cantidad;
+						subtotal += precios[producto] * cantidad;
+					}
+					double descuento = (aleatorio.nextInt(20) == 0) ? Math.round(subtotal * 5) / 100.0 : 0;
+					double impuestos = (subtotal - descuento) * 0.16;
+					double total = subtotal - descuento + impuestos;
+					boolean efectivo = aleatorio.nextInt(10) < 7;
+					if (efectivo) {
+						efectivoPorCorte[caja] += total;
+					}
+
+					int hora = muestrear(acumuladaHora);
+					LocalDateTime momento = fecha.atTime(hora, aleatorio.nextInt(60), aleatorio.nextInt(60));
+					psVenta.setInt(1, (aleatorio.nextBoolean()) ? idsClientes[0]
+							: idsClientes[aleatorio.nextInt(idsClientes.length)]);
+					psVenta.setInt(2, cajeros[caja]);
+					psVenta.setTimestamp(3, Timestamp.valueOf(momento));
+					psVenta.setDouble(4, total);
+					psVenta.setString(5, efectivo ? "Efectivo" : "Tarjeta");
+					psVenta.setDouble(6, subtotal);
+					psVenta.setDouble(7, descuento);
+					psVenta.setDouble(8, impuestos);
+					psVenta.setInt(9, cortes[caja]);
+					psVenta.addBatch();
+				}
+				psVenta.executeBatch();
+				contar("TablaVentas", ventasDia);
+
+				// 3. Renglones, con los folios asignados por la BD (en orden de inserción)
+				int[] folios = leerIds("TablaVentas", "VentaID", ultimaVenta);
+				if (folios.length > 0) {
+					ultimaVenta = folios[folios.length - 1];
+				}
+				for (int v = 0; v < ventasDia; v++) {
+					for (int l = 0; l < renglonesProducto[v].length; l++) {
+						int producto = renglonesProducto[v][l];
+						int cantidad = renglonesCantidad[v][l];
+						psDetalle.setInt(1, folios[v]);
+						psDetalle.setInt(2, idsProductos[producto]);
+						psDetalle.setInt(3, cantidad);
+						psDetalle.setDouble(4, precios[producto]);
+						psDetalle.setDouble(5, precios[producto] * cantidad);
+						agregarAlLote(psDetalle, "TablaVentaDetalle");
+					}
+				}
+				cerrarLote(psDetalle);
+
+				// 4. Movimientos de caja y cierre de cada corte
+				for (int c = 0; c < cajas; c++) {
+					double neto = 0;
+					int movimientos = aleatorio.nextInt(4);
+					for (int m = 0; m < movimientos; m++) {
+						boolean ingreso = aleatorio.nextInt(3) == 0;
+						double monto = 50 + aleatorio.nextInt(1_500);
+						neto += ingreso ? monto : -monto;
+						psMovimiento.setInt(1, cortes[c]);
+						psMovimiento.setInt(2, cajeros[c]);
+						psMovimiento.setTimestamp(3,
+								Timestamp.valueOf(fecha.atTime(8 + aleatorio.nextInt(13), aleatorio.nextInt(60))));
+						psMovimiento.setString(4, ingreso ? "Ingreso" : "Egreso");
+						psMovimiento.setDouble(5, monto);
+						psMovimiento.setString(6, ingreso ? "Ingreso de cambio" : "Pago a proveedor");
+						agregarAlLote(psMovimiento, "TablaMovimientosCaja");
+					}
+					double sistema = 500 + efectivoPorCorte[c] + neto;
+					double contado = sistema + ((aleatorio.nextInt(10) == 0) ? aleatorio.nextInt(41) - 20 : 0);
+					psCierre.setDouble(1, sistema);
+					psCierre.setDouble(2, contado);
+					psCierre.setDouble(3, contado - sistema);
+					psCierre.setInt(4, cortes[c]);
+					psCierre.addBatch();
+				}
+				cerrarLote(psMovimiento);
+				psCierre.executeBatch();
+
+				// 5. Reabastecimiento: órdenes a proveedores y entradas al almacén
+				int ordenesDia = 1 + aleatorio.nextInt(5);
+				boolean reciente = d >= dias - 7;
+				for (int o = 0; o < ordenesDia; o++) {
+					psOrden.setInt(1, idsProveedores[aleatorio.nextInt(idsProveedores.length)]);
+					psOrden.setTimestamp(2, Timestamp.valueOf(fecha.atTime(9, 0)));
+					psOrden.setString(3,
+							reciente ? "Pendiente" : (aleatorio.nextInt(20) == 0) ? "Cancelado" : "Recibido");
+					psOrden.addBatch();
+				}
+				psOrden.executeBatch();
+				contar("TablaOrdenesCompra", ordenesDia);
+				int[] ordenes = leerIds("TablaOrdenesCompra", "OrdenID", ultimaOrden);
+				ultimaOrden = ordenes[ordenes.length - 1];
+				for (int orden : ordenes) {
+					int renglones = 3 + aleatorio.nextInt(13);
+					for (int r = 0; r < renglones; r++) {
+						int producto = productoZipf();
+						int cantidad = 12 * (1 + aleatorio.nextInt(10));
+						psOrdenDetalle.setInt(1, orden);
+						psOrdenDetalle.setInt(2, idsProductos[producto]);
+						psOrdenDetalle.setInt(3, cantidad);
+						psOrdenDetalle.setDouble(4, Math.round(precios[producto] * 70) / 100.0);
+						psOrdenDetalle.setString(5, "Pedido semanal");
+						agregarAlLote(psOrdenDetalle, "TablaOrdenCompraDetalle");
+
+						if (!reciente) {
+							psEntrada.setInt(1, idsProductos[producto]);
+							psEntrada.setInt(2, cantidad);
+							psEntrada.setTimestamp(3, Timestamp.valueOf(fecha.plusDays(2).atTime(10, 0)));
+							psEntrada.setInt(4, idsEmpleados[0]);
+							psEntrada.setString(5, "Recepción de pedido #" + orden);
+							agregarAlLote(psEntrada, "TablaEntradasInventario");
+						}
+					}
+				}
+				cerrarLote(psOrdenDetalle);
+				cerrarLote(psEntrada);
+				con.commit();
+				filasEnLote = 0;
+
+				long ahora = System.nanoTime();
+				if (ahora - ultimoReporte > 5_000_000_000L || d == dias - 1) {
+					long detalles = filasPorTabla.getOrDefault("TablaVentaDetalle", 0L);
+					System.out.printf("%s: %,d renglones de venta (%,.0f filas/s)%n", fecha, detalles,
+							detalles / ((ahora - inicio) / 1e9));
+					ultimoReporte = ahora;
+				}
+			}
+		}
+	}
+
+	/**
+	 * Peso de ventas de un día: fin de semana, quincena y diciembre venden más.
+	 */
+	private double pesoDelDia(LocalDate fecha) {
+		double peso = 1.0;
+		DayOfWeek dia = fecha.getDayOfWeek();
+		if (dia == DayOfWeek.SATURDAY) {
+			peso *= 1.35;
+		} else if (dia == DayOfWeek.SUNDAY) {
+			peso *= 1.2;
+		} else if (dia == DayOfWeek.MONDAY) {
+			peso *= 0.85;
+		}
+		int diaMes = fecha.getDayOfMonth();
+		if (diaMes == 15 || diaMes == 16 || diaMes == 30 || diaMes == 31 || diaMes == 1) {
+			peso *= 1.25; // Días de pago
+		}
+		if (fecha.getMonthValue() == 12) {
+			peso *= 1.4;
+		} else if (fecha.getMonthValue() == 1) {
+			peso *= 0.85;
+		}
+		return peso * (0.85 + aleatorio.nextDouble() * 0.3);
+	}
+
+	/**
+	 * Renglones de un ticket: geométrica con media ~4, entre 1 y 40.
+	 */
+	private int lineasDelTicket() {
+		int lineas = 1;
+		while (lineas < 40 && aleatorio.nextDouble() < 0.75) {
+			lineas++;
+		}
+		return lineas;
+	}
+
+	// ==========================================
+	// UTILIDADES
+	// ==========================================
+
+	/**
+	 * Agrega la fila al lote y lo envía (con commit) al llegar a {@code lote}
+	 * filas.
+	 */
+	private void agregarAlLote(PreparedStatement ps, String tabla) throws SQLException {
+		ps.addBatch();
+		contar(tabla, 1);
+		if (++filasEnLote >= lote) {
+			ps.executeBatch();
+			con.commit();
+			filasEnLote = 0;
+		}
+	}
+
+	/**
+	 * Envía lo que quede en el lote de la sentencia. El commit queda para el
+	 * siguiente lote completo o para el fin del día: confirmar muchas
+	 * transacciones pequeñas cuesta más que insertar.
+	 */
+	private void cerrarLote(PreparedStatement ps) throws SQLException {
+		ps.executeBatch();
+	}
+
+	private void contar(String tabla, long filas) {
+		filasPorTabla.merge(tabla, filas, Long::sum);
+	}
+
+	/**
+	 * Lee, en orden, los IDs mayores que {@code despuesDe} (recién insertados).
+	 */
+	private int[] leerIds(String tabla, String columna, int despuesDe) throws SQLException {
+		String sql = "SELECT " + columna + " FROM " + tabla + " WHERE " + columna + " > ? ORDER BY " + columna;
+		int[] ids = new int[16];
+		int n = 0;
+		try (PreparedStatement ps = con.prepareStatement(sql)) {
+			ps.setInt(1, despuesDe);
+			ps.setFetchSize(10_000);
+			try (ResultSet rs = ps.executeQuery()) {
+				while (rs.next()) {
+					if (n == ids.length) {
+						ids = Arrays.copyOf(ids, n * 2);
+					}
+					ids[n++] = rs.getInt(1);
+				}
+			}
+		}
+		return Arrays.copyOf(ids, n);
+	}
+
+	private int maximoId(String tabla, String columna) throws SQLException {
+		try (Statement st = con.createStatement();
+				ResultSet rs = st.executeQuery("SELECT COALESCE(MAX(" + columna + "), 0) FROM " + tabla)) {
+			rs.next();
+			return rs.getInt(1);
+		}
+	}
+
+	private static double[] acumular(double[] pesos) {
+		double[] acumulada = new double[pesos.length];
+		double suma = 0;
+		for (int i = 0; i < pesos.length; i++) {
+			suma += pesos[i];
+			acumulada[i] = suma;
+		}
+		for (int i = 0; i < pesos.length; i++) {
+			acumulada[i] /= suma;
+		}
+		return acumulada;
+	}
+
+	private int muestrear(double[] acumulada) {
+		double u = aleatorio.nextDouble();
+		for (int i = 0; i < acumulada.length; i++) {
+			if (u < acumulada[i]) {
+				return i;
+			}
+		}
+		return acumulada.length - 1;
+	}
+
+	private String nombrePersona() {
+		return NOMBRES[aleatorio.nextInt(NOMBRES.length)] + " " + APELLIDOS[aleatorio.nextInt(APELLIDOS.length)]
+				+ " " + APELLIDOS[aleatorio.nextInt(APELLIDOS.length)];
+	}
+
+	private String telefono() {
+		return String.format("55%08d", aleatorio.nextInt(100_000_000));
+	}
+}
@@ -4,6 +4,11 @@ import java.awt.EventQueue;
 import javax.swing.UIManager;
 
 import controlador.ControladorLogin;
+import metricas.GrabadorJfr;
+import metricas.Metricas;
+import metricas.ServidorMetricas;
+import metricas.VigilanteEDT;
+import persistencia.CorteCajaDAO;
 import persistencia.EmpleadoDAO;
 import vista.VistaLogin;
 
@@ -18,10 +23,16 @@ import vista.VistaLogin;
  * <li>Iniciar el hilo de eventos de Swing (EDT).</li>
  * <li>Ensamblar la primera tríada MVC (VistaLogin + EmpleadoDAO +
  * ControladorLogin) para arrancar el sistema.</li>
+ * <li>Arrancar el {@link VigilanteEDT}, que detecta congelamientos de la
+ * interfaz.</li>
+ * <li>Arrancar la grabación continua de Java Flight Recorder
+ * ({@link GrabadorJfr}).</li>
+ * <li>Abrir, si está configurado, el endpoint de métricas para Prometheus
+ * ({@link ServidorMetricas}).</li>
  * </ol>
  * </p>
  * 
- * @version 1.0
+ * @version 1.3
  */
 public class Main {
 
@@ -43,6 +54,21 @@ public class Main {
 			e.printStackTrace();
 		}
 
+		// Vigila que ningún botón congele la interfaz (consultas o reportes en el EDT)
+		VigilanteEDT.iniciar();
+
+		// Grabación continua de Flight Recorder, para volcarla cuando haya un problema
+		GrabadorJfr.iniciar();
+
+		// Turnos abiertos en la tienda: sólo se consulta cuando alguien lee las métricas
+		CorteCajaDAO cortes = new CorteCajaDAO();
+		Metricas.indicador("caja.turnosAbiertos", () -> {
+			int abiertos = cortes.contarAbiertos();
+			return (abiertos < 0) ? Double.NaN : abiertos;
+		});
+		// Endpoint para Prometheus (sólo si pos.metricas.puerto está definido)
+		ServidorMetricas.iniciar();
+
 		// Ejecuta la creación de la interfaz gráfica dentro del Hilo de Despacho de
 		// Eventos (EDT)
 		// Esto es una buena práctica en Swing para evitar problemas de concurrencia
@@ -0,0 +1,44 @@
+package main;
+
+import java.sql.SQLException;
+import java.time.LocalDate;
+
+import persistencia.ResumenVentasDAO;
+
+/**
+ * Recalcula las tablas de resumen diario de ventas a partir de las ventas
+ * registradas.
+ * <p>
+ * Necesario una sola vez al instalar los resúmenes sobre una base con
+ * historial, o después de cargar o corregir ventas directamente en la BD. La
+ * operación diaria no lo requiere: {@code VentaDAO} mantiene los resúmenes en
+ * cada venta y devolución.
+ * </p>
+ * <p>
+ * <b>Uso:</b>
+ * {@code java -cp ... main.ReconstruirResumenes [desde yyyy-MM-dd] [hasta yyyy-MM-dd]}
+ * (por defecto, todo el rango con ventas). Usa la conexión de
+ * {@code pos.properties}.
+ * </p>
+ *
+ * @version 1.0
+ */
+public class ReconstruirResumenes {
+
+	public static void main(String[] args) throws SQLException {
+		ResumenVentasDAO dao = new ResumenVentasDAO();
+		LocalDate[] rango = dao.rangoVentas();
+		if (rango == null) {
+			System.out.println("No hay ventas registradas.");
+			System.exit(0);
+		}
+		LocalDate desde = (args.length > 0) ? LocalDate.parse(args[0]) : rango[0];
+		LocalDate hasta = (args.length > 1) ? LocalDate.parse(args[1]) : rango[1];
+
+		long inicio = System.nanoTime();
+		long filas = dao.reconstruir(desde, hasta);
+		System.out.printf("Resúmenes del %s al %s: %,d filas en %.1f s%n", desde, hasta, filas,
+				(System.nanoTime() - inicio) / 1e9);
+		System.exit(0);
+	}
+}
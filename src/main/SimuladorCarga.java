@@ -0,0 +1,435 @@
+package main;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.LongAdder;
+
+import conexion.Conexion;
+import conexion.EsquemaBD;
+import conexion.MonitorSQL;
+import conexion.PoolConexiones;
+import metricas.Histograma;
+import metricas.Metricas;
+import modelo.Venta;
+import modelo.VentaDetalle;
+import persistencia.AlmacenProductosDAO;
+import persistencia.VentaDAO;
+
+/**
+ * Simulador de carga multi-caja sin interfaz gráfica.
+ * <p>
+ * Levanta una base de datos embebida en memoria (H2 en modo SQL Server) con el
+ * esquema del POS, dirige el pool de {@link Conexion} hacia ella y lanza N
+ * cajas simuladas que, durante el tiempo indicado, llaman concurrentemente a
+ * los mismos DAOs que la aplicación:
+ * <ul>
+ * <li>{@link VentaDAO#agregar(Venta)} con carritos aleatorios (la mayoría de
+ * las veces).</li>
+ * <li>{@link VentaDAO#realizarDevolucion(int)} sobre ventas ya hechas.</li>
+ * <li>{@link AlmacenProductosDAO#aumentarStock(int, int)} (recepción de
+ * mercancía).</li>
+ * </ul>
+ * La popularidad de los productos está sesgada (la mitad de los renglones cae
+ * en unos pocos productos "estrella"), igual que en hora pico, para provocar
+ * contención en las mismas filas de inventario.
+ * </p>
+ * <p>
+ * <b>Reporte final:</b> operaciones por segundo, latencia p50/p99 del commit
+ * de venta, reintentos por deadlock/bloqueo, commits abortados y violaciones
+ * de consistencia: productos cuyo stock final no coincide con el inicial más
+ * los movimientos confirmados, ventas sin renglones de detalle, resúmenes
+ * diarios que no coinciden con las ventas confirmadas y saldos de turno que no
+ * coinciden con las ventas de su turno. También lista las sentencias SQL
+ * con más tiempo acumulado ({@link MonitorSQL}).
+ * </p>
+ * <p>
+ * <b>Uso:</b>
+ * {@code java -cp ... main.SimuladorCarga [cajas] [segundos] [productos]}
+ * (por defecto 6 cajas, 30 segundos y 500 productos).
+ * </p>
+ *
+ * @version 1.3
+ */
+public class SimuladorCarga {
+
+	/** Stock inicial de cada producto (alto para que no se agote). */
+	private static final int STOCK_INICIAL = 1_000_000;
+
+	/** Productos "estrella" que concentran la mitad de los renglones. */
+	private static final int PRODUCTOS_ESTRELLA = 10;
+
+	private static final int LINEAS_MAXIMAS = 12;
+	private static final double PROBABILIDAD_DEVOLUCION = 0.05;
+	private static final double PROBABILIDAD_ENTRADA = 0.03;
+
+	private final int cajas;
+	private final long duracionMs;
+	private final int productos;
+
+	private final VentaDAO ventaDAO = new VentaDAO();
+	private final AlmacenProductosDAO productoDAO = new AlmacenProductosDAO();
+
+	/** Movimiento neto confirmado por producto (índice = Pid). */
+	private final AtomicIntegerArray movimientoEsperado;
+
+	/** Ventas confirmadas que todavía pueden devolverse (cada una una vez). */
+	private final ConcurrentLinkedQueue<Integer> ventasDevolvibles = new ConcurrentLinkedQueue<>();
+
+	private final Histograma latenciaVenta = new Histograma("simulacion.venta");
+	private final Histograma latenciaDevolucion = new Histograma("simulacion.devolucion");
+	private final Histograma latenciaEntrada = new Histograma("simulacion.entrada");
+	private final LongAdder ventasFallidas = new LongAdder();
+	private final LongAdder devolucionesFallidas = new LongAdder();
+	private final LongAdder entradasFallidas = new LongAdder();
+
+	/** Cortes de caja (uno por caja simulada). */
+	private int[] cortes;
+
+	/**
+	 * @param cajas      Número de cajas simultáneas.
+	 * @param duracionMs Duración de la prueba.
+	 * @param productos  Tamaño del catálogo.
+	 */
+	public SimuladorCarga(int cajas, long duracionMs, int productos) {
+		this.cajas = cajas;
+		this.duracionMs = duracionMs;
+		this.productos = productos;
+		this.movimientoEsperado = new AtomicIntegerArray(productos + 1);
+	}
+
+	public static void main(String[] args) throws Exception {
+		int cajas = (args.length > 0) ? Integer.parseInt(args[0]) : 6;
+		int segundos = (args.length > 1) ? Integer.parseInt(args[1]) : 30;
+		int productos = (args.length > 2) ? Integer.parseInt(args[2]) : 500;
+
+		SimuladorCarga simulador = new SimuladorCarga(cajas, segundos * 1_000L, productos);
+		simulador.prepararBaseDatos();
+		simulador.ejecutar();
+		int violaciones = simulador.reportar();
+		System.exit(violaciones == 0 ? 0 : 1);
+	}
+
+	// ==========================================
+	// PREPARACIÓN
+	// ==========================================
+
+	/**
+	 * Crea la base embebida, el esquema y los datos mínimos (catálogo, empleados
+	 * y un corte abierto por caja).
+	 */
+	void prepararBaseDatos() throws SQLException {
+		String url = "jdbc:h2:mem:simulacion;MODE=MSSQLServer;DB_CLOSE_DELAY=-1;LOCK_TIMEOUT=5000";
+		Conexion.usarPool(new PoolConexiones(() -> {
+			try {
+				return MonitorSQL.envolver(DriverManager.getConnection(url, "sa", ""));
+			} catch (SQLException e) {
+				System.err.println("❌ Error al abrir la base embebida: " + e.getMessage());
+				return null;
+			}
+		}, cajas + 2, cajas, 5_000, 30 * 60_000, 30_000, 0));
+
+		try (Connection con = Conexion.getConexion()) {
+			EsquemaBD.crear(con);
+			try (Statement st = con.createStatement()) {
+				st.execute("INSERT INTO TablaCategorias(Nombre) VALUES ('Abarrotes')");
+				st.execute("INSERT INTO TablaProveedores(NombreP, NumeroTel) VALUES ('Proveedor Simulado', '0000000000')");
+				st.execute("INSERT INTO TablaClientes(NombreC, NumeroTel) VALUES ('Público en General', '0000000000')");
+			}
+
+			try (PreparedStatement ps = con.prepareStatement(
+					"INSERT INTO TablaAlmacen_Productos(Nombre, Descripcion, Precio, Codigo, Cantidad, Ruta_Imagen, ProveedorID, CategoriaID, StockMinimo) "
+							+ "VALUES (?, ?, ?, ?, ?, NULL, 1, 1, 5)")) {
+				Random r = new Random(1);
+				for (int i = 1; i <= productos; i++) {
+					ps.setString(1, "Producto " + i);
+					ps.setString(2, "Simulado");
+					ps.setDouble(3, 5 + r.nextInt(20_000) / 100.0);
+					ps.setString(4, String.format("75%011d", i));
+					ps.setInt(5, STOCK_INICIAL);
+					ps.addBatch();
+				}
+				ps.executeBatch();
+			}
+
+			cortes = new int[cajas];
+			try (PreparedStatement psEmpleado = con.prepareStatement(
+					"INSERT INTO TablaEmpleados(NombreE, NumeroTel, Rol, Password) VALUES (?, '0000000000', 'Cajero', '-')",
+					Statement.RETURN_GENERATED_KEYS);
+					PreparedStatement psCorte = con.prepareStatement(
+							"INSERT INTO TablaCortesCaja(UsuarioID, FechaApertura, MontoInicial, Status) VALUES (?, CURRENT_TIMESTAMP, 500, 'Abierto')",
+							Statement.RETURN_GENERATED_KEYS)) {
+				for (int i = 0; i < cajas; i++) {
+					psEmpleado.setString(1, "Cajero " + (i + 1));
+					psEmpleado.executeUpdate();
+					try (ResultSet rs = psEmpleado.getGeneratedKeys()) {
+						rs.next();
+						psCorte.setInt(1, rs.getInt(1));
+					}
+					psCorte.executeUpdate();
+					try (ResultSet rs = psCorte.getGeneratedKeys()) {
+						rs.next();
+						cortes[i] = rs.getInt(1);
+					}
+				}
+			}
+		}
+	}
+
+	// ==========================================
+	// EJECUCIÓN
+	// ==========================================
+
+	/**
+	 * Lanza las cajas simuladas y espera a que terminen.
+	 */
+	void ejecutar() throws InterruptedException {
+		System.out.println("Simulando " + cajas + " cajas durante " + duracionMs / 1_000 + " s sobre " + productos
+				+ " productos...");
+		CountDownLatch salida = new CountDownLatch(1);
+		List<Thread> hilos = new ArrayList<>();
+		long fin = System.currentTimeMillis() + duracionMs;
+		for (int i = 0; i < cajas; i++) {
+			int caja = i;
+			hilos.add(Thread.ofPlatform().name("caja-sim-" + (i + 1)).start(() -> {
+				try {
+					salida.await();
+				} catch (InterruptedException e) {
+					return;
+				}
+				simularCaja(caja, fin);
+			}));
+		}
+		salida.countDown(); // Todas las cajas arrancan a la vez
+		for (Thread hilo : hilos) {
+			hilo.join();
+		}
+	}
+
+	private void simularCaja(int caja, long fin) {
+		Random r = new Random(1_000 + caja);
+		while (System.currentTimeMillis() < fin) {
+			double dado = r.nextDouble();
+			if (dado < PROBABILIDAD_DEVOLUCION) {
+				devolver();
+			} else if (dado < PROBABILIDAD_DEVOLUCION + PROBABILIDAD_ENTRADA) {
+				recibirMercancia(r);
+			} else {
+				vender(caja, r);
+			}
+		}
+	}
+
+	private void vender(int caja, Random r) {
+		Venta venta = new Venta();
+		venta.setClienteId(1);
+		venta.setEmpleadoId(caja + 1);
+		venta.setCorteID(cortes[caja]);
+		venta.setFecha(new Date());
+		venta.setMetodoPago(r.nextBoolean() ? "Efectivo" : "Tarjeta");
+		int lineas = 1 + r.nextInt(LINEAS_MAXIMAS);
+		for (int i = 0; i < lineas; i++) {
+			venta.agregarDetalle(new VentaDetalle(elegirProducto(r), "Producto", null, 1 + r.nextInt(3), 10.0));
+		}
+		double subtotal = venta.recalcularSubtotal();
+		venta.setImpuestos(subtotal * 0.16);
+		venta.setTotal(subtotal * 1.16);
+
+		long inicio = System.nanoTime();
+		if (ventaDAO.agregar(venta)) {
+			latenciaVenta.registrarDesde(inicio);
+			for (VentaDetalle detalle : venta.getDetalles()) {
+				movimientoEsperado.addAndGet(detalle.getProductoId(), -detalle.getCantidad());
+			}
+			ventasDevolvibles.add(venta.getid());
+		} else {
+			ventasFallidas.increment();
+		}
+	}
+
+	private void devolver() {
+		Integer ventaId = ventasDevolvibles.poll();
+		if (ventaId == null) {
+			return;
+		}
+		// Cantidades de la venta, para el libro de movimientos esperado
+		Map<Integer, Integer> cantidades = new HashMap<>();
+		try (Connection con = Conexion.getConexion();
+				PreparedStatement ps = con
+						.prepareStatement("SELECT ProductoID, Cantidad FROM TablaVentaDetalle WHERE VentaID = ?")) {
+			ps.setInt(1, ventaId);
+			try (ResultSet rs = ps.executeQuery()) {
+				while (rs.next()) {
+					cantidades.merge(rs.getInt(1), rs.getInt(2), Integer::sum);
+				}
+			}
+		} catch (SQLException e) {
+			devolucionesFallidas.increment();
+			return;
+		}
+
+		long inicio = System.nanoTime();
+		if (ventaDAO.realizarDevolucion(ventaId)) {
+			latenciaDevolucion.registrarDesde(inicio);
+			cantidades.forEach((productoId, cantidad) -> movimientoEsperado.addAndGet(productoId, cantidad));
+		} else {
+			devolucionesFallidas.increment();
+		}
+	}
+
+	private void recibirMercancia(Random r) {
+		int productoId = elegirProducto(r);
+		int cantidad = 10 + r.nextInt(90);
+		long inicio = System.nanoTime();
+		if (productoDAO.aumentarStock(productoId, cantidad)) {
+			latenciaEntrada.registrarDesde(inicio);
+			movimientoEsperado.addAndGet(productoId, cantidad);
+		} else {
+			entradasFallidas.increment();
+		}
+	}
+
+	/**
+	 * Popularidad sesgada: la mitad de los renglones son productos estrella.
+	 */
+	private int elegirProducto(Random r) {
+		int estrella = Math.min(PRODUCTOS_ESTRELLA, productos);
+		return 1 + (r.nextBoolean() ? r.nextInt(estrella) : r.nextInt(productos));
+	}
+
+	// ==========================================
+	// REPORTE
+	// ==========================================
+
+	/**
+	 * Verifica la consistencia e imprime el resumen.
+	 *
+	 * @return Número de violaciones de consistencia encontradas.
+	 */
+	int reportar() throws SQLException {
+		int stockInconsistente = 0;
+		int ventasSinDetalle;
+		int resumenesInconsistentes;
+		int saldosInconsistentes;
+		try (Connection con = Conexion.getConexion(); Statement st = con.createStatement()) {
+			try (ResultSet rs = st.executeQuery("SELECT Pid, Cantidad FROM TablaAlmacen_Productos")) {
+				while (rs.next()) {
+					int pid = rs.getInt(1);
+					int esperado = STOCK_INICIAL + movimientoEsperado.get(pid);
+					if (rs.getInt(2) != esperado) {
+						stockInconsistente++;
+						System.err.println("❌ Stock inconsistente en producto " + pid + ": BD=" + rs.getInt(2)
+								+ ", esperado=" + esperado);
+					}
+				}
+			}
+			try (ResultSet rs = st.executeQuery("SELECT COUNT(*) FROM TablaVentas v WHERE NOT EXISTS "
+					+ "(SELECT 1 FROM TablaVentaDetalle d WHERE d.VentaID = v.VentaID)")) {
+				rs.next();
+				ventasSinDetalle = rs.getInt(1);
+			}
+			resumenesInconsistentes = contarResumenesInconsistentes(st);
+			saldosInconsistentes = contarSaldosInconsistentes(st);
+		}
+
+		double segundos = duracionMs / 1_000.0;
+		long operaciones = latenciaVenta.getConteo() + latenciaDevolucion.getConteo() + latenciaEntrada.getConteo();
+		Map<String, Long> contadores = Metricas.getContadores();
+
+		System.out.println();
+		System.out.println("========== RESULTADO DE LA SIMULACIÓN ==========");
+		System.out.printf("Cajas: %d | Duración: %.0f s | Productos: %d%n", cajas, segundos, productos);
+		System.out.printf("Throughput: %.1f operaciones/s (%.1f ventas/s)%n", operaciones / segundos,
+				latenciaVenta.getConteo() / segundos);
+		System.out.printf("Ventas:       %8d ok  %6d fallidas | commit p50 %.2f ms, p99 %.2f ms, máx %.2f ms%n",
+				latenciaVenta.getConteo(), ventasFallidas.sum(), latenciaVenta.getPercentilMs(50),
+				latenciaVenta.getPercentilMs(99), latenciaVenta.getMaximoMs());
+		System.out.printf("Devoluciones: %8d ok  %6d fallidas | p50 %.2f ms, p99 %.2f ms%n",
+				latenciaDevolucion.getConteo(), devolucionesFallidas.sum(), latenciaDevolucion.getPercentilMs(50),
+				latenciaDevolucion.getPercentilMs(99));
+		System.out.printf("Entradas:     %8d ok  %6d fallidas | p50 %.2f ms, p99 %.2f ms%n",
+				latenciaEntrada.getConteo(), entradasFallidas.sum(), latenciaEntrada.getPercentilMs(50),
+				latenciaEntrada.getPercentilMs(99));
+		System.out.println("Reintentos por deadlock: " + contadores.getOrDefault("venta.commit.reintentos.deadlock", 0L));
+		System.out.println("Reintentos por bloqueo:  " + contadores.getOrDefault("venta.commit.reintentos.bloqueo", 0L));
+		System.out.println("Commits abortados:       " + contadores.getOrDefault("venta.commit.abortadas", 0L));
+		System.out.println("Violaciones de consistencia: " + stockInconsistente + " productos con stock incorrecto, "
+				+ ventasSinDetalle + " ventas sin detalle, " + resumenesInconsistentes + " resúmenes diarios incorrectos, "
+				+ saldosInconsistentes + " saldos de turno incorrectos");
+		System.out.println("Sentencias con más tiempo acumulado:");
+		System.out.print(MonitorSQL.resumen(5));
+		System.out.println("================================================");
+		return stockInconsistente + ventasSinDetalle + resumenesInconsistentes + saldosInconsistentes;
+	}
+
+	/**
+	 * Compara las tablas de resumen diario con las ventas confirmadas (sin las
+	 * devueltas).
+	 *
+	 * @return Grupos (día × empleado × método o día × producto) cuyo resumen no
+	 *         coincide, más uno si el total de ventas resumidas difiere.
+	 */
+	private static int contarResumenesInconsistentes(Statement st) throws SQLException {
+		String[] consultas = {
+				"SELECT COUNT(*) FROM (SELECT CAST(FechaVenta AS DATE) AS f, EmpleadoID AS e, "
+						+ "COALESCE(MetodoPago, 'Otro') AS m, COUNT(*) AS n, SUM(Total) AS t FROM TablaVentas "
+						+ "WHERE ClienteID IS NOT NULL GROUP BY CAST(FechaVenta AS DATE), EmpleadoID, COALESCE(MetodoPago, 'Otro')) r "
+						+ "LEFT JOIN TablaResumenVentasDia s ON s.Fecha = r.f AND s.EmpleadoID = r.e AND s.MetodoPago = r.m "
+						+ "WHERE s.NumVentas IS NULL OR s.NumVentas <> r.n OR ABS(s.Total - r.t) > 0.005",
+				"SELECT COUNT(*) FROM (SELECT CAST(v.FechaVenta AS DATE) AS f, d.ProductoID AS p, SUM(d.Cantidad) AS c "
+						+ "FROM TablaVentaDetalle d JOIN TablaVentas v ON d.VentaID = v.VentaID "
+						+ "WHERE v.ClienteID IS NOT NULL GROUP BY CAST(v.FechaVenta AS DATE), d.ProductoID) r "
+						+ "LEFT JOIN TablaResumenProductosDia s ON s.Fecha = r.f AND s.ProductoID = r.p "
+						+ "WHERE s.Cantidad IS NULL OR s.Cantidad <> r.c",
+				"SELECT CASE WHEN (SELECT COALESCE(SUM(NumVentas), 0) FROM TablaResumenVentasDia) "
+						+ "= (SELECT COUNT(*) FROM TablaVentas WHERE ClienteID IS NOT NULL) THEN 0 ELSE 1 END" };
+		int incorrectos = 0;
+		for (String sql : consultas) {
+			try (ResultSet rs = st.executeQuery(sql)) {
+				rs.next();
+				incorrectos += rs.getInt(1);
+			}
+		}
+		if (incorrectos > 0) {
+			System.err.println("❌ Resúmenes diarios que no coinciden con las ventas: " + incorrectos);
+		}
+		return incorrectos;
+	}
+
+	/**
+	 * Compara los saldos por turno con las ventas de cada turno.
+	 *
+	 * @return Turnos cuyo número de ventas, total vendido o efectivo esperado
+	 *         no coincide.
+	 */
+	private static int contarSaldosInconsistentes(Statement st) throws SQLException {
+		String sql = "SELECT COUNT(*) FROM TablaSaldosCorte s "
+				+ "JOIN TablaCortesCaja c ON c.CorteID = s.CorteID "
+				+ "LEFT JOIN (SELECT CorteID, SUM(CASE WHEN ClienteID IS NULL THEN 0 ELSE 1 END) AS n, "
+				+ "SUM(Total) AS t FROM TablaVentas GROUP BY CorteID) r ON r.CorteID = s.CorteID "
+				+ "WHERE s.NumVentas <> COALESCE(r.n, 0) "
+				+ "OR ABS(s.VentasEfectivo + s.VentasTarjeta + s.VentasOtros - COALESCE(r.t, 0)) > 0.005 "
+				+ "OR ABS(s.EfectivoEsperado - (c.MontoInicial + s.VentasEfectivo + s.Ingresos - s.Egresos)) > 0.005";
+		int incorrectos;
+		try (ResultSet rs = st.executeQuery(sql)) {
+			rs.next();
+			incorrectos = rs.getInt(1);
+		}
+		if (incorrectos > 0) {
+			System.err.println("❌ Saldos de turno que no coinciden con las ventas: " + incorrectos);
+		}
+		return incorrectos;
+	}
+}
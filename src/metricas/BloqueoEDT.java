@@ -0,0 +1,75 @@
+package metricas;
+
+/**
+ * Registro inmutable de un congelamiento de la interfaz detectado por
+ * {@link VigilanteEDT}.
+ * <p>
+ * Guarda la pila del hilo de eventos (EDT) tomada <b>durante</b> el bloqueo,
+ * junto con el primer método de controlador y de acceso a datos (o de
+ * JasperReports) que aparecen en ella, que suelen bastar para saber qué botón
+ * hizo trabajo pesado en el EDT.
+ * </p>
+ *
+ * @version 1.0
+ */
+public class BloqueoEDT {
+
+	private final long instante;
+	private final String pantalla;
+	private final double duracionMs;
+	private final String controlador;
+	private final String origen;
+	private final String pila;
+
+	/**
+	 * Constructor completo.
+	 *
+	 * @param instante    Momento en que se detectó (epoch ms).
+	 * @param pantalla    Pantalla activa (ej. {@code PanelVenta}).
+	 * @param duracionMs  Tiempo que el EDT tardó en responder.
+	 * @param controlador Método de controlador en la pila (ej.
+	 *                    {@code ControladorGestionPedidos.recibirPedido}), o
+	 *                    {@code "-"}.
+	 * @param origen      Método de DAO o de JasperReports en la pila, o
+	 *                    {@code "-"}.
+	 * @param pila        Pila del EDT, una línea por marco.
+	 */
+	public BloqueoEDT(long instante, String pantalla, double duracionMs, String controlador, String origen,
+			String pila) {
+		this.instante = instante;
+		this.pantalla = pantalla;
+		this.duracionMs = duracionMs;
+		this.controlador = controlador;
+		this.origen = origen;
+		this.pila = pila;
+	}
+
+	public long getInstante() {
+		return instante;
+	}
+
+	public String getPantalla() {
+		return pantalla;
+	}
+
+	public double getDuracionMs() {
+		return duracionMs;
+	}
+
+	public String getControlador() {
+		return controlador;
+	}
+
+	public String getOrigen() {
+		return origen;
+	}
+
+	public String getPila() {
+		return pila;
+	}
+
+	@Override
+	public String toString() {
+		return String.format("Interfaz congelada %.0f ms en %s: %s → %s", duracionMs, pantalla, controlador, origen);
+	}
+}
@@ -0,0 +1,279 @@
+package metricas;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+import conexion.Configuracion;
+
+/**
+ * Cuenta lo que le cuesta a la base de datos una acción del usuario (un clic,
+ * un escaneo).
+ * <p>
+ * El controlador abre el contexto alrededor de la acción
+ * ({@link #medir(String, Runnable)}) y la capa de datos le reporta cada
+ * sentencia ejecutada, cada conexión pedida al pool y cada fila leída. El
+ * contexto viaja con el hilo: {@code EjecutorBD} lo lleva al hilo virtual de
+ * la consulta y de vuelta al EDT para sus callbacks, así que una acción
+ * termina cuando termina su último trabajo en segundo plano, no al volver del
+ * listener.
+ * </p>
+ * <p>
+ * <b>Presupuestos:</b> al terminar se compara contra {@code pos.accion.*}
+ * (o {@code pos.accion.<nombre>.*} para una acción concreta):
+ * {@code maxConsultas}, {@code maxConexiones}, {@code maxFilas} y
+ * {@code maxRepeticiones}. Este último es la firma del problema N+1: la misma
+ * sentencia ejecutada muchas veces dentro de una sola acción (una por renglón).
+ * Las acciones que se pasan se reportan en consola con su sentencia más
+ * repetida y se cuentan en {@code accion.excedidas}.
+ * </p>
+ * <p>
+ * Las sentencias y filas sólo se cuentan con la instrumentación de SQL activa
+ * ({@code pos.sql.instrumentar}).
+ * </p>
+ *
+ * @version 1.1
+ */
+public final class ContextoAccion implements AutoCloseable {
+
+	private static final ThreadLocal<ContextoAccion> ACTUAL = new ThreadLocal<>();
+
+	/** Nombre de acción → acumulado de sus ejecuciones. */
+	private static final Map<String, EstadisticaAccion> ESTADISTICAS = new ConcurrentHashMap<>();
+
+	private final String nombre;
+	private final ContextoAccion anterior;
+	private final long inicio = System.nanoTime();
+
+	private final LongAdder consultas = new LongAdder();
+	private final LongAdder conexiones = new LongAdder();
+	private final LongAdder filas = new LongAdder();
+
+	/** Sentencia normalizada → veces que se ejecutó en esta acción. */
+	private final Map<String, LongAdder> porSentencia = new ConcurrentHashMap<>();
+
+	/** Quien abrió la acción más los trabajos en segundo plano aún sin terminar. */
+	private final AtomicInteger pendientes = new AtomicInteger(1);
+	private final AtomicBoolean cerrado = new AtomicBoolean();
+
+	private ContextoAccion(String nombre, ContextoAccion anterior) {
+		this.nombre = nombre;
+		this.anterior = anterior;
+	}
+
+	// ==========================================
+	// ALCANCE
+	// ==========================================
+
+	/**
+	 * Abre una acción en el hilo actual. Debe cerrarse (try-with-resources);
+	 * las acciones anidadas cuentan sólo en la más interna.
+	 *
+	 * @param nombre Nombre estable de la acción (ej. {@code venta.finalizar}).
+	 * @return Contexto abierto.
+	 */
+	public static ContextoAccion abrir(String nombre) {
+		ContextoAccion contexto = new ContextoAccion(nombre, ACTUAL.get());
+		ACTUAL.set(contexto);
+		return contexto;
+	}
+
+	/**
+	 * Ejecuta una acción de controlador dentro de su contexto.
+	 *
+	 * @param nombre Nombre de la acción.
+	 * @param accion Cuerpo del listener.
+	 */
+	public static void medir(String nombre, Runnable accion) {
+		ContextoAccion contexto = abrir(nombre);
+		try {
+			accion.run();
+		} finally {
+			contexto.close();
+		}
+	}
+
+	/**
+	 * @return Acción activa en este hilo, o {@code null}.
+	 */
+	public static ContextoAccion actual() {
+		return ACTUAL.get();
+	}
+
+	/**
+	 * Anota un trabajo en segundo plano de la acción activa: la acción no
+	 * termina hasta que se llame a {@link #liberar(ContextoAccion)}.
+	 *
+	 * @return Acción activa (retenida), o {@code null} si no hay.
+	 */
+	public static ContextoAccion retenerActual() {
+		ContextoAccion contexto = ACTUAL.get();
+		if (contexto != null) {
+			contexto.pendientes.incrementAndGet();
+		}
+		return contexto;
+	}
+
+	/**
+	 * Ejecuta una tarea con la acción indicada como activa en este hilo.
+	 *
+	 * @param contexto Acción (puede ser {@code null}: la tarea corre sin
+	 *                 acción).
+	 * @param tarea    Trabajo a ejecutar.
+	 * @return Resultado de la tarea.
+	 */
+	public static <R> R ejecutarEn(ContextoAccion contexto, Supplier<R> tarea) {
+		ContextoAccion previo = ACTUAL.get();
+		ACTUAL.set(contexto);
+		try {
+			return tarea.get();
+		} finally {
+			if (previo == null) {
+				ACTUAL.remove();
+			} else {
+				ACTUAL.set(previo);
+			}
+		}
+	}
+
+	/**
+	 * Marca como terminado un trabajo anotado con {@link #retenerActual()}.
+	 *
+	 * @param contexto Acción retenida (o {@code null}).
+	 */
+	public static void liberar(ContextoAccion contexto) {
+		if (contexto != null && contexto.pendientes.decrementAndGet() == 0) {
+			contexto.terminar();
+		}
+	}
+
+	/**
+	 * Cierra el alcance en este hilo. La acción se da por terminada cuando
+	 * también acaban sus trabajos en segundo plano.
+	 */
+	@Override
+	public void close() {
+		if (!cerrado.compareAndSet(false, true)) {
+			return;
+		}
+		if (ACTUAL.get() == this) {
+			if (anterior == null) {
+				ACTUAL.remove();
+			} else {
+				ACTUAL.set(anterior);
+			}
+		}
+		liberar(this);
+	}
+
+	// ==========================================
+	// REPORTES DE LA CAPA DE DATOS
+	// ==========================================
+
+	/**
+	 * Cuenta una ida y vuelta al servidor (una ejecución o un lote).
+	 *
+	 * @param sql Texto normalizado de la sentencia.
+	 */
+	public void registrarConsulta(String sql) {
+		consultas.increment();
+		porSentencia.computeIfAbsent(sql, k -> new LongAdder()).increment();
+	}
+
+	/**
+	 * Cuenta una conexión pedida al pool.
+	 */
+	public void registrarConexion() {
+		conexiones.increment();
+	}
+
+	/**
+	 * Suma filas leídas o afectadas.
+	 *
+	 * @param n Filas.
+	 */
+	public void sumarFilas(long n) {
+		filas.add(n);
+	}
+
+	// ==========================================
+	// CIERRE Y PRESUPUESTOS
+	// ==========================================
+
+	private void terminar() {
+		long nanos = System.nanoTime() - inicio;
+		long nConsultas = consultas.sum();
+		long nConexiones = conexiones.sum();
+		long nFilas = filas.sum();
+
+		Map.Entry<String, Long> masRepetida = null;
+		for (Map.Entry<String, LongAdder> e : porSentencia.entrySet()) {
+			if (masRepetida == null || e.getValue().sum() > masRepetida.getValue()) {
+				masRepetida = Map.entry(e.getKey(), e.getValue().sum());
+			}
+		}
+		long repeticiones = (masRepetida == null) ? 0 : masRepetida.getValue();
+
+		StringBuilder excesos = new StringBuilder();
+		revisar(excesos, "consultas", nConsultas, limite("maxConsultas", 15));
+		revisar(excesos, "conexiones", nConexiones, limite("maxConexiones", 5));
+		revisar(excesos, "filas", nFilas, limite("maxFilas", 10_000));
+		revisar(excesos, "repeticiones de una sentencia", repeticiones, limite("maxRepeticiones", 5));
+		boolean excedida = excesos.length() > 0;
+
+		ESTADISTICAS.computeIfAbsent(nombre, EstadisticaAccion::new).registrar(nanos, nConsultas, nConexiones, nFilas,
+				excedida);
+		if (excedida) {
+			Metricas.contador("accion.excedidas").increment();
+			System.err.println(String.format("⚠ Acción '%s' fuera de presupuesto (%s) en %.1f ms. "
+					+ "Más repetida (%d veces): %s", nombre, excesos, nanos / 1_000_000.0, repeticiones,
+					(masRepetida == null) ? "-" : masRepetida.getKey()));
+		}
+	}
+
+	private static void revisar(StringBuilder excesos, String concepto, long valor, int limite) {
+		if (limite > 0 && valor > limite) {
+			excesos.append((excesos.length() == 0) ? "" : ", ").append(valor).append(' ').append(concepto)
+					.append(" > ").append(limite);
+		}
+	}
+
+	/**
+	 * @return Límite de la acción, o el general si no tiene uno propio (0 =
+	 *         sin límite).
+	 */
+	private int limite(String clave, int defecto) {
+		return Configuracion.getEntero("pos.accion." + nombre + "." + clave,
+				Configuracion.getEntero("pos.accion." + clave, defecto));
+	}
+
+	// ==========================================
+	// CONSULTA
+	// ==========================================
+
+	public String getNombre() {
+		return nombre;
+	}
+
+	/**
+	 * @return Acciones registradas, de más a menos sentencias por ejecución.
+	 */
+	public static List<EstadisticaAccion> getEstadisticas() {
+		List<EstadisticaAccion> lista = new ArrayList<>(ESTADISTICAS.values());
+		lista.sort(Comparator.comparingDouble(EstadisticaAccion::getConsultasPromedio).reversed());
+		return lista;
+	}
+
+	/**
+	 * Borra las estadísticas de acciones.
+	 */
+	public static void reiniciar() {
+		ESTADISTICAS.clear();
+	}
+}
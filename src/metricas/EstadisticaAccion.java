@@ -0,0 +1,114 @@
+package metricas;
+
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Acumulado de todas las ejecuciones de una acción de usuario (ej.
+ * {@code pedidos.recibir}).
+ * <p>
+ * Lo alimenta {@link ContextoAccion} al terminar cada ejecución: cuántas
+ * sentencias, conexiones y filas costó, y cuántas veces se pasó de su
+ * presupuesto. Sirve para encontrar las pantallas "conversadoras" sin tener
+ * que leer la bitácora.
+ * </p>
+ *
+ * @version 1.1
+ */
+public class EstadisticaAccion {
+
+	private final String nombre;
+	private final Histograma duracion;
+	private final LongAdder consultas = new LongAdder();
+	private final LongAdder conexiones = new LongAdder();
+	private final LongAdder filas = new LongAdder();
+	private final LongAdder excedidas = new LongAdder();
+	private final LongAccumulator maximoConsultas = new LongAccumulator(Math::max, 0);
+
+	/**
+	 * @param nombre Nombre de la acción.
+	 */
+	EstadisticaAccion(String nombre) {
+		this.nombre = nombre;
+		this.duracion = new Histograma("accion." + nombre);
+	}
+
+	/**
+	 * Registra una ejecución terminada.
+	 */
+	void registrar(long nanos, long consultas, long conexiones, long filas, boolean excedida) {
+		duracion.registrar(nanos);
+		this.consultas.add(consultas);
+		this.conexiones.add(conexiones);
+		this.filas.add(filas);
+		this.maximoConsultas.accumulate(consultas);
+		if (excedida) {
+			excedidas.increment();
+		}
+	}
+
+	public String getNombre() {
+		return nombre;
+	}
+
+	public long getEjecuciones() {
+		return duracion.getConteo();
+	}
+
+	/** @return Sentencias SQL ejecutadas por vez, en promedio. */
+	public double getConsultasPromedio() {
+		return promedio(consultas.sum());
+	}
+
+	/** @return Mayor número de sentencias en una sola ejecución. */
+	public long getMaximoConsultas() {
+		return maximoConsultas.get();
+	}
+
+	/** @return Conexiones pedidas al pool por vez, en promedio. */
+	public double getConexionesPromedio() {
+		return promedio(conexiones.sum());
+	}
+
+	/** @return Filas leídas o afectadas por vez, en promedio. */
+	public double getFilasPromedio() {
+		return promedio(filas.sum());
+	}
+
+	/** @return Ejecuciones que superaron algún presupuesto. */
+	public long getExcedidas() {
+		return excedidas.sum();
+	}
+
+	public double getPromedioMs() {
+		return duracion.getPromedioMs();
+	}
+
+	/**
+	 * @param percentil Valor entre 0 y 100 (ej. 99).
+	 * @return Duración estimada en milisegundos.
+	 */
+	public double getPercentilMs(double percentil) {
+		return duracion.getPercentilMs(percentil);
+	}
+
+	/** @return Histograma de duración (para exportar). */
+	Histograma getDuracion() {
+		return duracion;
+	}
+
+	/** @return Sentencias SQL de todas las ejecuciones. */
+	long getConsultas() {
+		return consultas.sum();
+	}
+
+	/** @return Filas leídas o afectadas en todas las ejecuciones. */
+	long getFilas() {
+		return filas.sum();
+	}
+
+	private double promedio(long total) {
+		long n = getEjecuciones();
+		return (n == 0) ? 0.0 : (double) total / n;
+	}
+}
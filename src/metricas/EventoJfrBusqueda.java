@@ -0,0 +1,40 @@
+package metricas;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Evento de Java Flight Recorder: búsqueda de un producto en la pantalla de
+ * venta (escaneo, ID o nombre).
+ * <p>
+ * Lo emite {@code ControladorVenta.buscarProducto}. No incluye el tiempo que
+ * el cajero tarda en elegir cuando hay varias coincidencias.
+ * </p>
+ *
+ * @version 1.1
+ */
+@Name("pos.BusquedaProducto")
+@Label("Búsqueda de Producto")
+@Category({ "Punto de Venta", "Ventas" })
+@Description("Búsqueda en el catálogo desde la pantalla de venta")
+@StackTrace(false)
+public class EventoJfrBusqueda extends Event {
+
+	@Label("Término")
+	public String termino;
+
+	@Label("Criterio")
+	@Description("id, codigo o nombre: el que encontró resultados (o el último intentado)")
+	public String criterio;
+
+	@Label("Resultados")
+	public int resultados;
+
+	@Label("Producto")
+	@Description("ID del producto cuando hubo una sola coincidencia (0 si no)")
+	public int productoID;
+}
@@ -0,0 +1,47 @@
+package metricas;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Evento de Java Flight Recorder: cierre de un turno de caja.
+ * <p>
+ * Lo emite {@code ControladorCierreCaja} al guardar el cierre ya confirmado;
+ * la duración es la del guardado, sin el tiempo del diálogo de confirmación.
+ * </p>
+ *
+ * @version 1.0
+ */
+@Name("pos.CierreCaja")
+@Label("Cierre de Caja")
+@Category({ "Punto de Venta", "Caja" })
+@Description("Guardado del cierre de un turno de caja")
+@StackTrace(false)
+public class EventoJfrCierreCaja extends Event {
+
+	@Label("Turno")
+	public int corteID;
+
+	@Label("Empleado")
+	public int empleadoID;
+
+	@Label("Ventas")
+	@Description("Ventas registradas en el turno")
+	public int ventas;
+
+	@Label("Esperado")
+	public double esperado;
+
+	@Label("Contado")
+	public double contado;
+
+	@Label("Diferencia")
+	public double diferencia;
+
+	@Label("Exitoso")
+	public boolean exitoso;
+}
@@ -0,0 +1,39 @@
+package metricas;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Evento de Java Flight Recorder: llenado de un reporte de JasperReports.
+ * <p>
+ * Lo emite {@code ControladorReportes} desde que se pide el reporte hasta que
+ * el documento está listo para el visor (o falla o se cancela).
+ * </p>
+ *
+ * @version 1.0
+ */
+@Name("pos.ReporteLlenado")
+@Label("Reporte Llenado")
+@Category({ "Punto de Venta", "Reportes" })
+@Description("Llenado de un reporte de JasperReports")
+@StackTrace(false)
+public class EventoJfrReporte extends Event {
+
+	@Label("Plantilla")
+	public String plantilla;
+
+	@Label("Filas")
+	@Description("Registros leídos de la fuente de datos")
+	public long filas;
+
+	@Label("Páginas")
+	public int paginas;
+
+	@Label("Resultado")
+	@Description("Completado, Cancelado o Error")
+	public String resultado;
+}
@@ -0,0 +1,54 @@
+package metricas;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Evento de Java Flight Recorder: transacción de una venta en la base de datos
+ * (cabecera, detalles, stock y resúmenes), con todos sus reintentos.
+ * <p>
+ * Lo emite {@code VentaDAO.registrar}, que usan tanto {@code agregar} como el
+ * envío del diario local. Cruzado con los eventos de JDBC y de bloqueo de la
+ * grabación, muestra qué ventas chocaron con otra caja y cuánto esperaron.
+ * </p>
+ *
+ * @version 1.0
+ */
+@Name("pos.TransaccionVenta")
+@Label("Transacción de Venta")
+@Category({ "Punto de Venta", "Ventas" })
+@Description("Registro transaccional de una venta en la base de datos")
+@StackTrace(false)
+public class EventoJfrTransaccionVenta extends Event {
+
+	@Label("Folio")
+	public int ventaID;
+
+	@Label("Turno")
+	public int corteID;
+
+	@Label("Renglones")
+	public int lineas;
+
+	@Label("Unidades")
+	public int unidades;
+
+	@Label("Productos")
+	@Description("IDs de producto del ticket, separados por coma")
+	public String productos;
+
+	@Label("Intentos")
+	@Description("1 si no hubo conflicto con otra caja")
+	public int intentos;
+
+	@Label("Desde Diario")
+	@Description("La venta venía del diario local (con clave de idempotencia)")
+	public boolean diario;
+
+	@Label("Exitosa")
+	public boolean exitosa;
+}
@@ -0,0 +1,93 @@
+package metricas;
+
+import java.util.List;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import modelo.VentaDetalle;
+
+/**
+ * Evento de Java Flight Recorder: cobro de una venta desde que el cajero
+ * presiona "Finalizar" hasta que la caja vuelve a estar disponible.
+ * <p>
+ * Lo emite {@code ControladorVenta.finalizarVenta}. Incluye la espera del
+ * folio (o del diario local), así que es el tiempo que el cliente pasa frente
+ * a la caja. La transacción en sí se mide aparte con
+ * {@link EventoJfrTransaccionVenta}.
+ * </p>
+ *
+ * @version 1.0
+ */
+@Name("pos.VentaFinalizada")
+@Label("Venta Finalizada")
+@Category({ "Punto de Venta", "Ventas" })
+@Description("Cobro de una venta en la caja, del clic en Finalizar al folio")
+@StackTrace(false)
+public class EventoJfrVenta extends Event {
+
+	/** IDs de producto que se escriben como máximo en {@link #productos}. */
+	private static final int MAX_PRODUCTOS = 50;
+
+	@Label("Folio")
+	@Description("VentaID asignado (0 si quedó pendiente en el diario)")
+	public int ventaID;
+
+	@Label("Turno")
+	public int corteID;
+
+	@Label("Renglones")
+	public int lineas;
+
+	@Label("Unidades")
+	public int unidades;
+
+	@Label("Productos")
+	@Description("IDs de producto del ticket, separados por coma")
+	public String productos;
+
+	@Label("Total")
+	public double total;
+
+	@Label("Método de Pago")
+	public String metodoPago;
+
+	@Label("Por Diario")
+	@Description("La venta pasó por el diario local de la caja")
+	public boolean diario;
+
+	@Label("Exitosa")
+	public boolean exitosa;
+
+	/**
+	 * Lista compacta de los productos de un ticket para los eventos de venta.
+	 *
+	 * @param detalles Renglones del ticket.
+	 * @return IDs separados por coma (los primeros {@value #MAX_PRODUCTOS}).
+	 */
+	public static String productos(List<VentaDetalle> detalles) {
+		StringBuilder texto = new StringBuilder();
+		for (int i = 0; i < detalles.size(); i++) {
+			if (i == MAX_PRODUCTOS) {
+				return texto.append(",...").toString();
+			}
+			texto.append((i == 0) ? "" : ",").append(detalles.get(i).getProductoId());
+		}
+		return texto.toString();
+	}
+
+	/**
+	 * @param detalles Renglones del ticket.
+	 * @return Suma de las cantidades vendidas.
+	 */
+	public static int unidades(List<VentaDetalle> detalles) {
+		int total = 0;
+		for (VentaDetalle detalle : detalles) {
+			total += detalle.getCantidad();
+		}
+		return total;
+	}
+}
@@ -0,0 +1,127 @@
+package metricas;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.text.ParseException;
+import java.text.SimpleDateFormat;
+import java.time.Duration;
+import java.util.Date;
+import java.util.List;
+
+import conexion.Configuracion;
+import jdk.jfr.Configuration;
+import jdk.jfr.Event;
+import jdk.jfr.FlightRecorder;
+import jdk.jfr.Recording;
+
+/**
+ * Grabación continua de Java Flight Recorder (JFR) de esta caja.
+ * <p>
+ * Al arrancar ({@link #iniciar()}) abre una grabación que corre todo el día
+ * con la configuración {@code pos.jfr.configuracion} de la JVM (por defecto
+ * {@code default}, con un costo de alrededor del 1%) y los eventos propios del
+ * punto de venta: {@link EventoJfrVenta}, {@link EventoJfrTransaccionVenta},
+ * {@link EventoJfrBusqueda}, {@link EventoJfrReporte} y
+ * {@link EventoJfrCierreCaja}. Sólo conserva los últimos
+ * {@code pos.jfr.maxMinutos} minutos y hasta {@code pos.jfr.maxMB} MB en el
+ * repositorio temporal de JFR.
+ * </p>
+ * <p>
+ * Cuando un cajero reporta lentitud, {@link #volcar()} copia lo grabado a un
+ * archivo {@code .jfr} en {@code pos.jfr.carpeta}, que se abre con JDK Mission
+ * Control o {@code jfr print}. Con {@code pos.jfr.volcarAlSalir=true} también
+ * se vuelca al cerrar la aplicación.
+ * </p>
+ * <p>
+ * Se desactiva con {@code pos.jfr.habilitado=false}; los eventos siguen
+ * disponibles para una grabación iniciada desde fuera (ej.
+ * {@code jcmd <pid> JFR.start}).
+ * </p>
+ *
+ * @version 1.0
+ */
+public final class GrabadorJfr {
+
+	/** Eventos propios del punto de venta. */
+	private static final List<Class<? extends Event>> EVENTOS = List.of(EventoJfrVenta.class,
+			EventoJfrTransaccionVenta.class, EventoJfrBusqueda.class, EventoJfrReporte.class,
+			EventoJfrCierreCaja.class);
+
+	private static final String CARPETA = Configuracion.getTexto("pos.jfr.carpeta", "jfr");
+
+	private static Recording grabacion;
+
+	private GrabadorJfr() {
+	}
+
+	/**
+	 * Arranca la grabación continua (una sola vez por proceso).
+	 */
+	public static synchronized void iniciar() {
+		if (grabacion != null || !Configuracion.getBooleano("pos.jfr.habilitado", true)) {
+			return;
+		}
+		if (!FlightRecorder.isAvailable()) {
+			System.err.println("⚠ Java Flight Recorder no está disponible en esta JVM; no se graba.");
+			return;
+		}
+		String nombreConfiguracion = Configuracion.getTexto("pos.jfr.configuracion", "default");
+		try {
+			Recording r = new Recording(Configuration.getConfiguration(nombreConfiguracion));
+			r.setName("pos-continua");
+			r.setToDisk(true);
+			r.setMaxAge(Duration.ofMinutes(Configuracion.getEntero("pos.jfr.maxMinutos", 30)));
+			r.setMaxSize(Configuracion.getEntero("pos.jfr.maxMB", 100) * 1024L * 1024L);
+			for (Class<? extends Event> evento : EVENTOS) {
+				r.enable(evento).withThreshold(Duration.ZERO);
+			}
+			if (Configuracion.getBooleano("pos.jfr.volcarAlSalir", false)) {
+				Files.createDirectories(Paths.get(CARPETA));
+				r.setDestination(nuevoArchivo());
+				r.setDumpOnExit(true);
+			}
+			r.start();
+			grabacion = r;
+		} catch (IOException | ParseException | RuntimeException e) {
+			System.err.println("❌ No se pudo iniciar la grabación JFR '" + nombreConfiguracion + "': " + e.getMessage());
+		}
+	}
+
+	/**
+	 * @return {@code true} si la grabación continua está corriendo.
+	 */
+	public static synchronized boolean isActiva() {
+		return grabacion != null;
+	}
+
+	/**
+	 * Copia lo grabado hasta ahora a un archivo nuevo, sin detener la grabación.
+	 * <p>
+	 * Escribe en disco: llamarlo fuera del EDT.
+	 * </p>
+	 *
+	 * @return Archivo {@code .jfr} escrito.
+	 * @throws IOException           Si no se pudo escribir.
+	 * @throws IllegalStateException Si la grabación no está activa.
+	 */
+	public static synchronized Path volcar() throws IOException {
+		if (grabacion == null) {
+			throw new IllegalStateException("La grabación JFR no está activa (pos.jfr.habilitado).");
+		}
+		Files.createDirectories(Paths.get(CARPETA));
+		Path destino = nuevoArchivo();
+		grabacion.dump(destino);
+		return destino;
+	}
+
+	/**
+	 * @return Ruta del tipo {@code jfr/pos-<caja>-20240131-183000.jfr}.
+	 */
+	private static Path nuevoArchivo() {
+		String sello = new SimpleDateFormat("yyyyMMdd-HHmmss").format(new Date());
+		String caja = Metricas.getTerminal().replaceAll("[^A-Za-z0-9_.-]", "_");
+		return Paths.get(CARPETA, "pos-" + caja + "-" + sello + ".jfr").toAbsolutePath();
+	}
+}
@@ -0,0 +1,159 @@
+package metricas;
+
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Histograma de latencias con cubetas fijas, seguro entre hilos y sin bloqueos.
+ * <p>
+ * Cada observación incrementa un {@link LongAdder} de la cubeta
+ * correspondiente, por lo que registrar una medición desde la ruta de venta
+ * cuesta unos pocos nanosegundos y no introduce contención entre cajas.
+ * </p>
+ * <p>
+ * Las cubetas están en microsegundos y crecen de forma aproximadamente
+ * logarítmica (100&nbsp;µs a 10&nbsp;s). Los percentiles se estiman con el
+ * límite superior de la cubeta donde caen, suficiente para comparar antes y
+ * después de una optimización.
+ * </p>
+ *
+ * @version 1.0
+ */
+public class Histograma {
+
+	/** Límites superiores de cada cubeta, en microsegundos. */
+	private static final long[] LIMITES_US = { 100, 250, 500, 1_000, 2_500, 5_000, 10_000, 25_000, 50_000, 100_000,
+			250_000, 500_000, 1_000_000, 2_500_000, 5_000_000, 10_000_000 };
+
+	private final String nombre;
+
+	/** Una cubeta por límite más una de desbordamiento. */
+	private final LongAdder[] cubetas = new LongAdder[LIMITES_US.length + 1];
+	private final LongAdder conteo = new LongAdder();
+	private final LongAdder sumaNanos = new LongAdder();
+	private final LongAccumulator maximoNanos = new LongAccumulator(Math::max, 0);
+
+	/**
+	 * Crea un histograma vacío.
+	 *
+	 * @param nombre Identificador de la métrica (ej. {@code venta.commit}).
+	 */
+	public Histograma(String nombre) {
+		this.nombre = nombre;
+		for (int i = 0; i < cubetas.length; i++) {
+			cubetas[i] = new LongAdder();
+		}
+	}
+
+	/**
+	 * Registra una observación.
+	 *
+	 * @param nanos Duración medida con {@link System#nanoTime()}.
+	 */
+	public void registrar(long nanos) {
+		long micros = nanos / 1_000;
+		int i = 0;
+		while (i < LIMITES_US.length && micros > LIMITES_US[i]) {
+			i++;
+		}
+		cubetas[i].increment();
+		conteo.increment();
+		sumaNanos.add(nanos);
+		maximoNanos.accumulate(nanos);
+	}
+
+	/**
+	 * Registra el tiempo transcurrido desde un instante inicial.
+	 *
+	 * @param inicioNanos Valor previo de {@link System#nanoTime()}.
+	 */
+	public void registrarDesde(long inicioNanos) {
+		registrar(System.nanoTime() - inicioNanos);
+	}
+
+	public String getNombre() {
+		return nombre;
+	}
+
+	public long getConteo() {
+		return conteo.sum();
+	}
+
+	/**
+	 * @return Promedio en milisegundos (0 si no hay observaciones).
+	 */
+	public double getPromedioMs() {
+		long n = conteo.sum();
+		return (n == 0) ? 0.0 : sumaNanos.sum() / (n * 1_000_000.0);
+	}
+
+	/**
+	 * @return Máximo observado en milisegundos.
+	 */
+	public double getMaximoMs() {
+		return maximoNanos.get() / 1_000_000.0;
+	}
+
+	/**
+	 * @return Suma de todas las observaciones en segundos.
+	 */
+	public double getSumaSegundos() {
+		return sumaNanos.sum() / 1_000_000_000.0;
+	}
+
+	/**
+	 * Estima un percentil con el límite superior de la cubeta correspondiente.
+	 *
+	 * @param percentil Valor entre 0 y 100 (ej. 99).
+	 * @return Latencia estimada en milisegundos (0 si no hay observaciones).
+	 */
+	public double getPercentilMs(double percentil) {
+		long[] conteos = getConteosPorCubeta();
+		long total = 0;
+		for (long c : conteos) {
+			total += c;
+		}
+		if (total == 0) {
+			return 0.0;
+		}
+		long objetivo = (long) Math.ceil(total * percentil / 100.0);
+		long acumulado = 0;
+		for (int i = 0; i < conteos.length; i++) {
+			acumulado += conteos[i];
+			if (acumulado >= objetivo) {
+				// El límite de la cubeta nunca puede superar al máximo observado
+				return (i < LIMITES_US.length) ? Math.min(LIMITES_US[i] / 1_000.0, getMaximoMs()) : getMaximoMs();
+			}
+		}
+		return getMaximoMs();
+	}
+
+	/**
+	 * @return Copia de los conteos por cubeta (la última es el desbordamiento).
+	 */
+	public long[] getConteosPorCubeta() {
+		long[] conteos = new long[cubetas.length];
+		for (int i = 0; i < cubetas.length; i++) {
+			conteos[i] = cubetas[i].sum();
+		}
+		return conteos;
+	}
+
+	/**
+	 * @return Límites superiores de las cubetas en segundos (para exportar).
+	 */
+	public static double[] getLimitesSegundos() {
+		double[] limites = new double[LIMITES_US.length];
+		for (int i = 0; i < LIMITES_US.length; i++) {
+			limites[i] = LIMITES_US[i] / 1_000_000.0;
+		}
+		return limites;
+	}
+
+	@Override
+	public String toString() {
+		return String.format("%s[n=%d, prom=%.2f ms, p50=%.2f ms, p95=%.2f ms, p99=%.2f ms, max=%.2f ms]", nombre,
+				getConteo(), getPromedioMs(), getPercentilMs(50), getPercentilMs(95), getPercentilMs(99),
+				getMaximoMs());
+	}
+}
@@ -0,0 +1,165 @@
+package metricas;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.DoubleSupplier;
+import java.util.function.LongSupplier;
+
+import conexion.Configuracion;
+
+/**
+ * Registro global de métricas de rendimiento del punto de venta.
+ * <p>
+ * Los DAOs y controladores obtienen aquí su {@link Histograma} por nombre; la
+ * primera llamada lo crea. Los nombres siguen el formato
+ * {@code area.operacion[.detalle]} (ej. {@code venta.commit.lineas_21_50}).
+ * </p>
+ * <p>
+ * Además de histogramas de latencia, lleva contadores de eventos (reintentos,
+ * transacciones abortadas, ...). Todas las métricas son de esta caja; se
+ * identifican con {@link #getTerminal()} para poder compararlas entre cajas.
+ * </p>
+ * <p>
+ * Los componentes que ya llevan su propio estado (pool de conexiones, catálogo,
+ * diario) no lo duplican aquí: registran cómo leerlo, como indicador (valor
+ * del momento) o como acumulado (total que sólo crece), y se evalúa al
+ * consultarlo.
+ * </p>
+ *
+ * @version 1.2
+ */
+public class Metricas {
+
+	private static final Map<String, Histograma> HISTOGRAMAS = new ConcurrentHashMap<>();
+
+	private static final Map<String, LongAdder> CONTADORES = new ConcurrentHashMap<>();
+
+	private static final Map<String, DoubleSupplier> INDICADORES = new ConcurrentHashMap<>();
+
+	private static final Map<String, LongSupplier> ACUMULADOS = new ConcurrentHashMap<>();
+
+	/** Identificador de esta caja ({@code pos.terminal.id}). */
+	private static final String TERMINAL = Configuracion.getTexto("pos.terminal.id", "caja-1");
+
+	/**
+	 * Constructor privado: clase de acceso estático.
+	 */
+	private Metricas() {
+	}
+
+	/**
+	 * Obtiene (o crea) el histograma con el nombre indicado.
+	 *
+	 * @param nombre Identificador de la métrica.
+	 * @return Histograma compartido para ese nombre.
+	 */
+	public static Histograma histograma(String nombre) {
+		return HISTOGRAMAS.computeIfAbsent(nombre, Histograma::new);
+	}
+
+	/**
+	 * Devuelve todos los histogramas registrados, ordenados por nombre.
+	 *
+	 * @return Vista ordenada de solo lectura (copia).
+	 */
+	public static Map<String, Histograma> getHistogramas() {
+		return new TreeMap<>(HISTOGRAMAS);
+	}
+
+	/**
+	 * Obtiene (o crea) el contador con el nombre indicado.
+	 *
+	 * @param nombre Identificador de la métrica.
+	 * @return Contador compartido para ese nombre.
+	 */
+	public static LongAdder contador(String nombre) {
+		return CONTADORES.computeIfAbsent(nombre, k -> new LongAdder());
+	}
+
+	/**
+	 * Devuelve el valor actual de todos los contadores, ordenados por nombre.
+	 *
+	 * @return Copia nombre → valor.
+	 */
+	public static Map<String, Long> getContadores() {
+		Map<String, Long> valores = new TreeMap<>();
+		CONTADORES.forEach((nombre, contador) -> valores.put(nombre, contador.sum()));
+		ACUMULADOS.forEach((nombre, lectura) -> valores.put(nombre, lectura.getAsLong()));
+		return valores;
+	}
+
+	/**
+	 * Registra (o reemplaza) un indicador: un valor del momento que lleva otro
+	 * componente (ej. conexiones prestadas).
+	 *
+	 * @param nombre Identificador de la métrica.
+	 * @param valor  Lectura del valor; {@link Double#NaN} si aún no hay dato.
+	 */
+	public static void indicador(String nombre, DoubleSupplier valor) {
+		INDICADORES.put(nombre, valor);
+	}
+
+	/**
+	 * Lee todos los indicadores registrados, ordenados por nombre.
+	 * <p>
+	 * Se omiten los que no tienen dato o fallan al leerse.
+	 * </p>
+	 *
+	 * @return Copia nombre → valor.
+	 */
+	public static Map<String, Double> getIndicadores() {
+		Map<String, Double> valores = new TreeMap<>();
+		INDICADORES.forEach((nombre, lectura) -> {
+			try {
+				double valor = lectura.getAsDouble();
+				if (!Double.isNaN(valor)) {
+					valores.put(nombre, valor);
+				}
+			} catch (RuntimeException e) {
+				System.err.println("❌ Error al leer el indicador " + nombre + ": " + e.getMessage());
+			}
+		});
+		return valores;
+	}
+
+	/**
+	 * Registra (o reemplaza) un acumulado: un total que sólo crece y que lleva
+	 * otro componente (ej. préstamos del pool). Se consulta junto con los
+	 * contadores ({@link #getContadores()}).
+	 *
+	 * @param nombre Identificador de la métrica.
+	 * @param valor  Lectura del total.
+	 */
+	public static void acumulado(String nombre, LongSupplier valor) {
+		ACUMULADOS.put(nombre, valor);
+	}
+
+	/**
+	 * @return Identificador de la caja a la que pertenecen estas métricas.
+	 */
+	public static String getTerminal() {
+		return TERMINAL;
+	}
+
+	/**
+	 * Genera un resumen legible de todas las métricas (una por línea).
+	 *
+	 * @return Texto con el resumen.
+	 */
+	public static String resumen() {
+		StringBuilder sb = new StringBuilder();
+		sb.append("Terminal: ").append(TERMINAL).append(System.lineSeparator());
+		for (Histograma h : getHistogramas().values()) {
+			sb.append(h).append(System.lineSeparator());
+		}
+		for (Map.Entry<String, Long> e : getContadores().entrySet()) {
+			sb.append(e.getKey()).append(" = ").append(e.getValue()).append(System.lineSeparator());
+		}
+		for (Map.Entry<String, Double> e : getIndicadores().entrySet()) {
+			sb.append(e.getKey()).append(" = ").append(e.getValue()).append(System.lineSeparator());
+		}
+		return sb.toString();
+	}
+}
@@ -0,0 +1,285 @@
+package metricas;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Executors;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import conexion.Configuracion;
+
+/**
+ * Endpoint HTTP opcional que publica las métricas de esta caja en el formato
+ * de texto de Prometheus, para recolectarlas de todas las cajas en un solo
+ * lugar.
+ * <p>
+ * Se activa con {@code pos.metricas.puerto} (0 = apagado) y responde en
+ * {@code http://<caja>:<puerto>/metrics}. Usa el servidor HTTP del JDK con un
+ * hilo virtual por petición; leer las métricas no toca el EDT ni bloquea a
+ * quien las registra.
+ * </p>
+ * <p>
+ * <b>Qué publica</b> (todas las series llevan la etiqueta {@code terminal}):
+ * <ul>
+ * <li>Contadores y acumulados de {@link Metricas}: {@code pos_<nombre>_total}
+ * (counter).</li>
+ * <li>Indicadores de {@link Metricas}: {@code pos_<nombre>} (gauge).</li>
+ * <li>Histogramas de {@link Metricas}: {@code pos_<nombre>_seconds}
+ * (histogram), con las cubetas de {@link Histograma}.</li>
+ * <li>Acciones medidas por {@link ContextoAccion}: duración, sentencias,
+ * filas y ejecuciones fuera de presupuesto, con la etiqueta
+ * {@code accion}.</li>
+ * </ul>
+ * Los nombres pasan a minúsculas separadas por guion bajo
+ * ({@code catalogo.tasaAciertos} → {@code pos_catalogo_tasa_aciertos}). Las
+ * métricas que terminan en un detalle variable se agrupan en una sola familia
+ * con etiqueta: {@code venta.commit.lineas_2_5} →
+ * {@code pos_venta_commit_seconds{lineas="2_5"}},
+ * {@code edt.respuesta.PanelVenta} →
+ * {@code pos_edt_respuesta_seconds{pantalla="PanelVenta"}}.
+ * </p>
+ *
+ * @version 1.0
+ */
+public final class ServidorMetricas {
+
+	private static final String TIPO_CONTENIDO = "text/plain; version=0.0.4; charset=utf-8";
+
+	/** Histogramas con detalle variable: {prefijo, familia, etiqueta}. */
+	private static final String[][] DETALLE_HISTOGRAMAS = { { "venta.commit.", "venta.commit", "lineas" },
+			{ "venta.busqueda.", "venta.busqueda", "criterio" }, { "edt.respuesta.", "edt.respuesta", "pantalla" } };
+
+	/** Contadores con detalle variable: {prefijo, familia, etiqueta}. */
+	private static final String[][] DETALLE_CONTADORES = {
+			{ "venta.commit.reintentos.", "venta.commit.reintentos", "motivo" },
+			{ "edt.bloqueos.", "edt.bloqueos.pantalla", "pantalla" } };
+
+	private static HttpServer servidor;
+
+	private ServidorMetricas() {
+	}
+
+	/**
+	 * Abre el endpoint si la configuración lo pide (una sola vez por proceso).
+	 * <p>
+	 * <b>Claves:</b> {@code pos.metricas.puerto} y
+	 * {@code pos.metricas.direccion} (interfaz de red; por defecto todas).
+	 * </p>
+	 */
+	public static synchronized void iniciar() {
+		int puerto = Configuracion.getEntero("pos.metricas.puerto", 0);
+		if (servidor != null || puerto <= 0) {
+			return;
+		}
+		String direccion = Configuracion.getTexto("pos.metricas.direccion", "0.0.0.0");
+		try {
+			HttpServer nuevo = HttpServer.create(new InetSocketAddress(direccion, puerto), 0);
+			nuevo.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+			nuevo.createContext("/metrics", ServidorMetricas::atender);
+			nuevo.start();
+			servidor = nuevo;
+			System.out.println("Métricas publicadas en http://" + direccion + ":" + puerto + "/metrics");
+		} catch (IOException | RuntimeException e) {
+			System.err.println("❌ No se pudo abrir el endpoint de métricas en " + direccion + ":" + puerto + ": "
+					+ e.getMessage());
+		}
+	}
+
+	/**
+	 * Cierra el endpoint (si estaba abierto).
+	 */
+	public static synchronized void detener() {
+		if (servidor != null) {
+			servidor.stop(0);
+			servidor = null;
+		}
+	}
+
+	private static void atender(HttpExchange intercambio) throws IOException {
+		try (intercambio) {
+			String metodo = intercambio.getRequestMethod();
+			if (!"GET".equals(metodo) && !"HEAD".equals(metodo)) {
+				intercambio.getResponseHeaders().set("Allow", "GET, HEAD");
+				intercambio.sendResponseHeaders(405, -1);
+				return;
+			}
+			byte[] cuerpo;
+			try {
+				cuerpo = generar().getBytes(StandardCharsets.UTF_8);
+			} catch (RuntimeException e) {
+				System.err.println("❌ Error al generar las métricas: " + e);
+				intercambio.sendResponseHeaders(500, -1);
+				return;
+			}
+			intercambio.getResponseHeaders().set("Content-Type", TIPO_CONTENIDO);
+			if ("HEAD".equals(metodo)) {
+				intercambio.sendResponseHeaders(200, -1);
+				return;
+			}
+			intercambio.sendResponseHeaders(200, cuerpo.length);
+			try (OutputStream salida = intercambio.getResponseBody()) {
+				salida.write(cuerpo);
+			}
+		}
+	}
+
+	// ==========================================
+	// FORMATO DE PROMETHEUS
+	// ==========================================
+
+	/**
+	 * Familia de series: un bloque {@code # HELP} / {@code # TYPE} y sus
+	 * muestras.
+	 */
+	private static final class Familia {
+		final String tipo;
+		final String ayuda;
+		final StringBuilder muestras = new StringBuilder();
+
+		Familia(String tipo, String ayuda) {
+			this.tipo = tipo;
+			this.ayuda = ayuda;
+		}
+	}
+
+	/**
+	 * Genera el texto que devuelve {@code /metrics}.
+	 *
+	 * @return Todas las métricas de la caja en el formato de texto de
+	 *         Prometheus (versión 0.0.4).
+	 */
+	public static String generar() {
+		Map<String, Familia> familias = new LinkedHashMap<>();
+		String terminal = "terminal=\"" + escapar(Metricas.getTerminal()) + "\"";
+
+		for (Map.Entry<String, Long> e : Metricas.getContadores().entrySet()) {
+			String[] partes = separar(DETALLE_CONTADORES, e.getKey());
+			String nombre = nombrePrometheus(partes[0]) + "_total";
+			muestra(familia(familias, nombre, "counter", partes[2]), nombre, terminal + partes[1],
+					String.valueOf(e.getValue()));
+		}
+
+		for (Map.Entry<String, Double> e : Metricas.getIndicadores().entrySet()) {
+			String nombre = nombrePrometheus(e.getKey());
+			muestra(familia(familias, nombre, "gauge", e.getKey()), nombre, terminal, numero(e.getValue()));
+		}
+
+		for (Map.Entry<String, Histograma> e : Metricas.getHistogramas().entrySet()) {
+			String[] partes = separar(DETALLE_HISTOGRAMAS, e.getKey());
+			String nombre = nombrePrometheus(partes[0]) + "_seconds";
+			histograma(familia(familias, nombre, "histogram", partes[2] + " (segundos)"), nombre,
+					terminal + partes[1], e.getValue());
+		}
+
+		for (EstadisticaAccion a : ContextoAccion.getEstadisticas()) {
+			String etiquetas = terminal + ",accion=\"" + escapar(a.getNombre()) + "\"";
+			histograma(familia(familias, "pos_accion_seconds", "histogram", "Duración de cada acción del usuario"),
+					"pos_accion_seconds", etiquetas, a.getDuracion());
+			muestra(familia(familias, "pos_accion_consultas_total", "counter", "Sentencias SQL ejecutadas por acción"),
+					"pos_accion_consultas_total", etiquetas, String.valueOf(a.getConsultas()));
+			muestra(familia(familias, "pos_accion_filas_total", "counter", "Filas leídas o afectadas por acción"),
+					"pos_accion_filas_total", etiquetas, String.valueOf(a.getFilas()));
+			muestra(familia(familias, "pos_accion_fuera_presupuesto_total", "counter",
+					"Ejecuciones que superaron su presupuesto de consultas"), "pos_accion_fuera_presupuesto_total",
+					etiquetas, String.valueOf(a.getExcedidas()));
+		}
+
+		StringBuilder texto = new StringBuilder();
+		familias.forEach((nombre, f) -> {
+			texto.append("# HELP ").append(nombre).append(' ')
+					.append(f.ayuda.replace("\\", "\\\\").replace("\n", "\\n")).append('\n');
+			texto.append("# TYPE ").append(nombre).append(' ').append(f.tipo).append('\n');
+			texto.append(f.muestras);
+		});
+		return texto.toString();
+	}
+
+	private static Familia familia(Map<String, Familia> familias, String nombre, String tipo, String ayuda) {
+		return familias.computeIfAbsent(nombre, k -> new Familia(tipo, ayuda));
+	}
+
+	private static void muestra(Familia familia, String serie, String etiquetas, String valor) {
+		familia.muestras.append(serie).append('{').append(etiquetas).append("} ").append(valor).append('\n');
+	}
+
+	/**
+	 * Escribe un histograma con cubetas acumuladas, suma y conteo.
+	 */
+	private static void histograma(Familia familia, String nombre, String etiquetas, Histograma h) {
+		long[] conteos = h.getConteosPorCubeta();
+		double[] limites = Histograma.getLimitesSegundos();
+		long acumulado = 0;
+		for (int i = 0; i < limites.length; i++) {
+			acumulado += conteos[i];
+			muestra(familia, nombre + "_bucket",
+					etiquetas + ",le=\"" + BigDecimal.valueOf(limites[i]).stripTrailingZeros().toPlainString() + "\"",
+					String.valueOf(acumulado));
+		}
+		acumulado += conteos[limites.length];
+		muestra(familia, nombre + "_bucket", etiquetas + ",le=\"+Inf\"", String.valueOf(acumulado));
+		muestra(familia, nombre + "_sum", etiquetas, numero(h.getSumaSegundos()));
+		muestra(familia, nombre + "_count", etiquetas, String.valueOf(acumulado));
+	}
+
+	/**
+	 * Separa el detalle variable del nombre de una métrica.
+	 *
+	 * @return {familia, etiqueta ya formateada (o vacía), texto de ayuda}.
+	 */
+	private static String[] separar(String[][] reglas, String nombre) {
+		for (String[] regla : reglas) {
+			if (nombre.startsWith(regla[0]) && nombre.length() > regla[0].length()) {
+				String valor = nombre.substring(regla[0].length());
+				if (valor.startsWith(regla[2] + "_")) { // lineas_2_5 → 2_5
+					valor = valor.substring(regla[2].length() + 1);
+				}
+				return new String[] { regla[1], "," + regla[2] + "=\"" + escapar(valor) + "\"",
+						regla[0] + "<" + regla[2] + ">" };
+			}
+		}
+		return new String[] { nombre, "", nombre };
+	}
+
+	/**
+	 * @return {@code pos_} más el nombre en minúsculas con guiones bajos (ej.
+	 *         {@code bd.pool.esperasAgotadas} → {@code pos_bd_pool_esperas_agotadas}).
+	 */
+	private static String nombrePrometheus(String nombre) {
+		StringBuilder sb = new StringBuilder("pos_");
+		char anterior = '_';
+		for (char c : nombre.toCharArray()) {
+			if (c >= 'A' && c <= 'Z') {
+				if ((anterior >= 'a' && anterior <= 'z') || (anterior >= '0' && anterior <= '9')) {
+					sb.append('_');
+				}
+				sb.append(Character.toLowerCase(c));
+			} else if ((c >= 'a' && c <= 'z') || (c >= '0' && c <= '9')) {
+				sb.append(c);
+			} else if (sb.charAt(sb.length() - 1) != '_') {
+				sb.append('_');
+			}
+			anterior = c;
+		}
+		return sb.toString();
+	}
+
+	private static String escapar(String valor) {
+		return valor.replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n");
+	}
+
+	private static String numero(double valor) {
+		if (Double.isNaN(valor)) {
+			return "NaN";
+		}
+		if (Double.isInfinite(valor)) {
+			return (valor > 0) ? "+Inf" : "-Inf";
+		}
+		return Double.toString(valor);
+	}
+}
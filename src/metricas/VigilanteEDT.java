@@ -0,0 +1,212 @@
+package metricas;
+
+import java.awt.EventQueue;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import conexion.Configuracion;
+
+/**
+ * Vigilante del hilo de eventos de Swing (EDT): detecta cuándo la interfaz se
+ * congela y qué la estaba bloqueando.
+ * <p>
+ * <b>Muestreo:</b> cada {@code pos.edt.muestreoMs} un hilo propio encola en el
+ * EDT una tarea vacía y mide cuánto tarda en ejecutarse. Ese tiempo es la
+ * respuesta de la interfaz y se registra por pantalla en el histograma
+ * {@code edt.respuesta.<pantalla>} (ej. {@code edt.respuesta.PanelVenta}).
+ * Como los diálogos modales siguen procesando eventos, esperar a que el
+ * usuario conteste un {@code JOptionPane} no cuenta como bloqueo.
+ * </p>
+ * <p>
+ * <b>Bloqueos:</b> si la tarea lleva más de {@code pos.edt.umbralMs} sin
+ * ejecutarse, el vigilante toma la pila del EDT <u>en ese momento</u> (mientras
+ * sigue bloqueado). Cuando el EDT por fin responde, el bloqueo se reporta en
+ * consola con la pantalla, el método de controlador y el de DAO o
+ * JasperReports que aparecen en la pila, se cuenta en {@code edt.bloqueos} y se
+ * guarda entre los últimos {@value #MAX_BLOQUEOS} ({@link #getBloqueos()}).
+ * </p>
+ * <p>
+ * Se desactiva con {@code pos.edt.vigilar=false}.
+ * </p>
+ *
+ * @version 1.0
+ */
+public final class VigilanteEDT {
+
+	/** Bloqueos recientes que se conservan para la pantalla de diagnóstico. */
+	public static final int MAX_BLOQUEOS = 50;
+
+	/** Marcos de la pila que se imprimen en consola. */
+	private static final int MARCOS_EN_CONSOLA = 15;
+
+	private static final long MUESTREO_MS = Math.max(10, Configuracion.getEntero("pos.edt.muestreoMs", 100));
+	private static final long UMBRAL_NANOS = Configuracion.getEntero("pos.edt.umbralMs", 500) * 1_000_000L;
+
+	private static ScheduledExecutorService vigilante;
+
+	/** Pantalla que el usuario tiene abierta. */
+	private static volatile String pantalla = "VistaLogin";
+
+	/** Momento en que se encoló la tarea de muestreo pendiente (0 = ninguna). */
+	private static volatile long pendienteDesde;
+
+	/** Hilo EDT visto en la última respuesta (Swing puede reemplazarlo). */
+	private static volatile Thread hiloEDT;
+
+	/** Pila tomada durante el bloqueo en curso, o {@code null}. */
+	private static volatile StackTraceElement[] pilaBloqueo;
+
+	private static final Deque<BloqueoEDT> BLOQUEOS = new ArrayDeque<>();
+
+	private VigilanteEDT() {
+	}
+
+	/**
+	 * Arranca el vigilante (una sola vez por proceso).
+	 */
+	public static synchronized void iniciar() {
+		if (vigilante != null || !Configuracion.getBooleano("pos.edt.vigilar", true)) {
+			return;
+		}
+		vigilante = Executors.newSingleThreadScheduledExecutor(r -> {
+			Thread t = new Thread(r, "vigilante-edt");
+			t.setDaemon(true);
+			return t;
+		});
+		vigilante.scheduleWithFixedDelay(VigilanteEDT::muestrear, MUESTREO_MS, MUESTREO_MS, TimeUnit.MILLISECONDS);
+	}
+
+	/**
+	 * Indica la pantalla visible, para atribuirle la respuesta del EDT.
+	 *
+	 * @param nombre Nombre de la pantalla (normalmente la clase del panel).
+	 */
+	public static void setPantalla(String nombre) {
+		pantalla = nombre;
+	}
+
+	public static String getPantalla() {
+		return pantalla;
+	}
+
+	// ==========================================
+	// MUESTREO
+	// ==========================================
+
+	/**
+	 * Ejecutado por el hilo vigilante: encola una muestra o, si la anterior
+	 * sigue sin atenderse más allá del umbral, toma la pila del EDT.
+	 */
+	private static void muestrear() {
+		long desde = pendienteDesde;
+		if (desde == 0) {
+			pendienteDesde = System.nanoTime();
+			EventQueue.invokeLater(VigilanteEDT::responder);
+			return;
+		}
+		Thread edt = hiloEDT;
+		if (pilaBloqueo == null && edt != null && System.nanoTime() - desde > UMBRAL_NANOS) {
+			StackTraceElement[] pila = edt.getStackTrace();
+			if (pendienteDesde == desde) { // Sigue bloqueado: la pila es del bloqueo
+				pilaBloqueo = pila;
+			}
+		}
+	}
+
+	/**
+	 * Ejecutado en el EDT: registra cuánto tardó en atender la muestra.
+	 */
+	private static void responder() {
+		long nanos = System.nanoTime() - pendienteDesde;
+		hiloEDT = Thread.currentThread();
+		String actual = pantalla;
+		Metricas.histograma("edt.respuesta." + actual).registrar(nanos);
+
+		StackTraceElement[] pila = pilaBloqueo;
+		if (pila != null) {
+			registrarBloqueo(actual, nanos, pila);
+			pilaBloqueo = null;
+		}
+		pendienteDesde = 0;
+	}
+
+	private static void registrarBloqueo(String pantalla, long nanos, StackTraceElement[] pila) {
+		String controlador = "-";
+		for (StackTraceElement m : pila) {
+			if (m.getClassName().startsWith("controlador.") && !m.getMethodName().startsWith("lambda$")) {
+				controlador = nombreCorto(m);
+				break;
+			}
+		}
+		// El DAO o reporte más externo: el que llamó directamente el controlador
+		String origen = "-";
+		for (int i = pila.length - 1; i >= 0; i--) {
+			String clase = pila[i].getClassName();
+			if (clase.startsWith("persistencia.") || clase.startsWith("analitica.")
+					|| clase.startsWith("net.sf.jasperreports.")) {
+				origen = nombreCorto(pila[i]);
+				break;
+			}
+		}
+
+		StringBuilder texto = new StringBuilder();
+		for (StackTraceElement m : pila) {
+			texto.append("\tat ").append(m).append(System.lineSeparator());
+		}
+		BloqueoEDT bloqueo = new BloqueoEDT(System.currentTimeMillis(), pantalla, nanos / 1_000_000.0, controlador,
+				origen, texto.toString());
+		synchronized (BLOQUEOS) {
+			if (BLOQUEOS.size() == MAX_BLOQUEOS) {
+				BLOQUEOS.removeLast();
+			}
+			BLOQUEOS.addFirst(bloqueo);
+		}
+		Metricas.contador("edt.bloqueos").increment();
+		Metricas.contador("edt.bloqueos." + pantalla).increment();
+
+		StringBuilder consola = new StringBuilder("⚠ ").append(bloqueo).append(System.lineSeparator());
+		for (int i = 0; i < Math.min(MARCOS_EN_CONSOLA, pila.length); i++) {
+			consola.append("\tat ").append(pila[i]).append(System.lineSeparator());
+		}
+		System.err.print(consola);
+	}
+
+	private static String nombreCorto(StackTraceElement marco) {
+		String clase = marco.getClassName();
+		return clase.substring(clase.lastIndexOf('.') + 1) + "." + marco.getMethodName();
+	}
+
+	// ==========================================
+	// CONSULTA
+	// ==========================================
+
+	/**
+	 * @return Bloqueos recientes, del más nuevo al más viejo (copia).
+	 */
+	public static List<BloqueoEDT> getBloqueos() {
+		synchronized (BLOQUEOS) {
+			return new ArrayList<>(BLOQUEOS);
+		}
+	}
+
+	/**
+	 * @return Umbral a partir del cual una espera del EDT es un bloqueo (ms).
+	 */
+	public static long getUmbralMs() {
+		return UMBRAL_NANOS / 1_000_000;
+	}
+
+	/**
+	 * Borra los bloqueos recientes.
+	 */
+	public static void reiniciar() {
+		synchronized (BLOQUEOS) {
+			BLOQUEOS.clear();
+		}
+	}
+}
@@ -2,6 +2,12 @@ package modelo;
 
 import java.sql.*;
 import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import conexion.Conexion;
+import modelogenerico.Criterio;
+import modelogenerico.Pagina;
 
 /**
  * Clase de utilidad para la abstracción de operaciones CRUD en la base de
@@ -12,26 +18,71 @@ import java.util.ArrayList;
  * {@link PreparedStatement} y la conversión de resultados a objetos Java.
  * </p>
  * <p>
- * <b>Nota:</b> Esta clase está diseñada para trabajar con una conexión
- * inyectada y no gestiona el cierre de la misma, permitiendo transacciones
- * múltiples.
+ * <b>Nota:</b> Si se construye con una conexión inyectada, esta clase no
+ * gestiona el cierre de la misma, permitiendo transacciones múltiples. Si se
+ * construye sin conexión, cada operación toma una conexión del pool
+ * ({@link Conexion#getConexion()}) y la devuelve al terminar.
  * </p>
- * * @version 1.0
+ * * @version 1.1
  */
 public class BaseDatos {
 
-	/** Objeto de conexión activa a SQL Server. */
+	/**
+	 * Conexión inyectada (transacción externa) o {@code null} para usar el pool en
+	 * cada operación.
+	 */
 	private Connection conexion;
 
+	/**
+	 * Constructor por defecto. Cada operación toma una conexión del pool y la
+	 * devuelve al terminar.
+	 */
+	public BaseDatos() {
+		this(null);
+	}
+
 	/**
 	 * Constructor. Recibe la conexión activa para realizar operaciones. * @param
-	 * conexion Objeto {@link Connection} establecido previamente (usualmente desde
-	 * {@code Conexion.getConexion()}).
+	 * conexion Objeto {@link Connection} establecido previamente (usualmente una
+	 * transacción en curso). Esta clase no la cierra.
 	 */
 	public BaseDatos(Connection conexion) {
 		this.conexion = conexion;
 	}
 
+	/**
+	 * Devuelve la conexión inyectada o presta una del pool.
+	 * 
+	 * @return Conexión a utilizar en la operación actual.
+	 * @throws SQLException Si el pool no pudo entregar una conexión.
+	 */
+	private Connection abrir() throws SQLException {
+		if (conexion != null) {
+			return conexion;
+		}
+		Connection prestada = Conexion.getConexion();
+		if (prestada == null) {
+			throw new SQLException("No hay conexión disponible con la base de datos.");
+		}
+		return prestada;
+	}
+
+	/**
+	 * Devuelve al pool la conexión si fue prestada por {@link #abrir()}; la
+	 * conexión inyectada se deja abierta.
+	 * 
+	 * @param con Conexión utilizada en la operación.
+	 */
+	private void liberar(Connection con) {
+		if (con != null && con != conexion) {
+			try {
+				con.close();
+			} catch (SQLException e) {
+				System.err.println("❌ Error al devolver la conexión: " + e.getMessage());
+			}
+		}
+	}
+
 	// --- CONSULTAR (SELECT) ---
 
 	/**
@@ -59,7 +110,15 @@ public class BaseDatos {
 			sql += " WHERE " + condicion;
 		}
 
-		try (PreparedStatement stmt = conexion.prepareStatement(sql); ResultSet rs = stmt.executeQuery()) {
+		Connection con = null;
+		try {
+			con = abrir();
+		} catch (SQLException e) {
+			System.err.println("❌ Error al consultar registros en " + tabla + ": " + e.getMessage());
+			return resultados;
+		}
+
+		try (PreparedStatement stmt = con.prepareStatement(sql); ResultSet rs = stmt.executeQuery()) {
 
 			ResultSetMetaData rsmd = rs.getMetaData();
 			int numColumnas = rsmd.getColumnCount();
@@ -75,10 +134,169 @@ public class BaseDatos {
 			}
 		} catch (SQLException e) {
 			System.err.println("❌ Error al consultar registros en " + tabla + ": " + e.getMessage());
+		} finally {
+			liberar(con);
 		}
 		return resultados;
 	}
 
+	// --- CONSULTAR PÁGINA (KEYSET) ---
+
+	/**
+	 * Ejecuta una consulta paginada por cursor (keyset) a partir de un
+	 * {@link Criterio}.
+	 * <p>
+	 * Los filtros, el orden y la posición se resuelven en el servidor:
+	 * </p>
+	 * <ul>
+	 * <li>Cada campo lógico del criterio se traduce con {@code columnas} (lista
+	 * blanca); un campo desconocido lanza {@link IllegalArgumentException}.</li>
+	 * <li>Todos los valores viajan como parámetros ({@code ?}).</li>
+	 * <li>La página siguiente se obtiene con
+	 * {@code (orden > ? OR (orden = ? AND clave > ?))}, que aprovecha un índice
+	 * sobre {@code (orden, clave)} sin recorrer las filas anteriores.</li>
+	 * <li>Se pide una fila extra para saber si hay más páginas.</li>
+	 * </ul>
+	 * * @param desde Tabla o JOIN de origen (ej. "TablaClientes").
+	 * 
+	 * @param campos       Columnas a devolver, separadas por comas.
+	 * @param columnas     Mapa campo lógico → expresión SQL permitida.
+	 * @param columnaClave Expresión SQL de la clave primaria (desempate y campo
+	 *                     {@link Criterio#CAMPO_ID}).
+	 * @param criterio     Filtros, orden, tamaño y cursor.
+	 * @return Página cuyas filas son arreglos con las columnas de {@code campos}.
+	 */
+	public Pagina<Object[]> consultarPagina(String desde, String campos, Map<String, String> columnas,
+			String columnaClave, Criterio criterio) {
+		String orden = resolverColumna(columnas, columnaClave, criterio.getCampoOrden());
+		boolean desc = criterio.isDescendente();
+		List<Object> parametros = new ArrayList<>();
+
+		StringBuilder where = new StringBuilder();
+		for (Criterio.Filtro f : criterio.getFiltros()) {
+			String columna = resolverColumna(columnas, columnaClave, f.getCampo());
+			agregarCondicion(where, columna + operadorSql(f.getOperador()));
+			parametros.add(valorFiltro(f));
+		}
+
+		Object[] cursor = criterio.getCursor();
+		if (cursor != null) {
+			String mayor = desc ? " < ?" : " > ?";
+			if (orden.equals(columnaClave)) {
+				agregarCondicion(where, columnaClave + mayor);
+				parametros.add(cursor[1]);
+			} else if (cursor[0] == null) {
+				// En SQL Server los NULL van primero en ASC y al final en DESC
+				agregarCondicion(where, desc ? "(" + orden + " IS NULL AND " + columnaClave + mayor + ")"
+						: "((" + orden + " IS NULL AND " + columnaClave + mayor + ") OR " + orden + " IS NOT NULL)");
+				parametros.add(cursor[1]);
+			} else {
+				agregarCondicion(where, "(" + orden + mayor + " OR (" + orden + " = ? AND " + columnaClave + mayor + ")"
+						+ (desc ? " OR " + orden + " IS NULL" : "") + ")");
+				parametros.add(cursor[0]);
+				parametros.add(cursor[0]);
+				parametros.add(cursor[1]);
+			}
+		}
+
+		String direccion = desc ? " DESC" : " ASC";
+		String sql = "SELECT " + campos + ", " + orden + " AS CursorOrden, " + columnaClave + " AS CursorClave FROM "
+				+ desde + where + " ORDER BY " + orden + direccion
+				+ (orden.equals(columnaClave) ? "" : ", " + columnaClave + direccion)
+				+ " OFFSET 0 ROWS FETCH NEXT ? ROWS ONLY";
+		int tamano = criterio.getTamanoPagina();
+		parametros.add(tamano + 1);
+
+		List<Object[]> filas = new ArrayList<>();
+		Object[] ultimoCursor = null;
+		boolean hayMas = false;
+
+		Connection con = null;
+		try {
+			con = abrir();
+			try (PreparedStatement ps = con.prepareStatement(sql)) {
+				for (int i = 0; i < parametros.size(); i++) {
+					ps.setObject(i + 1, parametros.get(i));
+				}
+				try (ResultSet rs = ps.executeQuery()) {
+					int numColumnas = rs.getMetaData().getColumnCount() - 2;
+					while (rs.next()) {
+						if (filas.size() == tamano) {
+							hayMas = true;
+							break;
+						}
+						Object[] fila = new Object[numColumnas];
+						for (int i = 1; i <= numColumnas; i++) {
+							fila[i - 1] = rs.getObject(i);
+						}
+						filas.add(fila);
+						ultimoCursor = new Object[] { rs.getObject("CursorOrden"), rs.getObject("CursorClave") };
+					}
+				}
+			}
+		} catch (SQLException e) {
+			System.err.println("❌ Error al consultar página en " + desde + ": " + e.getMessage());
+		} finally {
+			liberar(con);
+		}
+		return new Pagina<>(filas, ultimoCursor, hayMas);
+	}
+
+	/**
+	 * Traduce un campo lógico a su columna SQL validándolo contra la lista blanca.
+	 */
+	private static String resolverColumna(Map<String, String> columnas, String columnaClave, String campo) {
+		if (campo == null || Criterio.CAMPO_ID.equals(campo)) {
+			return columnaClave;
+		}
+		String columna = columnas.get(campo);
+		if (columna == null) {
+			throw new IllegalArgumentException("Campo no permitido: " + campo);
+		}
+		return columna;
+	}
+
+	private static void agregarCondicion(StringBuilder where, String condicion) {
+		where.append(where.length() == 0 ? " WHERE " : " AND ").append(condicion);
+	}
+
+	private static String operadorSql(Criterio.Operador operador) {
+		switch (operador) {
+		case IGUAL:
+			return " = ?";
+		case DISTINTO:
+			return " <> ?";
+		case MAYOR:
+			return " > ?";
+		case MAYOR_IGUAL:
+			return " >= ?";
+		case MENOR:
+			return " < ?";
+		case MENOR_IGUAL:
+			return " <= ?";
+		default:
+			// CONTIENE / EMPIEZA_CON: los comodines del usuario se escapan en valorFiltro
+			return " LIKE ? ESCAPE '\\'";
+		}
+	}
+
+	/**
+	 * Prepara el valor de un filtro para {@code setObject}: escapa comodines en
+	 * los {@code LIKE} y convierte {@link java.util.Date} a {@link Timestamp}.
+	 */
+	private static Object valorFiltro(Criterio.Filtro f) {
+		Object valor = f.getValor();
+		if (f.getOperador() == Criterio.Operador.CONTIENE || f.getOperador() == Criterio.Operador.EMPIEZA_CON) {
+			String texto = String.valueOf(valor).replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_")
+					.replace("[", "\\[");
+			return (f.getOperador() == Criterio.Operador.CONTIENE ? "%" : "") + texto + "%";
+		}
+		if (valor instanceof java.util.Date && !(valor instanceof Timestamp)) {
+			return new Timestamp(((java.util.Date) valor).getTime());
+		}
+		return valor;
+	}
+
 	// --- EXISTE (SELECT TOP 1) ---
 
 	/**
@@ -98,10 +316,16 @@ public class BaseDatos {
 		boolean encontrado = false;
 		String sql = "SELECT TOP 1 1 FROM " + tabla + " WHERE " + condicion;
 
-		try (PreparedStatement stmt = conexion.prepareStatement(sql); ResultSet rs = stmt.executeQuery()) {
-			encontrado = rs.next();
+		Connection con = null;
+		try {
+			con = abrir();
+			try (PreparedStatement stmt = con.prepareStatement(sql); ResultSet rs = stmt.executeQuery()) {
+				encontrado = rs.next();
+			}
 		} catch (SQLException e) {
 			System.err.println("❌ Error al verificar existencia en " + tabla + ": " + e.getMessage());
+		} finally {
+			liberar(con);
 		}
 		return encontrado;
 	}
@@ -136,24 +360,30 @@ public class BaseDatos {
 
 		// IMPORTANTE: Statement.RETURN_GENERATED_KEYS permite recuperar el ID
 		// autoincrementable creado
-		try (PreparedStatement ps = conexion.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
-			for (int i = 0; i < valores.length; i++) {
-				ps.setObject(i + 1, valores[i]);
-			}
+		Connection con = null;
+		try {
+			con = abrir();
+			try (PreparedStatement ps = con.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+				for (int i = 0; i < valores.length; i++) {
+					ps.setObject(i + 1, valores[i]);
+				}
 
-			int filasAfectadas = ps.executeUpdate();
+				int filasAfectadas = ps.executeUpdate();
 
-			if (filasAfectadas > 0) {
-				try (ResultSet rs = ps.getGeneratedKeys()) {
-					if (rs.next()) {
-						idGenerado = rs.getInt(1);
-						// System.out.println("✅ Registro insertado en " + tabla + ". ID: " +
-						// idGenerado);
+				if (filasAfectadas > 0) {
+					try (ResultSet rs = ps.getGeneratedKeys()) {
+						if (rs.next()) {
+							idGenerado = rs.getInt(1);
+							// System.out.println("✅ Registro insertado en " + tabla + ". ID: " +
+							// idGenerado);
+						}
 					}
 				}
 			}
 		} catch (SQLException e) {
 			System.err.println("❌ Error al insertar en " + tabla + ": " + e.getMessage());
+		} finally {
+			liberar(con);
 		}
 		return idGenerado;
 	}
@@ -177,15 +407,21 @@ public class BaseDatos {
 		// Ejemplo de asignaciones: "Nombre=?, Telefono=?"
 		String sql = "UPDATE " + tabla + " SET " + asignaciones + " WHERE " + condicion;
 
-		try (PreparedStatement ps = conexion.prepareStatement(sql)) {
-			for (int i = 0; i < valores.length; i++) {
-				ps.setObject(i + 1, valores[i]);
+		Connection con = null;
+		try {
+			con = abrir();
+			try (PreparedStatement ps = con.prepareStatement(sql)) {
+				for (int i = 0; i < valores.length; i++) {
+					ps.setObject(i + 1, valores[i]);
+				}
+				int filas = ps.executeUpdate();
+				return filas > 0;
 			}
-			int filas = ps.executeUpdate();
-			return filas > 0;
 		} catch (SQLException e) {
 			System.err.println("❌ Error al actualizar en " + tabla + ": " + e.getMessage());
 			return false;
+		} finally {
+			liberar(con);
 		}
 	}
 
@@ -204,13 +440,19 @@ public class BaseDatos {
 	public boolean eliminar(String tabla, String condicion, Object valorCondicion) {
 		String sql = "DELETE FROM " + tabla + " WHERE " + condicion;
 
-		try (PreparedStatement pstmt = conexion.prepareStatement(sql)) {
-			pstmt.setObject(1, valorCondicion);
-			int resultado = pstmt.executeUpdate();
-			return resultado > 0;
+		Connection con = null;
+		try {
+			con = abrir();
+			try (PreparedStatement pstmt = con.prepareStatement(sql)) {
+				pstmt.setObject(1, valorCondicion);
+				int resultado = pstmt.executeUpdate();
+				return resultado > 0;
+			}
 		} catch (SQLException e) {
 			System.err.println("❌ Error al eliminar de " + tabla + ": " + e.getMessage());
 			return false;
+		} finally {
+			liberar(con);
 		}
 	}
 }
\ No newline at end of file
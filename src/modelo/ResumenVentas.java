@@ -0,0 +1,70 @@
+package modelo;
+
+/**
+ * Totales de ventas de un periodo (un día o un mes), leídos de las tablas de
+ * resumen.
+ * <p>
+ * No corresponde a una fila de una tabla: es el resultado de sumar las filas de
+ * <b>TablaResumenVentasDia</b> de ese periodo (todas las cajas, empleados y
+ * métodos de pago). Las ventas devueltas no se cuentan.
+ * </p>
+ *
+ * @version 1.0
+ */
+public class ResumenVentas {
+
+	/** Etiqueta del periodo (ej. "2025-03-14" o "Marzo"). */
+	private String periodo;
+
+	/** Número de ventas del periodo. */
+	private int numVentas;
+
+	private double subtotal;
+	private double descuento;
+	private double impuestos;
+	private double total;
+
+	/**
+	 * Constructor completo.
+	 *
+	 * @param periodo   Etiqueta del periodo.
+	 * @param numVentas Número de ventas.
+	 * @param subtotal  Suma de subtotales.
+	 * @param descuento Suma de descuentos.
+	 * @param impuestos Suma de impuestos.
+	 * @param total     Suma de totales cobrados.
+	 */
+	public ResumenVentas(String periodo, int numVentas, double subtotal, double descuento, double impuestos,
+			double total) {
+		this.periodo = periodo;
+		this.numVentas = numVentas;
+		this.subtotal = subtotal;
+		this.descuento = descuento;
+		this.impuestos = impuestos;
+		this.total = total;
+	}
+
+	public String getPeriodo() {
+		return periodo;
+	}
+
+	public int getNumVentas() {
+		return numVentas;
+	}
+
+	public double getSubtotal() {
+		return subtotal;
+	}
+
+	public double getDescuento() {
+		return descuento;
+	}
+
+	public double getImpuestos() {
+		return impuestos;
+	}
+
+	public double getTotal() {
+		return total;
+	}
+}
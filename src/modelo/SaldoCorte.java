@@ -0,0 +1,106 @@
+package modelo;
+
+/**
+ * Saldos acumulados de un turno de caja, leídos de <b>TablaSaldosCorte</b>.
+ * <p>
+ * Es el "libro" del turno: cada venta, devolución y movimiento de caja lo
+ * actualiza al confirmarse, así el cierre lee una sola fila en lugar de sumar
+ * las ventas y movimientos del turno.
+ * </p>
+ * <p>
+ * <b>Efectivo esperado:</b>
+ * {@code MontoInicial + VentasEfectivo + Ingresos - Egresos}.
+ * </p>
+ *
+ * @version 1.0
+ */
+public class SaldoCorte {
+
+	private int corteID;
+
+	/** Ventas vigentes del turno (sin las devueltas). */
+	private int numVentas;
+
+	private double ventasEfectivo;
+	private double ventasTarjeta;
+
+	/** Ventas con cualquier otro método de pago. */
+	private double ventasOtros;
+
+	/** Movimientos de caja de tipo "Ingreso". */
+	private double ingresos;
+
+	/** Movimientos de caja de tipo "Egreso". */
+	private double egresos;
+
+	/** Dinero que debería haber físicamente en la caja. */
+	private double efectivoEsperado;
+
+	/**
+	 * Número de cambios aplicados a la fila; sirve para saber si hay algo nuevo
+	 * que mostrar.
+	 */
+	private long version;
+
+	/**
+	 * Constructor completo.
+	 *
+	 * @param corteID          ID del turno.
+	 * @param numVentas        Ventas vigentes.
+	 * @param ventasEfectivo   Total cobrado en efectivo.
+	 * @param ventasTarjeta    Total cobrado con tarjeta.
+	 * @param ventasOtros      Total cobrado con otros métodos.
+	 * @param ingresos         Total de ingresos manuales.
+	 * @param egresos          Total de egresos manuales.
+	 * @param efectivoEsperado Efectivo que debería haber en caja.
+	 * @param version          Número de cambios aplicados.
+	 */
+	public SaldoCorte(int corteID, int numVentas, double ventasEfectivo, double ventasTarjeta, double ventasOtros,
+			double ingresos, double egresos, double efectivoEsperado, long version) {
+		this.corteID = corteID;
+		this.numVentas = numVentas;
+		this.ventasEfectivo = ventasEfectivo;
+		this.ventasTarjeta = ventasTarjeta;
+		this.ventasOtros = ventasOtros;
+		this.ingresos = ingresos;
+		this.egresos = egresos;
+		this.efectivoEsperado = efectivoEsperado;
+		this.version = version;
+	}
+
+	public int getCorteID() {
+		return corteID;
+	}
+
+	public int getNumVentas() {
+		return numVentas;
+	}
+
+	public double getVentasEfectivo() {
+		return ventasEfectivo;
+	}
+
+	public double getVentasTarjeta() {
+		return ventasTarjeta;
+	}
+
+	public double getVentasOtros() {
+		return ventasOtros;
+	}
+
+	public double getIngresos() {
+		return ingresos;
+	}
+
+	public double getEgresos() {
+		return egresos;
+	}
+
+	public double getEfectivoEsperado() {
+		return efectivoEsperado;
+	}
+
+	public long getVersion() {
+		return version;
+	}
+}
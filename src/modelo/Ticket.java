@@ -59,7 +59,12 @@ public class Ticket {
 		sb.append("        MI TIENDA POS\n");
 		sb.append("   Dirección del Negocio\n");
 		sb.append("      Tel: 555-555-555\n\n");
-		sb.append("Ticket No: ").append(venta.getid()).append("\n");
+		if (venta.getid() == 0 && venta.getClaveIdempotencia() != null) {
+			// Venta en el diario local: el folio definitivo lo asigna el servidor
+			sb.append("Ticket No: PENDIENTE-").append(venta.getClaveIdempotencia(), 0, 8).append("\n");
+		} else {
+			sb.append("Ticket No: ").append(venta.getid()).append("\n");
+		}
 		sb.append("Fecha: ").append(sdf.format(venta.getFecha())).append("\n");
 		sb.append("Cliente: ").append(venta.getNombreCliente() != null ? venta.getNombreCliente() : "N/A").append("\n");
 		sb.append("Atendido por: ").append(venta.getNombreEmpleado() != null ? venta.getNombreEmpleado() : "N/A")
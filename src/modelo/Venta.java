@@ -17,7 +17,7 @@ import java.util.ArrayList;
  * Es fundamental para el módulo de facturación y reportes, y debe estar siempre
  * vinculada a un {@link CorteCaja} abierto (campo {@code corteID}).
  * </p>
- * * @version 1.2
+ * * @version 1.3
  */
 public class Venta implements Entidad {
 
@@ -72,6 +72,15 @@ public class Venta implements Entidad {
 	/** Lista que contiene los renglones (ítems) de la venta. */
 	private List<VentaDetalle> detalles;
 
+	/**
+	 * Clave única asignada al registrar la venta en el diario local
+	 * ({@code null} si se guardó directamente en la BD).
+	 * <p>
+	 * Permite reintentar su envío al servidor sin duplicarla.
+	 * </p>
+	 */
+	private String claveIdempotencia;
+
 	/**
 	 * Constructor por defecto.
 	 * <p>
@@ -244,4 +253,12 @@ public class Venta implements Entidad {
 	public void setImpuestos(double impuestos) {
 		this.impuestos = impuestos;
 	}
-}
\ No newline at end of file
+
+	public String getClaveIdempotencia() {
+		return claveIdempotencia;
+	}
+
+	public void setClaveIdempotencia(String claveIdempotencia) {
+		this.claveIdempotencia = claveIdempotencia;
+	}
+}
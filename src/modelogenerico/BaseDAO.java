@@ -13,7 +13,7 @@ import java.util.List;
  * 
  * @param <T> El tipo de clase del modelo (ej. Cliente, Producto) sobre el cual
  *            operará el DAO.
- * @version 1.0
+ * @version 1.1
  */
 public interface BaseDAO<T extends Entidad> {
 
@@ -56,4 +56,53 @@ public interface BaseDAO<T extends Entidad> {
 	 */
 	boolean borrar(int id);
 
+	/**
+	 * Indica si este DAO implementa {@link #buscarPagina(Criterio)}.
+	 * <p>
+	 * Los controladores lo consultan antes de paginar para elegir entre la carga
+	 * por páginas y {@link #ObtenerTodo()}, sin depender de excepciones.
+	 * </p>
+	 * 
+	 * @return {@code true} si {@link #buscarPagina(Criterio)} está disponible.
+	 */
+	default boolean soportaPaginacion() {
+		return false;
+	}
+
+	/**
+	 * Indica si un campo lógico de {@link #buscarPagina(Criterio)} es una columna
+	 * entera, para que su valor se compare como número y no como texto.
+	 * 
+	 * @param campo Campo lógico (ej. {@code "id"}, {@code "telefono"}).
+	 * @return {@code true} si el campo es entero; por defecto sólo
+	 *         {@link Criterio#CAMPO_ID}.
+	 */
+	default boolean esCampoEntero(String campo) {
+		return Criterio.CAMPO_ID.equals(campo);
+	}
+
+	/**
+	 * Recupera una página de registros filtrados y ordenados en el servidor.
+	 * <p>
+	 * A diferencia de {@link #ObtenerTodo()}, sólo viajan las filas de la página
+	 * solicitada, por lo que el consumo de memoria y el tiempo de consulta no
+	 * crecen con el tamaño de la tabla.
+	 * </p>
+	 * <p>
+	 * Sólo debe llamarse si {@link #soportaPaginacion()} devuelve {@code true};
+	 * quien lo implemente debe sobrescribir ambos métodos.
+	 * </p>
+	 * 
+	 * @param criterio Filtros, orden, tamaño de página y cursor.
+	 * @return La página solicitada.
+	 * @throws IllegalArgumentException      Si el criterio usa un campo no
+	 *                                       permitido.
+	 * @throws UnsupportedOperationException Si el DAO no implementa paginación
+	 *                                       ({@link #soportaPaginacion()} es
+	 *                                       {@code false}).
+	 */
+	default Pagina<T> buscarPagina(Criterio criterio) {
+		throw new UnsupportedOperationException("Paginación no disponible para " + getClass().getSimpleName());
+	}
+
 }
\ No newline at end of file
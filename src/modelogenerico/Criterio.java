@@ -0,0 +1,167 @@
+package modelogenerico;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Describe una consulta paginada: filtros, orden y posición (cursor).
+ * <p>
+ * Se construye de forma encadenada y se entrega a
+ * {@link BaseDAO#buscarPagina(Criterio)}, que la traduce a SQL. Los nombres de
+ * campo son <b>lógicos</b> (ej. {@code "nombre"}, {@code "telefono"}); cada
+ * DAO los traduce a columnas reales mediante una lista blanca, por lo que un
+ * campo desconocido produce {@link IllegalArgumentException} y nunca llega al
+ * SQL.
+ * </p>
+ * <p>
+ * <b>Paginación por cursor (keyset):</b> en lugar de {@code OFFSET n}, la
+ * siguiente página se pide "después de" la última fila recibida (valor de
+ * orden + ID). El costo de cada página es el mismo sin importar cuántas filas
+ * tenga la tabla.
+ * </p>
+ * 
+ * <pre>
+ * Criterio c = new Criterio().donde("nombre", Operador.CONTIENE, "ana").ordenarPor("nombre", false)
+ * 		.tamanoPagina(50);
+ * Pagina&lt;Clientes&gt; p1 = dao.buscarPagina(c);
+ * Pagina&lt;Clientes&gt; p2 = dao.buscarPagina(c.siguiente(p1));
+ * </pre>
+ * 
+ * @version 1.0
+ */
+public class Criterio {
+
+	/** Campo lógico que todo DAO reconoce como la clave primaria. */
+	public static final String CAMPO_ID = "id";
+
+	/** Campo lógico de texto principal que todo DAO paginable reconoce. */
+	public static final String CAMPO_NOMBRE = "nombre";
+
+	/**
+	 * Operadores de comparación permitidos en los filtros.
+	 */
+	public enum Operador {
+		IGUAL, DISTINTO, MAYOR, MAYOR_IGUAL, MENOR, MENOR_IGUAL,
+		/** Texto que contiene el valor ({@code LIKE '%valor%'}). */
+		CONTIENE,
+		/** Texto que inicia con el valor ({@code LIKE 'valor%'}, usa índice). */
+		EMPIEZA_CON
+	}
+
+	/**
+	 * Condición individual: {@code campo operador valor}.
+	 */
+	public static final class Filtro {
+		private final String campo;
+		private final Operador operador;
+		private final Object valor;
+
+		public Filtro(String campo, Operador operador, Object valor) {
+			this.campo = campo;
+			this.operador = operador;
+			this.valor = valor;
+		}
+
+		public String getCampo() {
+			return campo;
+		}
+
+		public Operador getOperador() {
+			return operador;
+		}
+
+		public Object getValor() {
+			return valor;
+		}
+	}
+
+	private final List<Filtro> filtros = new ArrayList<>();
+	private String campoOrden = CAMPO_ID;
+	private boolean descendente = false;
+	private int tamanoPagina = 50;
+	private Object[] cursor;
+
+	/**
+	 * Agrega un filtro (todos los filtros se combinan con {@code AND}).
+	 * 
+	 * @param campo    Campo lógico.
+	 * @param operador Comparación a aplicar.
+	 * @param valor    Valor a comparar (no {@code null}).
+	 * @return Este mismo criterio, para encadenar.
+	 */
+	public Criterio donde(String campo, Operador operador, Object valor) {
+		filtros.add(new Filtro(campo, operador, valor));
+		return this;
+	}
+
+	/**
+	 * Define el orden de los resultados. El ID se usa siempre como desempate.
+	 * 
+	 * @param campo       Campo lógico por el que se ordena.
+	 * @param descendente {@code true} para orden descendente.
+	 * @return Este mismo criterio, para encadenar.
+	 */
+	public Criterio ordenarPor(String campo, boolean descendente) {
+		this.campoOrden = campo;
+		this.descendente = descendente;
+		return this;
+	}
+
+	/**
+	 * @param tamano Número máximo de filas por página (mínimo 1).
+	 * @return Este mismo criterio, para encadenar.
+	 */
+	public Criterio tamanoPagina(int tamano) {
+		this.tamanoPagina = Math.max(1, tamano);
+		return this;
+	}
+
+	/**
+	 * Posiciona la consulta después de un cursor previo.
+	 * 
+	 * @param cursor Cursor obtenido de {@link Pagina#getCursorSiguiente()}, o
+	 *               {@code null} para la primera página.
+	 * @return Este mismo criterio, para encadenar.
+	 */
+	public Criterio despuesDe(Object[] cursor) {
+		this.cursor = cursor;
+		return this;
+	}
+
+	/**
+	 * Crea una copia de este criterio posicionada en la página siguiente.
+	 * 
+	 * @param anterior Página recibida previamente.
+	 * @return Nuevo criterio con los mismos filtros y orden.
+	 */
+	public Criterio siguiente(Pagina<?> anterior) {
+		Criterio copia = new Criterio();
+		copia.filtros.addAll(this.filtros);
+		copia.campoOrden = this.campoOrden;
+		copia.descendente = this.descendente;
+		copia.tamanoPagina = this.tamanoPagina;
+		copia.cursor = anterior.getCursorSiguiente();
+		return copia;
+	}
+
+	public List<Filtro> getFiltros() {
+		return Collections.unmodifiableList(filtros);
+	}
+
+	public String getCampoOrden() {
+		return campoOrden;
+	}
+
+	public boolean isDescendente() {
+		return descendente;
+	}
+
+	public int getTamanoPagina() {
+		return tamanoPagina;
+	}
+
+	public Object[] getCursor() {
+		return cursor;
+	}
+}
@@ -0,0 +1,68 @@
+package modelogenerico;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Resultado de una consulta paginada ({@link BaseDAO#buscarPagina(Criterio)}).
+ * <p>
+ * Contiene las filas de la página y el cursor necesario para pedir la
+ * siguiente con {@link Criterio#siguiente(Pagina)}.
+ * </p>
+ * 
+ * @param <T> Tipo de los elementos de la página.
+ * @version 1.0
+ */
+public class Pagina<T> {
+
+	private final List<T> elementos;
+	private final Object[] cursorSiguiente;
+	private final boolean hayMas;
+
+	/**
+	 * @param elementos       Filas de esta página.
+	 * @param cursorSiguiente Posición de la última fila (valor de orden + ID).
+	 * @param hayMas          {@code true} si existen más filas después de ésta.
+	 */
+	public Pagina(List<T> elementos, Object[] cursorSiguiente, boolean hayMas) {
+		this.elementos = elementos;
+		this.cursorSiguiente = cursorSiguiente;
+		this.hayMas = hayMas;
+	}
+
+	/**
+	 * @return Página vacía sin continuación.
+	 */
+	public static <T> Pagina<T> vacia() {
+		return new Pagina<>(new ArrayList<>(), null, false);
+	}
+
+	/**
+	 * Convierte los elementos conservando el cursor (ej. filas → entidades).
+	 * 
+	 * @param <R>        Tipo destino.
+	 * @param conversion Función de conversión por elemento.
+	 * @return Nueva página con los elementos convertidos.
+	 */
+	public <R> Pagina<R> mapear(Function<T, R> conversion) {
+		List<R> convertidos = new ArrayList<>(elementos.size());
+		for (T elemento : elementos) {
+			convertidos.add(conversion.apply(elemento));
+		}
+		return new Pagina<>(convertidos, cursorSiguiente, hayMas);
+	}
+
+	public List<T> getElementos() {
+		return Collections.unmodifiableList(elementos);
+	}
+
+	public Object[] getCursorSiguiente() {
+		return cursorSiguiente;
+	}
+
+	public boolean isHayMas() {
+		return hayMas;
+	}
+}
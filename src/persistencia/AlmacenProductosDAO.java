@@ -8,10 +8,17 @@ import java.sql.SQLException;
 import java.sql.Statement;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 import conexion.Conexion;
+import eventos.BusEventos;
+import eventos.StockCambiado;
 import modelo.AlmacenProductos;
+import modelo.BaseDatos;
 import modelogenerico.BaseDAO;
+import modelogenerico.Criterio;
+import modelogenerico.Pagina;
 
 /**
  * Clase de Acceso a Datos (DAO) para la entidad {@link AlmacenProductos}.
@@ -22,10 +29,49 @@ import modelogenerico.BaseDAO;
  * <p>
  * Implementa la interfaz genérica {@link BaseDAO} para estandarizar el acceso.
  * </p>
- * * @version 1.2
+ * * @version 1.5
  */
 public class AlmacenProductosDAO implements BaseDAO<AlmacenProductos> {
 
+	/** Origen (con JOINs) para las consultas paginadas. */
+	private static final String DESDE_PAGINA = "TablaAlmacen_Productos p "
+			+ "INNER JOIN TablaProveedores tp ON p.ProveedorID = tp.Pid "
+			+ "INNER JOIN TablaCategorias tc ON p.CategoriaID = tc.Cid";
+
+	/** Columnas de la consulta paginada, en el orden del constructor completo. */
+	private static final String CAMPOS_PAGINA = "p.Pid, p.Nombre, p.Descripcion, p.Precio, p.Codigo, p.Cantidad, "
+			+ "p.Ruta_Imagen, p.CategoriaID, tc.Nombre, p.ProveedorID, tp.NombreP, p.StockMinimo";
+
+	/** Campos lógicos permitidos en {@link #buscarPagina(Criterio)}. */
+	private static final Map<String, String> COLUMNAS = Map.ofEntries(Map.entry("nombre", "p.Nombre"),
+			Map.entry("descripcion", "p.Descripcion"), Map.entry("precio", "p.Precio"),
+			Map.entry("codigo", "p.Codigo"), Map.entry("cantidad", "p.Cantidad"),
+			Map.entry("stockMinimo", "p.StockMinimo"), Map.entry("categoriaId", "p.CategoriaID"),
+			Map.entry("categoria", "tc.Nombre"), Map.entry("proveedorId", "p.ProveedorID"),
+			Map.entry("proveedor", "tp.NombreP"));
+
+	/** Campos de {@link #COLUMNAS} que son columnas enteras. */
+	private static final Set<String> CAMPOS_ENTEROS = Set.of("cantidad", "stockMinimo", "categoriaId", "proveedorId");
+
+	/**
+	 * Convierte la fila actual de un {@link ResultSet} en un producto.
+	 * <p>
+	 * Espera las columnas de {@code TablaAlmacen_Productos} más {@code NombreP}
+	 * (proveedor) y {@code NombreCategoria}, como las devuelven todas las
+	 * consultas con JOIN de esta clase.
+	 * </p>
+	 *
+	 * @param rs Cursor posicionado en la fila a leer.
+	 * @return Producto con los nombres de proveedor y categoría.
+	 * @throws SQLException Si falta alguna columna.
+	 */
+	public static AlmacenProductos mapearProducto(ResultSet rs) throws SQLException {
+		return new AlmacenProductos(rs.getInt("Pid"), rs.getString("Nombre"), rs.getString("Descripcion"),
+				rs.getDouble("Precio"), rs.getString("Codigo"), rs.getInt("Cantidad"), rs.getString("Ruta_Imagen"),
+				rs.getInt("CategoriaID"), rs.getString("NombreCategoria"), rs.getInt("ProveedorID"),
+				rs.getString("NombreP"), rs.getInt("StockMinimo"));
+	}
+
 	/**
 	 * Busca un producto por su clave primaria (ID).
 	 * <p>
@@ -49,11 +95,7 @@ public class AlmacenProductosDAO implements BaseDAO<AlmacenProductos> {
 			ps.setInt(1, id);
 			try (ResultSet rs = ps.executeQuery()) {
 				if (rs.next()) {
-					productoEncontrado = new AlmacenProductos(rs.getInt("Pid"), rs.getString("Nombre"),
-							rs.getString("Descripcion"), rs.getDouble("Precio"), rs.getString("Codigo"),
-							rs.getInt("Cantidad"), rs.getString("Ruta_Imagen"), rs.getInt("CategoriaID"),
-							rs.getString("NombreCategoria"), rs.getInt("ProveedorID"), rs.getString("NombreP"),
-							rs.getInt("StockMinimo"));
+					productoEncontrado = mapearProducto(rs);
 				}
 			}
 		} catch (SQLException e) {
@@ -78,11 +120,7 @@ public class AlmacenProductosDAO implements BaseDAO<AlmacenProductos> {
 			ps.setString(1, codigo);
 			try (ResultSet rs = ps.executeQuery()) {
 				if (rs.next()) {
-					productoEncontrado = new AlmacenProductos(rs.getInt("Pid"), rs.getString("Nombre"),
-							rs.getString("Descripcion"), rs.getDouble("Precio"), rs.getString("Codigo"),
-							rs.getInt("Cantidad"), rs.getString("Ruta_Imagen"), rs.getInt("CategoriaID"),
-							rs.getString("NombreCategoria"), rs.getInt("ProveedorID"), rs.getString("NombreP"),
-							rs.getInt("StockMinimo"));
+					productoEncontrado = mapearProducto(rs);
 				}
 			}
 		} catch (SQLException e) {
@@ -111,11 +149,7 @@ public class AlmacenProductosDAO implements BaseDAO<AlmacenProductos> {
 			ps.setString(1, "%" + nombre + "%");
 			try (ResultSet rs = ps.executeQuery()) {
 				while (rs.next()) {
-					AlmacenProductos producto = new AlmacenProductos(rs.getInt("Pid"), rs.getString("Nombre"),
-							rs.getString("Descripcion"), rs.getDouble("Precio"), rs.getString("Codigo"),
-							rs.getInt("Cantidad"), rs.getString("Ruta_Imagen"), rs.getInt("CategoriaID"),
-							rs.getString("NombreCategoria"), rs.getInt("ProveedorID"), rs.getString("NombreP"),
-							rs.getInt("StockMinimo"));
+					AlmacenProductos producto = mapearProducto(rs);
 					productosEncontrados.add(producto);
 				}
 			}
@@ -140,11 +174,7 @@ public class AlmacenProductosDAO implements BaseDAO<AlmacenProductos> {
 				PreparedStatement ps = con.prepareStatement(sql);
 				ResultSet rs = ps.executeQuery()) {
 			while (rs.next()) {
-				productos
-						.add(new AlmacenProductos(rs.getInt("Pid"), rs.getString("Nombre"), rs.getString("Descripcion"),
-								rs.getDouble("Precio"), rs.getString("Codigo"), rs.getInt("Cantidad"),
-								rs.getString("Ruta_Imagen"), rs.getInt("CategoriaID"), rs.getString("NombreCategoria"),
-								rs.getInt("ProveedorID"), rs.getString("NombreP"), rs.getInt("StockMinimo")));
+				productos.add(mapearProducto(rs));
 			}
 		} catch (SQLException e) {
 			System.err.println("Error al obtener productos: " + e.toString());
@@ -152,6 +182,23 @@ public class AlmacenProductosDAO implements BaseDAO<AlmacenProductos> {
 		return productos;
 	}
 
+	/**
+	 * Prepara el inventario completo como fuente de datos de reporte, leída fila
+	 * por fila de la BD (sin lista intermedia).
+	 * <p>
+	 * Las columnas llevan los alias de los campos de
+	 * {@code inventario_completo.jasper}.
+	 * </p>
+	 *
+	 * @return Fuente de datos; la consulta se ejecuta al empezar el llenado.
+	 */
+	public FuenteDatosJDBC fuenteInventarioCompleto() {
+		return new FuenteDatosJDBC("SELECT p.Pid AS id, p.Nombre AS nombre, p.Descripcion AS descripcion, "
+				+ "tc.Nombre AS categoriaNombre, tp.NombreP AS proveedorNombre, p.Precio AS precio, p.Cantidad AS cantidad "
+				+ "FROM TablaAlmacen_Productos p " + "INNER JOIN TablaProveedores tp ON p.ProveedorID = tp.Pid "
+				+ "INNER JOIN TablaCategorias tc ON p.CategoriaID = tc.Cid " + "ORDER BY p.Pid");
+	}
+
 	/**
 	 * Inserta un nuevo producto en el inventario. * @param entidad Objeto con los
 	 * datos a guardar.
@@ -176,16 +223,29 @@ public class AlmacenProductosDAO implements BaseDAO<AlmacenProductos> {
 
 			if (ps.executeUpdate() > 0) {
 				exito = true;
+				try (ResultSet rs = ps.getGeneratedKeys()) {
+					if (rs.next()) {
+						entidad.setid(rs.getInt(1));
+					}
+				}
 			}
 		} catch (SQLException e) {
 			System.err.println("Producto no agregado: " + e.toString());
 		}
+		if (exito && entidad.getid() > 0) {
+			CatalogoProductos.getInstancia().refrescar(entidad.getid());
+		}
 		return exito;
 	}
 
 	/**
 	 * Actualiza la información de un producto existente. * @param entidad Objeto
 	 * con los datos modificados y el ID original.
+	 * <p>
+	 * La cantidad anterior se lee y bloquea en la misma transacción; si el stock
+	 * cambió, tras el commit se publica {@link StockCambiado} (motivo
+	 * {@code AJUSTE}) con la diferencia en el {@link BusEventos}.
+	 * </p>
 	 * 
 	 * @return {@code true} si se actualizó al menos un registro.
 	 */
@@ -193,28 +253,68 @@ public class AlmacenProductosDAO implements BaseDAO<AlmacenProductos> {
 	public boolean modificar(AlmacenProductos entidad) {
 		String sql = "UPDATE TablaAlmacen_Productos SET Nombre=?, Descripcion=?, Precio=?, Codigo=?, Cantidad=?, Ruta_Imagen=?, ProveedorID=?, CategoriaID=?, StockMinimo=? WHERE Pid=?";
 		boolean exito = false;
+		int diferencia = 0;
 
-		try (Connection con = Conexion.getConexion(); PreparedStatement ps = con.prepareStatement(sql)) {
-			ps.setString(1, entidad.getNombre());
-			ps.setString(2, entidad.getDescripcion());
-			ps.setDouble(3, entidad.getPrecio());
-			ps.setString(4, entidad.getCodigo());
-			ps.setInt(5, entidad.getCantidad());
-			ps.setString(6, entidad.getRuta());
-			ps.setInt(7, entidad.getProveedorId());
-			ps.setInt(8, entidad.getCategoriaId());
-			ps.setInt(9, entidad.getStockMinimo());
-			ps.setInt(10, entidad.getid());
+		try (Connection con = Conexion.getConexion()) {
+			con.setAutoCommit(false);
+			try (PreparedStatement ps = con.prepareStatement(sql)) {
+				Integer anterior = bloquearCantidad(con, entidad.getid());
+				if (anterior == null) {
+					con.rollback();
+					return false;
+				}
+				ps.setString(1, entidad.getNombre());
+				ps.setString(2, entidad.getDescripcion());
+				ps.setDouble(3, entidad.getPrecio());
+				ps.setString(4, entidad.getCodigo());
+				ps.setInt(5, entidad.getCantidad());
+				ps.setString(6, entidad.getRuta());
+				ps.setInt(7, entidad.getProveedorId());
+				ps.setInt(8, entidad.getCategoriaId());
+				ps.setInt(9, entidad.getStockMinimo());
+				ps.setInt(10, entidad.getid());
 
-			if (ps.executeUpdate() > 0) {
-				exito = true;
+				if (ps.executeUpdate() > 0) {
+					exito = true;
+					diferencia = entidad.getCantidad() - anterior;
+				}
+				con.commit();
+			} catch (SQLException e) {
+				con.rollback();
+				throw e;
+			} finally {
+				con.setAutoCommit(true);
 			}
 		} catch (SQLException e) {
 			System.err.println("Error al modificar producto: " + e.toString());
+			exito = false;
+		}
+		if (exito) {
+			CatalogoProductos.getInstancia().refrescar(entidad.getid());
+			if (diferencia != 0) {
+				BusEventos.getInstancia()
+						.publicar(new StockCambiado(StockCambiado.Motivo.AJUSTE, Map.of(entidad.getid(), diferencia)));
+			}
 		}
 		return exito;
 	}
 
+	/**
+	 * Lee y bloquea hasta el commit la cantidad actual de un producto, para
+	 * publicar exactamente la diferencia que se reemplaza.
+	 *
+	 * @return Cantidad en existencia, o {@code null} si el producto no existe.
+	 */
+	private static Integer bloquearCantidad(Connection con, int id) throws SQLException {
+		String sql = "SELECT Cantidad FROM TablaAlmacen_Productos WITH (UPDLOCK, HOLDLOCK) WHERE Pid = ?";
+		try (PreparedStatement ps = con.prepareStatement(sql)) {
+			ps.setInt(1, id);
+			try (ResultSet rs = ps.executeQuery()) {
+				return rs.next() ? rs.getInt(1) : null;
+			}
+		}
+	}
+
 	/**
 	 * Elimina físicamente un producto de la base de datos. * @param id ID del
 	 * producto a borrar.
@@ -233,6 +333,9 @@ public class AlmacenProductosDAO implements BaseDAO<AlmacenProductos> {
 		} catch (SQLException e) {
 			System.err.println("Error al borrar producto: " + e.toString());
 		}
+		if (exito) {
+			CatalogoProductos.getInstancia().quitar(id);
+		}
 		return exito;
 	}
 
@@ -256,11 +359,7 @@ public class AlmacenProductosDAO implements BaseDAO<AlmacenProductos> {
 				ResultSet rs = ps.executeQuery()) {
 
 			while (rs.next()) {
-				productos
-						.add(new AlmacenProductos(rs.getInt("Pid"), rs.getString("Nombre"), rs.getString("Descripcion"),
-								rs.getDouble("Precio"), rs.getString("Codigo"), rs.getInt("Cantidad"),
-								rs.getString("Ruta_Imagen"), rs.getInt("CategoriaID"), rs.getString("NombreCategoria"),
-								rs.getInt("ProveedorID"), rs.getString("NombreP"), rs.getInt("StockMinimo")));
+				productos.add(mapearProducto(rs));
 			}
 		} catch (SQLException e) {
 			System.err.println("Error al obtener productos con stock bajo: " + e.toString());
@@ -272,6 +371,7 @@ public class AlmacenProductosDAO implements BaseDAO<AlmacenProductos> {
 	 * Incrementa la cantidad de stock de un producto específico.
 	 * <p>
 	 * Utilizado al recibir pedidos de proveedores o por ajustes manuales.
+	 * Publica {@link StockCambiado} en el {@link BusEventos}.
 	 * </p>
 	 * * @param productoId ID del producto.
 	 * 
@@ -286,11 +386,51 @@ public class AlmacenProductosDAO implements BaseDAO<AlmacenProductos> {
 			ps.setInt(1, cantidadAAgregar);
 			ps.setInt(2, productoId);
 
-			return ps.executeUpdate() > 0;
+			if (ps.executeUpdate() > 0) {
+				CatalogoProductos.getInstancia().ajustarStock(productoId, cantidadAAgregar);
+				BusEventos.getInstancia()
+						.publicar(new StockCambiado(StockCambiado.Motivo.ENTRADA, Map.of(productoId, cantidadAAgregar)));
+				return true;
+			}
+			return false;
 
 		} catch (SQLException e) {
 			System.err.println("Error al aumentar stock: " + e.toString());
 			return false;
 		}
 	}
-}
\ No newline at end of file
+
+	/**
+	 * Recupera una página de productos filtrada y ordenada en el servidor.
+	 * <p>
+	 * Campos lógicos: {@code id}, {@code nombre}, {@code descripcion},
+	 * {@code precio}, {@code codigo}, {@code cantidad}, {@code stockMinimo},
+	 * {@code categoriaId}, {@code categoria}, {@code proveedorId} y
+	 * {@code proveedor}.
+	 * </p>
+	 * 
+	 * @param criterio Filtros, orden y cursor.
+	 * @return Página de {@link AlmacenProductos}.
+	 */
+	@Override
+	public Pagina<AlmacenProductos> buscarPagina(Criterio criterio) {
+		BaseDatos bd = new BaseDatos();
+		return bd.consultarPagina(DESDE_PAGINA, CAMPOS_PAGINA, COLUMNAS, "p.Pid", criterio)
+				.mapear(f -> new AlmacenProductos((int) f[0], (String) f[1], (String) f[2],
+						((Number) f[3]).doubleValue(), (String) f[4], (int) f[5], (String) f[6], (int) f[7],
+						(String) f[8], (int) f[9], (String) f[10], (int) f[11]));
+	}
+
+	/**
+	 * @return {@code true}: este DAO implementa {@link #buscarPagina(Criterio)}.
+	 */
+	@Override
+	public boolean soportaPaginacion() {
+		return true;
+	}
+
+	@Override
+	public boolean esCampoEntero(String campo) {
+		return Criterio.CAMPO_ID.equals(campo) || CAMPOS_ENTEROS.contains(campo);
+	}
+}
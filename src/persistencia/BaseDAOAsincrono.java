@@ -0,0 +1,58 @@
+package persistencia;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import modelogenerico.BaseDAO;
+import modelogenerico.Entidad;
+
+/**
+ * Fachada asíncrona sobre cualquier {@link BaseDAO}.
+ * <p>
+ * Expone las mismas operaciones CRUD pero devuelve {@link CompletableFuture}s
+ * ejecutados por {@link EjecutorBD}: la consulta corre en un hilo virtual y el
+ * resultado se entrega en el EDT.
+ * </p>
+ * * @param <T> Tipo de entidad que gestiona el DAO envuelto.
+ * 
+ * @version 1.0
+ */
+public class BaseDAOAsincrono<T extends Entidad> {
+
+	/** DAO síncrono que realiza el trabajo real. */
+	private final BaseDAO<T> dao;
+
+	/**
+	 * @param dao DAO síncrono a envolver.
+	 */
+	public BaseDAOAsincrono(BaseDAO<T> dao) {
+		this.dao = dao;
+	}
+
+	public CompletableFuture<T> buscarPorID(int id) {
+		return EjecutorBD.ejecutar(() -> dao.buscarPorID(id));
+	}
+
+	public CompletableFuture<List<T>> ObtenerTodo() {
+		return EjecutorBD.ejecutar(dao::ObtenerTodo);
+	}
+
+	public CompletableFuture<Boolean> agregar(T entidad) {
+		return EjecutorBD.ejecutar(() -> dao.agregar(entidad));
+	}
+
+	public CompletableFuture<Boolean> modificar(T entidad) {
+		return EjecutorBD.ejecutar(() -> dao.modificar(entidad));
+	}
+
+	public CompletableFuture<Boolean> borrar(int id) {
+		return EjecutorBD.ejecutar(() -> dao.borrar(id));
+	}
+
+	/**
+	 * @return El DAO síncrono envuelto (para operaciones específicas).
+	 */
+	public BaseDAO<T> getDao() {
+		return dao;
+	}
+}
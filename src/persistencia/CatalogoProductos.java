@@ -0,0 +1,479 @@
+package persistencia;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import conexion.Configuracion;
+import metricas.Metricas;
+import modelo.AlmacenProductos;
+
+/**
+ * Caché en memoria del catálogo de productos para la ruta de escaneo en caja.
+ * <p>
+ * Mantiene dos índices hash: por clave primaria ({@code Pid}) y por código de
+ * barras ({@code Codigo}). Una vez cargado, un escaneo se resuelve sin acceder
+ * a la base de datos. Las búsquedas por texto parcial usan un
+ * {@link IndiceTrigramas} sobre nombre y descripción.
+ * </p>
+ * <p>
+ * <b>Consistencia:</b>
+ * <ul>
+ * <li>Los DAOs que modifican productos ({@link AlmacenProductosDAO} y
+ * {@link VentaDAO}) notifican a esta caché tras cada operación exitosa, por lo
+ * que los cambios de esta caja se reflejan de inmediato.</li>
+ * <li>Los cambios hechos desde otras cajas se absorben con una recarga
+ * completa periódica ({@code pos.catalogo.refrescoSeg}). Los productos que
+ * esta caja cambia mientras la recarga lee la base de datos se vuelven a leer
+ * tras publicar el catálogo nuevo, para que no se pierdan al reemplazarlo.</li>
+ * <li>Un fallo (código o ID desconocido) consulta la base de datos una vez y
+ * agrega el producto si existe.</li>
+ * </ul>
+ * </p>
+ * <p>
+ * <b>Nota:</b> Los objetos devueltos son compartidos; no deben modificarse. Los
+ * cambios de stock reemplazan la instancia en lugar de mutarla.
+ * </p>
+ * <p>
+ * Aciertos, fallos, tamaño y antigüedad se publican en {@link Metricas} como
+ * {@code catalogo.*}.
+ * </p>
+ *
+ * @version 1.4
+ */
+public class CatalogoProductos {
+
+	/** Instancia única compartida por todos los controladores. */
+	private static final CatalogoProductos INSTANCIA = new CatalogoProductos();
+
+	/** DAO utilizado para cargar y refrescar productos. */
+	private final AlmacenProductosDAO productoDAO = new AlmacenProductosDAO();
+
+	/** Índice principal: Pid → producto. */
+	private volatile Map<Integer, AlmacenProductos> porId = new ConcurrentHashMap<>();
+
+	/** Índice secundario: Código de barras → Pid. */
+	private volatile Map<String, Integer> idPorCodigo = new ConcurrentHashMap<>();
+
+	/** Índice de texto para búsquedas parciales por nombre/descripción. */
+	private volatile IndiceTrigramas indiceTexto = new IndiceTrigramas();
+
+	/** Máximo de resultados devueltos por una búsqueda de texto. */
+	private final int maxResultados = Configuracion.getEntero("pos.catalogo.maxResultados", 50);
+
+	/** Indica si ya se completó al menos una carga completa. */
+	private volatile boolean cargado = false;
+
+	/** Momento (epoch ms) de la última carga completa. */
+	private volatile long ultimaCargaCompleta = 0;
+
+	/** Momento (epoch ms) del último cambio incremental aplicado. */
+	private volatile long ultimoCambio = 0;
+
+	private final LongAdder aciertos = new LongAdder();
+	private final LongAdder fallos = new LongAdder();
+
+	/** Hilo para la carga inicial y las recargas periódicas. */
+	private final ScheduledExecutorService refresco = Executors.newSingleThreadScheduledExecutor(r -> {
+		Thread hilo = new Thread(r, "catalogo-productos-refresco");
+		hilo.setDaemon(true);
+		return hilo;
+	});
+
+	private volatile boolean refrescoProgramado = false;
+
+	/** Serializa los cambios incrementales con la publicación de una recarga. */
+	private final Object bloqueoCambios = new Object();
+
+	/**
+	 * Productos con cambios incrementales durante la recarga en curso, para
+	 * releerlos tras publicar los índices nuevos; {@code null} si no hay recarga
+	 * en curso.
+	 */
+	private Set<Integer> cambiadosDuranteCarga;
+
+	/**
+	 * Constructor privado (Singleton).
+	 */
+	private CatalogoProductos() {
+		Metricas.acumulado("catalogo.aciertos", this::getAciertos);
+		Metricas.acumulado("catalogo.fallos", this::getFallos);
+		Metricas.indicador("catalogo.tasaAciertos", this::getTasaAciertos);
+		Metricas.indicador("catalogo.productos", this::getTamano);
+		Metricas.indicador("catalogo.antiguedadSegundos", () -> cargado ? getAntiguedadMs() / 1000.0 : Double.NaN);
+	}
+
+	/**
+	 * Obtiene la instancia compartida del catálogo.
+	 *
+	 * @return Instancia única.
+	 */
+	public static CatalogoProductos getInstancia() {
+		return INSTANCIA;
+	}
+
+	// ==========================================
+	// CARGA
+	// ==========================================
+
+	/**
+	 * Carga el catálogo completo desde la base de datos y reemplaza los índices.
+	 * <p>
+	 * Los índices nuevos se construyen aparte y se publican de una sola vez, por
+	 * lo que las búsquedas concurrentes nunca ven un catálogo a medio cargar.
+	 * Los productos con cambios incrementales ({@link #ajustarStock}, altas,
+	 * bajas) durante la lectura se vuelven a leer de la base de datos al
+	 * terminar: la consulta completa pudo haber visto el cambio o no, así que
+	 * repetir un ajuste relativo podría contarlo dos veces.
+	 * </p>
+	 * <p>
+	 * Si la consulta no devuelve productos y ya había un catálogo cargado (ej.
+	 * la base de datos no respondió), se conserva el catálogo actual.
+	 * </p>
+	 */
+	public synchronized void cargar() {
+		synchronized (bloqueoCambios) {
+			cambiadosDuranteCarga = new HashSet<>();
+		}
+		Set<Integer> releer;
+		try {
+			releer = publicar(productoDAO.ObtenerTodo());
+		} finally {
+			synchronized (bloqueoCambios) {
+				cambiadosDuranteCarga = null;
+			}
+		}
+		for (Integer id : releer) {
+			refrescar(id);
+		}
+	}
+
+	/**
+	 * Construye los índices de una carga completa y los publica.
+	 *
+	 * @return Productos cambiados durante la lectura, que hay que releer (vacío
+	 *         si se conservó el catálogo actual).
+	 */
+	private Set<Integer> publicar(List<AlmacenProductos> productos) {
+		if (productos.isEmpty() && cargado && !porId.isEmpty()) {
+			System.err.println("⚠ La recarga del catálogo no devolvió productos; se conserva el catálogo actual.");
+			return Set.of();
+		}
+
+		Map<Integer, AlmacenProductos> nuevoPorId = new ConcurrentHashMap<>(productos.size() * 2);
+		Map<String, Integer> nuevoPorCodigo = new ConcurrentHashMap<>(productos.size() * 2);
+		Map<Integer, String[]> textos = new HashMap<>(productos.size() * 2);
+		for (AlmacenProductos p : productos) {
+			nuevoPorId.put(p.getid(), p);
+			if (p.getCodigo() != null) {
+				nuevoPorCodigo.put(p.getCodigo(), p.getid());
+			}
+			textos.put(p.getid(), new String[] { p.getNombre(), p.getDescripcion() });
+		}
+		IndiceTrigramas nuevoIndice = IndiceTrigramas.construir(textos);
+
+		synchronized (bloqueoCambios) {
+			this.porId = nuevoPorId;
+			this.idPorCodigo = nuevoPorCodigo;
+			this.indiceTexto = nuevoIndice;
+			this.ultimaCargaCompleta = System.currentTimeMillis();
+			this.cargado = true;
+			Set<Integer> releer = cambiadosDuranteCarga;
+			cambiadosDuranteCarga = null; // Los cambios siguientes ya caen en los índices nuevos
+			return releer;
+		}
+	}
+
+	/**
+	 * Inicia la carga del catálogo en segundo plano y programa las recargas
+	 * periódicas. Llamadas posteriores no tienen efecto.
+	 */
+	public synchronized void cargarEnSegundoPlano() {
+		if (refrescoProgramado) {
+			return;
+		}
+		refrescoProgramado = true;
+		long periodo = Configuracion.getEntero("pos.catalogo.refrescoSeg", 300);
+		Runnable tarea = () -> {
+			try {
+				cargar();
+			} catch (RuntimeException e) {
+				System.err.println("❌ Error al cargar el catálogo de productos: " + e.getMessage());
+			}
+		};
+		if (periodo > 0) {
+			refresco.scheduleWithFixedDelay(tarea, 0, periodo, TimeUnit.SECONDS);
+		} else {
+			refresco.execute(tarea);
+		}
+	}
+
+	// ==========================================
+	// BÚSQUEDAS (RUTA DE ESCANEO)
+	// ==========================================
+
+	/**
+	 * Busca un producto por su ID.
+	 * <p>
+	 * Si el producto no está en memoria (catálogo aún sin cargar o producto dado
+	 * de alta en otra caja), se consulta la base de datos y se agrega al índice.
+	 * </p>
+	 *
+	 * @param id Clave primaria del producto.
+	 * @return El producto o {@code null} si no existe.
+	 */
+	public AlmacenProductos buscarPorID(int id) {
+		AlmacenProductos producto = porId.get(id);
+		if (producto != null) {
+			aciertos.increment();
+			return producto;
+		}
+		fallos.increment();
+		producto = productoDAO.buscarPorID(id);
+		if (producto != null && cargado) {
+			indexar(producto);
+		}
+		return producto;
+	}
+
+	/**
+	 * Busca un producto por su código de barras exacto.
+	 *
+	 * @param codigo Código escaneado.
+	 * @return El producto o {@code null} si no existe.
+	 */
+	public AlmacenProductos buscarPorCodigo(String codigo) {
+		Integer id = idPorCodigo.get(codigo);
+		if (id != null) {
+			AlmacenProductos producto = porId.get(id);
+			if (producto != null) {
+				aciertos.increment();
+				return producto;
+			}
+		}
+		fallos.increment();
+		AlmacenProductos producto = productoDAO.buscarPorCodigo(codigo);
+		if (producto != null && cargado) {
+			indexar(producto);
+		}
+		return producto;
+	}
+
+	/**
+	 * Busca un producto por su ID sólo en memoria, sin consultar la base de
+	 * datos; se puede llamar desde el EDT.
+	 *
+	 * @param id Clave primaria del producto.
+	 * @return El producto o {@code null} si no está en el catálogo (usar
+	 *         {@link #buscarPorID(int)} fuera del EDT).
+	 */
+	public AlmacenProductos buscarEnMemoriaPorID(int id) {
+		AlmacenProductos producto = porId.get(id);
+		if (producto != null) {
+			aciertos.increment();
+		}
+		return producto;
+	}
+
+	/**
+	 * Busca un producto por su código de barras sólo en memoria, sin consultar
+	 * la base de datos; se puede llamar desde el EDT.
+	 *
+	 * @param codigo Código escaneado.
+	 * @return El producto o {@code null} si no está en el catálogo (usar
+	 *         {@link #buscarPorCodigo(String)} fuera del EDT).
+	 */
+	public AlmacenProductos buscarEnMemoriaPorCodigo(String codigo) {
+		Integer id = idPorCodigo.get(codigo);
+		return (id == null) ? null : buscarEnMemoriaPorID(id);
+	}
+
+	/**
+	 * Busca productos por texto parcial en nombre o descripción.
+	 * <p>
+	 * Reemplaza a {@link AlmacenProductosDAO#buscarPorNombre(String)} (que usa
+	 * {@code LIKE '%termino%'} y recorre toda la tabla). Los resultados vienen
+	 * ordenados por relevancia y limitados a {@code pos.catalogo.maxResultados}.
+	 * Mientras el catálogo no esté cargado se delega en el DAO.
+	 * </p>
+	 *
+	 * @param termino Texto capturado por el usuario.
+	 * @return Productos que coinciden, del más al menos relevante.
+	 */
+	public List<AlmacenProductos> buscarPorNombre(String termino) {
+		if (!cargado) {
+			fallos.increment();
+			return productoDAO.buscarPorNombre(termino);
+		}
+		aciertos.increment();
+		List<AlmacenProductos> resultado = new ArrayList<>();
+		for (Integer id : indiceTexto.buscar(termino, maxResultados)) {
+			AlmacenProductos producto = porId.get(id);
+			if (producto != null) {
+				resultado.add(producto);
+			}
+		}
+		return resultado;
+	}
+
+	// ==========================================
+	// ACTUALIZACIÓN INCREMENTAL
+	// ==========================================
+
+	/**
+	 * Vuelve a leer un producto desde la base de datos (alta o modificación).
+	 * <p>
+	 * Se relee en lugar de usar el objeto del formulario porque éste no trae los
+	 * nombres de categoría y proveedor (JOIN).
+	 * </p>
+	 *
+	 * @param id Clave primaria del producto modificado.
+	 */
+	public void refrescar(int id) {
+		if (!cargado) {
+			return;
+		}
+		AlmacenProductos producto = productoDAO.buscarPorID(id);
+		if (producto != null) {
+			indexar(producto);
+		} else {
+			quitar(id);
+		}
+	}
+
+	/**
+	 * Elimina un producto de los índices.
+	 *
+	 * @param id Clave primaria del producto borrado.
+	 */
+	public void quitar(int id) {
+		aplicar(id, () -> {
+			AlmacenProductos anterior = porId.remove(id);
+			if (anterior != null && anterior.getCodigo() != null) {
+				idPorCodigo.remove(anterior.getCodigo(), id);
+			}
+			indiceTexto.quitar(id);
+		});
+	}
+
+	/**
+	 * Aplica un cambio de existencias ya confirmado en la base de datos.
+	 * <p>
+	 * Reemplaza la instancia en caché por una copia con la nueva cantidad.
+	 * </p>
+	 *
+	 * @param id    Clave primaria del producto.
+	 * @param delta Cantidad a sumar (positiva) o restar (negativa).
+	 */
+	public void ajustarStock(int id, int delta) {
+		aplicar(id, () -> porId.computeIfPresent(id,
+				(clave, p) -> new AlmacenProductos(p.getid(), p.getNombre(), p.getDescripcion(), p.getPrecio(),
+						p.getCodigo(), p.getCantidad() + delta, p.getRuta(), p.getCategoriaId(),
+						p.getCategoriaNombre(), p.getProveedorId(), p.getProveedorNombre(), p.getStockMinimo())));
+	}
+
+	/**
+	 * Inserta o reemplaza un producto en los índices de clave, código y texto.
+	 *
+	 * @param producto Producto leído de la base de datos.
+	 */
+	private void indexar(AlmacenProductos producto) {
+		aplicar(producto.getid(), () -> {
+			AlmacenProductos anterior = porId.put(producto.getid(), producto);
+			if (anterior != null && anterior.getCodigo() != null
+					&& !anterior.getCodigo().equals(producto.getCodigo())) {
+				idPorCodigo.remove(anterior.getCodigo(), producto.getid());
+			}
+			if (producto.getCodigo() != null) {
+				idPorCodigo.put(producto.getCodigo(), producto.getid());
+			}
+			indiceTexto.agregar(producto.getid(), producto.getNombre(), producto.getDescripcion());
+		});
+	}
+
+	/**
+	 * Aplica un cambio incremental a los índices actuales y, si hay una recarga
+	 * en curso, anota el producto para releerlo al terminar.
+	 *
+	 * @param id     Clave primaria del producto afectado.
+	 * @param cambio Operación sobre {@link #porId}, {@link #idPorCodigo} y
+	 *               {@link #indiceTexto} (se leen al ejecutarla).
+	 */
+	private void aplicar(int id, Runnable cambio) {
+		synchronized (bloqueoCambios) {
+			cambio.run();
+			if (cambiadosDuranteCarga != null) {
+				cambiadosDuranteCarga.add(id);
+			}
+			ultimoCambio = System.currentTimeMillis();
+		}
+	}
+
+	// ==========================================
+	// ESTADÍSTICAS
+	// ==========================================
+
+	/**
+	 * @return {@code true} si ya se completó una carga completa.
+	 */
+	public boolean isCargado() {
+		return cargado;
+	}
+
+	/**
+	 * @return Número de productos en memoria.
+	 */
+	public int getTamano() {
+		return porId.size();
+	}
+
+	public long getAciertos() {
+		return aciertos.sum();
+	}
+
+	public long getFallos() {
+		return fallos.sum();
+	}
+
+	/**
+	 * Calcula la proporción de búsquedas resueltas sin ir a la base de datos.
+	 *
+	 * @return Valor entre 0 y 1 (0 si aún no hay búsquedas).
+	 */
+	public double getTasaAciertos() {
+		long a = aciertos.sum();
+		long total = a + fallos.sum();
+		return (total == 0) ? 0.0 : (double) a / total;
+	}
+
+	/**
+	 * Antigüedad de la última carga completa: cota superior del tiempo que puede
+	 * tardar en verse un cambio hecho desde otra caja.
+	 *
+	 * @return Milisegundos desde la última carga completa, o -1 si nunca se cargó.
+	 */
+	public long getAntiguedadMs() {
+		return cargado ? System.currentTimeMillis() - ultimaCargaCompleta : -1;
+	}
+
+	/**
+	 * @return Momento (epoch ms) del último cambio incremental, o 0 si no hubo.
+	 */
+	public long getUltimoCambio() {
+		return ultimoCambio;
+	}
+
+	@Override
+	public String toString() {
+		return String.format("Catalogo[productos=%d, aciertos=%d, fallos=%d, tasa=%.1f%%, antiguedad=%d ms]",
+				getTamano(), getAciertos(), getFallos(), getTasaAciertos() * 100, getAntiguedadMs());
+	}
+}
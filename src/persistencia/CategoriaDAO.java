@@ -2,11 +2,13 @@ package persistencia;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 
-import conexion.Conexion;
 import modelo.BaseDatos;
 import modelo.Categorias;
 import modelogenerico.BaseDAO;
+import modelogenerico.Criterio;
+import modelogenerico.Pagina;
 
 /**
  * Clase de Acceso a Datos (DAO) para la entidad {@link Categorias}.
@@ -15,10 +17,13 @@ import modelogenerico.BaseDAO;
  * de las operaciones básicas, esta clase incluye lógica SQL avanzada para
  * calcular estadísticas en tiempo real (conteo de productos por categoría).
  * </p>
- * * @version 1.1
+ * * @version 1.2
  */
 public class CategoriaDAO implements BaseDAO<Categorias> {
 
+	/** Campos lógicos permitidos en {@link #buscarPagina(Criterio)}. */
+	private static final Map<String, String> COLUMNAS = Map.of("nombre", "c.Nombre");
+
 	/**
 	 * Busca una categoría específica por su ID.
 	 * <p>
@@ -31,7 +36,7 @@ public class CategoriaDAO implements BaseDAO<Categorias> {
 	 */
 	@Override
 	public Categorias buscarPorID(int id) {
-		BaseDatos bd = new BaseDatos(Conexion.getConexion());
+		BaseDatos bd = new BaseDatos();
 		ArrayList<Object[]> res = bd.consultar("TablaCategorias", "Cid, Nombre", "Cid = " + id);
 
 		if (!res.isEmpty()) {
@@ -54,7 +59,7 @@ public class CategoriaDAO implements BaseDAO<Categorias> {
 	 */
 	@Override
 	public List<Categorias> ObtenerTodo() {
-		BaseDatos bd = new BaseDatos(Conexion.getConexion());
+		BaseDatos bd = new BaseDatos();
 		List<Categorias> lista = new ArrayList<>();
 
 		// TRUCO: Como BaseDatos.consultar hace "SELECT [campos] FROM [tabla]
@@ -84,7 +89,7 @@ public class CategoriaDAO implements BaseDAO<Categorias> {
 	 */
 	@Override
 	public boolean agregar(Categorias entidad) {
-		BaseDatos bd = new BaseDatos(Conexion.getConexion());
+		BaseDatos bd = new BaseDatos();
 		Object[] valores = { entidad.getNombre() };
 
 		int id = bd.insertar("TablaCategorias", "Nombre", valores);
@@ -104,7 +109,7 @@ public class CategoriaDAO implements BaseDAO<Categorias> {
 	 */
 	@Override
 	public boolean modificar(Categorias entidad) {
-		BaseDatos bd = new BaseDatos(Conexion.getConexion());
+		BaseDatos bd = new BaseDatos();
 		Object[] valores = { entidad.getNombre() };
 
 		return bd.modificar("TablaCategorias", "Nombre=?", "Cid=" + entidad.getid(), valores);
@@ -124,7 +129,35 @@ public class CategoriaDAO implements BaseDAO<Categorias> {
 	 */
 	@Override
 	public boolean borrar(int id) {
-		BaseDatos bd = new BaseDatos(Conexion.getConexion());
+		BaseDatos bd = new BaseDatos();
 		return bd.eliminar("TablaCategorias", "Cid = ?", id);
 	}
+
+	/**
+	 * Recupera una página de categorías filtrada y ordenada en el servidor.
+	 * <p>
+	 * El conteo de productos se calcula con una subconsulta por fila, de modo
+	 * que la paginación por cursor funciona igual que en las demás tablas.
+	 * Campos lógicos: {@code id} y {@code nombre}.
+	 * </p>
+	 * 
+	 * @param criterio Filtros, orden y cursor.
+	 * @return Página de {@link Categorias} con su conteo de productos.
+	 */
+	@Override
+	public Pagina<Categorias> buscarPagina(Criterio criterio) {
+		BaseDatos bd = new BaseDatos();
+		String campos = "c.Cid, c.Nombre, "
+				+ "(SELECT COUNT(*) FROM TablaAlmacen_Productos p WHERE p.CategoriaID = c.Cid) AS ConteoProductos";
+		return bd.consultarPagina("TablaCategorias c", campos, COLUMNAS, "c.Cid", criterio)
+				.mapear(fila -> new Categorias((int) fila[0], (String) fila[1], ((Number) fila[2]).intValue()));
+	}
+
+	/**
+	 * @return {@code true}: este DAO implementa {@link #buscarPagina(Criterio)}.
+	 */
+	@Override
+	public boolean soportaPaginacion() {
+		return true;
+	}
 }
\ No newline at end of file
@@ -2,11 +2,13 @@ package persistencia;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 
-import conexion.Conexion;
 import modelo.BaseDatos;
 import modelo.Clientes;
 import modelogenerico.BaseDAO;
+import modelogenerico.Criterio;
+import modelogenerico.Pagina;
 
 /**
  * Clase de Acceso a Datos (DAO) para la entidad {@link Clientes}.
@@ -16,10 +18,13 @@ import modelogenerico.BaseDAO;
  * catálogo de clientes para su selección en el módulo de ventas.
  * </p>
  * 
- * @version 1.0
+ * @version 1.1
  */
 public class ClienteDAO implements BaseDAO<Clientes> {
 
+	/** Campos lógicos permitidos en {@link #buscarPagina(Criterio)}. */
+	private static final Map<String, String> COLUMNAS = Map.of("nombre", "NombreC", "telefono", "NumeroTel");
+
 	/**
 	 * Busca un cliente específico mediante su clave primaria.
 	 * <p>
@@ -32,7 +37,7 @@ public class ClienteDAO implements BaseDAO<Clientes> {
 	 */
 	@Override
 	public Clientes buscarPorID(int id) {
-		BaseDatos bd = new BaseDatos(Conexion.getConexion());
+		BaseDatos bd = new BaseDatos();
 
 		// Consultamos la tabla clientes
 		ArrayList<Object[]> resultados = bd.consultar("TablaClientes", "Cid, NombreC, NumeroTel", "Cid = " + id);
@@ -58,7 +63,7 @@ public class ClienteDAO implements BaseDAO<Clientes> {
 	 */
 	@Override
 	public List<Clientes> ObtenerTodo() {
-		BaseDatos bd = new BaseDatos(Conexion.getConexion());
+		BaseDatos bd = new BaseDatos();
 		List<Clientes> lista = new ArrayList<>();
 
 		// Traemos todos los clientes
@@ -82,7 +87,7 @@ public class ClienteDAO implements BaseDAO<Clientes> {
 	 */
 	@Override
 	public boolean agregar(Clientes entidad) {
-		BaseDatos bd = new BaseDatos(Conexion.getConexion());
+		BaseDatos bd = new BaseDatos();
 
 		Object[] valores = { entidad.getNombre(), entidad.getNumTel() };
 
@@ -104,7 +109,7 @@ public class ClienteDAO implements BaseDAO<Clientes> {
 	 */
 	@Override
 	public boolean modificar(Clientes entidad) {
-		BaseDatos bd = new BaseDatos(Conexion.getConexion());
+		BaseDatos bd = new BaseDatos();
 
 		Object[] valores = { entidad.getNombre(), entidad.getNumTel() };
 
@@ -125,7 +130,31 @@ public class ClienteDAO implements BaseDAO<Clientes> {
 	 */
 	@Override
 	public boolean borrar(int id) {
-		BaseDatos bd = new BaseDatos(Conexion.getConexion());
+		BaseDatos bd = new BaseDatos();
 		return bd.eliminar("TablaClientes", "Cid = ?", id);
 	}
-}
\ No newline at end of file
+
+	/**
+	 * Recupera una página de clientes filtrada y ordenada en el servidor.
+	 * <p>
+	 * Campos lógicos: {@code id}, {@code nombre}, {@code telefono}.
+	 * </p>
+	 * 
+	 * @param criterio Filtros, orden y cursor.
+	 * @return Página de {@link Clientes}.
+	 */
+	@Override
+	public Pagina<Clientes> buscarPagina(Criterio criterio) {
+		BaseDatos bd = new BaseDatos();
+		return bd.consultarPagina("TablaClientes", "Cid, NombreC, NumeroTel", COLUMNAS, "Cid", criterio)
+				.mapear(fila -> new Clientes((int) fila[0], (String) fila[1], (String) fila[2]));
+	}
+
+	/**
+	 * @return {@code true}: este DAO implementa {@link #buscarPagina(Criterio)}.
+	 */
+	@Override
+	public boolean soportaPaginacion() {
+		return true;
+	}
+}
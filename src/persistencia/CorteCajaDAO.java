@@ -18,7 +18,7 @@ import modelo.CorteCaja;
  * (Insertar), Verificación de Estado (Consultar Abiertos) y Cierre
  * (Actualizar).
  * </p>
- * * @version 1.1
+ * * @version 1.3
  */
 public class CorteCajaDAO {
 
@@ -26,7 +26,8 @@ public class CorteCajaDAO {
 	 * Registra la APERTURA de un nuevo turno de caja.
 	 * <p>
 	 * Inserta un registro con el monto inicial (fondo) y el estado "Abierto". La
-	 * fecha de cierre y los montos finales quedan nulos o en cero.
+	 * fecha de cierre y los montos finales quedan nulos o en cero. En la misma
+	 * transacción crea la fila de saldos del turno ({@link SaldoCorteDAO#crear}).
 	 * </p>
 	 * * @param corte Objeto {@link CorteCaja} con los datos de inicio.
 	 * 
@@ -36,22 +37,33 @@ public class CorteCajaDAO {
 		String sql = "INSERT INTO TablaCortesCaja (UsuarioID, FechaApertura, MontoInicial, Status) "
 				+ "VALUES (?, ?, ?, ?)";
 
-		try (Connection con = Conexion.getConexion();
-				PreparedStatement ps = con.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
-
-			ps.setInt(1, corte.getUsuarioID());
-			ps.setTimestamp(2, new java.sql.Timestamp(corte.getFechaApertura().getTime()));
-			ps.setDouble(3, corte.getMontoInicial());
-			ps.setString(4, corte.getStatus()); // "Abierto"
-
-			int filasAfectadas = ps.executeUpdate();
-
-			if (filasAfectadas > 0) {
-				try (ResultSet rs = ps.getGeneratedKeys()) {
-					if (rs.next()) {
-						return rs.getInt(1); // Devuelve el CorteID generado
+		try (Connection con = Conexion.getConexion()) {
+			con.setAutoCommit(false);
+			try (PreparedStatement ps = con.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+
+				ps.setInt(1, corte.getUsuarioID());
+				ps.setTimestamp(2, new java.sql.Timestamp(corte.getFechaApertura().getTime()));
+				ps.setDouble(3, corte.getMontoInicial());
+				ps.setString(4, corte.getStatus()); // "Abierto"
+
+				int filasAfectadas = ps.executeUpdate();
+
+				if (filasAfectadas > 0) {
+					try (ResultSet rs = ps.getGeneratedKeys()) {
+						if (rs.next()) {
+							int corteId = rs.getInt(1);
+							SaldoCorteDAO.crear(con, corteId, corte.getMontoInicial());
+							con.commit();
+							return corteId; // Devuelve el CorteID generado
+						}
 					}
 				}
+				con.rollback();
+			} catch (SQLException e) {
+				con.rollback();
+				throw e;
+			} finally {
+				con.setAutoCommit(true);
 			}
 		} catch (SQLException e) {
 			System.err.println("Error al agregar el corte de caja: " + e.getMessage());
@@ -98,6 +110,26 @@ public class CorteCajaDAO {
 		return corte; // Devuelve el corte encontrado, o null
 	}
 
+	/**
+	 * Cuenta los turnos de caja abiertos en toda la tienda (de cualquier fecha).
+	 * 
+	 * @return Número de cortes en estado "Abierto", o -1 si hubo error.
+	 */
+	public int contarAbiertos() {
+		String sql = "SELECT COUNT(*) FROM TablaCortesCaja WHERE Status = 'Abierto'";
+
+		try (Connection con = Conexion.getConexion();
+				PreparedStatement ps = con.prepareStatement(sql);
+				ResultSet rs = ps.executeQuery()) {
+			if (rs.next()) {
+				return rs.getInt(1);
+			}
+		} catch (SQLException e) {
+			System.err.println("Error al contar los cortes abiertos: " + e.getMessage());
+		}
+		return -1;
+	}
+
 	/**
 	 * Realiza el CIERRE administrativo de la caja.
 	 * <p>
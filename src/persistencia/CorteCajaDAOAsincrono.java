@@ -0,0 +1,44 @@
+package persistencia;
+
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import modelo.CorteCaja;
+
+/**
+ * Fachada asíncrona sobre {@link CorteCajaDAO}.
+ * <p>
+ * Cada método delega en el DAO síncrono dentro de {@link EjecutorBD}; el
+ * resultado se entrega en el EDT.
+ * </p>
+ *
+ * @version 1.0
+ */
+public class CorteCajaDAOAsincrono {
+
+	private final CorteCajaDAO dao;
+
+	/**
+	 * @param dao DAO síncrono a envolver.
+	 */
+	public CorteCajaDAOAsincrono(CorteCajaDAO dao) {
+		this.dao = dao;
+	}
+
+	public CompletableFuture<Integer> agregar(CorteCaja corte) {
+		return EjecutorBD.ejecutar(() -> dao.agregar(corte));
+	}
+
+	public CompletableFuture<CorteCaja> buscarCorteAbiertoHoy(int usuarioID) {
+		return EjecutorBD.ejecutar(() -> dao.buscarCorteAbiertoHoy(usuarioID));
+	}
+
+	public CompletableFuture<Boolean> cerrarCorte(CorteCaja corte) {
+		return EjecutorBD.ejecutar(() -> dao.cerrarCorte(corte));
+	}
+
+	public CompletableFuture<List<CorteCaja>> obtenerHistorialCortes(Date fechaInicio, Date fechaFin) {
+		return EjecutorBD.ejecutar(() -> dao.obtenerHistorialCortes(fechaInicio, fechaFin));
+	}
+}
@@ -0,0 +1,667 @@
+package persistencia;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.CRC32;
+
+import conexion.Configuracion;
+import metricas.Metricas;
+import modelo.Venta;
+import modelo.VentaDetalle;
+
+/**
+ * Diario local de ventas (write-ahead log) para que el cobro no dependa de la
+ * red.
+ * <p>
+ * Al finalizar una venta, la caja la escribe primero en un archivo local de
+ * sólo-agregar y fuerza el disco ({@code fsync}); a partir de ese momento la
+ * venta está a salvo aunque el servidor SQL esté caído o lento. Un hilo
+ * reproductor envía después cada registro a {@link VentaDAO#registrar(Venta)},
+ * en el mismo orden en que se cobraron.
+ * </p>
+ * <p>
+ * <b>Garantías:</b>
+ * <ul>
+ * <li><b>Durabilidad:</b> cada registro lleva longitud y CRC32. Si la caja se
+ * apaga a media escritura, el registro incompleto del final se descarta al
+ * iniciar (nunca se confirmó al cajero). Un registro dañado que no es el
+ * último impide abrir el diario, para no perder las ventas que le siguen.</li>
+ * <li><b>Catálogo:</b> las ventas escritas en esta sesión descuentan el stock
+ * del {@link CatalogoProductos} al escribirse; las recuperadas de una sesión
+ * anterior, cuando el servidor las confirma por primera vez.</li>
+ * <li><b>Idempotencia:</b> cada venta lleva una clave única
+ * ({@link Venta#getClaveIdempotencia()}) guardada en
+ * {@code TablaVentas.ClaveIdempotencia}. Si la caja se cae entre el commit en
+ * el servidor y el avance del punto de control, el reintento encuentra la
+ * clave y no duplica la venta.</li>
+ * <li><b>Reintentos:</b> los errores transitorios (conexión, timeout, deadlock)
+ * se reintentan con espera exponencial y variación aleatoria hasta
+ * {@code pos.diario.reintentoMaxMs}. Los errores definitivos (integridad o
+ * datos inválidos) apartan el registro en {@code ventas.rechazadas} para no
+ * bloquear la cola.</li>
+ * </ul>
+ * </p>
+ * <p>
+ * <b>Archivos</b> (en {@code pos.diario.ruta}): {@code ventas.diario} con los
+ * registros y {@code ventas.checkpoint} con la posición hasta la que ya se
+ * confirmó en el servidor. Cuando todo está confirmado y el diario pasa de
+ * {@value #COMPACTAR_DESDE} bytes, se trunca a cero.
+ * </p>
+ * <p>
+ * Requiere el script {@code sql/diario_ventas.sql}. Se activa con
+ * {@code pos.diario.habilitado=true}.
+ * </p>
+ * <p>
+ * Lo pendiente de enviar se publica en {@link Metricas} como
+ * {@code diario.pendientes} (ventas) y {@code diario.pendientesBytes}.
+ * </p>
+ *
+ * @version 1.3
+ */
+public class DiarioVentas {
+
+	/** Formato de la carga útil de cada registro. */
+	private static final int VERSION_REGISTRO = 1;
+
+	/** Bytes de cabecera por registro: longitud (int) + CRC32 (int). */
+	private static final int CABECERA = 8;
+
+	/** Tamaño máximo aceptado para un registro (protege la recuperación). */
+	private static final int MAXIMO_REGISTRO = 1 << 20;
+
+	/** Tamaño a partir del cual un diario totalmente confirmado se trunca. */
+	private static final long COMPACTAR_DESDE = 4L * 1024 * 1024;
+
+	/** Primera espera tras un error transitorio. */
+	private static final long REINTENTO_INICIAL_MS = 500;
+
+	/** Espera del reproductor cuando no hay registros nuevos. */
+	private static final long ESPERA_INACTIVO_SEG = 5;
+
+	private static DiarioVentas instancia;
+
+	private final Path archivo;
+	private final Path archivoCheckpoint;
+	private final Path archivoRechazadas;
+	private final VentaDAO ventaDAO;
+	private final long reintentoMaxMs;
+
+	private FileChannel canal;
+
+	/** Fin del último registro completo (siguiente posición de escritura). */
+	private volatile long posicionEscritura = 0;
+
+	/** Fin del último registro ya confirmado en el servidor. */
+	private volatile long posicionConfirmada = 0;
+
+	private final AtomicInteger pendientes = new AtomicInteger();
+
+	/** Despierta al reproductor cuando se agrega un registro. */
+	private final Semaphore aviso = new Semaphore(0);
+
+	/** Clave de idempotencia → folio, para quien espera la confirmación. */
+	private final Map<String, CompletableFuture<Integer>> confirmaciones = new ConcurrentHashMap<>();
+
+	private volatile String ultimoError;
+
+	/**
+	 * Registro leído del diario.
+	 */
+	private static final class Registro {
+		final byte[] crudo;
+		final long fin;
+
+		Registro(byte[] crudo, long fin) {
+			this.crudo = crudo;
+			this.fin = fin;
+		}
+	}
+
+	/**
+	 * @param directorio     Carpeta donde viven los archivos del diario.
+	 * @param ventaDAO       DAO con el que se confirman las ventas.
+	 * @param reintentoMaxMs Espera máxima entre reintentos.
+	 */
+	DiarioVentas(Path directorio, VentaDAO ventaDAO, long reintentoMaxMs) {
+		this.archivo = directorio.resolve("ventas.diario");
+		this.archivoCheckpoint = directorio.resolve("ventas.checkpoint");
+		this.archivoRechazadas = directorio.resolve("ventas.rechazadas");
+		this.ventaDAO = ventaDAO;
+		this.reintentoMaxMs = reintentoMaxMs;
+	}
+
+	/**
+	 * Obtiene el diario compartido de esta caja.
+	 *
+	 * @return Instancia única (aún sin abrir; ver {@link #iniciar()}).
+	 */
+	public static synchronized DiarioVentas getInstancia() {
+		if (instancia == null) {
+			instancia = new DiarioVentas(Path.of(Configuracion.getTexto("pos.diario.ruta", "diario")), new VentaDAO(),
+					Configuracion.getEntero("pos.diario.reintentoMaxMs", 60_000));
+			DiarioVentas diario = instancia;
+			Metricas.indicador("diario.pendientes", () -> diario.isIniciado() ? diario.getPendientes() : Double.NaN);
+			Metricas.indicador("diario.pendientesBytes",
+					() -> diario.isIniciado() ? diario.posicionEscritura - diario.posicionConfirmada : Double.NaN);
+		}
+		return instancia;
+	}
+
+	/**
+	 * @return {@code true} si la configuración activa el diario local.
+	 */
+	public static boolean isHabilitado() {
+		return Configuracion.getBooleano("pos.diario.habilitado", false);
+	}
+
+	// ==========================================
+	// APERTURA Y RECUPERACIÓN
+	// ==========================================
+
+	/**
+	 * Abre el diario, descarta un posible registro incompleto del final y
+	 * arranca el reproductor. Las ventas pendientes de una sesión anterior se
+	 * envían de inmediato.
+	 * <p>
+	 * Llamarlo más de una vez no tiene efecto.
+	 * </p>
+	 *
+	 * @return {@code true} si el diario quedó listo para registrar ventas.
+	 */
+	public synchronized boolean iniciar() {
+		if (canal != null) {
+			return true;
+		}
+		try {
+			Files.createDirectories(archivo.getParent());
+			canal = FileChannel.open(archivo, StandardOpenOption.CREATE, StandardOpenOption.READ,
+					StandardOpenOption.WRITE);
+			recuperar();
+		} catch (IOException e) {
+			System.err.println("❌ No se pudo abrir el diario de ventas " + archivo + ": " + e.getMessage());
+			canal = null;
+			return false;
+		}
+
+		Thread.ofPlatform().daemon().name("diario-ventas").start(this::reproducir);
+		System.out.println("Diario de ventas abierto (" + pendientes.get() + " pendientes de enviar).");
+		return true;
+	}
+
+	/**
+	 * Recorre los registros aún no confirmados y trunca el final si quedó a
+	 * medias.
+	 *
+	 * @throws IOException Si un registro intermedio está dañado (no sólo el
+	 *                     último).
+	 */
+	private void recuperar() throws IOException {
+		long tamano = canal.size();
+		long posicion = leerCheckpoint();
+		if (posicion > tamano) {
+			posicion = tamano; // Se truncó tras confirmar todo y el checkpoint quedó atrás
+		}
+		posicionConfirmada = posicion;
+
+		int registros = 0;
+		Registro r;
+		while ((r = leer(posicion, tamano)) != null) {
+			posicion = r.fin;
+			registros++;
+		}
+		if (posicion < tamano) {
+			if (!esFinalIncompleto(posicion, tamano)) {
+				throw new IOException("registro dañado en la posición " + posicion + " seguido de más registros; "
+						+ "revise el archivo antes de volver a abrirlo (no se descarta nada)");
+			}
+			System.err.println("❌ Diario de ventas: se descartan " + (tamano - posicion)
+					+ " bytes de un registro incompleto (cierre inesperado durante la escritura).");
+			canal.truncate(posicion);
+			canal.force(true);
+		}
+		posicionEscritura = posicion;
+		pendientes.set(registros);
+	}
+
+	// ==========================================
+	// ESCRITURA (RUTA DE COBRO)
+	// ==========================================
+
+	/**
+	 * Escribe la venta en el diario y fuerza el disco.
+	 * <p>
+	 * Al regresar, la venta es durable: se enviará al servidor aunque la caja se
+	 * reinicie. También descuenta el stock en el {@link CatalogoProductos} para
+	 * que la caja vea el inventario correcto mientras la venta está en cola.
+	 * </p>
+	 *
+	 * @param venta Venta completa (se le asigna una clave de idempotencia si no
+	 *              la tiene).
+	 * @return Futuro que se completa con el folio cuando el servidor confirma la
+	 *         venta, o con error si fue rechazada definitivamente.
+	 * @throws IOException Si el diario no está abierto o no se pudo escribir.
+	 */
+	public CompletableFuture<Integer> registrar(Venta venta) throws IOException {
+		if (venta.getClaveIdempotencia() == null) {
+			venta.setClaveIdempotencia(UUID.randomUUID().toString());
+		}
+		byte[] datos = serializar(venta);
+		CRC32 crc = new CRC32();
+		crc.update(datos);
+
+		ByteBuffer buffer = ByteBuffer.allocate(CABECERA + datos.length);
+		buffer.putInt(datos.length).putInt((int) crc.getValue()).put(datos).flip();
+
+		CompletableFuture<Integer> confirmacion = new CompletableFuture<>();
+		long inicio = System.nanoTime();
+
+		synchronized (this) {
+			if (canal == null) {
+				throw new IOException("El diario de ventas no está abierto.");
+			}
+			confirmaciones.put(venta.getClaveIdempotencia(), confirmacion);
+			long posicion = posicionEscritura;
+			try {
+				while (buffer.hasRemaining()) {
+					posicion += canal.write(buffer, posicion);
+				}
+				canal.force(true);
+			} catch (IOException e) {
+				confirmaciones.remove(venta.getClaveIdempotencia());
+				canal.truncate(posicionEscritura); // No dejar medio registro
+				throw e;
+			}
+			posicionEscritura = posicion;
+		}
+		pendientes.incrementAndGet();
+		Metricas.histograma("diario.escritura").registrarDesde(inicio);
+
+		CatalogoProductos catalogo = CatalogoProductos.getInstancia();
+		for (VentaDetalle detalle : venta.getDetalles()) {
+			catalogo.ajustarStock(detalle.getProductoId(), -detalle.getCantidad());
+		}
+
+		aviso.release();
+		return confirmacion;
+	}
+
+	// ==========================================
+	// REPRODUCCIÓN HACIA EL SERVIDOR
+	// ==========================================
+
+	/**
+	 * Bucle del hilo reproductor: envía los registros en orden, uno a la vez.
+	 */
+	private void reproducir() {
+		long espera = REINTENTO_INICIAL_MS;
+		while (true) {
+			try {
+				Registro r = leer(posicionConfirmada, posicionEscritura);
+				if (r == null) {
+					aviso.tryAcquire(ESPERA_INACTIVO_SEG, TimeUnit.SECONDS);
+					continue;
+				}
+
+				Venta venta;
+				try {
+					venta = deserializar(r.crudo);
+				} catch (IOException e) {
+					apartar(r, null, "registro ilegible: " + e.getMessage());
+					continue;
+				}
+
+				try {
+					long inicio = System.nanoTime();
+					boolean nueva = ventaDAO.registrar(venta);
+					Metricas.histograma("diario.reproduccion").registrarDesde(inicio);
+					avanzar(r.fin);
+					ultimoError = null;
+					espera = REINTENTO_INICIAL_MS;
+
+					// Sólo las ventas escritas en esta sesión tienen confirmación pendiente
+					// y ya descontaron el stock; las recuperadas se descuentan al
+					// confirmarse (si ya existían, el catálogo las leyó del servidor).
+					CompletableFuture<Integer> confirmacion = confirmaciones.remove(venta.getClaveIdempotencia());
+					if (confirmacion != null) {
+						confirmacion.complete(venta.getid());
+					} else if (nueva) {
+						CatalogoProductos catalogo = CatalogoProductos.getInstancia();
+						for (VentaDetalle detalle : venta.getDetalles()) {
+							catalogo.ajustarStock(detalle.getProductoId(), -detalle.getCantidad());
+						}
+					}
+				} catch (SQLException e) {
+					if (esDefinitivo(e)) {
+						apartar(r, venta, e.getMessage());
+					} else {
+						ultimoError = e.getMessage();
+						System.err.println("❌ Diario de ventas: servidor no disponible (" + e.getMessage()
+								+ "), reintento en " + espera + " ms. Pendientes: " + pendientes.get());
+						Thread.sleep(espera + ThreadLocalRandom.current().nextLong(espera / 2 + 1));
+						espera = Math.min(espera * 2, reintentoMaxMs);
+					}
+				}
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				return;
+			} catch (IOException e) {
+				ultimoError = e.getMessage();
+				System.err.println("❌ Error de E/S en el diario de ventas: " + e.getMessage());
+				if (!pausar(reintentoMaxMs)) {
+					return;
+				}
+			} catch (RuntimeException e) {
+				// Un fallo inesperado (DAO, bus de eventos, catálogo) no debe terminar el
+				// único hilo que envía las ventas: se anota y se reintenta
+				ultimoError = e.toString();
+				System.err.println("❌ Error inesperado en el diario de ventas: " + e);
+				if (!pausar(reintentoMaxMs)) {
+					return;
+				}
+			}
+		}
+	}
+
+	/**
+	 * Espera antes de reintentar tras un error.
+	 *
+	 * @return {@code false} si el hilo fue interrumpido (debe terminar).
+	 */
+	private static boolean pausar(long ms) {
+		try {
+			Thread.sleep(ms);
+			return true;
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			return false;
+		}
+	}
+
+	/**
+	 * Un error es definitivo si reintentar no lo va a resolver: violaciones de
+	 * integridad (clase SQLSTATE 23) o datos inválidos (clase 22).
+	 */
+	private static boolean esDefinitivo(SQLException e) {
+		String estado = e.getSQLState();
+		return estado != null && (estado.startsWith("23") || estado.startsWith("22"));
+	}
+
+	/**
+	 * Marca como confirmado todo hasta {@code fin} y compacta si procede.
+	 * <p>
+	 * Al compactar, el checkpoint en cero se escribe <b>antes</b> de truncar: si
+	 * falla, el diario queda intacto; si la caja se apaga entre ambos pasos, los
+	 * registros se reenvían y la clave de idempotencia evita duplicarlos. Nunca
+	 * queda un checkpoint más adelante que los registros nuevos.
+	 * </p>
+	 */
+	private synchronized void avanzar(long fin) throws IOException {
+		posicionConfirmada = fin;
+		pendientes.decrementAndGet();
+		guardarCheckpoint(fin);
+
+		if (fin == posicionEscritura && fin >= COMPACTAR_DESDE) {
+			guardarCheckpoint(0);
+			canal.truncate(0);
+			canal.force(true);
+			posicionEscritura = 0;
+			posicionConfirmada = 0;
+		}
+	}
+
+	/**
+	 * Copia un registro rechazado a {@code ventas.rechazadas}, lo salta y
+	 * devuelve al catálogo el stock que se había descontado (sólo las ventas de
+	 * esta sesión lo descontaron).
+	 */
+	private void apartar(Registro r, Venta venta, String motivo) throws IOException {
+		System.err.println("❌ Diario de ventas: venta rechazada por el servidor y apartada en " + archivoRechazadas
+				+ ": " + motivo);
+		ByteBuffer cabecera = ByteBuffer.allocate(CABECERA);
+		CRC32 crc = new CRC32();
+		crc.update(r.crudo);
+		cabecera.putInt(r.crudo.length).putInt((int) crc.getValue());
+		ByteArrayOutputStream copia = new ByteArrayOutputStream(CABECERA + r.crudo.length);
+		copia.write(cabecera.array());
+		copia.write(r.crudo);
+		Files.write(archivoRechazadas, copia.toByteArray(), StandardOpenOption.CREATE, StandardOpenOption.APPEND,
+				StandardOpenOption.SYNC);
+
+		avanzar(r.fin);
+
+		if (venta != null) {
+			CompletableFuture<Integer> confirmacion = confirmaciones.remove(venta.getClaveIdempotencia());
+			if (confirmacion != null) {
+				CatalogoProductos catalogo = CatalogoProductos.getInstancia();
+				for (VentaDetalle detalle : venta.getDetalles()) {
+					catalogo.ajustarStock(detalle.getProductoId(), detalle.getCantidad());
+				}
+				confirmacion.completeExceptionally(new SQLException(motivo));
+			}
+		}
+	}
+
+	// ==========================================
+	// LECTURA DE REGISTROS Y PUNTO DE CONTROL
+	// ==========================================
+
+	/**
+	 * Lee el registro que empieza en {@code posicion}.
+	 *
+	 * @return El registro, o {@code null} si no hay uno completo y válido antes
+	 *         de {@code limite}.
+	 */
+	private Registro leer(long posicion, long limite) throws IOException {
+		if (posicion + CABECERA > limite) {
+			return null;
+		}
+		ByteBuffer cabecera = ByteBuffer.allocate(CABECERA);
+		leerCompleto(cabecera, posicion);
+		cabecera.flip();
+		int longitud = cabecera.getInt();
+		int crcEsperado = cabecera.getInt();
+		if (longitud <= 0 || longitud > MAXIMO_REGISTRO || posicion + CABECERA + longitud > limite) {
+			return null;
+		}
+
+		ByteBuffer datos = ByteBuffer.allocate(longitud);
+		leerCompleto(datos, posicion + CABECERA);
+		CRC32 crc = new CRC32();
+		crc.update(datos.array());
+		if ((int) crc.getValue() != crcEsperado) {
+			return null;
+		}
+		return new Registro(datos.array(), posicion + CABECERA + longitud);
+	}
+
+	/**
+	 * Indica si lo que sigue a {@code posicion} es sólo el último registro a
+	 * medias (escritura interrumpida) y no un registro dañado con más registros
+	 * detrás.
+	 */
+	private boolean esFinalIncompleto(long posicion, long tamano) throws IOException {
+		if (posicion + CABECERA > tamano) {
+			return true; // Ni siquiera se alcanzó a escribir la cabecera
+		}
+		ByteBuffer cabecera = ByteBuffer.allocate(CABECERA);
+		leerCompleto(cabecera, posicion);
+		cabecera.flip();
+		int longitud = cabecera.getInt();
+		if (longitud > 0 && longitud <= MAXIMO_REGISTRO) {
+			return posicion + CABECERA + longitud >= tamano;
+		}
+		// Longitud inválida: sólo es un final a medias si el resto quedó en ceros
+		// (bloques que el sistema de archivos reservó sin llegar a escribirlos)
+		ByteBuffer resto = ByteBuffer.allocate(8192);
+		for (long p = posicion; p < tamano; p += resto.limit()) {
+			resto.clear().limit((int) Math.min(resto.capacity(), tamano - p));
+			leerCompleto(resto, p);
+			for (int i = 0; i < resto.limit(); i++) {
+				if (resto.get(i) != 0) {
+					return false;
+				}
+			}
+		}
+		return true;
+	}
+
+	private void leerCompleto(ByteBuffer destino, long posicion) throws IOException {
+		while (destino.hasRemaining()) {
+			int leidos = canal.read(destino, posicion + destino.position());
+			if (leidos < 0) {
+				throw new IOException("Fin inesperado del diario de ventas.");
+			}
+		}
+	}
+
+	private long leerCheckpoint() throws IOException {
+		if (!Files.exists(archivoCheckpoint)) {
+			return 0;
+		}
+		byte[] bytes = Files.readAllBytes(archivoCheckpoint);
+		return (bytes.length == Long.BYTES) ? ByteBuffer.wrap(bytes).getLong() : 0;
+	}
+
+	/**
+	 * Escribe el punto de control en un archivo temporal y lo renombra, para que
+	 * un corte de energía nunca deje un checkpoint a medias.
+	 */
+	private void guardarCheckpoint(long posicion) throws IOException {
+		Path temporal = archivoCheckpoint.resolveSibling("ventas.checkpoint.tmp");
+		try (FileChannel salida = FileChannel.open(temporal, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+				StandardOpenOption.TRUNCATE_EXISTING)) {
+			salida.write(ByteBuffer.allocate(Long.BYTES).putLong(posicion).flip());
+			salida.force(true);
+		}
+		Files.move(temporal, archivoCheckpoint, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+	}
+
+	// ==========================================
+	// SERIALIZACIÓN
+	// ==========================================
+
+	private static byte[] serializar(Venta venta) throws IOException {
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream(256);
+		try (DataOutputStream out = new DataOutputStream(bytes)) {
+			out.writeByte(VERSION_REGISTRO);
+			out.writeUTF(venta.getClaveIdempotencia());
+			out.writeInt(venta.getClienteId());
+			out.writeInt(venta.getEmpleadoId());
+			out.writeLong(venta.getFecha().getTime());
+			out.writeInt(venta.getCorteID());
+			out.writeDouble(venta.getSubtotal());
+			out.writeDouble(venta.getDescuento());
+			out.writeDouble(venta.getImpuestos());
+			out.writeDouble(venta.getTotal());
+			escribirTexto(out, venta.getMetodoPago());
+			escribirTexto(out, venta.getNombreCliente());
+			escribirTexto(out, venta.getNombreEmpleado());
+
+			out.writeInt(venta.getDetalles().size());
+			for (VentaDetalle detalle : venta.getDetalles()) {
+				out.writeInt(detalle.getProductoId());
+				escribirTexto(out, detalle.getNombreProducto());
+				escribirTexto(out, detalle.getDescripcion());
+				out.writeInt(detalle.getCantidad());
+				out.writeDouble(detalle.getPrecioUnitario());
+				out.writeDouble(detalle.getSubtotal());
+			}
+		}
+		return bytes.toByteArray();
+	}
+
+	private static Venta deserializar(byte[] datos) throws IOException {
+		try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(datos))) {
+			int version = in.readUnsignedByte();
+			if (version != VERSION_REGISTRO) {
+				throw new IOException("Versión de registro desconocida: " + version);
+			}
+			Venta venta = new Venta();
+			venta.setClaveIdempotencia(in.readUTF());
+			venta.setClienteId(in.readInt());
+			venta.setEmpleadoId(in.readInt());
+			venta.setFecha(new Date(in.readLong()));
+			venta.setCorteID(in.readInt());
+			venta.setSubtotal(in.readDouble());
+			venta.setDescuento(in.readDouble());
+			venta.setImpuestos(in.readDouble());
+			venta.setTotal(in.readDouble());
+			venta.setMetodoPago(leerTexto(in));
+			venta.setNombreCliente(leerTexto(in));
+			venta.setNombreEmpleado(leerTexto(in));
+
+			int lineas = in.readInt();
+			List<VentaDetalle> detalles = new ArrayList<>(lineas);
+			for (int i = 0; i < lineas; i++) {
+				int productoId = in.readInt();
+				String nombre = leerTexto(in);
+				String descripcion = leerTexto(in);
+				int cantidad = in.readInt();
+				double precio = in.readDouble();
+				VentaDetalle detalle = new VentaDetalle(productoId, nombre, descripcion, cantidad, precio);
+				detalle.setSubtotal(in.readDouble());
+				detalles.add(detalle);
+			}
+			venta.setDetalles(detalles);
+			return venta;
+		}
+	}
+
+	private static void escribirTexto(DataOutputStream out, String texto) throws IOException {
+		out.writeBoolean(texto != null);
+		if (texto != null) {
+			out.writeUTF(texto);
+		}
+	}
+
+	private static String leerTexto(DataInputStream in) throws IOException {
+		return in.readBoolean() ? in.readUTF() : null;
+	}
+
+	// ==========================================
+	// ESTADO
+	// ==========================================
+
+	/**
+	 * @return Ventas escritas en el diario que el servidor aún no confirma.
+	 */
+	public int getPendientes() {
+		return pendientes.get();
+	}
+
+	/**
+	 * @return Último error del servidor mientras hay pendientes, o {@code null}
+	 *         si el último envío fue exitoso.
+	 */
+	public String getUltimoError() {
+		return ultimoError;
+	}
+
+	/**
+	 * @return {@code true} si el diario está abierto y aceptando ventas.
+	 */
+	public synchronized boolean isIniciado() {
+		return canal != null;
+	}
+}
@@ -0,0 +1,83 @@
+package persistencia;
+
+import java.awt.EventQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Supplier;
+
+import metricas.ContextoAccion;
+
+/**
+ * Ejecutor compartido para las consultas a la base de datos fuera del hilo de
+ * la interfaz gráfica (EDT).
+ * <p>
+ * Cada tarea corre en su propio <b>hilo virtual</b>, de modo que una consulta
+ * lenta nunca congela la ventana del punto de venta. El número real de
+ * consultas simultáneas lo sigue limitando el pool de conexiones.
+ * </p>
+ * <p>
+ * <b>Regla de oro:</b> El {@link CompletableFuture} devuelto por
+ * {@link #ejecutar(Supplier)} se completa <u>en el EDT</u>, por lo que los
+ * callbacks ({@code thenAccept}, {@code whenComplete}, ...) pueden tocar
+ * componentes Swing directamente.
+ * </p>
+ * <p>
+ * La {@link ContextoAccion} activa al llamar viaja con la tarea y con sus
+ * callbacks, así las consultas en segundo plano cuentan para la acción del
+ * usuario que las originó.
+ * </p>
+ *
+ * @version 1.1
+ */
+public class EjecutorBD {
+
+	/** Hilos virtuales: uno por consulta, sin límite artificial. */
+	private static final ExecutorService HILOS = Executors
+			.newThreadPerTaskExecutor(Thread.ofVirtual().name("bd-", 0).factory());
+
+	/** Ejecutor que publica tareas en el hilo de eventos de Swing. */
+	public static final Executor EDT = EventQueue::invokeLater;
+
+	/**
+	 * Constructor privado: clase de acceso estático.
+	 */
+	private EjecutorBD() {
+	}
+
+	/**
+	 * Ejecuta una operación de base de datos en un hilo virtual.
+	 *
+	 * @param <R>   Tipo del resultado.
+	 * @param tarea Operación bloqueante (normalmente una llamada a un DAO).
+	 * @return Futuro que se completa en el EDT con el resultado o con la
+	 *         excepción lanzada.
+	 */
+	public static <R> CompletableFuture<R> ejecutar(Supplier<R> tarea) {
+		CompletableFuture<R> resultado = new CompletableFuture<>();
+		ContextoAccion accion = ContextoAccion.retenerActual();
+		HILOS.execute(() -> {
+			try {
+				R valor = ContextoAccion.ejecutarEn(accion, tarea);
+				EDT.execute(() -> completarEn(accion, () -> resultado.complete(valor)));
+			} catch (Throwable t) {
+				System.err.println("❌ Error en operación de base de datos en segundo plano: " + t);
+				EDT.execute(() -> completarEn(accion, () -> resultado.completeExceptionally(t)));
+			}
+		});
+		return resultado;
+	}
+
+	/**
+	 * Completa el futuro en el EDT dentro de la acción que lanzó la tarea, para
+	 * que lo que hagan sus callbacks también se le cuente.
+	 */
+	private static void completarEn(ContextoAccion accion, Supplier<Boolean> completar) {
+		try {
+			ContextoAccion.ejecutarEn(accion, completar);
+		} finally {
+			ContextoAccion.liberar(accion);
+		}
+	}
+}
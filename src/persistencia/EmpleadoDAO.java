@@ -2,11 +2,13 @@ package persistencia;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 
-import conexion.Conexion;
 import modelo.BaseDatos;
 import modelo.Empleado;
 import modelogenerico.BaseDAO;
+import modelogenerico.Criterio;
+import modelogenerico.Pagina;
 
 /**
  * Clase de Acceso a Datos (DAO) para la entidad {@link Empleado}.
@@ -15,10 +17,14 @@ import modelogenerico.BaseDAO;
  * <b>TablaEmpleados</b>. Además de las operaciones CRUD estándar, incluye la
  * lógica crítica de seguridad para la autenticación (Login).
  * </p>
- * * @version 1.1
+ * * @version 1.2
  */
 public class EmpleadoDAO implements BaseDAO<Empleado> {
 
+	/** Campos lógicos permitidos en {@link #buscarPagina(Criterio)}. */
+	private static final Map<String, String> COLUMNAS = Map.of("nombre", "NombreE", "telefono", "NumeroTel", "rol",
+			"Rol");
+
 	/**
 	 * Busca un empleado por su identificador único (ID).
 	 * <p>
@@ -31,7 +37,7 @@ public class EmpleadoDAO implements BaseDAO<Empleado> {
 	 */
 	@Override
 	public Empleado buscarPorID(int id) {
-		BaseDatos bd = new BaseDatos(Conexion.getConexion());
+		BaseDatos bd = new BaseDatos();
 		ArrayList<Object[]> res = bd.consultar("TablaEmpleados", "Eid, NombreE, NumeroTel, Rol, Password",
 				"Eid = " + id);
 
@@ -57,7 +63,7 @@ public class EmpleadoDAO implements BaseDAO<Empleado> {
 	 */
 	@Override
 	public List<Empleado> ObtenerTodo() {
-		BaseDatos bd = new BaseDatos(Conexion.getConexion());
+		BaseDatos bd = new BaseDatos();
 		List<Empleado> lista = new ArrayList<>();
 		ArrayList<Object[]> res = bd.consultar("TablaEmpleados", "Eid, NombreE, NumeroTel, Rol, Password", null);
 
@@ -75,7 +81,7 @@ public class EmpleadoDAO implements BaseDAO<Empleado> {
 	 */
 	@Override
 	public boolean agregar(Empleado e) {
-		BaseDatos bd = new BaseDatos(Conexion.getConexion());
+		BaseDatos bd = new BaseDatos();
 
 		Object[] valores = { e.getNombre(), e.getNumTel(), e.getRol(), e.getContraseña() };
 
@@ -99,7 +105,7 @@ public class EmpleadoDAO implements BaseDAO<Empleado> {
 	 */
 	@Override
 	public boolean modificar(Empleado e) {
-		BaseDatos bd = new BaseDatos(Conexion.getConexion());
+		BaseDatos bd = new BaseDatos();
 
 		Object[] valores = { e.getNombre(), e.getNumTel(), e.getRol(), e.getContraseña() };
 
@@ -114,7 +120,7 @@ public class EmpleadoDAO implements BaseDAO<Empleado> {
 	 */
 	@Override
 	public boolean borrar(int id) {
-		BaseDatos bd = new BaseDatos(Conexion.getConexion());
+		BaseDatos bd = new BaseDatos();
 		return bd.eliminar("TablaEmpleados", "Eid = ?", id);
 	}
 
@@ -133,7 +139,7 @@ public class EmpleadoDAO implements BaseDAO<Empleado> {
 	 *         válidas, o {@code null} si son incorrectas.
 	 */
 	public Empleado autenticar(String usuario, String password) {
-		BaseDatos bd = new BaseDatos(Conexion.getConexion());
+		BaseDatos bd = new BaseDatos();
 
 		// Construimos la condición WHERE para buscar por usuario Y contraseña
 		String condicion = "NombreE = '" + usuario + "' AND Password = '" + password + "'";
@@ -148,4 +154,28 @@ public class EmpleadoDAO implements BaseDAO<Empleado> {
 		}
 		return null; // Login fallido
 	}
-}
\ No newline at end of file
+
+	/**
+	 * Recupera una página de empleados filtrada y ordenada en el servidor.
+	 * <p>
+	 * Campos lógicos: {@code id}, {@code nombre}, {@code telefono}, {@code rol}.
+	 * </p>
+	 * 
+	 * @param criterio Filtros, orden y cursor.
+	 * @return Página de {@link Empleado}.
+	 */
+	@Override
+	public Pagina<Empleado> buscarPagina(Criterio criterio) {
+		BaseDatos bd = new BaseDatos();
+		return bd.consultarPagina("TablaEmpleados", "Eid, NombreE, NumeroTel, Rol, Password", COLUMNAS, "Eid", criterio)
+				.mapear(f -> new Empleado((int) f[0], (String) f[1], (String) f[2], (String) f[3], (String) f[4]));
+	}
+
+	/**
+	 * @return {@code true}: este DAO implementa {@link #buscarPagina(Criterio)}.
+	 */
+	@Override
+	public boolean soportaPaginacion() {
+		return true;
+	}
+}
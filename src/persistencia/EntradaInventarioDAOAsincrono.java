@@ -0,0 +1,35 @@
+package persistencia;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import modelo.EntradaInventario;
+
+/**
+ * Fachada asíncrona sobre {@link EntradaInventarioDAO}.
+ * <p>
+ * Cada método delega en el DAO síncrono dentro de {@link EjecutorBD}; el
+ * resultado se entrega en el EDT.
+ * </p>
+ *
+ * @version 1.0
+ */
+public class EntradaInventarioDAOAsincrono {
+
+	private final EntradaInventarioDAO dao;
+
+	/**
+	 * @param dao DAO síncrono a envolver.
+	 */
+	public EntradaInventarioDAOAsincrono(EntradaInventarioDAO dao) {
+		this.dao = dao;
+	}
+
+	public CompletableFuture<Boolean> agregar(EntradaInventario entrada) {
+		return EjecutorBD.ejecutar(() -> dao.agregar(entrada));
+	}
+
+	public CompletableFuture<List<EntradaInventario>> obtenerTodasLasEntradas() {
+		return EjecutorBD.ejecutar(dao::obtenerTodasLasEntradas);
+	}
+}
@@ -0,0 +1,220 @@
+package persistencia;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.text.SimpleDateFormat;
+import java.util.function.BooleanSupplier;
+import java.util.function.LongConsumer;
+import java.util.zip.GZIPOutputStream;
+
+import conexion.Conexion;
+
+/**
+ * Exporta el resultado de una consulta a un archivo CSV leyendo fila por fila
+ * del cursor de la BD.
+ * <p>
+ * <b>Formato (RFC 4180):</b>
+ * <ul>
+ * <li>Campos separados por coma y filas terminadas en CRLF.</li>
+ * <li>Los campos con coma, comillas o saltos de línea se encierran entre
+ * comillas dobles, y las comillas internas se duplican. Ningún dato se
+ * altera.</li>
+ * <li>UTF-8 con BOM, para que Excel muestre bien los acentos.</li>
+ * <li>Fechas como {@code yyyy-MM-dd HH:mm:ss} y decimales con punto, sin
+ * separador de miles.</li>
+ * </ul>
+ * </p>
+ * <p>
+ * <b>Memoria constante:</b> sólo la fila actual vive en memoria; el driver trae
+ * las filas en bloques y la escritura pasa por un búfer de 64 KB (opcionalmente
+ * comprimido con gzip). El archivo se escribe primero como
+ * {@code <destino>.parcial} y se renombra al terminar, por lo que una
+ * exportación cancelada o fallida nunca deja un CSV incompleto.
+ * </p>
+ *
+ * @version 1.1
+ */
+public class ExportadorCSV {
+
+	/** Filas que el driver trae por viaje a la BD. */
+	private static final int FILAS_POR_LECTURA = 2_000;
+
+	/** Cada cuántas filas se informa el avance. */
+	private static final int FILAS_POR_AVISO = 10_000;
+
+	private static final int TAMANO_BUFER = 64 * 1024;
+
+	/**
+	 * Constructor privado: clase de acceso estático.
+	 */
+	private ExportadorCSV() {
+	}
+
+	/**
+	 * Ejecuta la consulta y escribe su resultado como CSV.
+	 * <p>
+	 * Operación bloqueante: debe llamarse fuera del EDT (ej. con
+	 * {@link EjecutorBD#ejecutar}).
+	 * </p>
+	 *
+	 * @param sql        Consulta; los alias de las columnas son los encabezados.
+	 * @param parametros Valores de los {@code ?}, en orden.
+	 * @param destino    Archivo final.
+	 * @param gzip       {@code true} para comprimir con gzip.
+	 * @param avance     Recibe el número de filas escritas cada
+	 *                   {@value #FILAS_POR_AVISO} filas (en el hilo de la
+	 *                   exportación; puede ser {@code null}).
+	 * @param cancelado  Se consulta en cada aviso; si devuelve {@code true} la
+	 *                   exportación se interrumpe (puede ser {@code null}).
+	 * @return Filas de datos escritas, o {@code -1} si se canceló.
+	 * @throws SQLException Si la consulta falla.
+	 * @throws IOException  Si no se puede escribir el archivo.
+	 */
+	public static long exportar(String sql, Object[] parametros, Path destino, boolean gzip, LongConsumer avance,
+			BooleanSupplier cancelado) throws SQLException, IOException {
+		Path parcial = destino.resolveSibling(destino.getFileName() + ".parcial");
+		long filas = 0;
+		boolean completo = false;
+
+		try (Connection con = Conexion.getConexion()) {
+			if (con == null) {
+				throw new SQLException("No hay conexión con la base de datos.");
+			}
+			try (PreparedStatement ps = con.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY,
+					ResultSet.CONCUR_READ_ONLY)) {
+				ps.setFetchSize(FILAS_POR_LECTURA);
+				for (int i = 0; i < parametros.length; i++) {
+					Object valor = parametros[i];
+					if (valor instanceof java.util.Date && !(valor instanceof Timestamp)) {
+						valor = new Timestamp(((java.util.Date) valor).getTime());
+					}
+					ps.setObject(i + 1, valor);
+				}
+
+				try (ResultSet rs = ps.executeQuery(); Writer salida = abrir(parcial, gzip)) {
+					ResultSetMetaData meta = rs.getMetaData();
+					int columnas = meta.getColumnCount();
+					SimpleDateFormat formatoFecha = new SimpleDateFormat("yyyy-MM-dd HH:mm:ss");
+
+					salida.write('\uFEFF'); // BOM: Excel detecta UTF-8
+					for (int c = 1; c <= columnas; c++) {
+						escribirCampo(salida, meta.getColumnLabel(c), c == 1);
+					}
+					salida.write("\r\n");
+
+					while (rs.next()) {
+						for (int c = 1; c <= columnas; c++) {
+							escribirCampo(salida, formatear(rs.getObject(c), formatoFecha), c == 1);
+						}
+						salida.write("\r\n");
+
+						if (++filas % FILAS_POR_AVISO == 0) {
+							if (cancelado != null && cancelado.getAsBoolean()) {
+								cancelar(ps);
+								return -1;
+							}
+							if (avance != null) {
+								avance.accept(filas);
+							}
+						}
+					}
+				}
+			}
+			Files.move(parcial, destino, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+			completo = true;
+		} finally {
+			if (!completo) {
+				Files.deleteIfExists(parcial);
+			}
+		}
+		if (avance != null) {
+			avance.accept(filas);
+		}
+		return filas;
+	}
+
+	/**
+	 * Pide al servidor que deje de enviar filas, para que cerrar el
+	 * {@code ResultSet} no tenga que leer el resto de la consulta.
+	 */
+	private static void cancelar(PreparedStatement ps) {
+		try {
+			ps.cancel();
+		} catch (SQLException e) {
+			System.err.println("⚠ No se pudo cancelar la consulta de exportación: " + e.getMessage());
+		}
+	}
+
+	private static Writer abrir(Path archivo, boolean gzip) throws IOException {
+		OutputStream salida = Files.newOutputStream(archivo);
+		if (gzip) {
+			salida = new GZIPOutputStream(salida, TAMANO_BUFER);
+		}
+		return new BufferedWriter(new OutputStreamWriter(salida, StandardCharsets.UTF_8), TAMANO_BUFER);
+	}
+
+	/**
+	 * Convierte un valor de la BD a texto sin depender del idioma del equipo.
+	 */
+	private static String formatear(Object valor, SimpleDateFormat formatoFecha) {
+		if (valor == null) {
+			return "";
+		}
+		if (valor instanceof java.util.Date) {
+			return formatoFecha.format((java.util.Date) valor);
+		}
+		if (valor instanceof BigDecimal) {
+			return ((BigDecimal) valor).toPlainString();
+		}
+		return valor.toString();
+	}
+
+	/**
+	 * Escribe un campo, entre comillas sólo si lo necesita.
+	 *
+	 * @param primero {@code true} para el primer campo de la fila (sin coma
+	 *                previa).
+	 */
+	private static void escribirCampo(Writer salida, String campo, boolean primero) throws IOException {
+		if (!primero) {
+			salida.write(',');
+		}
+		if (!requiereComillas(campo)) {
+			salida.write(campo);
+			return;
+		}
+		salida.write('"');
+		for (int i = 0; i < campo.length(); i++) {
+			char c = campo.charAt(i);
+			if (c == '"') {
+				salida.write('"');
+			}
+			salida.write(c);
+		}
+		salida.write('"');
+	}
+
+	private static boolean requiereComillas(String campo) {
+		for (int i = 0; i < campo.length(); i++) {
+			char c = campo.charAt(i);
+			if (c == ',' || c == '"' || c == '\r' || c == '\n') {
+				return true;
+			}
+		}
+		return false;
+	}
+}
@@ -0,0 +1,169 @@
+package persistencia;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.HashMap;
+import java.util.Map;
+
+import conexion.Conexion;
+import net.sf.jasperreports.engine.JRDataSource;
+import net.sf.jasperreports.engine.JRException;
+import net.sf.jasperreports.engine.JRField;
+
+/**
+ * Fuente de datos de JasperReports que lee las filas directamente de un
+ * {@link ResultSet}, sin construir antes una lista de objetos.
+ * <p>
+ * Pensada para reportes con muchas filas (ventas de un año, inventario
+ * completo): sólo la fila actual vive en memoria.
+ * </p>
+ * <p>
+ * <b>Ciclo de vida:</b>
+ * <ul>
+ * <li>La consulta se ejecuta en la primera llamada a {@link #next()}, es decir,
+ * en el hilo que llena el reporte y nunca en el EDT.</li>
+ * <li>La conexión se devuelve al pool en cuanto se lee la última fila, o al
+ * llamar a {@link #close()} si el llenado se cancela o falla.</li>
+ * </ul>
+ * </p>
+ * <p>
+ * Cada campo del reporte se busca por nombre entre las columnas del resultado,
+ * por lo que la consulta debe usar alias iguales a los campos de la plantilla
+ * (ej. {@code v.VentaID AS id}).
+ * </p>
+ *
+ * @version 1.0
+ */
+public class FuenteDatosJDBC implements JRDataSource, AutoCloseable {
+
+	/** Filas que el driver trae por viaje a la BD. */
+	private static final int FILAS_POR_LECTURA = 500;
+
+	private final String sql;
+	private final Object[] parametros;
+
+	private Connection con;
+	private PreparedStatement ps;
+	private ResultSet rs;
+	private boolean terminado = false;
+
+	/** Nombre del campo → índice de la columna (se resuelve una sola vez). */
+	private final Map<String, Integer> columnas = new HashMap<>();
+
+	/**
+	 * @param sql        Consulta con alias iguales a los campos del reporte.
+	 * @param parametros Valores de los {@code ?} de la consulta, en orden.
+	 */
+	public FuenteDatosJDBC(String sql, Object... parametros) {
+		this.sql = sql;
+		this.parametros = parametros.clone();
+	}
+
+	@Override
+	public boolean next() throws JRException {
+		if (terminado) {
+			return false;
+		}
+		try {
+			if (rs == null) {
+				abrir();
+			}
+			if (rs.next()) {
+				return true;
+			}
+		} catch (SQLException e) {
+			close();
+			throw new JRException("Error al leer los datos del reporte: " + e.getMessage(), e);
+		}
+		close(); // Última fila leída: la conexión regresa al pool antes de que termine el llenado
+		return false;
+	}
+
+	private void abrir() throws SQLException {
+		con = Conexion.getConexion();
+		if (con == null) {
+			throw new SQLException("No hay conexión con la base de datos.");
+		}
+		ps = con.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+		ps.setFetchSize(FILAS_POR_LECTURA);
+		for (int i = 0; i < parametros.length; i++) {
+			Object valor = parametros[i];
+			if (valor instanceof java.util.Date && !(valor instanceof Timestamp)) {
+				valor = new Timestamp(((java.util.Date) valor).getTime());
+			}
+			ps.setObject(i + 1, valor);
+		}
+		rs = ps.executeQuery();
+	}
+
+	@Override
+	public Object getFieldValue(JRField campo) throws JRException {
+		try {
+			Integer columna = columnas.get(campo.getName());
+			if (columna == null) {
+				columna = rs.findColumn(campo.getName());
+				columnas.put(campo.getName(), columna);
+			}
+			return convertir(rs.getObject(columna), campo.getValueClass());
+		} catch (SQLException e) {
+			throw new JRException("Columna no encontrada para el campo '" + campo.getName() + "'", e);
+		}
+	}
+
+	/**
+	 * Ajusta el valor de la columna al tipo declarado en la plantilla (ej.
+	 * {@code DECIMAL} → {@link Double}).
+	 */
+	private static Object convertir(Object valor, Class<?> tipo) {
+		if (valor == null || tipo.isInstance(valor)) {
+			return valor;
+		}
+		if (valor instanceof Number) {
+			Number n = (Number) valor;
+			if (tipo == Integer.class) {
+				return n.intValue();
+			} else if (tipo == Double.class) {
+				return n.doubleValue();
+			} else if (tipo == Long.class) {
+				return n.longValue();
+			}
+		}
+		if (tipo == String.class) {
+			return valor.toString();
+		}
+		return valor;
+	}
+
+	/**
+	 * Cierra el resultado y devuelve la conexión al pool. Puede llamarse varias
+	 * veces.
+	 */
+	@Override
+	public void close() {
+		terminado = true;
+		try {
+			if (rs != null) {
+				rs.close();
+			}
+			if (ps != null) {
+				ps.close();
+			}
+		} catch (SQLException e) {
+			System.err.println("❌ Error al cerrar la consulta del reporte: " + e.getMessage());
+		} finally {
+			rs = null;
+			ps = null;
+			if (con != null) {
+				try {
+					con.close();
+				} catch (SQLException e) {
+					System.err.println("❌ Error al devolver la conexión del reporte: " + e.getMessage());
+				}
+				con = null;
+			}
+		}
+	}
+}
@@ -0,0 +1,337 @@
+package persistencia;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+
+/**
+ * Índice invertido de trigramas para la búsqueda de productos por texto
+ * parcial.
+ * <p>
+ * Sustituye a {@code WHERE Nombre LIKE '%termino%'}, que obliga a SQL Server a
+ * recorrer toda la tabla. Cada nombre y descripción se normaliza (minúsculas,
+ * sin acentos ni signos) y se descompone en fragmentos de tres caracteres; cada
+ * fragmento apunta a la lista ordenada de IDs de producto que lo contienen.
+ * </p>
+ * <p>
+ * <b>Búsqueda:</b>
+ * <ol>
+ * <li>El término se divide en palabras; todas deben aparecer (en el nombre o en
+ * la descripción) para que el producto coincida.</li>
+ * <li>Las palabras de 3 o más caracteres aportan trigramas; se toma la lista de
+ * candidatos más corta y se verifica cada candidato contra el texto
+ * normalizado.</li>
+ * <li>Si todas las palabras son más cortas (ej. "1l"), se verifica el catálogo
+ * completo en memoria.</li>
+ * <li>Los resultados se ordenan por relevancia: coincidencia al inicio del
+ * nombre, al inicio de una palabra del nombre, dentro del nombre y, al final,
+ * sólo en la descripción.</li>
+ * </ol>
+ * </p>
+ * <p>
+ * Las listas de IDs se guardan como arreglos {@code int[]} ordenados para que
+ * un catálogo de decenas de miles de productos ocupe pocos megabytes. Las
+ * escrituras están sincronizadas y reemplazan el arreglo completo, de modo que
+ * las lecturas no necesitan bloqueo.
+ * </p>
+ *
+ * @version 1.0
+ */
+public class IndiceTrigramas {
+
+	/** Longitud de cada fragmento indexado. */
+	private static final int N = 3;
+
+	private static final Pattern MARCAS_DIACRITICAS = Pattern.compile("\\p{M}+");
+	private static final Pattern NO_ALFANUMERICO = Pattern.compile("[^a-z0-9]+");
+
+	/** Trigrama → IDs de producto ordenados ascendentemente. */
+	private final Map<String, int[]> listas;
+
+	/** ID de producto → textos normalizados (para verificar y ordenar). */
+	private final Map<Integer, Documento> documentos;
+
+	/**
+	 * Textos normalizados de un producto indexado.
+	 */
+	private static final class Documento {
+		final String nombre;
+		final String descripcion;
+
+		Documento(String nombre, String descripcion) {
+			this.nombre = nombre;
+			this.descripcion = descripcion;
+		}
+	}
+
+	/**
+	 * Crea un índice vacío.
+	 */
+	public IndiceTrigramas() {
+		this.listas = new ConcurrentHashMap<>();
+		this.documentos = new ConcurrentHashMap<>();
+	}
+
+	/**
+	 * Construye un índice completo de una sola pasada (carga del catálogo).
+	 * <p>
+	 * Más eficiente que llamar a {@link #agregar} por cada producto, porque cada
+	 * lista se ordena una sola vez al final.
+	 * </p>
+	 *
+	 * @param textos Mapa ID → {nombre, descripción}.
+	 * @return Índice listo para consultar.
+	 */
+	public static IndiceTrigramas construir(Map<Integer, String[]> textos) {
+		IndiceTrigramas indice = new IndiceTrigramas();
+		Map<String, ListaEnteros> acumulado = new HashMap<>();
+
+		for (Map.Entry<Integer, String[]> e : textos.entrySet()) {
+			Documento doc = new Documento(normalizar(e.getValue()[0]), normalizar(e.getValue()[1]));
+			indice.documentos.put(e.getKey(), doc);
+			for (String t : trigramasDe(doc)) {
+				acumulado.computeIfAbsent(t, k -> new ListaEnteros()).agregar(e.getKey());
+			}
+		}
+		for (Map.Entry<String, ListaEnteros> e : acumulado.entrySet()) {
+			int[] ids = e.getValue().aArreglo();
+			Arrays.sort(ids);
+			indice.listas.put(e.getKey(), ids);
+		}
+		return indice;
+	}
+
+	// ==========================================
+	// MANTENIMIENTO INCREMENTAL
+	// ==========================================
+
+	/**
+	 * Agrega o reemplaza un producto en el índice.
+	 *
+	 * @param id          Clave primaria del producto.
+	 * @param nombre      Nombre del producto.
+	 * @param descripcion Descripción (puede ser {@code null}).
+	 */
+	public synchronized void agregar(int id, String nombre, String descripcion) {
+		Documento nuevo = new Documento(normalizar(nombre), normalizar(descripcion));
+		Documento anterior = documentos.put(id, nuevo);
+
+		Set<String> nuevos = trigramasDe(nuevo);
+		if (anterior != null) {
+			for (String t : trigramasDe(anterior)) {
+				if (!nuevos.contains(t)) {
+					quitarDeLista(t, id);
+				}
+			}
+		}
+		for (String t : nuevos) {
+			int[] actual = listas.get(t);
+			if (actual == null) {
+				listas.put(t, new int[] { id });
+			} else {
+				int pos = Arrays.binarySearch(actual, id);
+				if (pos < 0) {
+					pos = -pos - 1;
+					int[] copia = new int[actual.length + 1];
+					System.arraycopy(actual, 0, copia, 0, pos);
+					copia[pos] = id;
+					System.arraycopy(actual, pos, copia, pos + 1, actual.length - pos);
+					listas.put(t, copia);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Elimina un producto del índice.
+	 *
+	 * @param id Clave primaria del producto.
+	 */
+	public synchronized void quitar(int id) {
+		Documento anterior = documentos.remove(id);
+		if (anterior != null) {
+			for (String t : trigramasDe(anterior)) {
+				quitarDeLista(t, id);
+			}
+		}
+	}
+
+	private void quitarDeLista(String trigrama, int id) {
+		int[] actual = listas.get(trigrama);
+		if (actual == null) {
+			return;
+		}
+		int pos = Arrays.binarySearch(actual, id);
+		if (pos < 0) {
+			return;
+		}
+		if (actual.length == 1) {
+			listas.remove(trigrama);
+			return;
+		}
+		int[] copia = new int[actual.length - 1];
+		System.arraycopy(actual, 0, copia, 0, pos);
+		System.arraycopy(actual, pos + 1, copia, pos, actual.length - pos - 1);
+		listas.put(trigrama, copia);
+	}
+
+	// ==========================================
+	// CONSULTA
+	// ==========================================
+
+	/**
+	 * Busca productos cuyo nombre o descripción contengan todas las palabras del
+	 * término.
+	 *
+	 * @param termino Texto capturado por el usuario (parcial, con o sin acentos).
+	 * @param limite  Número máximo de resultados.
+	 * @return IDs de producto ordenados por relevancia.
+	 */
+	public List<Integer> buscar(String termino, int limite) {
+		String normalizado = normalizar(termino);
+		if (normalizado.isEmpty()) {
+			return new ArrayList<>();
+		}
+		String[] palabras = normalizado.split(" ");
+
+		// Lista de candidatos más corta entre todos los trigramas del término
+		int[] candidatos = null;
+		for (String palabra : palabras) {
+			for (int i = 0; i + N <= palabra.length(); i++) {
+				int[] lista = listas.get(palabra.substring(i, i + N));
+				if (lista == null) {
+					return new ArrayList<>(); // Un trigrama inexistente descarta todo
+				}
+				if (candidatos == null || lista.length < candidatos.length) {
+					candidatos = lista;
+				}
+			}
+		}
+
+		List<int[]> coincidencias = new ArrayList<>(); // {id, puntaje}
+		if (candidatos != null) {
+			for (int id : candidatos) {
+				evaluar(id, documentos.get(id), palabras, coincidencias);
+			}
+		} else {
+			// Palabras muy cortas: recorrido lineal en memoria
+			for (Map.Entry<Integer, Documento> e : documentos.entrySet()) {
+				evaluar(e.getKey(), e.getValue(), palabras, coincidencias);
+			}
+		}
+
+		coincidencias.sort(Comparator.<int[]>comparingInt(c -> c[1])
+				.thenComparingInt(c -> longitudNombre(c[0]))
+				.thenComparingInt(c -> c[0]));
+
+		List<Integer> ids = new ArrayList<>(Math.min(limite, coincidencias.size()));
+		for (int i = 0; i < coincidencias.size() && i < limite; i++) {
+			ids.add(coincidencias.get(i)[0]);
+		}
+		return ids;
+	}
+
+	/**
+	 * Verifica un candidato y, si coincide, lo agrega con su puntaje (menor es
+	 * más relevante).
+	 */
+	private static void evaluar(int id, Documento doc, String[] palabras, List<int[]> coincidencias) {
+		if (doc == null) {
+			return; // Quitado mientras se consultaba
+		}
+		int puntaje = 0;
+		for (String palabra : palabras) {
+			if (doc.nombre.startsWith(palabra)) {
+				continue; // Máxima relevancia: sin penalización
+			} else if (doc.nombre.contains(" " + palabra)) {
+				puntaje += 1;
+			} else if (doc.nombre.contains(palabra)) {
+				puntaje += 2;
+			} else if (doc.descripcion.contains(palabra)) {
+				puntaje += 3;
+			} else {
+				return;
+			}
+		}
+		coincidencias.add(new int[] { id, puntaje });
+	}
+
+	private int longitudNombre(int id) {
+		Documento doc = documentos.get(id);
+		return (doc == null) ? Integer.MAX_VALUE : doc.nombre.length();
+	}
+
+	/**
+	 * @return Número de productos indexados.
+	 */
+	public int getTamano() {
+		return documentos.size();
+	}
+
+	// ==========================================
+	// NORMALIZACIÓN
+	// ==========================================
+
+	/**
+	 * Normaliza un texto para indexarlo o buscarlo: minúsculas, sin acentos y con
+	 * cualquier signo reducido a un espacio. La "ñ" se trata como "n" para que
+	 * "pina" encuentre "Piña" en teclados sin esa tecla.
+	 *
+	 * @param texto Texto original (puede ser {@code null}).
+	 * @return Texto normalizado (nunca {@code null}).
+	 */
+	static String normalizar(String texto) {
+		if (texto == null) {
+			return "";
+		}
+		String minusculas = texto.toLowerCase(Locale.ROOT);
+		String sinAcentos = MARCAS_DIACRITICAS.matcher(Normalizer.normalize(minusculas, Normalizer.Form.NFD))
+				.replaceAll("");
+		return NO_ALFANUMERICO.matcher(sinAcentos).replaceAll(" ").trim();
+	}
+
+	/**
+	 * Obtiene los trigramas distintos del nombre y la descripción.
+	 */
+	private static Set<String> trigramasDe(Documento doc) {
+		Set<String> trigramas = new LinkedHashSet<>();
+		agregarTrigramas(doc.nombre, trigramas);
+		agregarTrigramas(doc.descripcion, trigramas);
+		return trigramas;
+	}
+
+	private static void agregarTrigramas(String texto, Set<String> destino) {
+		for (int i = 0; i + N <= texto.length(); i++) {
+			destino.add(texto.substring(i, i + N));
+		}
+	}
+
+	/**
+	 * Arreglo de enteros que crece según se necesita (sólo para la construcción
+	 * masiva).
+	 */
+	private static final class ListaEnteros {
+		private int[] datos = new int[4];
+		private int tamano = 0;
+
+		void agregar(int valor) {
+			if (tamano == datos.length) {
+				datos = Arrays.copyOf(datos, tamano * 2);
+			}
+			datos[tamano++] = valor;
+		}
+
+		int[] aArreglo() {
+			return Arrays.copyOf(datos, tamano);
+		}
+	}
+}
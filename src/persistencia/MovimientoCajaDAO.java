@@ -7,10 +7,18 @@ import java.sql.SQLException;
 import java.sql.Statement;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 import conexion.Conexion;
+import eventos.BusEventos;
+import eventos.MovimientoCajaRegistrado;
+import eventos.MovimientoCajaRegistrado.Operacion;
+import modelo.BaseDatos;
 import modelo.MovimientoCaja;
 import modelogenerico.BaseDAO;
+import modelogenerico.Criterio;
+import modelogenerico.Pagina;
 
 /**
  * Clase de Acceso a Datos (DAO) para la entidad {@link MovimientoCaja}.
@@ -19,13 +27,27 @@ import modelogenerico.BaseDAO;
  * <b>TablaMovimientosCaja</b>. Permite registrar ingresos y egresos de efectivo
  * que no provienen de ventas (ej. "Pago de proveedores", "Ingreso de cambio").
  * </p>
- * * @version 1.1
+ * * @version 1.5
  */
 public class MovimientoCajaDAO implements BaseDAO<MovimientoCaja> {
 
+	/** Campos lógicos permitidos en {@link #buscarPagina(Criterio)}. */
+	private static final Map<String, String> COLUMNAS = Map.of("nombre", "m.Descripcion", "descripcion",
+			"m.Descripcion", "corteId", "m.CorteID", "usuario", "u.NombreE", "fecha", "m.Fecha", "tipo",
+			"m.TipoMovimiento", "monto", "m.Monto");
+
+	/** Campos de {@link #COLUMNAS} que son columnas enteras. */
+	private static final Set<String> CAMPOS_ENTEROS = Set.of("corteId");
+
 	/**
-	 * Registra un nuevo movimiento financiero en el corte de caja actual. * @param
-	 * movimiento Objeto con los detalles (Monto, Tipo, Descripción, Usuario).
+	 * Registra un nuevo movimiento financiero en el corte de caja actual.
+	 * <p>
+	 * En la misma transacción lo suma a los saldos del turno
+	 * ({@link SaldoCorteDAO#acumularMovimiento}); tras el commit publica
+	 * {@link MovimientoCajaRegistrado}.
+	 * </p>
+	 * * @param movimiento Objeto con los detalles (Monto, Tipo, Descripción,
+	 * Usuario).
 	 * 
 	 * @return {@code true} si se insertó correctamente y se generó un ID.
 	 */
@@ -35,23 +57,38 @@ public class MovimientoCajaDAO implements BaseDAO<MovimientoCaja> {
 				+ "VALUES (?, ?, ?, ?, ?, ?)";
 		boolean exito = false;
 
-		try (Connection con = Conexion.getConexion();
-				PreparedStatement ps = con.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
-
-			ps.setInt(1, movimiento.getCorteId());
-			ps.setInt(2, movimiento.getUsuarioId());
-			ps.setTimestamp(3, new java.sql.Timestamp(movimiento.getFecha().getTime()));
-			ps.setString(4, movimiento.getTipoMovimiento());
-			ps.setDouble(5, movimiento.getMonto());
-			ps.setString(6, movimiento.getDescripcion());
-
-			if (ps.executeUpdate() > 0) {
-				try (ResultSet rs = ps.getGeneratedKeys()) {
-					if (rs.next()) {
-						movimiento.setid(rs.getInt(1));
-						exito = true;
+		try (Connection con = Conexion.getConexion()) {
+			con.setAutoCommit(false);
+			try (PreparedStatement ps = con.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+				ps.setInt(1, movimiento.getCorteId());
+				ps.setInt(2, movimiento.getUsuarioId());
+				ps.setTimestamp(3, new java.sql.Timestamp(movimiento.getFecha().getTime()));
+				ps.setString(4, movimiento.getTipoMovimiento());
+				ps.setDouble(5, movimiento.getMonto());
+				ps.setString(6, movimiento.getDescripcion());
+
+				if (ps.executeUpdate() > 0) {
+					try (ResultSet rs = ps.getGeneratedKeys()) {
+						if (rs.next()) {
+							SaldoCorteDAO.acumularMovimiento(con, movimiento.getCorteId(),
+									movimiento.getTipoMovimiento(), 1, movimiento.getMonto());
+							con.commit();
+							movimiento.setid(rs.getInt(1));
+							exito = true;
+							BusEventos.getInstancia().publicar(new MovimientoCajaRegistrado(movimiento.getid(),
+									movimiento.getCorteId(), Operacion.REGISTRADO, movimiento.getTipoMovimiento(),
+									movimiento.getMonto()));
+						}
 					}
 				}
+				if (!exito) {
+					con.rollback();
+				}
+			} catch (SQLException e) {
+				con.rollback();
+				throw e;
+			} finally {
+				con.setAutoCommit(true);
 			}
 		} catch (SQLException e) {
 			System.err.println("Error al registrar movimiento: " + e.toString());
@@ -169,33 +206,142 @@ public class MovimientoCajaDAO implements BaseDAO<MovimientoCaja> {
 		return mov;
 	}
 
+	/**
+	 * Modifica tipo, monto y descripción de un movimiento, corrigiendo los
+	 * saldos de su turno en la misma transacción con una sola diferencia (valor
+	 * nuevo menos valor anterior).
+	 */
 	@Override
 	public boolean modificar(MovimientoCaja entidad) {
 		// Por seguridad, los movimientos de dinero NO suelen modificarse,
 		// se recomienda borrarlos y crearlos de nuevo, pero implementamos esto por la
 		// interfaz.
 		String sql = "UPDATE TablaMovimientosCaja SET TipoMovimiento=?, Monto=?, Descripcion=? WHERE MovimientoID=?";
-		try (Connection con = Conexion.getConexion(); PreparedStatement ps = con.prepareStatement(sql)) {
-			ps.setString(1, entidad.getTipoMovimiento());
-			ps.setDouble(2, entidad.getMonto());
-			ps.setString(3, entidad.getDescripcion());
-			ps.setInt(4, entidad.getid());
-			return ps.executeUpdate() > 0;
+		try (Connection con = Conexion.getConexion()) {
+			con.setAutoCommit(false);
+			try (PreparedStatement ps = con.prepareStatement(sql)) {
+				MovimientoCaja anterior = bloquear(con, entidad.getid());
+				if (anterior == null) {
+					con.rollback();
+					return false;
+				}
+				ps.setString(1, entidad.getTipoMovimiento());
+				ps.setDouble(2, entidad.getMonto());
+				ps.setString(3, entidad.getDescripcion());
+				ps.setInt(4, entidad.getid());
+				ps.executeUpdate();
+
+				SaldoCorteDAO.reemplazarMovimiento(con, anterior.getCorteId(), anterior.getTipoMovimiento(),
+						anterior.getMonto(), entidad.getTipoMovimiento(), entidad.getMonto());
+				con.commit();
+				BusEventos.getInstancia().publicar(new MovimientoCajaRegistrado(entidad.getid(), anterior.getCorteId(),
+						Operacion.MODIFICADO, entidad.getTipoMovimiento(), entidad.getMonto()));
+				return true;
+			} catch (SQLException e) {
+				con.rollback();
+				throw e;
+			} finally {
+				con.setAutoCommit(true);
+			}
 		} catch (SQLException e) {
 			System.err.println("Error al modificar: " + e.toString());
 			return false;
 		}
 	}
 
+	/**
+	 * Borra un movimiento y lo resta de los saldos de su turno en la misma
+	 * transacción.
+	 */
 	@Override
 	public boolean borrar(int id) {
 		String sql = "DELETE FROM TablaMovimientosCaja WHERE MovimientoID=?";
-		try (Connection con = Conexion.getConexion(); PreparedStatement ps = con.prepareStatement(sql)) {
-			ps.setInt(1, id);
-			return ps.executeUpdate() > 0;
+		try (Connection con = Conexion.getConexion()) {
+			con.setAutoCommit(false);
+			try (PreparedStatement ps = con.prepareStatement(sql)) {
+				MovimientoCaja anterior = bloquear(con, id);
+				if (anterior == null) {
+					con.rollback();
+					return false;
+				}
+				ps.setInt(1, id);
+				ps.executeUpdate();
+
+				SaldoCorteDAO.acumularMovimiento(con, anterior.getCorteId(), anterior.getTipoMovimiento(), -1,
+						anterior.getMonto());
+				con.commit();
+				BusEventos.getInstancia().publicar(new MovimientoCajaRegistrado(id, anterior.getCorteId(),
+						Operacion.BORRADO, anterior.getTipoMovimiento(), anterior.getMonto()));
+				return true;
+			} catch (SQLException e) {
+				con.rollback();
+				throw e;
+			} finally {
+				con.setAutoCommit(true);
+			}
 		} catch (SQLException e) {
 			System.err.println("Error al borrar: " + e.toString());
 			return false;
 		}
 	}
-}
\ No newline at end of file
+
+	/**
+	 * Lee y bloquea hasta el commit el movimiento que se va a cambiar, para
+	 * restar de los saldos exactamente el valor que se reemplaza.
+	 *
+	 * @return Movimiento (sólo turno, tipo y monto), o {@code null} si no
+	 *         existe.
+	 */
+	private static MovimientoCaja bloquear(Connection con, int id) throws SQLException {
+		String sql = "SELECT CorteID, TipoMovimiento, Monto FROM TablaMovimientosCaja WITH (UPDLOCK, HOLDLOCK) "
+				+ "WHERE MovimientoID = ?";
+		try (PreparedStatement ps = con.prepareStatement(sql)) {
+			ps.setInt(1, id);
+			try (ResultSet rs = ps.executeQuery()) {
+				if (!rs.next()) {
+					return null;
+				}
+				MovimientoCaja mov = new MovimientoCaja();
+				mov.setCorteId(rs.getInt("CorteID"));
+				mov.setTipoMovimiento(rs.getString("TipoMovimiento"));
+				mov.setMonto(rs.getDouble("Monto"));
+				return mov;
+			}
+		}
+	}
+
+	/**
+	 * Recupera una página de movimientos de caja filtrada y ordenada en el
+	 * servidor.
+	 * <p>
+	 * Campos lógicos: {@code id}, {@code nombre}/{@code descripcion},
+	 * {@code corteId}, {@code usuario}, {@code fecha}, {@code tipo},
+	 * {@code monto}.
+	 * </p>
+	 * 
+	 * @param criterio Filtros, orden y cursor.
+	 * @return Página de {@link MovimientoCaja}.
+	 */
+	@Override
+	public Pagina<MovimientoCaja> buscarPagina(Criterio criterio) {
+		BaseDatos bd = new BaseDatos();
+		return bd.consultarPagina("TablaMovimientosCaja m INNER JOIN TablaEmpleados u ON m.UsuarioID = u.Eid",
+				"m.MovimientoID, m.CorteID, m.UsuarioID, m.Fecha, m.TipoMovimiento, m.Monto, m.Descripcion, u.NombreE",
+				COLUMNAS, "m.MovimientoID", criterio)
+				.mapear(f -> new MovimientoCaja((int) f[0], (int) f[1], (int) f[2], (java.util.Date) f[3],
+						(String) f[4], ((Number) f[5]).doubleValue(), (String) f[6], (String) f[7]));
+	}
+
+	/**
+	 * @return {@code true}: este DAO implementa {@link #buscarPagina(Criterio)}.
+	 */
+	@Override
+	public boolean soportaPaginacion() {
+		return true;
+	}
+
+	@Override
+	public boolean esCampoEntero(String campo) {
+		return Criterio.CAMPO_ID.equals(campo) || CAMPOS_ENTEROS.contains(campo);
+	}
+}
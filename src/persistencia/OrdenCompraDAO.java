@@ -7,11 +7,18 @@ import java.sql.SQLException;
 import java.sql.Statement;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 import conexion.Conexion;
+import eventos.BusEventos;
+import eventos.PedidoRecibido;
+import modelo.BaseDatos;
 import modelo.OrdenCompra;
 import modelo.OrdenCompraDetalle;
 import modelogenerico.BaseDAO;
+import modelogenerico.Criterio;
+import modelogenerico.Pagina;
 
 /**
  * Clase de Acceso a Datos (DAO) para la entidad {@link OrdenCompra}.
@@ -29,10 +36,17 @@ import modelogenerico.BaseDAO;
  * trabajo).</li>
  * </ul>
  * </p>
- * * @version 1.1
+ * * @version 1.3
  */
 public class OrdenCompraDAO implements BaseDAO<OrdenCompra> {
 
+	/** Campos lógicos permitidos en {@link #buscarPagina(Criterio)}. */
+	private static final Map<String, String> COLUMNAS = Map.of("nombre", "p.NombreP", "proveedor", "p.NombreP",
+			"proveedorId", "o.ProveedorID", "fecha", "o.Fecha", "status", "o.Status");
+
+	/** Campos de {@link #COLUMNAS} que son columnas enteras. */
+	private static final Set<String> CAMPOS_ENTEROS = Set.of("proveedorId");
+
 	/**
 	 * Registra un nuevo pedido completo en la base de datos (Cabecera + Detalles).
 	 * <p>
@@ -117,7 +131,8 @@ public class OrdenCompraDAO implements BaseDAO<OrdenCompra> {
 	 * Actualiza el estado de una orden de compra.
 	 * <p>
 	 * Utilizado para avanzar el flujo de trabajo, por ejemplo: de "Pendiente"
-	 * (Recién creada) a "Recibido" (Stock actualizado) o "Cancelado".
+	 * (Recién creada) a "Recibido" (Stock actualizado) o "Cancelado". Al pasar a
+	 * "Recibido" publica {@link PedidoRecibido} en el {@link BusEventos}.
 	 * </p>
 	 * * @param ordenId ID de la orden a modificar.
 	 * 
@@ -129,7 +144,13 @@ public class OrdenCompraDAO implements BaseDAO<OrdenCompra> {
 		try (Connection con = Conexion.getConexion(); PreparedStatement ps = con.prepareStatement(sql)) {
 			ps.setString(1, nuevoStatus);
 			ps.setInt(2, ordenId);
-			return ps.executeUpdate() > 0;
+			if (ps.executeUpdate() == 0) {
+				return false;
+			}
+			if ("Recibido".equalsIgnoreCase(nuevoStatus)) {
+				BusEventos.getInstancia().publicar(new PedidoRecibido(ordenId));
+			}
+			return true;
 		} catch (SQLException e) {
 			System.err.println("Error al modificar status de la orden: " + e.toString());
 			return false;
@@ -233,4 +254,37 @@ public class OrdenCompraDAO implements BaseDAO<OrdenCompra> {
 			return false;
 		}
 	}
-}
\ No newline at end of file
+
+	/**
+	 * Recupera una página de órdenes de compra filtrada y ordenada en el servidor.
+	 * <p>
+	 * Campos lógicos: {@code id}, {@code nombre}/{@code proveedor},
+	 * {@code proveedorId}, {@code fecha}, {@code status}. Los detalles no se
+	 * cargan (igual que en {@link #ObtenerTodo()}).
+	 * </p>
+	 * 
+	 * @param criterio Filtros, orden y cursor.
+	 * @return Página de {@link OrdenCompra}.
+	 */
+	@Override
+	public Pagina<OrdenCompra> buscarPagina(Criterio criterio) {
+		BaseDatos bd = new BaseDatos();
+		return bd.consultarPagina("TablaOrdenesCompra o INNER JOIN TablaProveedores p ON o.ProveedorID = p.Pid",
+				"o.OrdenID, o.ProveedorID, o.Fecha, o.Status, p.NombreP", COLUMNAS, "o.OrdenID", criterio)
+				.mapear(f -> new OrdenCompra((int) f[0], (int) f[1], (java.util.Date) f[2], (String) f[3],
+						(String) f[4]));
+	}
+
+	/**
+	 * @return {@code true}: este DAO implementa {@link #buscarPagina(Criterio)}.
+	 */
+	@Override
+	public boolean soportaPaginacion() {
+		return true;
+	}
+
+	@Override
+	public boolean esCampoEntero(String campo) {
+		return Criterio.CAMPO_ID.equals(campo) || CAMPOS_ENTEROS.contains(campo);
+	}
+}
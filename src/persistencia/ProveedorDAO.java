@@ -2,11 +2,13 @@ package persistencia;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 
-import conexion.Conexion;
 import modelo.BaseDatos;
 import modelo.Proveedor;
 import modelogenerico.BaseDAO;
+import modelogenerico.Criterio;
+import modelogenerico.Pagina;
 
 /**
  * Clase de Acceso a Datos (DAO) para la entidad {@link Proveedor}.
@@ -15,10 +17,13 @@ import modelogenerico.BaseDAO;
  * clase utiliza la clase de utilidad {@link BaseDatos} para abstraer la
  * complejidad de las consultas JDBC directas.
  * </p>
- * * @version 1.0
+ * * @version 1.1
  */
 public class ProveedorDAO implements BaseDAO<Proveedor> {
 
+	/** Campos lógicos permitidos en {@link #buscarPagina(Criterio)}. */
+	private static final Map<String, String> COLUMNAS = Map.of("nombre", "NombreP", "telefono", "NumeroTel");
+
 	/**
 	 * Busca un proveedor por su identificador único. * @param id Identificador del
 	 * proveedor (Pid).
@@ -28,7 +33,7 @@ public class ProveedorDAO implements BaseDAO<Proveedor> {
 	@Override
 	public Proveedor buscarPorID(int id) {
 		// 1. Instanciamos BaseDatos con la conexión activa
-		BaseDatos bd = new BaseDatos(Conexion.getConexion());
+		BaseDatos bd = new BaseDatos();
 
 		// 2. Ejecutamos la consulta
 		// Nota: Utiliza la utilidad genérica para mapear el resultado
@@ -55,7 +60,7 @@ public class ProveedorDAO implements BaseDAO<Proveedor> {
 	 */
 	@Override
 	public List<Proveedor> ObtenerTodo() {
-		BaseDatos bd = new BaseDatos(Conexion.getConexion());
+		BaseDatos bd = new BaseDatos();
 		List<Proveedor> listaProveedores = new ArrayList<>();
 
 		// Consulta sin condición (null) para traer todo
@@ -76,7 +81,7 @@ public class ProveedorDAO implements BaseDAO<Proveedor> {
 	 */
 	@Override
 	public boolean agregar(Proveedor entidad) {
-		BaseDatos bd = new BaseDatos(Conexion.getConexion());
+		BaseDatos bd = new BaseDatos();
 
 		// Preparamos los valores en un arreglo de Objetos
 		Object[] valores = { entidad.getNombre(), entidad.getNumTel() };
@@ -99,7 +104,7 @@ public class ProveedorDAO implements BaseDAO<Proveedor> {
 	 */
 	@Override
 	public boolean modificar(Proveedor entidad) {
-		BaseDatos bd = new BaseDatos(Conexion.getConexion());
+		BaseDatos bd = new BaseDatos();
 
 		// Valores a actualizar
 		Object[] valores = { entidad.getNombre(), entidad.getNumTel() };
@@ -122,9 +127,33 @@ public class ProveedorDAO implements BaseDAO<Proveedor> {
 	 */
 	@Override
 	public boolean borrar(int id) {
-		BaseDatos bd = new BaseDatos(Conexion.getConexion());
+		BaseDatos bd = new BaseDatos();
 		// El método 'eliminar' espera: tabla, condicion SQL (con ?), valor del
 		// parámetro
 		return bd.eliminar("TablaProveedores", "Pid = ?", id);
 	}
-}
\ No newline at end of file
+
+	/**
+	 * Recupera una página de proveedores filtrada y ordenada en el servidor.
+	 * <p>
+	 * Campos lógicos: {@code id}, {@code nombre}, {@code telefono}.
+	 * </p>
+	 * 
+	 * @param criterio Filtros, orden y cursor.
+	 * @return Página de {@link Proveedor}.
+	 */
+	@Override
+	public Pagina<Proveedor> buscarPagina(Criterio criterio) {
+		BaseDatos bd = new BaseDatos();
+		return bd.consultarPagina("TablaProveedores", "Pid, NombreP, NumeroTel", COLUMNAS, "Pid", criterio)
+				.mapear(fila -> new Proveedor((int) fila[0], (String) fila[1], (String) fila[2]));
+	}
+
+	/**
+	 * @return {@code true}: este DAO implementa {@link #buscarPagina(Criterio)}.
+	 */
+	@Override
+	public boolean soportaPaginacion() {
+		return true;
+	}
+}
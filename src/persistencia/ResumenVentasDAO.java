@@ -0,0 +1,319 @@
+package persistencia;
+
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import conexion.Conexion;
+import modelo.ResumenVentas;
+
+/**
+ * Acceso a las tablas de resumen (pre-agregadas) de ventas.
+ * <p>
+ * <b>Tablas:</b>
+ * <ul>
+ * <li><b>TablaResumenVentasDia:</b> día × empleado × método de pago, con número
+ * de ventas, subtotal, descuento, impuestos y total.</li>
+ * <li><b>TablaResumenProductosDia:</b> día × producto (con su categoría), con
+ * unidades vendidas e importe.</li>
+ * </ul>
+ * </p>
+ * <p>
+ * <b>Mantenimiento:</b> {@link VentaDAO} llama a {@link #acumular} dentro de la
+ * misma transacción de cada venta (signo +1) y de cada devolución (signo -1),
+ * de modo que los resúmenes nunca difieren de las ventas confirmadas. Para el
+ * historial anterior (o tras cargas masivas) está {@link #reconstruir}.
+ * </p>
+ * <p>
+ * Las ventas devueltas ({@code ClienteID} nulo) no se cuentan, igual que en los
+ * reportes por venta.
+ * </p>
+ *
+ * @version 1.0
+ */
+public class ResumenVentasDAO {
+
+	/** Método de pago con el que se acumulan las ventas que no lo registran. */
+	private static final String METODO_DESCONOCIDO = "Otro";
+
+	/** SQLState de violación de restricción (clave duplicada). */
+	private static final String ESTADO_CLAVE_DUPLICADA = "23";
+
+	// --- Actualización incremental (mismo orden de parámetros en UPDATE e INSERT) ---
+
+	private static final String SQL_SUMAR_VENTAS = "UPDATE TablaResumenVentasDia SET NumVentas = NumVentas + ?, "
+			+ "Subtotal = Subtotal + ?, Descuento = Descuento + ?, Impuestos = Impuestos + ?, Total = Total + ? "
+			+ "WHERE Fecha = ? AND EmpleadoID = ? AND MetodoPago = ?";
+	private static final String SQL_CREAR_VENTAS = "INSERT INTO TablaResumenVentasDia "
+			+ "(NumVentas, Subtotal, Descuento, Impuestos, Total, Fecha, EmpleadoID, MetodoPago) "
+			+ "VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+
+	private static final String SQL_SUMAR_PRODUCTO = "UPDATE TablaResumenProductosDia SET Cantidad = Cantidad + ?, "
+			+ "Importe = Importe + ? WHERE Fecha = ? AND ProductoID = ?";
+	private static final String SQL_CREAR_PRODUCTO = "INSERT INTO TablaResumenProductosDia "
+			+ "(Cantidad, Importe, Fecha, ProductoID, CategoriaID) "
+			+ "SELECT ?, ?, ?, Pid, CategoriaID FROM TablaAlmacen_Productos WHERE Pid = ?";
+
+	// ==========================================
+	// MANTENIMIENTO EN LA TRANSACCIÓN DE VENTA
+	// ==========================================
+
+	/**
+	 * Suma (o resta) una venta a los resúmenes del día.
+	 * <p>
+	 * Debe llamarse con la transacción de la venta abierta y <b>después</b> de
+	 * actualizar el stock: los productos se recorren en orden ascendente (igual
+	 * que el stock) y la fila del empleado va al final, así todas las cajas toman
+	 * los locks en el mismo orden.
+	 * </p>
+	 *
+	 * @param con         Conexión con la transacción en curso (no se cierra ni se
+	 *                    confirma).
+	 * @param fechaVenta  Fecha y hora de la venta.
+	 * @param empleadoId  Empleado que cobró.
+	 * @param metodoPago  Método de pago ("Efectivo", "Tarjeta").
+	 * @param signo       {@code 1} para una venta, {@code -1} para una devolución.
+	 * @param subtotal    Subtotal de la venta.
+	 * @param descuento   Descuento aplicado.
+	 * @param impuestos   Impuestos.
+	 * @param total       Total cobrado.
+	 * @param porProducto ID de producto → {unidades, importe}, ordenado por ID
+	 *                    (ej. {@link java.util.TreeMap}).
+	 * @throws SQLException Si falla alguna actualización (la venta debe
+	 *                      revertirse).
+	 */
+	public static void acumular(Connection con, java.util.Date fechaVenta, int empleadoId, String metodoPago,
+			int signo, double subtotal, double descuento, double impuestos, double total,
+			Map<Integer, double[]> porProducto) throws SQLException {
+		Date dia = dia(fechaVenta);
+
+		List<Object[]> productos = new ArrayList<>(porProducto.size());
+		for (Map.Entry<Integer, double[]> e : porProducto.entrySet()) {
+			productos.add(new Object[] { (int) e.getValue()[0] * signo, e.getValue()[1] * signo, dia, e.getKey() });
+		}
+		sumar(con, SQL_SUMAR_PRODUCTO, SQL_CREAR_PRODUCTO, productos);
+
+		List<Object[]> ventas = new ArrayList<>(1);
+		ventas.add(new Object[] { signo, subtotal * signo, descuento * signo, impuestos * signo, total * signo, dia,
+				empleadoId, (metodoPago == null) ? METODO_DESCONOCIDO : metodoPago });
+		sumar(con, SQL_SUMAR_VENTAS, SQL_CREAR_VENTAS, ventas);
+	}
+
+	/**
+	 * Actualiza las filas existentes en lote y crea las que faltan.
+	 * <p>
+	 * Si otra caja crea la misma fila entre el UPDATE y el INSERT, la clave
+	 * duplicada se resuelve repitiendo el UPDATE.
+	 * </p>
+	 */
+	private static void sumar(Connection con, String sqlSumar, String sqlCrear, List<Object[]> filas)
+			throws SQLException {
+		if (filas.isEmpty()) {
+			return;
+		}
+		List<Object[]> faltantes = new ArrayList<>();
+		try (PreparedStatement psSumar = con.prepareStatement(sqlSumar)) {
+			for (Object[] fila : filas) {
+				asignar(psSumar, fila);
+				psSumar.addBatch();
+			}
+			int[] cuentas = psSumar.executeBatch();
+			for (int i = 0; i < cuentas.length; i++) {
+				if (cuentas[i] == 0) {
+					faltantes.add(filas.get(i));
+				}
+			}
+		}
+		if (faltantes.isEmpty()) {
+			return;
+		}
+		try (PreparedStatement psCrear = con.prepareStatement(sqlCrear);
+				PreparedStatement psSumar = con.prepareStatement(sqlSumar)) {
+			for (Object[] fila : faltantes) {
+				try {
+					asignar(psCrear, fila);
+					psCrear.executeUpdate();
+				} catch (SQLException e) {
+					if (e.getSQLState() == null || !e.getSQLState().startsWith(ESTADO_CLAVE_DUPLICADA)) {
+						throw e;
+					}
+					asignar(psSumar, fila); // Otra caja la creó primero
+					psSumar.executeUpdate();
+				}
+			}
+		}
+	}
+
+	private static void asignar(PreparedStatement ps, Object[] valores) throws SQLException {
+		for (int i = 0; i < valores.length; i++) {
+			ps.setObject(i + 1, valores[i]);
+		}
+	}
+
+	private static Date dia(java.util.Date fecha) {
+		return Date.valueOf(fecha.toInstant().atZone(ZoneId.systemDefault()).toLocalDate());
+	}
+
+	// ==========================================
+	// RECONSTRUCCIÓN DEL HISTORIAL
+	// ==========================================
+
+	/**
+	 * Recalcula los resúmenes de un rango de días a partir de las ventas.
+	 * <p>
+	 * Procesa un mes por transacción (borra y vuelve a insertar los totales de
+	 * esos días). Conviene ejecutarlo fuera del horario de venta si el rango
+	 * incluye el día actual.
+	 * </p>
+	 *
+	 * @param desde Primer día (inclusive).
+	 * @param hasta Último día (inclusive).
+	 * @return Filas de resumen escritas (ventas + productos).
+	 * @throws SQLException Si falla algún mes (los meses anteriores quedan
+	 *                      confirmados).
+	 */
+	public long reconstruir(LocalDate desde, LocalDate hasta) throws SQLException {
+		String[] borrar = { "DELETE FROM TablaResumenVentasDia WHERE Fecha >= ? AND Fecha < ?",
+				"DELETE FROM TablaResumenProductosDia WHERE Fecha >= ? AND Fecha < ?" };
+		String[] insertar = {
+				"INSERT INTO TablaResumenVentasDia (Fecha, EmpleadoID, MetodoPago, NumVentas, Subtotal, Descuento, Impuestos, Total) "
+						+ "SELECT CAST(v.FechaVenta AS DATE), v.EmpleadoID, COALESCE(v.MetodoPago, '" + METODO_DESCONOCIDO
+						+ "'), COUNT(*), SUM(v.Subtotal), SUM(v.Descuento), SUM(v.Impuestos), SUM(v.Total) "
+						+ "FROM TablaVentas v WHERE v.FechaVenta >= ? AND v.FechaVenta < ? AND v.ClienteID IS NOT NULL "
+						+ "GROUP BY CAST(v.FechaVenta AS DATE), v.EmpleadoID, COALESCE(v.MetodoPago, '"
+						+ METODO_DESCONOCIDO + "')",
+				// Se agrupa primero y la categoría se agrega después: así el plan parte del
+				// índice de fecha de ventas en lugar de recorrer todo el detalle
+				"INSERT INTO TablaResumenProductosDia (Fecha, ProductoID, CategoriaID, Cantidad, Importe) "
+						+ "SELECT r.Fecha, r.ProductoID, p.CategoriaID, r.Cantidad, r.Importe FROM ("
+						+ "SELECT CAST(v.FechaVenta AS DATE) AS Fecha, d.ProductoID AS ProductoID, "
+						+ "SUM(d.Cantidad) AS Cantidad, SUM(d.Subtotal) AS Importe "
+						+ "FROM TablaVentas v JOIN TablaVentaDetalle d ON d.VentaID = v.VentaID "
+						+ "WHERE v.FechaVenta >= ? AND v.FechaVenta < ? AND v.ClienteID IS NOT NULL "
+						+ "GROUP BY CAST(v.FechaVenta AS DATE), d.ProductoID) r "
+						+ "LEFT JOIN TablaAlmacen_Productos p ON p.Pid = r.ProductoID" };
+
+		long filas = 0;
+		try (Connection con = Conexion.getConexion()) {
+			if (con == null) {
+				throw new SQLException("No hay conexión con la base de datos.");
+			}
+			con.setAutoCommit(false);
+			try {
+				for (LocalDate inicio = desde; !inicio.isAfter(hasta); inicio = inicio.plusMonths(1).withDayOfMonth(1)) {
+					LocalDate fin = inicio.plusMonths(1).withDayOfMonth(1);
+					if (fin.isAfter(hasta.plusDays(1))) {
+						fin = hasta.plusDays(1);
+					}
+					for (String sql : borrar) {
+						try (PreparedStatement ps = con.prepareStatement(sql)) {
+							ps.setDate(1, Date.valueOf(inicio));
+							ps.setDate(2, Date.valueOf(fin));
+							ps.executeUpdate();
+						}
+					}
+					for (String sql : insertar) {
+						try (PreparedStatement ps = con.prepareStatement(sql)) {
+							ps.setTimestamp(1, java.sql.Timestamp.valueOf(inicio.atStartOfDay()));
+							ps.setTimestamp(2, java.sql.Timestamp.valueOf(fin.atStartOfDay()));
+							filas += ps.executeUpdate();
+						}
+					}
+					con.commit();
+				}
+			} catch (SQLException e) {
+				con.rollback();
+				throw e;
+			} finally {
+				con.setAutoCommit(true);
+			}
+		}
+		return filas;
+	}
+
+	/**
+	 * Rango de fechas con ventas registradas.
+	 *
+	 * @return {primer día, último día}, o {@code null} si no hay ventas.
+	 */
+	public LocalDate[] rangoVentas() {
+		String sql = "SELECT MIN(FechaVenta), MAX(FechaVenta) FROM TablaVentas";
+		try (Connection con = Conexion.getConexion();
+				Statement st = con.createStatement();
+				ResultSet rs = st.executeQuery(sql)) {
+			if (rs.next() && rs.getTimestamp(1) != null) {
+				return new LocalDate[] { rs.getTimestamp(1).toLocalDateTime().toLocalDate(),
+						rs.getTimestamp(2).toLocalDateTime().toLocalDate() };
+			}
+		} catch (SQLException e) {
+			System.err.println("Error al consultar el rango de ventas: " + e.getMessage());
+		}
+		return null;
+	}
+
+	// ==========================================
+	// CONSULTAS PARA REPORTES
+	// ==========================================
+
+	/**
+	 * Totales por día de un rango.
+	 *
+	 * @param desde Primer día (inclusive).
+	 * @param hasta Último día (inclusive).
+	 * @return Un {@link ResumenVentas} por día con ventas, en orden.
+	 */
+	public List<ResumenVentas> resumenPorDia(LocalDate desde, LocalDate hasta) {
+		String sql = "SELECT Fecha, SUM(NumVentas), SUM(Subtotal), SUM(Descuento), SUM(Impuestos), SUM(Total) "
+				+ "FROM TablaResumenVentasDia WHERE Fecha >= ? AND Fecha <= ? "
+				+ "GROUP BY Fecha HAVING SUM(NumVentas) > 0 ORDER BY Fecha";
+		List<ResumenVentas> resumen = new ArrayList<>();
+		try (Connection con = Conexion.getConexion(); PreparedStatement ps = con.prepareStatement(sql)) {
+			ps.setDate(1, Date.valueOf(desde));
+			ps.setDate(2, Date.valueOf(hasta));
+			try (ResultSet rs = ps.executeQuery()) {
+				while (rs.next()) {
+					resumen.add(new ResumenVentas(rs.getDate(1).toString(), rs.getInt(2), rs.getDouble(3),
+							rs.getDouble(4), rs.getDouble(5), rs.getDouble(6)));
+				}
+			}
+		} catch (SQLException e) {
+			System.err.println("Error al obtener el resumen diario de ventas: " + e.getMessage());
+		}
+		return resumen;
+	}
+
+	/**
+	 * Totales por mes de un año.
+	 *
+	 * @param anio Año a consultar.
+	 * @return Un {@link ResumenVentas} por mes con ventas; el periodo es el número
+	 *         de mes ("1" a "12").
+	 */
+	public List<ResumenVentas> resumenPorMes(int anio) {
+		String sql = "SELECT MONTH(Fecha), SUM(NumVentas), SUM(Subtotal), SUM(Descuento), SUM(Impuestos), SUM(Total) "
+				+ "FROM TablaResumenVentasDia WHERE Fecha >= ? AND Fecha < ? "
+				+ "GROUP BY MONTH(Fecha) HAVING SUM(NumVentas) > 0 ORDER BY MONTH(Fecha)";
+		List<ResumenVentas> resumen = new ArrayList<>();
+		try (Connection con = Conexion.getConexion(); PreparedStatement ps = con.prepareStatement(sql)) {
+			ps.setDate(1, Date.valueOf(LocalDate.of(anio, 1, 1)));
+			ps.setDate(2, Date.valueOf(LocalDate.of(anio + 1, 1, 1)));
+			try (ResultSet rs = ps.executeQuery()) {
+				while (rs.next()) {
+					resumen.add(new ResumenVentas(String.valueOf(rs.getInt(1)), rs.getInt(2), rs.getDouble(3),
+							rs.getDouble(4), rs.getDouble(5), rs.getDouble(6)));
+				}
+			}
+		} catch (SQLException e) {
+			System.err.println("Error al obtener el resumen mensual de ventas: " + e.getMessage());
+		}
+		return resumen;
+	}
+}
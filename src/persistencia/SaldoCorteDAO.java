@@ -0,0 +1,286 @@
+package persistencia;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+import conexion.Conexion;
+import modelo.SaldoCorte;
+
+/**
+ * Acceso al libro de saldos por turno (<b>TablaSaldosCorte</b>).
+ * <p>
+ * Cada turno tiene una fila con sus totales acumulados: ventas por método de
+ * pago, ingresos, egresos y el efectivo esperado en caja. La fila se crea al
+ * abrir la caja ({@link CorteCajaDAO#agregar}) y se actualiza dentro de la
+ * misma transacción de cada venta, devolución ({@link VentaDAO}) y movimiento
+ * de caja ({@link MovimientoCajaDAO}); leerla es una búsqueda por clave
+ * primaria.
+ * </p>
+ * <p>
+ * <b>Turnos sin fila:</b> los cortes abiertos antes de existir la tabla (o
+ * creados por herramientas que escriben directo en la BD) se inicializan la
+ * primera vez que se necesitan, sumando sus ventas y movimientos. Por eso los
+ * métodos de actualización deben llamarse <b>después</b> de escribir la venta
+ * o el movimiento: si la fila se crea en ese momento, la suma ya lo incluye.
+ * </p>
+ * <p>
+ * <b>Orden de locks:</b> la fila del turno es lo último que se actualiza en
+ * cada transacción (después del stock y los resúmenes diarios).
+ * </p>
+ *
+ * @version 1.1
+ */
+public class SaldoCorteDAO {
+
+	/** SQLState de violación de restricción (clave duplicada). */
+	private static final String ESTADO_CLAVE_DUPLICADA = "23";
+
+	private static final String SQL_SUMAR = "UPDATE TablaSaldosCorte SET NumVentas = NumVentas + ?, "
+			+ "VentasEfectivo = VentasEfectivo + ?, VentasTarjeta = VentasTarjeta + ?, VentasOtros = VentasOtros + ?, "
+			+ "Ingresos = Ingresos + ?, Egresos = Egresos + ?, EfectivoEsperado = EfectivoEsperado + ?, "
+			+ "Version = Version + 1 WHERE CorteID = ?";
+	private static final String SQL_CREAR = "INSERT INTO TablaSaldosCorte (NumVentas, VentasEfectivo, VentasTarjeta, "
+			+ "VentasOtros, Ingresos, Egresos, EfectivoEsperado, Version, CorteID) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+	// Posiciones en el arreglo de importes (mismo orden que en SQL_SUMAR)
+	private static final int VENTAS = 0, EFECTIVO = 1, TARJETA = 2, OTROS = 3, INGRESOS = 4, EGRESOS = 5,
+			ESPERADO = 6;
+
+	// ==========================================
+	// MANTENIMIENTO EN LA TRANSACCIÓN
+	// ==========================================
+
+	/**
+	 * Crea la fila de un turno recién abierto.
+	 *
+	 * @param con          Conexión con la transacción de apertura.
+	 * @param corteID      ID del turno.
+	 * @param montoInicial Fondo inicial (es el efectivo esperado de partida).
+	 * @throws SQLException Si falla el INSERT.
+	 */
+	public static void crear(Connection con, int corteID, double montoInicial) throws SQLException {
+		double[] saldos = new double[7];
+		saldos[ESPERADO] = montoInicial;
+		insertar(con, corteID, saldos, 0);
+	}
+
+	/**
+	 * Suma (o resta) una venta al turno en el que se cobró.
+	 *
+	 * @param con        Conexión con la transacción de la venta (no se cierra
+	 *                   ni se confirma).
+	 * @param corteID    Turno de la venta.
+	 * @param metodoPago Método de pago ("Efectivo", "Tarjeta", otro).
+	 * @param signo      {@code 1} para una venta, {@code -1} para una
+	 *                   devolución.
+	 * @param total      Total cobrado.
+	 * @throws SQLException Si falla la actualización (la venta debe
+	 *                      revertirse).
+	 */
+	public static void acumularVenta(Connection con, int corteID, String metodoPago, int signo, double total)
+			throws SQLException {
+		double[] cambio = new double[7];
+		cambio[VENTAS] = signo;
+		sumarVenta(cambio, metodoPago, total * signo);
+		sumar(con, corteID, cambio);
+	}
+
+	/**
+	 * Suma (o resta) un movimiento de caja al turno.
+	 *
+	 * @param con            Conexión con la transacción del movimiento.
+	 * @param corteID        Turno del movimiento.
+	 * @param tipoMovimiento "Ingreso" o "Egreso".
+	 * @param signo          {@code 1} al registrarlo, {@code -1} al borrarlo o
+	 *                       reemplazarlo.
+	 * @param monto          Monto del movimiento.
+	 * @throws SQLException Si falla la actualización.
+	 */
+	public static void acumularMovimiento(Connection con, int corteID, String tipoMovimiento, int signo,
+			double monto) throws SQLException {
+		double[] cambio = new double[7];
+		sumarMovimiento(cambio, tipoMovimiento, monto * signo);
+		sumar(con, corteID, cambio);
+	}
+
+	/**
+	 * Reemplaza un movimiento de caja del turno por su versión modificada,
+	 * aplicando la diferencia en una sola actualización.
+	 * <p>
+	 * Debe llamarse después de actualizar el movimiento: si el turno aún no tiene
+	 * fila de saldos, ésta se inicializa desde los movimientos, que ya incluyen
+	 * el valor nuevo, y la diferencia no se vuelve a sumar.
+	 * </p>
+	 *
+	 * @param con           Conexión con la transacción del movimiento.
+	 * @param corteID       Turno del movimiento.
+	 * @param tipoAnterior  Tipo antes de modificarlo.
+	 * @param montoAnterior Monto antes de modificarlo.
+	 * @param tipoNuevo     Tipo después de modificarlo.
+	 * @param montoNuevo    Monto después de modificarlo.
+	 * @throws SQLException Si falla la actualización.
+	 */
+	public static void reemplazarMovimiento(Connection con, int corteID, String tipoAnterior, double montoAnterior,
+			String tipoNuevo, double montoNuevo) throws SQLException {
+		double[] cambio = new double[7];
+		sumarMovimiento(cambio, tipoAnterior, -montoAnterior);
+		sumarMovimiento(cambio, tipoNuevo, montoNuevo);
+		sumar(con, corteID, cambio);
+	}
+
+	private static void sumarVenta(double[] saldos, String metodoPago, double total) {
+		if ("Efectivo".equalsIgnoreCase(metodoPago)) {
+			saldos[EFECTIVO] += total;
+			saldos[ESPERADO] += total;
+		} else if ("Tarjeta".equalsIgnoreCase(metodoPago)) {
+			saldos[TARJETA] += total;
+		} else {
+			saldos[OTROS] += total;
+		}
+	}
+
+	private static void sumarMovimiento(double[] saldos, String tipoMovimiento, double monto) {
+		if ("Egreso".equalsIgnoreCase(tipoMovimiento)) {
+			saldos[EGRESOS] += monto;
+			saldos[ESPERADO] -= monto;
+		} else {
+			saldos[INGRESOS] += monto;
+			saldos[ESPERADO] += monto;
+		}
+	}
+
+	/**
+	 * Aplica un cambio a la fila del turno; si no existe, la inicializa desde
+	 * las ventas y movimientos (que ya incluyen el cambio).
+	 */
+	private static void sumar(Connection con, int corteID, double[] cambio) throws SQLException {
+		try (PreparedStatement ps = con.prepareStatement(SQL_SUMAR)) {
+			ps.setInt(1, (int) cambio[VENTAS]);
+			for (int i = EFECTIVO; i <= ESPERADO; i++) {
+				ps.setDouble(i + 1, cambio[i]);
+			}
+			ps.setInt(8, corteID);
+			if (ps.executeUpdate() > 0) {
+				return;
+			}
+			try {
+				inicializar(con, corteID);
+			} catch (SQLException e) {
+				if (e.getSQLState() == null || !e.getSQLState().startsWith(ESTADO_CLAVE_DUPLICADA)) {
+					throw e;
+				}
+				ps.executeUpdate(); // Otra transacción la creó primero
+			}
+		}
+	}
+
+	/**
+	 * Crea la fila de un turno sumando sus ventas y movimientos registrados.
+	 *
+	 * @return {@code false} si el turno no existe.
+	 */
+	private static boolean inicializar(Connection con, int corteID) throws SQLException {
+		double[] saldos = new double[7];
+		try (PreparedStatement ps = con.prepareStatement("SELECT MontoInicial FROM TablaCortesCaja WHERE CorteID = ?")) {
+			ps.setInt(1, corteID);
+			try (ResultSet rs = ps.executeQuery()) {
+				if (!rs.next()) {
+					return false;
+				}
+				saldos[ESPERADO] = rs.getDouble(1);
+			}
+		}
+		try (PreparedStatement ps = con.prepareStatement("SELECT MetodoPago, SUM(Total), "
+				+ "SUM(CASE WHEN ClienteID IS NULL THEN 0 ELSE 1 END) FROM TablaVentas WHERE CorteID = ? "
+				+ "GROUP BY MetodoPago")) {
+			ps.setInt(1, corteID);
+			try (ResultSet rs = ps.executeQuery()) {
+				while (rs.next()) {
+					sumarVenta(saldos, rs.getString(1), rs.getDouble(2));
+					saldos[VENTAS] += rs.getInt(3);
+				}
+			}
+		}
+		try (PreparedStatement ps = con.prepareStatement(
+				"SELECT TipoMovimiento, SUM(Monto) FROM TablaMovimientosCaja WHERE CorteID = ? GROUP BY TipoMovimiento")) {
+			ps.setInt(1, corteID);
+			try (ResultSet rs = ps.executeQuery()) {
+				while (rs.next()) {
+					sumarMovimiento(saldos, rs.getString(1), rs.getDouble(2));
+				}
+			}
+		}
+		insertar(con, corteID, saldos, 1);
+		return true;
+	}
+
+	private static void insertar(Connection con, int corteID, double[] saldos, long version) throws SQLException {
+		try (PreparedStatement ps = con.prepareStatement(SQL_CREAR)) {
+			ps.setInt(1, (int) saldos[VENTAS]);
+			for (int i = EFECTIVO; i <= ESPERADO; i++) {
+				ps.setDouble(i + 1, saldos[i]);
+			}
+			ps.setLong(8, version);
+			ps.setInt(9, corteID);
+			ps.executeUpdate();
+		}
+	}
+
+	// ==========================================
+	// CONSULTA
+	// ==========================================
+
+	/**
+	 * Lee los saldos actuales de un turno.
+	 *
+	 * @param corteID ID del turno.
+	 * @return Saldos del turno, o {@code null} si el turno no existe.
+	 * @throws SQLException Si no hay conexión o falla la consulta.
+	 */
+	public SaldoCorte obtener(int corteID) throws SQLException {
+		String sql = "SELECT NumVentas, VentasEfectivo, VentasTarjeta, VentasOtros, Ingresos, Egresos, "
+				+ "EfectivoEsperado, Version FROM TablaSaldosCorte WHERE CorteID = ?";
+
+		try (Connection con = Conexion.getConexion()) {
+			SaldoCorte saldo = leer(con, sql, corteID);
+			if (saldo != null) {
+				return saldo;
+			}
+			// Turno anterior a la tabla: se crea la fila una sola vez
+			try {
+				con.setAutoCommit(false);
+				boolean existe;
+				try {
+					existe = inicializar(con, corteID);
+				} catch (SQLException e) {
+					if (e.getSQLState() == null || !e.getSQLState().startsWith(ESTADO_CLAVE_DUPLICADA)) {
+						throw e;
+					}
+					existe = true; // Otra transacción la creó primero
+				}
+				con.commit();
+				return existe ? leer(con, sql, corteID) : null;
+			} catch (SQLException e) {
+				con.rollback();
+				throw e;
+			} finally {
+				con.setAutoCommit(true);
+			}
+		}
+	}
+
+	private static SaldoCorte leer(Connection con, String sql, int corteID) throws SQLException {
+		try (PreparedStatement ps = con.prepareStatement(sql)) {
+			ps.setInt(1, corteID);
+			try (ResultSet rs = ps.executeQuery()) {
+				if (!rs.next()) {
+					return null;
+				}
+				return new SaldoCorte(corteID, rs.getInt(1), rs.getDouble(2), rs.getDouble(3), rs.getDouble(4),
+						rs.getDouble(5), rs.getDouble(6), rs.getDouble(7), rs.getLong(8));
+			}
+		}
+	}
+}
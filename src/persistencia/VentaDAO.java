@@ -1,15 +1,32 @@
 package persistencia;
 
+import java.io.IOException;
+import java.nio.file.Path;
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.sql.SQLTimeoutException;
+import java.sql.SQLTransientConnectionException;
 import java.sql.Statement;
 import java.util.ArrayList;
 import java.util.Date;
 import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.BooleanSupplier;
+import java.util.function.LongConsumer;
 
 import conexion.Conexion;
+import conexion.Configuracion;
+import eventos.BusEventos;
+import eventos.DevolucionRealizada;
+import eventos.StockCambiado;
+import eventos.VentaRegistrada;
+import metricas.EventoJfrTransaccionVenta;
+import metricas.EventoJfrVenta;
+import metricas.Metricas;
 import modelo.Venta;
 import modelo.VentaDetalle;
 
@@ -21,51 +38,216 @@ import modelo.VentaDetalle;
  * de venta, sus detalles y la actualización (resta) del stock en una sola
  * operación atómica.
  * </p>
- * * @version 1.2
+ * * @version 1.12
  */
 public class VentaDAO {
 
+	/** Código de SQL Server: transacción elegida como víctima de un deadlock. */
+	private static final int ERROR_DEADLOCK = 1205;
+
+	/** Código de SQL Server: se agotó {@code LOCK_TIMEOUT} esperando un bloqueo. */
+	private static final int ERROR_TIMEOUT_BLOQUEO = 1222;
+
+	/** Intentos totales de una venta que choca con otra caja. */
+	private static final int INTENTOS_MAXIMOS = Configuracion.getEntero("pos.venta.intentos", 4);
+
+	/** Espera base antes del primer reintento (se duplica en cada uno). */
+	private static final long ESPERA_REINTENTO_MS = Configuracion.getEntero("pos.venta.esperaReintentoMs", 50);
+
+	/** Segundos máximos esperando los locks de stock antes de reintentar. */
+	private static final int TIMEOUT_BLOQUEO_SEG = 5;
+
+	/**
+	 * Registra una venta completa en la base de datos de manera transaccional.
+	 * <p>
+	 * Versión que reporta el éxito como {@code boolean}; el detalle del error se
+	 * imprime en consola. Ver {@link #registrar(Venta)}.
+	 * </p>
+	 * * @param venta Objeto {@link Venta} con todos los datos y la lista de
+	 * detalles cargada.
+	 * 
+	 * @return {@code true} si la venta se procesó exitosamente.
+	 */
+	public boolean agregar(Venta venta) {
+		try {
+			registrar(venta);
+			return true;
+		} catch (SQLException e) {
+			System.err.println("Error al registrar la venta, haciendo rollback: " + e.getMessage());
+			return false;
+		}
+	}
+
 	/**
 	 * Registra una venta completa en la base de datos de manera transaccional.
 	 * <p>
 	 * <b>Flujo de la Transacción (ACID):</b>
 	 * <ol>
 	 * <li>Desactiva el auto-commit.</li>
+	 * <li>Si la venta trae clave de idempotencia (viene del
+	 * {@link DiarioVentas}), verifica que no se haya registrado antes; si ya
+	 * existe, sólo recupera su folio y termina.</li>
 	 * <li>Inserta la cabecera en {@code TablaVentas} (incluyendo impuestos y corte
 	 * ID).</li>
 	 * <li>Recupera el ID generado (Folio).</li>
-	 * <li>Para cada detalle en la lista:
+	 * <li>Agrega cada detalle a dos lotes (batch) preparados una sola vez:
 	 * <ul>
-	 * <li>Inserta el registro en {@code TablaVentaDetalle}.</li>
-	 * <li>Ejecuta un {@code UPDATE} en {@code TablaAlmacen_Productos} restando la
-	 * cantidad vendida.</li>
+	 * <li>El {@code INSERT} en {@code TablaVentaDetalle}.</li>
+	 * <li>El {@code UPDATE} en {@code TablaAlmacen_Productos} restando la cantidad
+	 * vendida, agrupado por producto y en orden ascendente de ID.</li>
 	 * </ul>
-	 * </li>
-	 * <li>Si todo es correcto, hace {@code commit()}. Si falla algo, hace
-	 * {@code rollback()}.</li>
+	 * Cada lote se envía en un solo viaje al servidor, sin importar cuántas líneas
+	 * tenga el ticket.</li>
+	 * <li>Suma la venta a las tablas de resumen diario
+	 * ({@link ResumenVentasDAO#acumular}) y a los saldos del turno
+	 * ({@link SaldoCorteDAO#acumularVenta}).</li>
+	 * <li>Si todo es correcto, hace {@code commit()} y publica
+	 * {@link VentaRegistrada} y {@link StockCambiado} en el {@link BusEventos}.
+	 * Si falla algo, hace {@code rollback()} y relanza la excepción.</li>
 	 * </ol>
 	 * </p>
+	 * <p>
+	 * La duración de la transacción se registra en {@link Metricas} bajo
+	 * {@code venta.commit.lineas_*}, agrupada por número de líneas del ticket, y
+	 * cada venta confirmada suma al contador {@code venta.registradas}.
+	 * </p>
+	 * <p>
+	 * <b>Contención entre cajas:</b> si SQL Server elige la transacción como
+	 * víctima de un deadlock (error 1205) o se agota la espera de un bloqueo
+	 * (error 1222 o {@value #TIMEOUT_BLOQUEO_SEG} s en el {@code UPDATE} de
+	 * stock), se repite completa hasta {@code pos.venta.intentos} veces con
+	 * espera exponencial y variación aleatoria. Se cuentan en
+	 * {@code venta.commit.reintentos.*} y {@code venta.commit.abortadas}.
+	 * </p>
+	 * <p>
+	 * La transacción completa, con sus intentos, queda en la grabación JFR como
+	 * {@link EventoJfrTransaccionVenta}.
+	 * </p>
 	 * * @param venta Objeto {@link Venta} con todos los datos y la lista de
-	 * detalles cargada.
+	 * detalles cargada. Al terminar, su ID contiene el folio asignado.
 	 * 
-	 * @return {@code true} si la venta se procesó exitosamente.
+	 * @return {@code true} si la venta se insertó en esta llamada;
+	 *         {@code false} si su clave de idempotencia ya estaba registrada (sólo
+	 *         se recuperó el folio).
+	 * @throws SQLException Si no hay conexión o la transacción no pudo
+	 *                      confirmarse (ya revertida).
 	 */
-	public boolean agregar(Venta venta) {
+	public boolean registrar(Venta venta) throws SQLException {
+		EventoJfrTransaccionVenta evento = new EventoJfrTransaccionVenta();
+		evento.begin();
+		for (int intento = 1;; intento++) {
+			try {
+				boolean nueva = registrarUnaVez(venta);
+				registrarEvento(evento, venta, intento, true);
+				return nueva;
+			} catch (SQLException e) {
+				String motivo = motivoReintento(e);
+				if (motivo == null || intento >= INTENTOS_MAXIMOS) {
+					Metricas.contador("venta.commit.abortadas").increment();
+					registrarEvento(evento, venta, intento, false);
+					throw e;
+				}
+				Metricas.contador("venta.commit.reintentos." + motivo).increment();
+				long espera = ESPERA_REINTENTO_MS << (intento - 1);
+				System.err.println("❌ Venta en conflicto con otra caja (" + motivo + "), reintento " + intento
+						+ " en " + espera + " ms.");
+				try {
+					// La variación aleatoria evita que las dos cajas choquen de nuevo al mismo tiempo
+					Thread.sleep(espera + ThreadLocalRandom.current().nextLong(espera + 1));
+				} catch (InterruptedException ie) {
+					Thread.currentThread().interrupt();
+					registrarEvento(evento, venta, intento, false);
+					throw e;
+				}
+			}
+		}
+	}
+
+	private static void registrarEvento(EventoJfrTransaccionVenta evento, Venta venta, int intentos,
+			boolean exitosa) {
+		evento.end();
+		if (evento.shouldCommit()) {
+			evento.ventaID = venta.getid();
+			evento.corteID = venta.getCorteID();
+			evento.lineas = venta.getDetalles().size();
+			evento.unidades = EventoJfrVenta.unidades(venta.getDetalles());
+			evento.productos = EventoJfrVenta.productos(venta.getDetalles());
+			evento.intentos = intentos;
+			evento.diario = venta.getClaveIdempotencia() != null;
+			evento.exitosa = exitosa;
+			evento.commit();
+		}
+	}
+
+	/**
+	 * Indica si un error de la transacción de venta se resuelve reintentándola
+	 * completa.
+	 * <p>
+	 * Revisa también las excepciones encadenadas, porque en un lote el error real
+	 * llega envuelto en un {@link java.sql.BatchUpdateException}.
+	 * </p>
+	 *
+	 * @param e Error recibido.
+	 * @return {@code "deadlock"}, {@code "bloqueo"} (timeout esperando un lock)
+	 *         o {@code null} si no debe reintentarse.
+	 */
+	static String motivoReintento(SQLException e) {
+		for (SQLException actual = e; actual != null; actual = actual.getNextException()) {
+			if (actual.getErrorCode() == ERROR_DEADLOCK || "40001".equals(actual.getSQLState())) {
+				return "deadlock";
+			}
+			if (actual.getErrorCode() == ERROR_TIMEOUT_BLOQUEO || actual instanceof SQLTimeoutException) {
+				return "bloqueo";
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Un intento de la transacción de venta (ver {@link #registrar(Venta)}).
+	 *
+	 * @return {@code false} si la clave de idempotencia ya estaba registrada.
+	 */
+	private boolean registrarUnaVez(Venta venta) throws SQLException {
+		String clave = venta.getClaveIdempotencia();
+
 		// SQL incluyendo todas las columnas financieras y de auditoría
-		String sqlVenta = "INSERT INTO TablaVentas(ClienteID, EmpleadoID, FechaVenta, Total, MetodoPago, Subtotal, Descuento, Impuestos, CorteID) "
-				+ "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)";
+		String sqlVenta = (clave == null)
+				? "INSERT INTO TablaVentas(ClienteID, EmpleadoID, FechaVenta, Total, MetodoPago, Subtotal, Descuento, Impuestos, CorteID) "
+						+ "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)"
+				: "INSERT INTO TablaVentas(ClienteID, EmpleadoID, FechaVenta, Total, MetodoPago, Subtotal, Descuento, Impuestos, CorteID, ClaveIdempotencia) "
+						+ "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+		// Bloquea la clave hasta el commit para que dos intentos no la inserten a la vez
+		String sqlExistente = "SELECT VentaID FROM TablaVentas WITH (UPDLOCK, HOLDLOCK) WHERE ClaveIdempotencia = ?";
 
 		String sqlDetalle = "INSERT INTO TablaVentaDetalle(VentaID, ProductoID, Cantidad, PrecioUnitario, Subtotal) VALUES (?, ?, ?, ?, ?)";
 		// SQL para descontar inventario automáticamente
 		String sqlUpdateStock = "UPDATE TablaAlmacen_Productos SET Cantidad = Cantidad - ? WHERE Pid = ?";
 
 		Connection con = null;
-		boolean exito = false;
+		long inicio = System.nanoTime();
 
 		try {
 			con = Conexion.getConexion();
+			if (con == null) {
+				throw new SQLTransientConnectionException("Sin conexión con la base de datos.");
+			}
 			con.setAutoCommit(false); // Inicia la transacción manual
 
+			// 0. Reintento de una venta del diario que ya llegó al servidor
+			if (clave != null) {
+				try (PreparedStatement psExistente = con.prepareStatement(sqlExistente)) {
+					psExistente.setString(1, clave);
+					try (ResultSet rs = psExistente.executeQuery()) {
+						if (rs.next()) {
+							venta.setid(rs.getInt("VentaID"));
+							con.commit();
+							return false;
+						}
+					}
+				}
+			}
+
 			// 1. Insertar Cabecera
 			try (PreparedStatement psVenta = con.prepareStatement(sqlVenta, Statement.RETURN_GENERATED_KEYS)) {
 				psVenta.setInt(1, venta.getClienteId());
@@ -79,40 +261,89 @@ public class VentaDAO {
 				psVenta.setDouble(7, venta.getDescuento()); // Descuento aplicado
 				psVenta.setDouble(8, venta.getImpuestos()); // IVA calculado
 				psVenta.setInt(9, venta.getCorteID()); // Vinculación con el turno de caja
+				if (clave != null) {
+					psVenta.setString(10, clave);
+				}
 
 				psVenta.executeUpdate();
 
 				// 2. Recuperar ID generado (Folio del Ticket)
 				try (ResultSet generatedKeys = psVenta.getGeneratedKeys()) {
-					if (generatedKeys.next()) {
-						int ventaIdGenerada = generatedKeys.getInt(1);
-						venta.setid(ventaIdGenerada);
-
-						// 3. Procesar Detalles y Stock
+					if (!generatedKeys.next()) {
+						throw new SQLException("No se obtuvo el folio generado para la venta.");
+					}
+					int ventaIdGenerada = generatedKeys.getInt(1);
+					venta.setid(ventaIdGenerada);
+
+					// 3. Procesar Detalles y Stock en lote (sentencias preparadas una sola vez)
+					try (PreparedStatement psDetalle = con.prepareStatement(sqlDetalle);
+							PreparedStatement psUpdate = con.prepareStatement(sqlUpdateStock)) {
+						// 3.1 Guardar detalles (en el orden del carrito)
+						Map<Integer, Integer> cantidadPorProducto = new TreeMap<>();
+						Map<Integer, double[]> resumenPorProducto = new TreeMap<>();
 						for (VentaDetalle detalle : venta.getDetalles()) {
-							// 3.1 Guardar detalle
-							try (PreparedStatement psDetalle = con.prepareStatement(sqlDetalle)) {
-								psDetalle.setInt(1, ventaIdGenerada);
-								psDetalle.setInt(2, detalle.getProductoId());
-								psDetalle.setInt(3, detalle.getCantidad());
-								psDetalle.setDouble(4, detalle.getPrecioUnitario());
-								psDetalle.setDouble(5, detalle.getSubtotal());
-								psDetalle.executeUpdate();
-							}
-							// 3.2 Actualizar inventario (Restar)
-							try (PreparedStatement psUpdate = con.prepareStatement(sqlUpdateStock)) {
-								psUpdate.setInt(1, detalle.getCantidad());
-								psUpdate.setInt(2, detalle.getProductoId());
-								psUpdate.executeUpdate();
-							}
+							psDetalle.setInt(1, ventaIdGenerada);
+							psDetalle.setInt(2, detalle.getProductoId());
+							psDetalle.setInt(3, detalle.getCantidad());
+							psDetalle.setDouble(4, detalle.getPrecioUnitario());
+							psDetalle.setDouble(5, detalle.getSubtotal());
+							psDetalle.addBatch();
+							cantidadPorProducto.merge(detalle.getProductoId(), detalle.getCantidad(), Integer::sum);
+							double[] acumulado = resumenPorProducto.computeIfAbsent(detalle.getProductoId(),
+									k -> new double[2]);
+							acumulado[0] += detalle.getCantidad();
+							acumulado[1] += detalle.getSubtotal();
+						}
+						psDetalle.executeBatch();
+
+						// 3.2 Actualizar inventario (Restar) en orden ascendente de Pid: todas
+						// las cajas toman los locks de producto en el mismo orden y no se
+						// forman ciclos (deadlocks) entre carritos con productos en común.
+						psUpdate.setQueryTimeout(TIMEOUT_BLOQUEO_SEG);
+						for (Map.Entry<Integer, Integer> e : cantidadPorProducto.entrySet()) {
+							psUpdate.setInt(1, e.getValue());
+							psUpdate.setInt(2, e.getKey());
+							psUpdate.addBatch();
 						}
+						psUpdate.executeBatch();
+
+						// 3.3 Sumar la venta a los resúmenes diarios (después del stock,
+						// para conservar el mismo orden de locks)
+						ResumenVentasDAO.acumular(con, venta.getFecha(), venta.getEmpleadoId(), venta.getMetodoPago(),
+								1, venta.getSubtotal(), venta.getDescuento(), venta.getImpuestos(), venta.getTotal(),
+								resumenPorProducto);
+
+						// 3.4 Sumar la venta a los saldos del turno (último lock de la transacción)
+						SaldoCorteDAO.acumularVenta(con, venta.getCorteID(), venta.getMetodoPago(), 1,
+								venta.getTotal());
 					}
 				}
 			}
 			con.commit(); // Confirmar cambios permanentemente
-			exito = true;
+			Metricas.histograma("venta.commit." + cubetaLineas(venta.getDetalles().size())).registrarDesde(inicio);
+			Metricas.contador("venta.registradas").increment();
+
+			// 4. Reflejar el stock vendido en el catálogo en memoria (ya confirmado).
+			// Las ventas con clave vienen del diario, que ajusta el catálogo por su
+			// cuenta (ver DiarioVentas).
+			if (clave == null) {
+				CatalogoProductos catalogo = CatalogoProductos.getInstancia();
+				for (VentaDetalle detalle : venta.getDetalles()) {
+					catalogo.ajustarStock(detalle.getProductoId(), -detalle.getCantidad());
+				}
+			}
+
+			// 5. Avisar a los suscriptores (cachés, pantallas) de lo confirmado
+			Map<Integer, Integer> salidas = new TreeMap<>();
+			for (VentaDetalle detalle : venta.getDetalles()) {
+				salidas.merge(detalle.getProductoId(), -detalle.getCantidad(), Integer::sum);
+			}
+			BusEventos bus = BusEventos.getInstancia();
+			bus.publicar(new VentaRegistrada(venta.getid(), venta.getCorteID(), venta.getEmpleadoId(),
+					venta.getMetodoPago(), venta.getTotal(), venta.getDetalles().size()));
+			bus.publicar(new StockCambiado(StockCambiado.Motivo.VENTA, salidas));
+			return true;
 		} catch (SQLException e) {
-			System.err.println("Error al registrar la venta, haciendo rollback: " + e.getMessage());
 			try {
 				if (con != null) {
 					con.rollback(); // Revertir cambios en caso de error
@@ -120,6 +351,7 @@ public class VentaDAO {
 			} catch (SQLException ex) {
 				System.err.println("Error al hacer rollback: " + ex.getMessage());
 			}
+			throw e;
 		} finally {
 			try {
 				if (con != null) {
@@ -130,7 +362,23 @@ public class VentaDAO {
 				System.err.println("Error al cerrar la conexión: " + e.getMessage());
 			}
 		}
-		return exito;
+	}
+
+	/**
+	 * Agrupa el tamaño del ticket en rangos para las métricas de latencia.
+	 *
+	 * @param lineas Número de renglones de la venta.
+	 * @return Sufijo del nombre de la métrica (ej. {@code lineas_21_50}).
+	 */
+	static String cubetaLineas(int lineas) {
+		if (lineas <= 5) {
+			return "lineas_1_5";
+		} else if (lineas <= 20) {
+			return "lineas_6_20";
+		} else if (lineas <= 50) {
+			return "lineas_21_50";
+		}
+		return "lineas_51_mas";
 	}
 
 	/**
@@ -239,6 +487,64 @@ public class VentaDAO {
 		return ventas;
 	}
 
+	/**
+	 * Prepara las ventas de un rango de fechas como fuente de datos de reporte,
+	 * leída fila por fila de la BD (sin lista intermedia).
+	 * <p>
+	 * Mismo filtro y orden que {@link #obtenerVentasPorFecha(Date, Date)}; las
+	 * columnas llevan los alias de los campos de {@code ventas_dia.jasper}.
+	 * </p>
+	 * * @param fechaInicio Inicio del rango.
+	 * 
+	 * @param fechaFin Fin del rango.
+	 * @return Fuente de datos; la consulta se ejecuta al empezar el llenado.
+	 */
+	public FuenteDatosJDBC fuenteVentasPorFecha(Date fechaInicio, Date fechaFin) {
+		return new FuenteDatosJDBC("SELECT v.VentaID AS id, v.FechaVenta AS fecha, c.NombreC AS nombreCliente, "
+				+ "e.NombreE AS nombreEmpleado, v.Total AS total " + "FROM TablaVentas v "
+				+ "JOIN TablaClientes c ON v.ClienteID = c.Cid " + "JOIN TablaEmpleados e ON v.EmpleadoID = e.Eid "
+				+ "WHERE v.FechaVenta BETWEEN ? AND ? " + "ORDER BY v.VentaID DESC", fechaInicio, fechaFin);
+	}
+
+	/**
+	 * Exporta las ventas de un rango de fechas a CSV directamente desde la BD
+	 * (ver {@link ExportadorCSV}).
+	 * <p>
+	 * Operación bloqueante: llamar fuera del EDT.
+	 * </p>
+	 * * @param fechaInicio Inicio del rango.
+	 * 
+	 * @param fechaFin   Fin del rango.
+	 * @param conDetalle {@code true} para una fila por producto vendido;
+	 *                   {@code false} para una fila por venta.
+	 * @param destino    Archivo a crear.
+	 * @param gzip       {@code true} para comprimir con gzip.
+	 * @param avance     Recibe las filas escritas hasta el momento (puede ser
+	 *                   {@code null}).
+	 * @param cancelado  Permite interrumpir la exportación (puede ser
+	 *                   {@code null}).
+	 * @return Filas escritas, o {@code -1} si se canceló.
+	 * @throws SQLException Si la consulta falla.
+	 * @throws IOException  Si no se puede escribir el archivo.
+	 */
+	public long exportarVentasCSV(Date fechaInicio, Date fechaFin, boolean conDetalle, Path destino, boolean gzip,
+			LongConsumer avance, BooleanSupplier cancelado) throws SQLException, IOException {
+		String sql = conDetalle
+				? "SELECT v.VentaID AS Venta, v.FechaVenta AS Fecha, c.NombreC AS Cliente, e.NombreE AS Empleado, "
+						+ "v.MetodoPago AS MetodoPago, p.Codigo AS Codigo, p.Nombre AS Producto, d.Cantidad AS Cantidad, "
+						+ "d.PrecioUnitario AS PrecioUnitario, d.Subtotal AS Subtotal " + "FROM TablaVentas v "
+						+ "JOIN TablaVentaDetalle d ON d.VentaID = v.VentaID "
+						+ "JOIN TablaAlmacen_Productos p ON d.ProductoID = p.Pid "
+						+ "JOIN TablaClientes c ON v.ClienteID = c.Cid " + "JOIN TablaEmpleados e ON v.EmpleadoID = e.Eid "
+						+ "WHERE v.FechaVenta BETWEEN ? AND ? " + "ORDER BY v.VentaID, d.DetalleID"
+				: "SELECT v.VentaID AS Venta, v.FechaVenta AS Fecha, c.NombreC AS Cliente, e.NombreE AS Empleado, "
+						+ "v.MetodoPago AS MetodoPago, v.Subtotal AS Subtotal, v.Descuento AS Descuento, "
+						+ "v.Impuestos AS Impuestos, v.Total AS Total " + "FROM TablaVentas v "
+						+ "JOIN TablaClientes c ON v.ClienteID = c.Cid " + "JOIN TablaEmpleados e ON v.EmpleadoID = e.Eid "
+						+ "WHERE v.FechaVenta BETWEEN ? AND ? " + "ORDER BY v.VentaID";
+		return ExportadorCSV.exportar(sql, new Object[] { fechaInicio, fechaFin }, destino, gzip, avance, cancelado);
+	}
+
 	/**
 	 * Obtiene un resumen financiero agrupado por método de pago para un corte de
 	 * caja específico.
@@ -280,30 +586,70 @@ public class VentaDAO {
 	 * <p>
 	 * <b>Lógica Inversa:</b>
 	 * <ol>
+	 * <li>Bloquea la cabecera de la venta; si ya estaba devuelta, no hace
+	 * nada.</li>
 	 * <li>Consulta los productos vendidos en esa transacción.</li>
 	 * <li>Suma las cantidades de vuelta al inventario (Restock).</li>
+	 * <li>Resta la venta de las tablas de resumen diario
+	 * ({@link ResumenVentasDAO#acumular}).</li>
 	 * <li>Anula el monto total de la venta (lo pone en 0) para que no afecte el
 	 * cierre de caja, pero mantiene el registro histórico.</li>
+	 * <li>Resta la venta de los saldos del turno en que se cobró
+	 * ({@link SaldoCorteDAO#acumularVenta}).</li>
+	 * <li>Tras el commit publica {@link DevolucionRealizada} y
+	 * {@link StockCambiado}.</li>
 	 * </ol>
 	 * </p>
 	 * * @param ventaId ID de la venta a cancelar.
 	 * 
-	 * @return {@code true} si la devolución se procesó correctamente.
+	 * @return {@code true} si la devolución se procesó correctamente;
+	 *         {@code false} si falló o la venta ya estaba devuelta.
 	 */
 	public boolean realizarDevolucion(int ventaId) {
 		Connection con = null;
 		boolean exito = false;
 
-		String sqlDetalles = "SELECT ProductoID, Cantidad FROM TablaVentaDetalle WHERE VentaID = ?";
+		// La cabecera se bloquea primero, igual que al vender; una venta ya devuelta no se procesa dos veces
+		String sqlCabecera = "SELECT FechaVenta, EmpleadoID, MetodoPago, Subtotal, Descuento, Impuestos, Total, CorteID "
+				+ "FROM TablaVentas WITH (UPDLOCK, HOLDLOCK) WHERE VentaID = ? AND ClienteID IS NOT NULL";
+		// Mismo orden de locks que al vender (ascendente por producto)
+		String sqlDetalles = "SELECT ProductoID, Cantidad, Subtotal FROM TablaVentaDetalle WHERE VentaID = ? ORDER BY ProductoID";
 		String sqlRestock = "UPDATE TablaAlmacen_Productos SET Cantidad = Cantidad + ? WHERE Pid = ?";
 		// Anulamos el valor financiero para que no cuente en el corte
 		String sqlAnular = "UPDATE TablaVentas SET Total = 0, ClienteID = NULL WHERE VentaID = ?";
+		// Cantidades devueltas, para aplicarlas al catálogo en memoria tras el commit
+		List<int[]> devueltos = new ArrayList<>();
+		Map<Integer, double[]> resumenPorProducto = new TreeMap<>();
 
 		try {
 			con = Conexion.getConexion();
 			con.setAutoCommit(false); // Transacción segura
 
-			// Paso 1: Recuperar productos
+			// Paso 1: Bloquear la cabecera y leer sus importes
+			java.sql.Timestamp fechaVenta;
+			int empleadoId;
+			String metodoPago;
+			double subtotal, descuento, impuestos, total;
+			Integer corteId;
+			try (PreparedStatement psCab = con.prepareStatement(sqlCabecera)) {
+				psCab.setInt(1, ventaId);
+				try (ResultSet rs = psCab.executeQuery()) {
+					if (!rs.next()) {
+						con.rollback(); // No existe o ya fue devuelta
+						return false;
+					}
+					fechaVenta = rs.getTimestamp("FechaVenta");
+					empleadoId = rs.getInt("EmpleadoID");
+					metodoPago = rs.getString("MetodoPago");
+					subtotal = rs.getDouble("Subtotal");
+					descuento = rs.getDouble("Descuento");
+					impuestos = rs.getDouble("Impuestos");
+					total = rs.getDouble("Total");
+					corteId = rs.getObject("CorteID", Integer.class);
+				}
+			}
+
+			// Paso 2: Recuperar productos
 			try (PreparedStatement psDet = con.prepareStatement(sqlDetalles)) {
 				psDet.setInt(1, ventaId);
 				try (ResultSet rs = psDet.executeQuery()) {
@@ -313,24 +659,49 @@ public class VentaDAO {
 							int prodId = rs.getInt("ProductoID");
 							int cant = rs.getInt("Cantidad");
 
-							// Paso 2: Devolver al stock uno por uno
+							// Paso 3: Devolver al stock (en lote, un solo viaje al servidor)
 							psRestock.setInt(1, cant); // Sumar cantidad
 							psRestock.setInt(2, prodId); // Al producto ID
-							psRestock.executeUpdate();
+							psRestock.addBatch();
+							devueltos.add(new int[] { prodId, cant });
+
+							double[] acumulado = resumenPorProducto.computeIfAbsent(prodId, k -> new double[2]);
+							acumulado[0] += cant;
+							acumulado[1] += rs.getDouble("Subtotal");
 						}
+						psRestock.executeBatch();
 					}
 				}
 			}
 
-			// Paso 3: Marcar venta como devuelta/cancelada
+			// Paso 4: Restar la venta de los resúmenes diarios
+			ResumenVentasDAO.acumular(con, fechaVenta, empleadoId, metodoPago, -1, subtotal, descuento, impuestos,
+					total, resumenPorProducto);
+
+			// Paso 5: Marcar venta como devuelta/cancelada
 			try (PreparedStatement psAnular = con.prepareStatement(sqlAnular)) {
 				psAnular.setInt(1, ventaId);
 				psAnular.executeUpdate();
 			}
 
+			// Paso 6: Restar la venta de los saldos de su turno
+			if (corteId != null) {
+				SaldoCorteDAO.acumularVenta(con, corteId, metodoPago, -1, total);
+			}
+
 			con.commit(); // Confirmar cambios
 			exito = true;
 
+			CatalogoProductos catalogo = CatalogoProductos.getInstancia();
+			Map<Integer, Integer> entradas = new TreeMap<>();
+			for (int[] devuelto : devueltos) {
+				catalogo.ajustarStock(devuelto[0], devuelto[1]);
+				entradas.merge(devuelto[0], devuelto[1], Integer::sum);
+			}
+			BusEventos bus = BusEventos.getInstancia();
+			bus.publicar(new DevolucionRealizada(ventaId, (corteId == null) ? 0 : corteId, metodoPago, total));
+			bus.publicar(new StockCambiado(StockCambiado.Motivo.DEVOLUCION, entradas));
+
 		} catch (SQLException e) {
 			System.err.println("Error en devolución: " + e.getMessage());
 			try {
@@ -0,0 +1,97 @@
+package persistencia;
+
+import java.io.IOException;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import modelo.Venta;
+
+/**
+ * Fachada asíncrona sobre {@link VentaDAO}.
+ * <p>
+ * Cada método delega en el DAO síncrono dentro de {@link EjecutorBD}; el
+ * resultado se entrega en el EDT.
+ * </p>
+ *
+ * @version 1.2
+ */
+public class VentaDAOAsincrono {
+
+	private final VentaDAO dao;
+
+	/**
+	 * @param dao DAO síncrono a envolver.
+	 */
+	public VentaDAOAsincrono(VentaDAO dao) {
+		this.dao = dao;
+	}
+
+	public CompletableFuture<Boolean> agregar(Venta venta) {
+		return EjecutorBD.ejecutar(() -> dao.agregar(venta));
+	}
+
+	/**
+	 * Registra la venta en el {@link DiarioVentas} local y espera brevemente a
+	 * que el servidor la confirme.
+	 * <p>
+	 * Si el servidor responde dentro de {@code esperaFolioMs}, la venta queda con
+	 * su folio; si no, se da por cobrada con folio pendiente y el diario la
+	 * enviará en cuanto se pueda. Si el diario no se puede escribir (ej. disco
+	 * lleno), se guarda directamente con {@link VentaDAO#agregar(Venta)}.
+	 * </p>
+	 *
+	 * @param diario        Diario de la caja (ya iniciado).
+	 * @param venta         Venta completa.
+	 * @param esperaFolioMs Tiempo máximo a esperar la confirmación del servidor.
+	 * @return Futuro (en el EDT) con {@code false} sólo si la venta no quedó
+	 *         guardada en ningún lado o el servidor la rechazó.
+	 */
+	public CompletableFuture<Boolean> agregarConDiario(DiarioVentas diario, Venta venta, long esperaFolioMs) {
+		return EjecutorBD.ejecutar(() -> {
+			CompletableFuture<Integer> confirmacion;
+			try {
+				confirmacion = diario.registrar(venta);
+			} catch (IOException e) {
+				System.err.println("❌ No se pudo escribir el diario de ventas, se guarda directo en la BD: "
+						+ e.getMessage());
+				// Sin clave, VentaDAO la trata como venta directa y ajusta el catálogo
+				venta.setClaveIdempotencia(null);
+				return dao.agregar(venta);
+			}
+			try {
+				venta.setid(confirmacion.get(esperaFolioMs, TimeUnit.MILLISECONDS));
+			} catch (TimeoutException e) {
+				// Sigue en el diario: se cobra con folio pendiente
+			} catch (ExecutionException e) {
+				return false; // Rechazada por el servidor (queda en ventas.rechazadas)
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+			return true;
+		});
+	}
+
+	public CompletableFuture<List<Venta>> obtenerTodasLasVentas() {
+		return EjecutorBD.ejecutar(dao::obtenerTodasLasVentas);
+	}
+
+	public CompletableFuture<Venta> buscarVentaPorID(int id) {
+		return EjecutorBD.ejecutar(() -> dao.buscarVentaPorID(id));
+	}
+
+	public CompletableFuture<List<Venta>> obtenerVentasPorFecha(Date fechaInicio, Date fechaFin) {
+		return EjecutorBD.ejecutar(() -> dao.obtenerVentasPorFecha(fechaInicio, fechaFin));
+	}
+
+	public CompletableFuture<List<Venta>> obtenerTotalesPorMetodoPago(int corteID) {
+		return EjecutorBD.ejecutar(() -> dao.obtenerTotalesPorMetodoPago(corteID));
+	}
+
+	public CompletableFuture<Boolean> realizarDevolucion(int ventaId) {
+		return EjecutorBD.ejecutar(() -> dao.realizarDevolucion(ventaId));
+	}
+}
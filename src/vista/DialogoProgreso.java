@@ -0,0 +1,84 @@
+package vista;
+
+import java.awt.BorderLayout;
+import java.awt.Component;
+import java.awt.FlowLayout;
+import java.awt.Window;
+import java.awt.event.ActionListener;
+
+import javax.swing.BorderFactory;
+import javax.swing.JButton;
+import javax.swing.JDialog;
+import javax.swing.JLabel;
+import javax.swing.JPanel;
+import javax.swing.JProgressBar;
+import javax.swing.SwingUtilities;
+
+/**
+ * Ventana pequeña (no modal) que acompaña una tarea larga en segundo plano,
+ * como el llenado de un reporte.
+ * <p>
+ * Muestra un mensaje con el avance y un botón "Cancelar". No bloquea la
+ * ventana principal: el usuario puede seguir trabajando mientras la tarea
+ * termina.
+ * </p>
+ *
+ * @version 1.0
+ */
+public class DialogoProgreso extends JDialog {
+
+	private static final long serialVersionUID = 1L;
+
+	private final JLabel lblAvance;
+	private final JButton btnCancelar;
+
+	/**
+	 * @param origen Componente desde el que se lanzó la tarea (para centrar la
+	 *               ventana sobre él).
+	 * @param titulo Título de la ventana (ej. "Generando reporte").
+	 */
+	public DialogoProgreso(Component origen, String titulo) {
+		super(SwingUtilities.getWindowAncestor(origen), titulo, ModalityType.MODELESS);
+		setDefaultCloseOperation(DO_NOTHING_ON_CLOSE); // Sólo se cierra al terminar o cancelar
+
+		JProgressBar barra = new JProgressBar();
+		barra.setIndeterminate(true);
+		lblAvance = new JLabel("Preparando...");
+		btnCancelar = new JButton("Cancelar");
+
+		JPanel panel = new JPanel(new BorderLayout(5, 5));
+		panel.setBorder(BorderFactory.createEmptyBorder(10, 10, 10, 10));
+		panel.add(lblAvance, BorderLayout.NORTH);
+		panel.add(barra, BorderLayout.CENTER);
+		JPanel panelBoton = new JPanel(new FlowLayout(FlowLayout.RIGHT));
+		panelBoton.add(btnCancelar);
+		panel.add(panelBoton, BorderLayout.SOUTH);
+
+		setContentPane(panel);
+		setSize(320, 130);
+		setLocationRelativeTo((origen instanceof Window) ? origen : SwingUtilities.getWindowAncestor(origen));
+	}
+
+	/**
+	 * Actualiza el mensaje de avance.
+	 *
+	 * @param mensaje Texto a mostrar (ej. "Página 12").
+	 */
+	public void setAvance(String mensaje) {
+		lblAvance.setText(mensaje);
+	}
+
+	/**
+	 * Asigna la acción del botón "Cancelar".
+	 *
+	 * @param listener Acción a ejecutar; el diálogo cambia su mensaje a
+	 *                 "Cancelando..." y deshabilita el botón.
+	 */
+	public void addCancelarListener(ActionListener listener) {
+		btnCancelar.addActionListener(e -> {
+			btnCancelar.setEnabled(false);
+			lblAvance.setText("Cancelando...");
+			listener.actionPerformed(e);
+		});
+	}
+}
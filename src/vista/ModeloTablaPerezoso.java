@@ -0,0 +1,215 @@
+package vista;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+import javax.swing.table.AbstractTableModel;
+
+import modelogenerico.Criterio;
+import modelogenerico.Entidad;
+import modelogenerico.Pagina;
+import persistencia.EjecutorBD;
+
+/**
+ * Modelo de tabla virtualizado para las vistas CRUD.
+ * <p>
+ * Sustituye al {@code DefaultTableModel} (respaldado por {@code Vector}) de
+ * {@link VistaGenerica}:
+ * <ul>
+ * <li><b>Carga por páginas:</b> sólo se piden al DAO las filas que el usuario
+ * alcanza a ver. Al acercarse el desplazamiento al final de lo cargado, la
+ * siguiente página se solicita en segundo plano con el cursor de la anterior
+ * ({@link Criterio#siguiente(Pagina)}).</li>
+ * <li><b>Materialización perezosa:</b> las entidades se guardan tal cual y
+ * {@link Entidad#toTableRow()} se invoca sólo la primera vez que la tabla pinta
+ * esa fila.</li>
+ * <li><b>Eventos en bloque:</b> cada página agregada dispara un único
+ * {@code fireTableRowsInserted}, y un reemplazo completo un único
+ * {@code fireTableDataChanged}, en lugar de un evento por fila.</li>
+ * </ul>
+ * </p>
+ *
+ * @version 1.1
+ */
+public class ModeloTablaPerezoso extends AbstractTableModel {
+
+	private static final long serialVersionUID = 1L;
+
+	/**
+	 * Cuántas filas antes del final de lo cargado se dispara la petición de la
+	 * página siguiente.
+	 */
+	private static final int UMBRAL_PRECARGA = 50;
+
+	private final String[] columnas;
+
+	/** Entidades cargadas hasta ahora (en orden). */
+	private final transient List<Entidad> entidades = new ArrayList<>();
+
+	/** Filas ya convertidas a celdas; {@code null} hasta que se pintan. */
+	private final transient List<Object[]> filas = new ArrayList<>();
+
+	/** Origen de páginas adicionales ({@code null} si la lista es fija). */
+	private transient Function<Criterio, ? extends Pagina<? extends Entidad>> fuente;
+
+	/** Criterio de la próxima página a pedir ({@code null} si no hay más). */
+	private transient Criterio siguiente;
+
+	private boolean cargando = false;
+
+	/**
+	 * Se incrementa en cada reemplazo completo para descartar páginas que llegan
+	 * tarde de una consulta anterior.
+	 */
+	private int generacion = 0;
+
+	/**
+	 * @param columnas Encabezados de la tabla.
+	 */
+	public ModeloTablaPerezoso(String[] columnas) {
+		this.columnas = columnas.clone();
+	}
+
+	// ==========================================
+	// CARGA DE DATOS
+	// ==========================================
+
+	/**
+	 * Reemplaza el contenido por una lista completa (sin páginas adicionales).
+	 *
+	 * @param lista Entidades a mostrar.
+	 */
+	public void setEntidades(List<? extends Entidad> lista) {
+		reemplazar(lista, null, null);
+	}
+
+	/**
+	 * Reemplaza el contenido por la primera página de una consulta paginada; las
+	 * siguientes se pedirán a {@code fuente} conforme el usuario se desplace.
+	 *
+	 * @param primera  Primera página ya obtenida.
+	 * @param fuente   Función que obtiene una página (normalmente
+	 *                 {@code dao::buscarPagina}); se invoca fuera del EDT.
+	 * @param criterio Criterio con el que se obtuvo la primera página.
+	 */
+	public void setPaginado(Pagina<? extends Entidad> primera,
+			Function<Criterio, ? extends Pagina<? extends Entidad>> fuente, Criterio criterio) {
+		reemplazar(primera.getElementos(), fuente, primera.isHayMas() ? criterio.siguiente(primera) : null);
+	}
+
+	/**
+	 * Vacía la tabla.
+	 */
+	public void limpiar() {
+		reemplazar(new ArrayList<>(), null, null);
+	}
+
+	private void reemplazar(List<? extends Entidad> lista,
+			Function<Criterio, ? extends Pagina<? extends Entidad>> fuente, Criterio siguiente) {
+		generacion++;
+		cargando = false;
+		entidades.clear();
+		filas.clear();
+		agregarAlFinal(lista);
+		this.fuente = fuente;
+		this.siguiente = siguiente;
+		fireTableDataChanged();
+	}
+
+	private void agregarAlFinal(List<? extends Entidad> lista) {
+		entidades.addAll(lista);
+		for (int i = 0; i < lista.size(); i++) {
+			filas.add(null);
+		}
+	}
+
+	/**
+	 * Pide la página siguiente en segundo plano (si existe y no hay otra en
+	 * camino).
+	 */
+	private void cargarSiguiente() {
+		if (cargando || siguiente == null || fuente == null) {
+			return;
+		}
+		cargando = true;
+		int generacionPedida = generacion;
+		Criterio criterio = siguiente;
+		Function<Criterio, ? extends Pagina<? extends Entidad>> origen = fuente;
+
+		EjecutorBD.ejecutar(() -> origen.apply(criterio)).whenComplete((pagina, error) -> {
+			if (generacionPedida != generacion) {
+				return; // La tabla se reemplazó mientras tanto
+			}
+			cargando = false;
+			if (error != null || pagina == null) {
+				siguiente = null; // Se deja de paginar; el error ya quedó en consola
+				return;
+			}
+			int primera = entidades.size();
+			agregarAlFinal(pagina.getElementos());
+			siguiente = pagina.isHayMas() ? criterio.siguiente(pagina) : null;
+			if (!pagina.getElementos().isEmpty()) {
+				fireTableRowsInserted(primera, entidades.size() - 1);
+			}
+		});
+	}
+
+	// ==========================================
+	// CONSULTA
+	// ==========================================
+
+	/**
+	 * @return {@code true} si aún quedan páginas por cargar.
+	 */
+	public boolean isHayMas() {
+		return siguiente != null;
+	}
+
+	/**
+	 * Obtiene la entidad de una fila.
+	 *
+	 * @param fila Índice de la fila en el modelo.
+	 * @return Entidad original.
+	 */
+	public Entidad getEntidad(int fila) {
+		return entidades.get(fila);
+	}
+
+	// ==========================================
+	// CONTRATO DE AbstractTableModel
+	// ==========================================
+
+	@Override
+	public int getRowCount() {
+		return entidades.size();
+	}
+
+	@Override
+	public int getColumnCount() {
+		return columnas.length;
+	}
+
+	@Override
+	public String getColumnName(int columna) {
+		return columnas[columna];
+	}
+
+	@Override
+	public boolean isCellEditable(int fila, int columna) {
+		return false; // Tabla no editable directamente
+	}
+
+	@Override
+	public Object getValueAt(int fila, int columna) {
+		if (fila >= entidades.size() - UMBRAL_PRECARGA) {
+			cargarSiguiente();
+		}
+		Object[] celdas = filas.get(fila);
+		if (celdas == null) {
+			celdas = entidades.get(fila).toTableRow();
+			filas.set(fila, celdas);
+		}
+		return (columna < celdas.length) ? celdas[columna] : null;
+	}
+}
@@ -0,0 +1,193 @@
+package vista;
+
+import javax.swing.*;
+import javax.swing.border.TitledBorder;
+import javax.swing.table.TableModel;
+import java.awt.*;
+import java.awt.event.ActionListener;
+import java.util.Calendar;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * Panel de análisis de ventas: preguntas libres sobre cualquier periodo
+ * (ventas por hora, por categoría, por empleado, por método de pago...).
+ * <p>
+ * El usuario elige el rango de fechas, la dimensión por la que se agrupa y,
+ * opcionalmente, un método de pago y un rango de horas. Las respuestas salen
+ * del motor analítico en memoria, por lo que cambiar de pregunta no vuelve a
+ * consultar la base de datos.
+ * </p>
+ *
+ * @version 1.0
+ */
+public class PanelAnalitica extends JPanel {
+
+	private static final long serialVersionUID = 1L;
+
+	/** Texto del filtro de método de pago que no filtra. */
+	public static final String TODOS = "Todos";
+
+	private JSpinner spinnerDesde;
+	private JSpinner spinnerHasta;
+
+	/** Dimensión por la que se agrupan los renglones del resultado. */
+	private JComboBox<String> comboAgrupar;
+
+	/** Filtro opcional por método de pago. */
+	private JComboBox<String> comboMetodoPago;
+
+	private JSpinner spinnerHoraDesde;
+	private JSpinner spinnerHoraHasta;
+
+	private JButton btnConsultar;
+
+	/** Botón para traer las ventas registradas desde la última carga. */
+	private JButton btnActualizarDatos;
+
+	private JTable tablaResultados;
+
+	/** Estado del motor y tiempo de la última consulta. */
+	private JLabel lblEstado;
+
+	/**
+	 * Constructor.
+	 * <p>
+	 * <ul>
+	 * <li><b>Norte:</b> periodo, agrupación, filtros y botones.</li>
+	 * <li><b>Centro:</b> tabla de resultados.</li>
+	 * <li><b>Sur:</b> estado de los datos en memoria y tiempo de respuesta.</li>
+	 * </ul>
+	 * Por defecto el periodo son los últimos 30 días.
+	 * </p>
+	 */
+	public PanelAnalitica() {
+		setLayout(new BorderLayout(10, 10));
+		setBorder(new TitledBorder("Análisis de Ventas"));
+
+		JPanel panelFiltros = new JPanel(new FlowLayout(FlowLayout.LEFT));
+
+		Calendar cal = Calendar.getInstance();
+		Date hoy = cal.getTime();
+		cal.add(Calendar.DAY_OF_MONTH, -29);
+		spinnerDesde = new JSpinner(new SpinnerDateModel(cal.getTime(), null, null, Calendar.DAY_OF_MONTH));
+		spinnerDesde.setEditor(new JSpinner.DateEditor(spinnerDesde, "dd/MM/yyyy"));
+		spinnerHasta = new JSpinner(new SpinnerDateModel(hoy, null, null, Calendar.DAY_OF_MONTH));
+		spinnerHasta.setEditor(new JSpinner.DateEditor(spinnerHasta, "dd/MM/yyyy"));
+
+		comboAgrupar = new JComboBox<>();
+		comboMetodoPago = new JComboBox<>(new String[] { TODOS });
+		spinnerHoraDesde = new JSpinner(new SpinnerNumberModel(0, 0, 23, 1));
+		spinnerHoraHasta = new JSpinner(new SpinnerNumberModel(23, 0, 23, 1));
+
+		btnConsultar = new JButton("Consultar");
+		btnActualizarDatos = new JButton("Actualizar Datos");
+
+		panelFiltros.add(new JLabel("Desde:"));
+		panelFiltros.add(spinnerDesde);
+		panelFiltros.add(new JLabel("Hasta:"));
+		panelFiltros.add(spinnerHasta);
+		panelFiltros.add(new JLabel(" | Agrupar por:"));
+		panelFiltros.add(comboAgrupar);
+		panelFiltros.add(new JLabel(" | Pago:"));
+		panelFiltros.add(comboMetodoPago);
+		panelFiltros.add(new JLabel(" | Horas:"));
+		panelFiltros.add(spinnerHoraDesde);
+		panelFiltros.add(new JLabel("a"));
+		panelFiltros.add(spinnerHoraHasta);
+		panelFiltros.add(btnConsultar);
+		panelFiltros.add(btnActualizarDatos);
+		add(panelFiltros, BorderLayout.NORTH);
+
+		tablaResultados = new JTable();
+		tablaResultados.setAutoCreateRowSorter(true);
+		add(new JScrollPane(tablaResultados), BorderLayout.CENTER);
+
+		JPanel panelSur = new JPanel(new FlowLayout(FlowLayout.LEFT));
+		lblEstado = new JLabel("Cargando ventas...");
+		panelSur.add(lblEstado);
+		add(panelSur, BorderLayout.SOUTH);
+	}
+
+	/**
+	 * Muestra el resultado de una consulta.
+	 *
+	 * @param modelo Modelo con un renglón por grupo.
+	 */
+	public void mostrarResultados(TableModel modelo) {
+		tablaResultados.setModel(modelo);
+	}
+
+	/**
+	 * @param texto Mensaje para la barra inferior.
+	 */
+	public void setEstado(String texto) {
+		lblEstado.setText(texto);
+	}
+
+	/**
+	 * Habilita o deshabilita los botones mientras hay una consulta en curso.
+	 *
+	 * @param ocupado {@code true} mientras se calcula.
+	 */
+	public void setOcupado(boolean ocupado) {
+		btnConsultar.setEnabled(!ocupado);
+		btnActualizarDatos.setEnabled(!ocupado);
+	}
+
+	// --- Opciones que llena el controlador ---
+
+	public void setOpcionesAgrupar(String[] opciones) {
+		comboAgrupar.setModel(new DefaultComboBoxModel<>(opciones));
+	}
+
+	/**
+	 * @param metodos Métodos de pago conocidos; se agrega "Todos" al inicio.
+	 */
+	public void setMetodosPago(List<String> metodos) {
+		Object seleccionado = comboMetodoPago.getSelectedItem();
+		DefaultComboBoxModel<String> modelo = new DefaultComboBoxModel<>();
+		modelo.addElement(TODOS);
+		for (String m : metodos) {
+			modelo.addElement(m);
+		}
+		comboMetodoPago.setModel(modelo);
+		comboMetodoPago.setSelectedItem(seleccionado);
+	}
+
+	// --- Getters de los filtros ---
+
+	public Date getDesde() {
+		return (Date) spinnerDesde.getValue();
+	}
+
+	public Date getHasta() {
+		return (Date) spinnerHasta.getValue();
+	}
+
+	public int getAgruparSeleccionado() {
+		return comboAgrupar.getSelectedIndex();
+	}
+
+	public String getMetodoPagoSeleccionado() {
+		return (String) comboMetodoPago.getSelectedItem();
+	}
+
+	public int getHoraDesde() {
+		return (Integer) spinnerHoraDesde.getValue();
+	}
+
+	public int getHoraHasta() {
+		return (Integer) spinnerHoraHasta.getValue();
+	}
+
+	// --- Listeners para delegar acciones al Controlador ---
+
+	public void addConsultarListener(ActionListener listener) {
+		btnConsultar.addActionListener(listener);
+	}
+
+	public void addActualizarDatosListener(ActionListener listener) {
+		btnActualizarDatos.addActionListener(listener);
+	}
+}
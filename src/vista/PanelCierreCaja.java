@@ -1,6 +1,7 @@
 package vista;
 
 import java.awt.BorderLayout;
+import java.awt.Cursor;
 import java.awt.Font;
 import java.awt.GridBagConstraints;
 import java.awt.GridBagLayout;
@@ -24,7 +25,7 @@ import javax.swing.border.TitledBorder;
  * faltante).
  * </p>
  * 
- * @version 1.1
+ * @version 1.3
  */
 public class PanelCierreCaja extends JPanel {
 
@@ -50,9 +51,15 @@ public class PanelCierreCaja extends JPanel {
 	 */
 	private JLabel LblVentasTarjeta;
 
+	/** Etiqueta para mostrar los ingresos manuales de efectivo del turno. */
+	private JLabel LblIngresos;
+
+	/** Etiqueta para mostrar los egresos (retiros, pagos) del turno. */
+	private JLabel LblEgresos;
+
 	/**
 	 * Etiqueta que muestra la suma teórica que debería haber en caja (Inicial +
-	 * Ventas Efectivo).
+	 * Ventas Efectivo + Ingresos - Egresos).
 	 */
 	private JLabel LblTotalSistema;
 
@@ -61,6 +68,9 @@ public class PanelCierreCaja extends JPanel {
 	 */
 	private JLabel LblDiferencia;
 
+	/** Etiqueta con la hora de la última actualización de los saldos. */
+	private JLabel LblEstadoSaldos;
+
 	// --- Componentes de Interacción ---
 
 	/** Campo de texto donde el usuario ingresa el dinero físico contado. */
@@ -142,19 +152,37 @@ public class PanelCierreCaja extends JPanel {
 		LblVentasEfectivo.setFont(fontValor);
 		panelFormulario.add(LblVentasEfectivo, crearGBC(1, 3));
 
-		// --- Fila 4: Total Esperado (Sistema) ---
+		// Fila 4: Ingresos manuales
+		JLabel LblIngresosTitulo = new JLabel("Ingresos de Caja:");
+		LblIngresosTitulo.setFont(fontTitulo);
+		panelFormulario.add(LblIngresosTitulo, crearGBC(0, 4));
+
+		LblIngresos = new JLabel("$0.00");
+		LblIngresos.setFont(fontValor);
+		panelFormulario.add(LblIngresos, crearGBC(1, 4));
+
+		// Fila 5: Egresos manuales
+		JLabel LblEgresosTitulo = new JLabel("Egresos de Caja:");
+		LblEgresosTitulo.setFont(fontTitulo);
+		panelFormulario.add(LblEgresosTitulo, crearGBC(0, 5));
+
+		LblEgresos = new JLabel("$0.00");
+		LblEgresos.setFont(fontValor);
+		panelFormulario.add(LblEgresos, crearGBC(1, 5));
+
+		// --- Fila 6: Total Esperado (Sistema) ---
 		JLabel LblTotalSistemaTitulo = new JLabel("Total Esperado en Caja:");
 		LblTotalSistemaTitulo.setFont(fontTotal);
-		panelFormulario.add(LblTotalSistemaTitulo, crearGBC(0, 4));
+		panelFormulario.add(LblTotalSistemaTitulo, crearGBC(0, 6));
 
 		LblTotalSistema = new JLabel("$0.00");
 		LblTotalSistema.setFont(fontTotal);
-		panelFormulario.add(LblTotalSistema, crearGBC(1, 4));
+		panelFormulario.add(LblTotalSistema, crearGBC(1, 6));
 
-		// --- Fila 5: Entrada de Monto Físico (Interacción Usuario) ---
+		// --- Fila 7: Entrada de Monto Físico (Interacción Usuario) ---
 		JLabel LblMontoContadoTitulo = new JLabel("Monto Físico Contado:");
 		LblMontoContadoTitulo.setFont(fontTotal);
-		panelFormulario.add(LblMontoContadoTitulo, crearGBC(0, 5));
+		panelFormulario.add(LblMontoContadoTitulo, crearGBC(0, 7));
 
 		TxtMontoContado = new JTextField(10);
 		TxtMontoContado.setFont(fontTotal);
@@ -163,34 +191,40 @@ public class PanelCierreCaja extends JPanel {
 		gbc_TxtMontoContado.anchor = GridBagConstraints.WEST;
 		gbc_TxtMontoContado.fill = GridBagConstraints.HORIZONTAL;
 		gbc_TxtMontoContado.gridx = 1;
-		gbc_TxtMontoContado.gridy = 5;
+		gbc_TxtMontoContado.gridy = 7;
 		panelFormulario.add(TxtMontoContado, gbc_TxtMontoContado);
 
-		// --- Fila 6: Diferencia Calculada ---
+		// --- Fila 8: Diferencia Calculada ---
 		JLabel LblDiferenciaTitulo = new JLabel("Diferencia (Faltante/Sobrante):");
 		LblDiferenciaTitulo.setFont(fontTotal);
-		panelFormulario.add(LblDiferenciaTitulo, crearGBC(0, 6));
+		panelFormulario.add(LblDiferenciaTitulo, crearGBC(0, 8));
 
 		LblDiferencia = new JLabel("$0.00");
 		LblDiferencia.setFont(fontTotal);
-		panelFormulario.add(LblDiferencia, crearGBC(1, 6));
+		panelFormulario.add(LblDiferencia, crearGBC(1, 8));
 
-		// Fila 7: Info Tarjeta
+		// Fila 9: Info Tarjeta
 		JLabel LblVentasTarjetaTitulo = new JLabel("(Ventas con Tarjeta (Info):");
 		LblVentasTarjetaTitulo.setFont(fontTitulo);
-		panelFormulario.add(LblVentasTarjetaTitulo, crearGBC(0, 7));
+		panelFormulario.add(LblVentasTarjetaTitulo, crearGBC(0, 9));
 
 		LblVentasTarjeta = new JLabel("$0.00");
 		LblVentasTarjeta.setFont(fontValor);
-		panelFormulario.add(LblVentasTarjeta, crearGBC(1, 7));
+		panelFormulario.add(LblVentasTarjeta, crearGBC(1, 9));
 
-		// --- Fila 8: Botón de Acción ---
+		// Fila 10: Estado de los saldos (se actualizan solos mientras el panel está abierto)
+		LblEstadoSaldos = new JLabel("Cargando saldos...");
+		GridBagConstraints gbc_LblEstadoSaldos = crearGBC(0, 10);
+		gbc_LblEstadoSaldos.gridwidth = 2;
+		panelFormulario.add(LblEstadoSaldos, gbc_LblEstadoSaldos);
+
+		// --- Fila 11: Botón de Acción ---
 		BtnCerrarCaja = new JButton("Confirmar y Cerrar Caja");
 		BtnCerrarCaja.setFont(fontTotal);
 		GridBagConstraints gbc_BtnCerrarCaja = new GridBagConstraints();
 		gbc_BtnCerrarCaja.insets = new Insets(10, 10, 10, 10);
 		gbc_BtnCerrarCaja.gridx = 0;
-		gbc_BtnCerrarCaja.gridy = 8;
+		gbc_BtnCerrarCaja.gridy = 11;
 		gbc_BtnCerrarCaja.gridwidth = 2;
 		gbc_BtnCerrarCaja.anchor = GridBagConstraints.CENTER;
 		panelFormulario.add(BtnCerrarCaja, gbc_BtnCerrarCaja);
@@ -217,12 +251,22 @@ public class PanelCierreCaja extends JPanel {
 		LblMontoInicial.setText(String.format("$%.2f", montoInicial));
 	}
 
-	public void setTotalesSistema(double ventasEfectivo, double ventasTarjeta, double totalEsperado) {
+	public void setTotalesSistema(double ventasEfectivo, double ventasTarjeta, double ingresos, double egresos,
+			double totalEsperado) {
 		LblVentasEfectivo.setText(String.format("$%.2f", ventasEfectivo));
 		LblVentasTarjeta.setText(String.format("$%.2f", ventasTarjeta));
+		LblIngresos.setText(String.format("$%.2f", ingresos));
+		LblEgresos.setText(String.format("$%.2f", egresos));
 		LblTotalSistema.setText(String.format("$%.2f", totalEsperado));
 	}
 
+	/**
+	 * @param texto Hora de la última actualización de los saldos (o el error).
+	 */
+	public void setEstadoSaldos(String texto) {
+		LblEstadoSaldos.setText(texto);
+	}
+
 	/**
 	 * Actualiza la etiqueta de diferencia con formato visual.
 	 * 
@@ -242,6 +286,22 @@ public class PanelCierreCaja extends JPanel {
 		return Double.parseDouble(TxtMontoContado.getText());
 	}
 
+	/**
+	 * Indica que el cierre se está guardando en segundo plano.
+	 * <p>
+	 * Muestra el cursor de espera y deshabilita el botón y el monto contado para
+	 * evitar un doble cierre, sin bloquear el repintado de la ventana.
+	 * </p>
+	 *
+	 * @param ocupado {@code true} al iniciar la operación, {@code false} al
+	 *                terminar.
+	 */
+	public void setOcupado(boolean ocupado) {
+		setCursor(ocupado ? Cursor.getPredefinedCursor(Cursor.WAIT_CURSOR) : Cursor.getDefaultCursor());
+		BtnCerrarCaja.setEnabled(!ocupado);
+		TxtMontoContado.setEnabled(!ocupado);
+	}
+
 	public void addCerrarCajaListener(ActionListener listener) {
 		BtnCerrarCaja.addActionListener(listener);
 	}
@@ -1,6 +1,7 @@
 package vista;
 
 import java.awt.BorderLayout;
+import java.awt.Cursor;
 import java.awt.Dimension;
 import java.awt.FlowLayout;
 import java.awt.GridBagConstraints;
@@ -45,7 +46,7 @@ import modelo.Proveedor;
  * </ul>
  * </p>
  * 
- * @version 1.1
+ * @version 1.2
  */
 public class PanelCrearPedido extends JPanel {
 
@@ -527,6 +528,25 @@ public class PanelCrearPedido extends JPanel {
 		return TcostoProducto;
 	}
 
+	/**
+	 * Indica que hay una consulta o un guardado en segundo plano.
+	 * <p>
+	 * Muestra el cursor de espera y deshabilita los botones que cambian el pedido
+	 * para evitar dobles envíos, sin bloquear el repintado de la ventana.
+	 * </p>
+	 *
+	 * @param ocupado {@code true} al iniciar la operación, {@code false} al
+	 *                terminar.
+	 */
+	public void setOcupado(boolean ocupado) {
+		setCursor(ocupado ? Cursor.getPredefinedCursor(Cursor.WAIT_CURSOR) : Cursor.getDefaultCursor());
+		BbuscarProducto.setEnabled(!ocupado);
+		BagregarAlPedido.setEnabled(!ocupado);
+		BquitarDelPedido.setEnabled(!ocupado);
+		BfinalizarPedido.setEnabled(!ocupado);
+		BcancelarPedido.setEnabled(!ocupado);
+	}
+
 	// --- Listeners para el Controlador ---
 
 	public void addBuscarProductoListener(ActionListener listener) {
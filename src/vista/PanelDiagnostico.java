@@ -0,0 +1,203 @@
+package vista;
+
+import javax.swing.*;
+import javax.swing.border.TitledBorder;
+import javax.swing.event.ListSelectionListener;
+import javax.swing.table.TableModel;
+import java.awt.*;
+import java.awt.event.ActionListener;
+
+/**
+ * Panel de diagnóstico (sólo administradores): qué sentencias SQL consumen el
+ * tiempo de la base de datos en esta caja y qué tan fluida va la interfaz.
+ * <p>
+ * Muestra las sentencias con más tiempo acumulado desde el arranque (o desde
+ * el último reinicio de estadísticas), con sus llamadas, filas, latencias y
+ * errores. Las sentencias lentas, con sus parámetros, quedan además en la
+ * bitácora de SQL lento.
+ * </p>
+ * <p>
+ * La pestaña de acciones muestra cuántas consultas, conexiones y filas cuesta
+ * cada acción del usuario, para detectar pantallas que hacen una consulta por
+ * renglón (N+1). La de interfaz muestra qué tan rápido responde el hilo de
+ * eventos en cada pantalla y los congelamientos recientes.
+ * </p>
+ * <p>
+ * "Guardar Grabación JFR" vuelca a un archivo la grabación continua de Java
+ * Flight Recorder de los últimos minutos, para analizarla fuera de la caja.
+ * </p>
+ *
+ * @version 1.3
+ */
+public class PanelDiagnostico extends JPanel {
+
+	private static final long serialVersionUID = 1L;
+
+	private JButton btnActualizar;
+
+	/** Borra las estadísticas para medir a partir de ahora. */
+	private JButton btnReiniciar;
+
+	/** Guarda a disco la grabación continua de JFR. */
+	private JButton btnVolcarJfr;
+
+	private JTable tablaSentencias;
+
+	/** Costo en BD de cada acción de usuario (clics medidos). */
+	private JTable tablaAcciones;
+
+	/** Respuesta de la interfaz por pantalla. */
+	private JTable tablaRespuesta;
+
+	/** Congelamientos recientes de la interfaz. */
+	private JTable tablaBloqueos;
+
+	/** Pila del EDT del bloqueo seleccionado. */
+	private JTextArea txtPila;
+
+	/** Umbral de sentencia lenta y estado del pool de conexiones. */
+	private JLabel lblEstado;
+
+	/**
+	 * Constructor.
+	 * <p>
+	 * <ul>
+	 * <li><b>Norte:</b> botones.</li>
+	 * <li><b>Centro:</b> pestañas con la tabla de sentencias, la de acciones y
+	 * la de respuesta de la interfaz (con los bloqueos recientes y su
+	 * pila).</li>
+	 * <li><b>Sur:</b> umbral de SQL lento y estado del pool.</li>
+	 * </ul>
+	 * </p>
+	 */
+	public PanelDiagnostico() {
+		setLayout(new BorderLayout(10, 10));
+		setBorder(new TitledBorder("Diagnóstico"));
+
+		JPanel panelBotones = new JPanel(new FlowLayout(FlowLayout.LEFT));
+		btnActualizar = new JButton("Actualizar");
+		btnReiniciar = new JButton("Reiniciar Estadísticas");
+		panelBotones.add(btnActualizar);
+		btnVolcarJfr = new JButton("Guardar Grabación JFR");
+		panelBotones.add(btnReiniciar);
+		panelBotones.add(btnVolcarJfr);
+		add(panelBotones, BorderLayout.NORTH);
+
+		tablaSentencias = new JTable();
+		tablaSentencias.setAutoCreateRowSorter(true);
+		tablaSentencias.setAutoResizeMode(JTable.AUTO_RESIZE_LAST_COLUMN);
+		tablaAcciones = new JTable();
+		tablaAcciones.setAutoCreateRowSorter(true);
+		JTabbedPane pestanas = new JTabbedPane();
+		pestanas.addTab("Sentencias SQL", new JScrollPane(tablaSentencias));
+		pestanas.addTab("Acciones", new JScrollPane(tablaAcciones));
+
+		tablaRespuesta = new JTable();
+		tablaRespuesta.setAutoCreateRowSorter(true);
+		tablaBloqueos = new JTable();
+		tablaBloqueos.setSelectionMode(ListSelectionModel.SINGLE_SELECTION);
+		txtPila = new JTextArea();
+		txtPila.setEditable(false);
+		txtPila.setFont(new Font(Font.MONOSPACED, Font.PLAIN, 12));
+		JSplitPane bloqueos = new JSplitPane(JSplitPane.VERTICAL_SPLIT, new JScrollPane(tablaBloqueos),
+				new JScrollPane(txtPila));
+		bloqueos.setResizeWeight(0.4);
+		JSplitPane interfaz = new JSplitPane(JSplitPane.VERTICAL_SPLIT, new JScrollPane(tablaRespuesta), bloqueos);
+		interfaz.setResizeWeight(0.3);
+		pestanas.addTab("Interfaz", interfaz);
+		add(pestanas, BorderLayout.CENTER);
+
+		JPanel panelSur = new JPanel(new FlowLayout(FlowLayout.LEFT));
+		lblEstado = new JLabel(" ");
+		panelSur.add(lblEstado);
+		add(panelSur, BorderLayout.SOUTH);
+	}
+
+	/**
+	 * Muestra las sentencias.
+	 * <p>
+	 * La última columna (el texto SQL) ocupa el espacio sobrante.
+	 * </p>
+	 *
+	 * @param modelo Modelo con un renglón por sentencia.
+	 */
+	public void mostrarSentencias(TableModel modelo) {
+		tablaSentencias.setModel(modelo);
+		int ultima = tablaSentencias.getColumnCount() - 1;
+		for (int i = 0; i < ultima; i++) {
+			tablaSentencias.getColumnModel().getColumn(i).setPreferredWidth(80);
+		}
+		if (ultima >= 0) {
+			tablaSentencias.getColumnModel().getColumn(ultima).setPreferredWidth(700);
+		}
+	}
+
+	/**
+	 * Muestra el costo por acción de usuario.
+	 *
+	 * @param modelo Modelo con un renglón por acción.
+	 */
+	public void mostrarAcciones(TableModel modelo) {
+		tablaAcciones.setModel(modelo);
+	}
+
+	/**
+	 * @param modelo Modelo con un renglón por pantalla.
+	 */
+	public void mostrarRespuesta(TableModel modelo) {
+		tablaRespuesta.setModel(modelo);
+	}
+
+	/**
+	 * @param modelo Modelo con un renglón por bloqueo (del más reciente al más
+	 *               viejo).
+	 */
+	public void mostrarBloqueos(TableModel modelo) {
+		tablaBloqueos.setModel(modelo);
+		txtPila.setText("");
+	}
+
+	/**
+	 * @return Renglón del bloqueo seleccionado, o {@code -1}.
+	 */
+	public int getBloqueoSeleccionado() {
+		return tablaBloqueos.getSelectedRow();
+	}
+
+	/**
+	 * @param pila Pila del EDT a mostrar.
+	 */
+	public void setPila(String pila) {
+		txtPila.setText(pila);
+		txtPila.setCaretPosition(0);
+	}
+
+	/**
+	 * @param texto Mensaje para la barra inferior.
+	 */
+	public void setEstado(String texto) {
+		lblEstado.setText(texto);
+	}
+
+	// --- Listeners para delegar acciones al Controlador ---
+
+	public void addActualizarListener(ActionListener listener) {
+		btnActualizar.addActionListener(listener);
+	}
+
+	public void addReiniciarListener(ActionListener listener) {
+		btnReiniciar.addActionListener(listener);
+	}
+
+	public void addVolcarJfrListener(ActionListener listener) {
+		btnVolcarJfr.addActionListener(listener);
+	}
+
+	public void setVolcarJfrHabilitado(boolean habilitado) {
+		btnVolcarJfr.setEnabled(habilitado);
+	}
+
+	public void addSeleccionBloqueoListener(ListSelectionListener listener) {
+		tablaBloqueos.getSelectionModel().addListSelectionListener(listener);
+	}
+}
@@ -10,6 +10,7 @@ import javax.swing.table.DefaultTableModel;
 import modelo.Venta;
 
 import java.awt.BorderLayout;
+import java.awt.Cursor;
 import java.awt.FlowLayout;
 import java.awt.event.ActionListener;
 import java.text.SimpleDateFormat;
@@ -125,6 +126,23 @@ public class PanelHistorialVentas extends JPanel {
 		return (int) modeloTabla.getValueAt(filaSeleccionada, 0);
 	}
 
+
+	/**
+	 * Indica visualmente que hay una operación de base de datos en curso.
+	 * <p>
+	 * Muestra el cursor de espera y deshabilita los botones de acción para evitar
+	 * dobles envíos, sin bloquear el repintado de la ventana.
+	 * </p>
+	 * 
+	 * @param ocupado {@code true} al iniciar la operación, {@code false} al
+	 *                terminar.
+	 */
+	public void setOcupado(boolean ocupado) {
+		setCursor(ocupado ? Cursor.getPredefinedCursor(Cursor.WAIT_CURSOR) : Cursor.getDefaultCursor());
+		btnDevolucion.setEnabled(!ocupado);
+		btnReimprimir.setEnabled(!ocupado);
+	}
+
 	// --- Listeners para conectar con el Controlador ---
 
 	public void addReimprimirListener(ActionListener listener) {
@@ -24,7 +24,7 @@ import java.awt.event.ActionListener;
  * habilita cuando hay datos visibles en la tabla.
  * </p>
  * 
- * @version 1.1
+ * @version 1.2
  */
 public class PanelReporteInventario extends JPanel {
 
@@ -107,6 +107,23 @@ public class PanelReporteInventario extends JPanel {
 		btnVerImprimirInventarioJasper.setEnabled(tableModel.getRowCount() > 0);
 	}
 
+	/**
+	 * Indica visualmente que hay una operación de base de datos en curso.
+	 * <p>
+	 * Muestra el cursor de espera y deshabilita los botones de consulta para
+	 * evitar dobles envíos, sin bloquear el repintado de la ventana.
+	 * </p>
+	 * 
+	 * @param ocupado {@code true} al iniciar la operación, {@code false} al
+	 *                terminar.
+	 */
+	public void setOcupado(boolean ocupado) {
+		setCursor(ocupado ? Cursor.getPredefinedCursor(Cursor.WAIT_CURSOR) : Cursor.getDefaultCursor());
+		btnStockBajo.setEnabled(!ocupado);
+		btnMostrarInventarioCompleto.setEnabled(!ocupado);
+		btnMostrarHistorialEntradas.setEnabled(!ocupado);
+	}
+
 	// --- Métodos para delegar la gestión de eventos al Controlador ---
 
 	public void addStockBajoListener(ActionListener listener) {
@@ -22,7 +22,7 @@ import java.util.Calendar;
  * </ul>
  * </p>
  * 
- * @version 1.2
+ * @version 1.4
  */
 public class PanelReporteVentas extends JPanel {
 
@@ -43,6 +43,9 @@ public class PanelReporteVentas extends JPanel {
 	/** Botón para ejecutar la consulta mensual. */
 	private JButton btnGenerarVentasMesSeleccionado;
 
+	/** Botón para ver los totales de cada mes del año seleccionado. */
+	private JButton btnResumenAnio;
+
 	/** Botón para generar el PDF con JasperReports. */
 	private JButton btnVerImprimirJasper;
 
@@ -98,8 +101,11 @@ public class PanelReporteVentas extends JPanel {
 		btnGenerarVentasMesSeleccionado = new JButton("Mostrar Ventas del Mes");
 		panelBotones.add(btnGenerarVentasMesSeleccionado);
 
+		btnResumenAnio = new JButton("Resumen del Año");
+		panelBotones.add(btnResumenAnio);
+
 		// --- Botones de Exportación (Inician desactivados) ---
-		btnVerImprimirJasper = new JButton("Ver/Imprimir Reporte (Día/Mes)");
+		btnVerImprimirJasper = new JButton("Ver/Imprimir Reporte");
 		btnVerImprimirJasper.setEnabled(false);
 		panelBotones.add(btnVerImprimirJasper);
 
@@ -149,6 +155,23 @@ public class PanelReporteVentas extends JPanel {
 		lblTotalVentas.setText(String.format("Total de Ventas: $%.2f", total));
 	}
 
+	/**
+	 * Indica visualmente que hay una operación de base de datos en curso.
+	 * <p>
+	 * Muestra el cursor de espera y deshabilita los botones de consulta para
+	 * evitar dobles envíos, sin bloquear el repintado de la ventana.
+	 * </p>
+	 * 
+	 * @param ocupado {@code true} al iniciar la operación, {@code false} al
+	 *                terminar.
+	 */
+	public void setOcupado(boolean ocupado) {
+		setCursor(ocupado ? Cursor.getPredefinedCursor(Cursor.WAIT_CURSOR) : Cursor.getDefaultCursor());
+		btnVentasHoy.setEnabled(!ocupado);
+		btnGenerarVentasMesSeleccionado.setEnabled(!ocupado);
+		btnResumenAnio.setEnabled(!ocupado);
+	}
+
 	// --- Getters para obtener los filtros seleccionados ---
 
 	public int getMesSeleccionado() {
@@ -190,6 +213,10 @@ public class PanelReporteVentas extends JPanel {
 		btnGenerarVentasMesSeleccionado.addActionListener(listener);
 	}
 
+	public void addResumenAnioListener(ActionListener listener) {
+		btnResumenAnio.addActionListener(listener);
+	}
+
 	public void addVerImprimirJasperListener(ActionListener listener) {
 		btnVerImprimirJasper.addActionListener(listener);
 	}
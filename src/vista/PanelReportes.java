@@ -8,7 +8,7 @@ import java.awt.BorderLayout;
  * Contenedor gráfico principal para el módulo de Reportes y Estadísticas.
  * <p>
  * Esta clase actúa como un <b>Dashboard</b> que centraliza las diferentes
- * vistas de reportes (Ventas, Inventario, Tickets y Caja) utilizando un
+ * vistas de reportes (Ventas, Inventario, Tickets, Caja y Análisis) utilizando un
  * {@link JTabbedPane} para la navegación.
  * </p>
  * <p>
@@ -18,7 +18,7 @@ import java.awt.BorderLayout;
  * pueda conectar la lógica a cada pestaña.
  * </p>
  * 
- * @version 1.0
+ * @version 1.1
  */
 public class PanelReportes extends JPanel {
 
@@ -39,10 +39,13 @@ public class PanelReportes extends JPanel {
 	/** Sub-panel para auditoría de cortes de caja pasados. */
 	private PanelReporteCaja panelCaja;
 
+	/** Sub-panel de análisis libre de ventas (motor en memoria). */
+	private PanelAnalitica panelAnalitica;
+
 	/**
 	 * Constructor.
 	 * <p>
-	 * Inicializa el diseño (BorderLayout), crea las instancias de los 4 sub-paneles
+	 * Inicializa el diseño (BorderLayout), crea las instancias de los 5 sub-paneles
 	 * y los agrega como pestañas con títulos descriptivos y tooltips.
 	 * </p>
 	 */
@@ -66,6 +69,10 @@ public class PanelReportes extends JPanel {
 		panelCaja = new PanelReporteCaja();
 		tabbedPane.addTab("Historial de Caja", null, panelCaja, "Ver cortes de caja pasados");
 
+		// 5. Pestaña de Análisis (ventas por hora, categoría, empleado...)
+		panelAnalitica = new PanelAnalitica();
+		tabbedPane.addTab("Análisis de Ventas", null, panelAnalitica, "Ventas agrupadas por cualquier dimensión");
+
 		add(tabbedPane, BorderLayout.CENTER);
 	}
 
@@ -106,4 +113,13 @@ public class PanelReportes extends JPanel {
 	public PanelReporteCaja getPanelCaja() {
 		return panelCaja;
 	}
+
+	/**
+	 * Obtiene la referencia al sub-panel de análisis de ventas.
+	 * 
+	 * @return Instancia de PanelAnalitica.
+	 */
+	public PanelAnalitica getPanelAnalitica() {
+		return panelAnalitica;
+	}
 }
\ No newline at end of file
@@ -1,6 +1,7 @@
 package vista;
 
 import java.awt.BorderLayout;
+import java.awt.Cursor;
 import java.awt.Dimension;
 import java.awt.FlowLayout;
 import java.awt.GridBagConstraints;
@@ -580,6 +581,27 @@ public class PanelVenta extends JPanel {
 			comboEmpleado.setSelectedIndex(0);
 	}
 
+
+	/**
+	 * Indica visualmente que hay una operación de base de datos en curso.
+	 * <p>
+	 * Muestra el cursor de espera y deshabilita los botones de acción para evitar
+	 * dobles envíos, sin bloquear el repintado de la ventana.
+	 * </p>
+	 * 
+	 * @param ocupado {@code true} al iniciar la operación, {@code false} al
+	 *                terminar.
+	 */
+	public void setOcupado(boolean ocupado) {
+		setCursor(ocupado ? Cursor.getPredefinedCursor(Cursor.WAIT_CURSOR) : Cursor.getDefaultCursor());
+		BbuscarProducto.setEnabled(!ocupado);
+		BagregarAlCarrito.setEnabled(!ocupado);
+		BquitarDelCarrito.setEnabled(!ocupado);
+		BfinalizarVenta.setEnabled(!ocupado);
+		BcancelarVenta.setEnabled(!ocupado);
+		TdescuentoVenta.setEnabled(!ocupado);
+	}
+
 	/**
 	 * Actualiza las etiquetas financieras con los valores calculados.
 	 * 
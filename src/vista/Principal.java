@@ -10,8 +10,10 @@ import javax.swing.ButtonGroup;
 import javax.swing.JFrame;
 import javax.swing.JOptionPane;
 import javax.swing.JPanel;
+import javax.swing.JTabbedPane;
 import javax.swing.JToggleButton;
 import javax.swing.border.EtchedBorder;
+import javax.swing.event.ChangeListener;
 
 import persistencia.AlmacenProductosDAO;
 import persistencia.CategoriaDAO;
@@ -21,6 +23,7 @@ import persistencia.EmpleadoDAO;
 import persistencia.EntradaInventarioDAO;
 import persistencia.OrdenCompraDAO;
 import persistencia.ProveedorDAO;
+import persistencia.SaldoCorteDAO;
 import persistencia.VentaDAO;
 import persistencia.VentaDetalleDAO;
 import modelo.Clientes;
@@ -28,6 +31,9 @@ import modelo.CorteCaja;
 import modelo.Proveedor;
 import modelo.Empleado;
 import modelo.Categorias;
+import metricas.VigilanteEDT;
+import controlador.ControladorAnalitica;
+import controlador.ControladorDiagnostico;
 import controlador.ControladorAlmacen;
 import controlador.ControladorCierreCaja;
 import controlador.ControladorGestionPedidos;
@@ -55,7 +61,7 @@ import javax.swing.ImageIcon;
  * </ul>
  * </p>
  * 
- * @version 1.3
+ * @version 1.7
  */
 public class Principal extends JFrame {
 
@@ -84,7 +90,7 @@ public class Principal extends JFrame {
 	 * </p>
 	 * <p>
 	 * <b>Seguridad:</b> Verifica {@code usuarioActual.getRol()}. Si no es "ADMIN",
-	 * deshabilita los botones de "Empleados" y "Reportes".
+	 * deshabilita los botones de "Empleados", "Reportes" y "Diagnóstico".
 	 * </p>
 	 * 
 	 * @param usuarioLogueado Objeto empleado recibido desde el Login.
@@ -96,6 +102,7 @@ public class Principal extends JFrame {
 		setBounds(100, 100, 1200, 700);
 		setExtendedState(JFrame.MAXIMIZED_BOTH);
 		setTitle("POS-02 - Usuario: " + this.usuarioActual.getNombre());
+		VigilanteEDT.setPantalla("Principal");
 
 		JPanel contentPane = new JPanel(new BorderLayout(5, 5));
 		setContentPane(contentPane);
@@ -122,11 +129,13 @@ public class Principal extends JFrame {
 		JToggleButton botonReportes = agregarBotonMenu(panelBotones, "Reportes");
 		agregarBotonMenu(panelBotones, "Cierre de Caja");
 		agregarBotonMenu(panelBotones, "Movimientos de Caja");
+		JToggleButton botonDiagnostico = agregarBotonMenu(panelBotones, "Diagnóstico");
 
 		// Bloqueo de seguridad por Rol
 		if (!"ADMIN".equalsIgnoreCase(usuarioActual.getRol())) {
 			botonEmpleados.setEnabled(false);
 			botonReportes.setEnabled(false);
+			botonDiagnostico.setEnabled(false);
 		}
 	}
 
@@ -289,6 +298,7 @@ public class Principal extends JFrame {
 
 				new ControladorReportes(vistaReportes, ventaDAO, detalleDAO, productoDAO, entradaDAO,
 						this.usuarioActual);
+				new ControladorAnalitica(vistaReportes.getPanelAnalitica());
 				cargarPanel(vistaReportes);
 
 			} else if ("Cierre de Caja".equals(nombre)) {
@@ -303,8 +313,8 @@ public class Principal extends JFrame {
 					boton.setSelected(false);
 				} else {
 					PanelCierreCaja vistaCierre = new PanelCierreCaja();
-					VentaDAO ventaDAO = new VentaDAO();
-					new ControladorCierreCaja(vistaCierre, corteDAO, ventaDAO, this.usuarioActual, corteAbierto);
+					SaldoCorteDAO saldoDAO = new SaldoCorteDAO();
+					new ControladorCierreCaja(vistaCierre, corteDAO, saldoDAO, this.usuarioActual, corteAbierto);
 					cargarPanel(vistaCierre);
 				}
 
@@ -325,6 +335,12 @@ public class Principal extends JFrame {
 					new controlador.ControladorMovimientosCaja(movDAO, movVista, this.usuarioActual, corteAbierto);
 					cargarPanel(movVista);
 				}
+
+			} else if ("Diagnóstico".equals(nombre)) {
+				boton.setIcon(new ImageIcon(Principal.class.getResource("/Iconos/reportes.png")));
+				PanelDiagnostico diagnosticoVista = new PanelDiagnostico();
+				new ControladorDiagnostico(diagnosticoVista);
+				cargarPanel(diagnosticoVista);
 			}
 		});
 		return boton;
@@ -334,14 +350,41 @@ public class Principal extends JFrame {
 	 * Utilidad para intercambiar la vista mostrada en el panel central.
 	 * <p>
 	 * Limpia el contenido actual, agrega el nuevo panel y refresca la interfaz.
+	 * La respuesta del EDT se atribuye desde ahora a este panel
+	 * ({@link VigilanteEDT}).
 	 * </p>
 	 * 
 	 * @param panel El nuevo {@link JPanel} a visualizar.
 	 */
 	public void cargarPanel(JPanel panel) {
+		vigilarPantalla(panel);
 		panelContenido.removeAll();
 		panelContenido.add(panel, BorderLayout.CENTER);
 		panelContenido.revalidate();
 		panelContenido.repaint();
 	}
-}
\ No newline at end of file
+
+	/**
+	 * Indica al {@link VigilanteEDT} qué pantalla está visible. En los módulos
+	 * con pestañas (Almacén, Reportes) se usa la pestaña seleccionada, para
+	 * distinguir por ejemplo {@code PanelAlmacenProductos} de
+	 * {@code PanelGestionPedidos}.
+	 *
+	 * @param panel Panel recién cargado.
+	 */
+	private static void vigilarPantalla(JPanel panel) {
+		for (Component c : panel.getComponents()) {
+			if (c instanceof JTabbedPane) {
+				JTabbedPane pestanas = (JTabbedPane) c;
+				ChangeListener cambio = e -> {
+					Component visible = pestanas.getSelectedComponent();
+					VigilanteEDT.setPantalla((visible != null ? visible : panel).getClass().getSimpleName());
+				};
+				pestanas.addChangeListener(cambio);
+				cambio.stateChanged(null);
+				return;
+			}
+		}
+		VigilanteEDT.setPantalla(panel.getClass().getSimpleName());
+	}
+}
@@ -1,6 +1,7 @@
 package vista;
 
 import java.awt.BorderLayout;
+import java.awt.Cursor;
 import java.awt.FlowLayout;
 import java.awt.Font;
 import java.awt.GridBagConstraints;
@@ -8,6 +9,7 @@ import java.awt.GridBagLayout;
 import java.awt.Insets;
 import java.awt.event.ActionListener;
 import java.util.List;
+import java.util.function.Function;
 
 import javax.swing.BorderFactory;
 import javax.swing.ImageIcon;
@@ -19,9 +21,10 @@ import javax.swing.JScrollPane;
 import javax.swing.JTable;
 import javax.swing.JTextField;
 import javax.swing.border.EtchedBorder;
-import javax.swing.table.DefaultTableModel;
 
+import modelogenerico.Criterio;
 import modelogenerico.Entidad;
+import modelogenerico.Pagina;
 
 /**
  * Clase base abstracta para la creación de paneles de gestión CRUD (Create,
@@ -52,7 +55,7 @@ public abstract class VistaGenerica extends JPanel {
 	protected JTextField Tbuscar;
 
 	/** Modelo de datos para la tabla de resultados. */
-	protected DefaultTableModel modeloTabla;
+	protected ModeloTablaPerezoso modeloTabla;
 
 	/** Tabla principal para mostrar la lista de entidades. */
 	protected JTable table;
@@ -146,14 +149,8 @@ public abstract class VistaGenerica extends JPanel {
 		panel_Botones.add(Bborrar);
 
 		// Configuración de la Tabla
-		modeloTabla = new DefaultTableModel(columnasTabla, 0) {
-			private static final long serialVersionUID = 1L;
-
-			@Override
-			public boolean isCellEditable(int row, int column) {
-				return false; // Tabla no editable directamente
-			}
-		};
+		// Modelo virtualizado: carga páginas al desplazarse (no editable)
+		modeloTabla = new ModeloTablaPerezoso(columnasTabla);
 
 		table = new JTable(modeloTabla);
 		table.getTableHeader().setFont(new Font("Tahoma", Font.BOLD, 14));
@@ -228,18 +225,49 @@ public abstract class VistaGenerica extends JPanel {
 	/**
 	 * Actualiza la tabla con una lista de entidades.
 	 * <p>
-	 * Utiliza el método {@code toTableRow()} de la interfaz {@link Entidad} para
-	 * convertir cada objeto en una fila de datos.
+	 * Las filas se convierten con el método {@code toTableRow()} de la interfaz
+	 * {@link Entidad} sólo cuando la tabla las pinta, y el cambio se notifica con
+	 * un único evento.
 	 * </p>
 	 * 
 	 * @param <T>   Tipo de entidad.
 	 * @param lista Lista de objetos a mostrar.
 	 */
 	public <T extends Entidad> void mostrarEntidades(List<T> lista) {
-		modeloTabla.setRowCount(0); // Limpiar tabla
-		for (T item : lista) {
-			modeloTabla.addRow(item.toTableRow());
-		}
+		modeloTabla.setEntidades(lista);
+	}
+
+	/**
+	 * Muestra la primera página de una consulta paginada y deja que la tabla pida
+	 * las siguientes conforme el usuario se desplaza.
+	 * 
+	 * @param <T>      Tipo de entidad.
+	 * @param primera  Primera página ya obtenida.
+	 * @param fuente   Función que obtiene páginas adicionales (ej.
+	 *                 {@code dao::buscarPagina}).
+	 * @param criterio Criterio con el que se obtuvo la primera página.
+	 */
+	public <T extends Entidad> void mostrarPagina(Pagina<T> primera, Function<Criterio, Pagina<T>> fuente,
+			Criterio criterio) {
+		modeloTabla.setPaginado(primera, fuente, criterio);
+	}
+
+	/**
+	 * Indica visualmente que hay una operación de base de datos en curso.
+	 * <p>
+	 * Muestra el cursor de espera y deshabilita los botones de acción para evitar
+	 * dobles envíos, sin bloquear el repintado de la ventana.
+	 * </p>
+	 * 
+	 * @param ocupado {@code true} al iniciar la operación, {@code false} al
+	 *                terminar.
+	 */
+	public void setOcupado(boolean ocupado) {
+		setCursor(ocupado ? Cursor.getPredefinedCursor(Cursor.WAIT_CURSOR) : Cursor.getDefaultCursor());
+		Bbuscar.setEnabled(!ocupado);
+		Bguardar.setEnabled(!ocupado);
+		Bactualizar.setEnabled(!ocupado);
+		Bborrar.setEnabled(!ocupado);
 	}
 
 	// --- Getters, Setters y Listeners ---